@@ -0,0 +1,58 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.dto.ApiResponse;
+import com.asiattiger.booking.dto.FacilityDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the facility catalog response, with an ObjectMapper built the
+ * same way Spring MVC builds its default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "200"})
+    public int facilities;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<FacilityDTO>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructParametricType(ApiResponse.class, objectMapper.getTypeFactory()
+                        .constructCollectionType(List.class, FacilityDTO.class)));
+
+        List<FacilityDTO> catalog = BenchmarkData.facilityDTOs(facilities);
+        response = ApiResponse.successWithCount(catalog, "Facilities retrieved successfully", catalog.size());
+        response.setTimestamp(BenchmarkData.today());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,69 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.service.BookingStatsAggregator;
+import com.asiattiger.booking.service.FacilityScheduleIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Boots the application against a private in-memory H2 database seeded by {@link BenchmarkData}.
+ *
+ * The web server binds a random port (security needs the servlet context) and SQL/INFO
+ * logging is off so that logging does not dominate the measurements. These are passed as
+ * command-line arguments so they win over application.properties and any active profile,
+ * which keep their other settings (the prod profile's pool and Hibernate tuning, for example).
+ * The in-memory indexes are rebuilt after seeding, exactly as on startup.
+ */
+public final class BenchmarkContext implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final List<Long> facilityIds;
+
+    private BenchmarkContext(ConfigurableApplicationContext context, List<Long> facilityIds) {
+        this.context = context;
+        this.facilityIds = facilityIds;
+    }
+
+    public static BenchmarkContext start(String database, int facilities, int bookings, String... profiles) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AsianTigerBookingApplication.class)
+                .profiles(profiles)
+                .run(
+                        "--server.port=0",
+                        // Unknown settings are the Connector/J options some profiles hand to the driver
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.asiattiger.booking=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN");
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Long> facilityIds = BenchmarkData.seedFacilities(jdbcTemplate, facilities);
+        BenchmarkData.seedBookings(jdbcTemplate, facilityIds, bookings);
+        context.getBean(FacilityScheduleIndex.class).rebuild();
+        context.getBean(BookingStatsAggregator.class).rebuild();
+        return new BenchmarkContext(context, facilityIds);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public List<Long> getFacilityIds() {
+        return facilityIds;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
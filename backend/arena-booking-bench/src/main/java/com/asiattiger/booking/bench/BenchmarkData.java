@@ -0,0 +1,157 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.dto.FacilityDTO;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible data for the benchmarks.
+ *
+ * Everything is derived from a fixed seed and from today's date, so two runs on the same
+ * day see identical rows and runs on different days only differ by a shift in time.
+ * Seeded bookings all end before today; the future is left free for the write paths.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 20240101L;
+
+    public static final String[] STATUSES = {"pending", "confirmed", "cancelled", "completed"};
+
+    private static final String[] TYPES = {"futsal", "badminton"};
+
+    // Seeds go through JDBC, so statuses are written as their stored codes
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    private BenchmarkData() {
+    }
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    public static LocalDateTime today() {
+        return LocalDate.now().atStartOfDay();
+    }
+
+    /**
+     * A facility as it would come back from the repository (IDs and timestamps set).
+     */
+    public static Facility facility(long id, Random random) {
+        Facility facility = new Facility();
+        facility.setId(id);
+        facility.setName("Bench Court " + id);
+        facility.setType(TYPES[(int) (id % TYPES.length)]);
+        facility.setCapacity(2 + random.nextInt(20));
+        facility.setHourlyRate(BigDecimal.valueOf(1_500 + random.nextInt(3_500), 2));
+        facility.setDescription("Indoor court " + id + " with sprung floor and LED lighting");
+        facility.setLocation("Hall " + (char) ('A' + id % 4));
+        facility.setAmenities("Changing rooms, lockers, water station");
+        facility.setEquipment(List.of("Nets", "Balls"));
+        facility.setCreatedBy("bench");
+        facility.setCreatedAt(today().minusDays(365));
+        facility.setUpdatedAt(today().minusDays(random.nextInt(365)));
+        return facility;
+    }
+
+    public static List<Facility> facilities(int count) {
+        Random random = random();
+        List<Facility> facilities = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            facilities.add(facility(i, random));
+        }
+        return facilities;
+    }
+
+    public static List<FacilityDTO> facilityDTOs(int count) {
+        Random random = random();
+        List<FacilityDTO> facilities = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Facility facility = facility(id, random);
+            facilities.add(FacilityDTO.builder()
+                    .id(facility.getId())
+                    .name(facility.getName())
+                    .type(facility.getType())
+                    .description(facility.getDescription())
+                    .hourlyRate(facility.getHourlyRate())
+                    .capacity(facility.getCapacity())
+                    .location(facility.getLocation())
+                    .isActive(true)
+                    .amenities(facility.getAmenities())
+                    .openingTime(facility.getOpeningTime())
+                    .closingTime(facility.getClosingTime())
+                    .isUnderMaintenance(false)
+                    .createdBy(facility.getCreatedBy())
+                    .createdAt(facility.getCreatedAt())
+                    .updatedAt(facility.getUpdatedAt())
+                    .displayName(facility.getDisplayName())
+                    .statusDisplay(facility.getStatusDisplay())
+                    .availableForBooking(true)
+                    .activeBookingsCount(0)
+                    .build());
+        }
+        return facilities;
+    }
+
+    /**
+     * Inserts {@code count} facilities and returns their IDs in insertion order.
+     */
+    public static List<Long> seedFacilities(JdbcTemplate jdbcTemplate, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (Facility facility : facilities(count)) {
+            rows.add(new Object[]{
+                    facility.getName(), facility.getType(), facility.getCapacity(), facility.getHourlyRate(),
+                    facility.getDescription(), facility.getLocation(), Timestamp.valueOf(facility.getCreatedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO facilities (name, type, capacity, hourly_rate, is_active, " +
+                "description, location, opening_time, closing_time, is_under_maintenance, created_at) " +
+                "VALUES (?, ?, ?, ?, TRUE, ?, ?, '06:00', '23:00', FALSE, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM facilities ORDER BY id", Long.class);
+    }
+
+    /**
+     * Inserts {@code count} one- or two-hour bookings spread over the given facilities,
+     * packed back to back per facility and ending before today.
+     */
+    public static void seedBookings(JdbcTemplate jdbcTemplate, List<Long> facilityIds, int count) {
+        Random random = random();
+        LocalDateTime[] nextEnd = new LocalDateTime[facilityIds.size()];
+        Arrays.fill(nextEnd, today().minusHours(1));
+
+        List<Object[]> rows = new ArrayList<>(Math.min(count, 10_000));
+        for (int i = 0; i < count; i++) {
+            int facility = i % facilityIds.size();
+            LocalDateTime endTime = nextEnd[facility];
+            LocalDateTime startTime = endTime.minusHours(1 + random.nextInt(2));
+            nextEnd[facility] = startTime.minusHours(random.nextInt(3));
+
+            rows.add(new Object[]{
+                    "user-" + random.nextInt(5_000), facilityIds.get(facility),
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(endTime),
+                    STATUS_CODES.convertToDatabaseColumn(STATUSES[random.nextInt(STATUSES.length)]),
+                    BigDecimal.valueOf(3_000 + random.nextInt(3_000), 2), Timestamp.valueOf(startTime.minusDays(3))
+            });
+            if (rows.size() == 10_000) {
+                insertBookings(jdbcTemplate, rows);
+                rows.clear();
+            }
+        }
+        insertBookings(jdbcTemplate, rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static void insertBookings(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, " +
+                "total_cost, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
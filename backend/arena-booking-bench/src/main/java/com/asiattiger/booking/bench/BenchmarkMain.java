@@ -0,0 +1,42 @@
+package com.asiattiger.booking.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of target/benchmarks.jar.
+ *
+ * Accepts the usual JMH command line, but writes JSON results by default so runs can be
+ * compared release over release (e.g. with jmh.morethan.net or a diff of the score fields):
+ *
+ *   java -jar target/benchmarks.jar                          # all benchmarks, jmh-result-1.0.0.json
+ *   java -jar target/benchmarks.jar Conflict -p bookings=1000 -rff conflicts.json
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result("jmh-result-" + applicationVersion() + ".json");
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String applicationVersion() {
+        String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+        return version != null ? version : "dev";
+    }
+}
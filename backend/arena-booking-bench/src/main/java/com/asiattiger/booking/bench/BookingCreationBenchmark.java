@@ -0,0 +1,76 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingService.createBooking against H2 with N existing bookings.
+ *
+ * Each invocation runs the full create path (facility load, lock, conflict check, insert
+ * and flush) inside a transaction that is then rolled back, so the table and the schedule
+ * index stay identical between invocations and the same free slot can be booked again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingCreationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int bookings;
+
+    private BenchmarkContext context;
+    private BookingService bookingService;
+    private TransactionTemplate transactionTemplate;
+    private BookingDTO request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("create" + bookings, 10, bookings);
+        bookingService = context.getBean(BookingService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        LocalDateTime startTime = BenchmarkData.today().plusDays(7).plusHours(18);
+        request = BookingDTO.builder()
+                .userId("bench-user")
+                .userName("Bench User")
+                .facilityId(context.getFacilityIds().get(0))
+                .startTime(startTime)
+                .endTime(startTime.plusHours(2))
+                .purpose("Weekly league match")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingDTO createBooking() {
+        return transactionTemplate.execute(status -> {
+            BookingDTO created = bookingService.createBooking(request);
+            status.setRollbackOnly();
+            return created;
+        });
+    }
+}
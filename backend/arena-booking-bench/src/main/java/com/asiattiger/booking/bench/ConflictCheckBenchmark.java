@@ -0,0 +1,92 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.FacilityScheduleIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap check for one facility: the findConflictingBookings query against the
+ * in-memory FacilityScheduleIndex, for a free slot and for one overlapping an active booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflictCheckBenchmark {
+
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    @Param({"1000", "100000"})
+    public int bookings;
+
+    private BenchmarkContext context;
+    private BookingRepository bookingRepository;
+    private FacilityScheduleIndex scheduleIndex;
+    private Facility facility;
+    private LocalDateTime freeStart;
+    private LocalDateTime busyStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("conflict" + bookings, 10, bookings);
+        bookingRepository = context.getBean(BookingRepository.class);
+        scheduleIndex = context.getBean(FacilityScheduleIndex.class);
+        facility = context.getBean(FacilityRepository.class).findById(context.getFacilityIds().get(0)).orElseThrow();
+
+        freeStart = BenchmarkData.today().plusDays(7).plusHours(18);
+        // Most recent active booking in the seeded history, so both checks report a conflict
+        LocalDateTime latestActiveStart = context.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT MAX(start_time) FROM bookings WHERE facility_id = ? AND status IN (?, ?)",
+                LocalDateTime.class, facility.getId(),
+                STATUS_CODES.convertToDatabaseColumn("pending"), STATUS_CODES.convertToDatabaseColumn("confirmed"));
+        busyStart = latestActiveStart.minusMinutes(30);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Booking> databaseFreeSlot() {
+        return bookingRepository.findConflictingBookings(facility, freeStart, freeStart.plusHours(2));
+    }
+
+    @Benchmark
+    public List<Booking> databaseBusySlot() {
+        return bookingRepository.findConflictingBookings(facility, busyStart, busyStart.plusHours(2));
+    }
+
+    @Benchmark
+    public boolean indexFreeSlot() {
+        return scheduleIndex.hasConflict(facility.getId(), freeStart, freeStart.plusHours(2));
+    }
+
+    @Benchmark
+    public boolean indexBusySlot() {
+        return scheduleIndex.hasConflict(facility.getId(), busyStart, busyStart.plusHours(2));
+    }
+}
@@ -0,0 +1,53 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.dto.DashboardStatsDTO;
+import com.asiattiger.booking.service.DashboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DashboardService.getDashboardStatistics against H2 with N bookings over 20 facilities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Param({"1000", "100000"})
+    public int bookings;
+
+    private BenchmarkContext context;
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("dashboard" + bookings, 20, bookings);
+        dashboardService = context.getBean(DashboardService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DashboardStatsDTO getDashboardStatistics() {
+        return dashboardService.getDashboardStatistics();
+    }
+}
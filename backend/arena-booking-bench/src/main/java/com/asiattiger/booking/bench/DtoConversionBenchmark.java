@@ -0,0 +1,81 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.dto.FacilityDTO;
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingListView;
+import com.asiattiger.booking.service.BookingMapper;
+import com.asiattiger.booking.service.FacilityMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/projection to DTO conversion through the mappers, without Spring or a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoConversionBenchmark {
+
+    private Facility facility;
+    private Booking booking;
+    private BookingListView listView;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        facility = BenchmarkData.facility(1, random);
+
+        LocalDateTime startTime = BenchmarkData.today().plusDays(3).plusHours(18);
+        booking = new Booking();
+        booking.setId(42L);
+        booking.setUserId("user-42");
+        booking.setUserName("Bench User");
+        booking.setFacility(facility);
+        booking.setStartTime(startTime);
+        booking.setEndTime(startTime.plusMinutes(90));
+        booking.setStatus("confirmed");
+        booking.setPurpose("Weekly league match");
+        booking.setTotalCost(new BigDecimal("45.00"));
+        booking.setCreatedAt(startTime.minusDays(2));
+        booking.setUpdatedAt(startTime.minusDays(1));
+
+        listView = new BookingListView(booking.getId(), booking.getUserId(), facility.getId(), facility.getName(),
+                facility.getType(), booking.getStartTime(), booking.getEndTime(), booking.getStatus(),
+                booking.getPurpose(), booking.getTotalCost(), booking.getUserName(),
+                booking.getCreatedAt(), booking.getUpdatedAt(), booking.getVersion());
+    }
+
+    @Benchmark
+    public BookingDTO bookingEntity() {
+        return BookingMapper.toDTO(booking);
+    }
+
+    @Benchmark
+    public BookingDTO bookingListView() {
+        return BookingMapper.toDTO(listView);
+    }
+
+    @Benchmark
+    public FacilityDTO facilityEntity() {
+        return FacilityMapper.toDTO(facility);
+    }
+}
@@ -0,0 +1,105 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.dto.BookingBatchResultDTO;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the persistence-heavy paths with the default configuration and with the prod
+ * profile's pool and Hibernate tuning, both on the same H2 database.
+ *
+ * createBatch books 50 slots through BookingService.createBookings and rolls back;
+ * loadCatalog reads every facility and touches its lazily loaded equipment, which the prod
+ * profile's default_batch_fetch_size turns from one query per facility into a few batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceProfileBenchmark {
+
+    private static final int FACILITIES = 100;
+    private static final int BATCH = 50;
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private BenchmarkContext context;
+    private BookingService bookingService;
+    private FacilityRepository facilityRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<BookingDTO> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "prod".equals(profile)
+                ? BenchmarkContext.start("profile" + profile, FACILITIES, 10_000, "prod")
+                : BenchmarkContext.start("profile" + profile, FACILITIES, 10_000);
+        bookingService = context.getBean(BookingService.class);
+        facilityRepository = context.getBean(FacilityRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        List<Object[]> equipment = new ArrayList<>();
+        for (Long facilityId : context.getFacilityIds()) {
+            equipment.add(new Object[]{facilityId, "Nets"});
+            equipment.add(new Object[]{facilityId, "Balls"});
+        }
+        context.getBean(JdbcTemplate.class)
+                .batchUpdate("INSERT INTO facility_equipment (facility_id, equipment_item) VALUES (?, ?)", equipment);
+
+        LocalDateTime firstSlot = BenchmarkData.today().plusDays(10).plusHours(6);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(BookingDTO.builder()
+                    .userId("bench-user")
+                    .facilityId(context.getFacilityIds().get(i % 10))
+                    .startTime(firstSlot.plusHours(i / 10))
+                    .endTime(firstSlot.plusHours(i / 10 + 1))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingBatchResultDTO createBatch() {
+        return transactionTemplate.execute(status -> {
+            BookingBatchResultDTO result = bookingService.createBookings(batch, true);
+            status.setRollbackOnly();
+            return result;
+        });
+    }
+
+    @Benchmark
+    public int loadCatalog() {
+        return transactionTemplate.execute(status -> facilityRepository.findAll().stream()
+                .mapToInt(facility -> facility.getEquipment().size())
+                .sum());
+    }
+}
@@ -0,0 +1,89 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.ratelimit.LocalRateLimitStore;
+import com.asiattiger.booking.ratelimit.RateLimitRule;
+import com.asiattiger.booking.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the rate limit filter adds to a request with the in-memory store: the default rules,
+ * checked for one busy user, for users spread over 10,000 buckets, for a user whose bucket is
+ * empty, and for a route no rule matches. The threaded variant has four threads on one bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private RateLimiter limiter;
+    private String[] users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalRateLimitStore store = new LocalRateLimitStore(100_000);
+        // One token per nanosecond, so the allowed cases never run dry during a trial
+        limiter = new RateLimiter(List.of(
+                RateLimitRule.of("booking-writes", Set.of("POST", "PUT", "PATCH", "DELETE"),
+                        List.of("/api/bookings", "/api/bookings/**"), 60_000_000_000L, 10, Duration.ofMinutes(1)),
+                RateLimitRule.of("facility-lists", Set.of("GET"),
+                        List.of("/api/facilities", "/api/facilities/type/*", "/api/facilities/availability"),
+                        120, 120, Duration.ofMinutes(1))),
+                store, new SimpleMeterRegistry());
+        users = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = "user-" + i;
+        }
+        // Empties the bucket of the limited case
+        while (limiter.check("GET", "/api/facilities", "limited-user", "10.0.0.1") == 0) {
+        }
+    }
+
+    @Benchmark
+    public long allowedHotUser() {
+        return limiter.check("POST", "/api/bookings/batch", "user-1", "10.0.0.1");
+    }
+
+    @Benchmark
+    public long allowedManyUsers() {
+        return limiter.check("POST", "/api/bookings/batch", users[ThreadLocalRandom.current().nextInt(USERS)], "10.0.0.1");
+    }
+
+    @Benchmark
+    public long limitedUser() {
+        return limiter.check("GET", "/api/facilities", "limited-user", "10.0.0.1");
+    }
+
+    @Benchmark
+    public long unmatchedRoute() {
+        return limiter.check("GET", "/api/bookings/42", "user-1", "10.0.0.1");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long allowedHotUserContended() {
+        return limiter.check("POST", "/api/bookings/batch", "user-1", "10.0.0.1");
+    }
+}
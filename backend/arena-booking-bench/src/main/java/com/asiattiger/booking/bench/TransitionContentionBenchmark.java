@@ -0,0 +1,160 @@
+package com.asiattiger.booking.bench;
+
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.service.BookingService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Confirmation throughput when several requests race for the same booking.
+ *
+ * Consecutive attempts target the same pending booking, {@code contenders} at a time, so with
+ * as many threads they mostly collide. "conditional" is the repository's conditional UPDATE on
+ * its own; "readModifyWrite" is the previous shape, load, check and save, where the version
+ * column now turns lost races into optimistic lock failures; "service" is
+ * BookingService.confirmBooking as shipped, which adds the response read, in-memory view updates
+ * and metrics to the conditional UPDATE. All report winners and rejections per second next to
+ * the attempt rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class TransitionContentionBenchmark {
+
+    private static final int BOOKINGS = 20_000;
+    private static final String USER = "contention-bench";
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    @Param({"conditional", "readModifyWrite", "service"})
+    public String strategy;
+
+    @Param({"4"})
+    public int contenders;
+
+    private BenchmarkContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private long[] bookingIds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long won;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            won = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("contention" + strategy, 10, 10_000);
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Future pending bookings; the table has no overlap constraint, only the service checks that
+        LocalDateTime start = BenchmarkData.today().plusDays(5).plusHours(8);
+        List<Object[]> rows = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            rows.add(new Object[]{USER, context.getFacilityIds().get(i % 10), Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(1)), STATUS_CODES.convertToDatabaseColumn("pending"),
+                    new BigDecimal("40.00"), Timestamp.valueOf(start.minusDays(1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, " +
+                "total_cost, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        bookingIds = jdbcTemplate.queryForList("SELECT id FROM bookings WHERE user_id = ? ORDER BY id", Long.class, USER)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Setup(Level.Iteration)
+    public void reopenBookings() {
+        jdbcTemplate.update("UPDATE bookings SET status = ?, version = 0 WHERE user_id = ?",
+                STATUS_CODES.convertToDatabaseColumn("pending"), USER);
+        cursor.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean confirm(Outcomes outcomes) {
+        long id = bookingIds[(cursor.getAndIncrement() / contenders) % bookingIds.length];
+        boolean won;
+        try {
+            won = switch (strategy) {
+                case "conditional" -> confirmConditionally(id);
+                case "readModifyWrite" -> confirmReadModifyWrite(id);
+                default -> confirmThroughService(id);
+            };
+        } catch (RuntimeException e) {
+            won = false;
+        }
+        if (won) {
+            outcomes.won++;
+        } else {
+            outcomes.rejected++;
+        }
+        return won;
+    }
+
+    private boolean confirmConditionally(long id) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                bookingRepository.transitionStatus(id, "pending", "confirmed", LocalDateTime.now()) > 0));
+    }
+
+    private boolean confirmThroughService(long id) {
+        bookingService.confirmBooking(id);
+        return true;
+    }
+
+    private boolean confirmReadModifyWrite(long id) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Booking booking = bookingRepository.findById(id).orElseThrow();
+            if (!"pending".equals(booking.getStatus())) {
+                return false;
+            }
+            booking.setStatus("confirmed");
+            bookingRepository.saveAndFlush(booking);
+            return true;
+        }));
+    }
+}
@@ -0,0 +1,71 @@
+package com.asiattiger.booking.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One key=value line per sampled API request on the {@code booking.access} logger, replacing
+ * the per-request INFO lines in controllers and services.
+ *
+ * A request is logged with probability {@code booking.access-log.sample-rate}; server errors and
+ * requests slower than {@code booking.access-log.slow-threshold} are always logged. Runs outside
+ * {@link QueryCountFilter} so the line carries the request's SQL statement count.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("booking.access");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(@Value("${booking.access-log.sample-rate:1.0}") double sampleRate,
+                           @Value("${booking.access-log.slow-threshold:PT1S}") Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!accessLog.isInfoEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsedNanos = System.nanoTime() - started;
+            int status = response.getStatus();
+            boolean always = status >= 500 || elapsedNanos >= slowThresholdNanos;
+            if (always || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Object statements = request.getAttribute(QueryCountFilter.STATEMENTS_ATTRIBUTE);
+                accessLog.info("method={} uri={} path={} status={} duration_ms={} statements={} sampled={}",
+                        request.getMethod(), pattern != null ? pattern : "UNKNOWN", request.getRequestURI(),
+                        status, elapsedNanos / 1_000_000, statements != null ? statements : 0, !always);
+            }
+        }
+    }
+}
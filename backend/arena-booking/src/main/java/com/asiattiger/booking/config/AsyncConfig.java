@@ -0,0 +1,11 @@
+package com.asiattiger.booking.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    // @Async methods run on Spring Boot's applicationTaskExecutor, which switches
+    // to virtual threads with spring.threads.virtual.enabled=true (Java 21+)
+}
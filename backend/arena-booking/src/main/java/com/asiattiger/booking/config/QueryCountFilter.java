@@ -0,0 +1,58 @@
+package com.asiattiger.booking.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each API request ran ({@code booking.http.db.statements},
+ * by method and URI pattern), so N+1 regressions show up per endpoint.
+ *
+ * Only statements on the request thread are counted; work handed to other threads
+ * (dashboard sections, streamed exports) is not.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the statement count once the request completes (read by {@link AccessLogFilter}). */
+    public static final String STATEMENTS_ATTRIBUTE = QueryCountFilter.class.getName() + ".statements";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCountInspector.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = QueryCountInspector.end();
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("booking.http.db.statements")
+                    .description("SQL statements executed per API request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.asiattiger.booking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary/replica data sources, enabled with {@code booking.datasource.replica.enabled=true}.
+ *
+ * The primary is configured exactly as without a replica ({@code spring.datasource.*}); the
+ * replica takes the same keys under {@code booking.datasource.replica} (including
+ * {@code .hikari.*}). The application's data source routes between them, see
+ * {@link ReadWriteRoutingDataSource}. Flyway runs against the primary only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    private static final String REPLICA_PREFIX = "booking.datasource.replica";
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, "spring.datasource.hikari", "booking-primary", environment);
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(Environment environment) {
+        DataSourceProperties properties = Binder.get(environment)
+                .bind(REPLICA_PREFIX, DataSourceProperties.class)
+                .orElseGet(DataSourceProperties::new);
+        if (properties.getUrl() == null || properties.getUrl().isBlank()) {
+            throw new IllegalStateException(REPLICA_PREFIX + ".url must be set when the replica is enabled");
+        }
+        return pool(properties, REPLICA_PREFIX + ".hikari", "booking-replica", environment);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${booking.datasource.replica.lag-query:}") String lagQuery,
+                                               @Value("${booking.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                               @Value("${booking.datasource.replica.check-interval:PT5S}") Duration checkInterval,
+                                               TaskScheduler taskScheduler) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, lagQuery, maxLag);
+        taskScheduler.scheduleWithFixedDelay(monitor::probe, checkInterval);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor,
+                                 @Value("${booking.datasource.replica.read-your-writes-window:PT2S}") Duration readYourWritesWindow) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, lagMonitor, readYourWritesWindow);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String hikariPrefix, String defaultPoolName,
+                                         Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(defaultPoolName);
+        Binder.get(environment).bind(hikariPrefix, Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+}
@@ -0,0 +1,74 @@
+package com.asiattiger.booking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * A read-only transaction still uses the primary when the replica is down or lagging (see
+ * {@link ReplicaLagMonitor}), when this thread committed a write within the read-your-writes
+ * window (stretched to the measured lag when that is longer), or inside
+ * {@link ReadYourWrites#fromPrimary}. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the JPA
+ * transaction manager borrows its connection before the read-only flag is visible here.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private static final Object WRITE_RECORDED = new Object();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long readYourWritesWindowMillis;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      Duration readYourWritesWindow) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesWindowMillis = readYourWritesWindow.toMillis();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            long window = Math.max(readYourWritesWindowMillis, lagMonitor.getLagMillis());
+            if (lagMonitor.isUsable() && !ReadYourWrites.isReadingFromPrimary()
+                    && !ReadYourWrites.isPinnedToPrimary(window)) {
+                return Route.REPLICA;
+            }
+            return Route.PRIMARY;
+        }
+        recordWriteOnCommit();
+        return Route.PRIMARY;
+    }
+
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_RECORDED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_RECORDED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReadYourWrites.recordWrite();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_RECORDED);
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.asiattiger.booking.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Tracks, per thread, when the caller last committed a write, so that reads issued shortly
+ * afterwards go to the primary instead of a replica that may not have caught up.
+ *
+ * Writes are recorded by {@link ReadWriteRoutingDataSource} when a read-write transaction
+ * commits. {@link ReadYourWritesFilter} carries the time across requests in a cookie and
+ * clears the thread at the end of each request. {@link #fromPrimary} sends reads whose results
+ * outlive the request, such as cache entries, to the primary regardless.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> LAST_WRITE_MILLIS = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void recordWrite() {
+        LAST_WRITE_MILLIS.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Restores a write made earlier by the same client (e.g. in a previous request).
+     */
+    static void restore(long lastWriteMillis) {
+        Long current = LAST_WRITE_MILLIS.get();
+        if (current == null || current < lastWriteMillis) {
+            LAST_WRITE_MILLIS.set(lastWriteMillis);
+        }
+    }
+
+    static Long lastWriteMillis() {
+        return LAST_WRITE_MILLIS.get();
+    }
+
+    /**
+     * Whether the last write on this thread is recent enough that a replica may not show it yet.
+     */
+    static boolean isPinnedToPrimary(long windowMillis) {
+        Long lastWrite = LAST_WRITE_MILLIS.get();
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+
+    /**
+     * Runs a read on the primary even inside a read-only transaction. Only reads that borrow
+     * their connection inside the call are affected.
+     */
+    public static <T> T fromPrimary(Supplier<T> read) {
+        if (Boolean.TRUE.equals(PRIMARY_READS.get())) {
+            return read.get();
+        }
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_READS.remove();
+        }
+    }
+
+    static boolean isReadingFromPrimary() {
+        return Boolean.TRUE.equals(PRIMARY_READS.get());
+    }
+
+    static void clear() {
+        LAST_WRITE_MILLIS.remove();
+    }
+}
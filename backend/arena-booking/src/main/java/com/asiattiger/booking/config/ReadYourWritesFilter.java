@@ -0,0 +1,126 @@
+package com.asiattiger.booking.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Carries read-your-writes across requests: a request that commits a write answers with a
+ * short-lived cookie holding the write time, and later requests presenting it read from the
+ * primary until the window has passed. The cookie lives as long as the larger of the window and
+ * {@code max-lag}, since routing stretches the window to the measured lag and never uses a replica
+ * lagging more than that. The thread's write marker is cleared after every request.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "booking-last-write";
+
+    private final Duration cookieLifetime;
+
+    public ReadYourWritesFilter(@Value("${booking.datasource.replica.read-your-writes-window:PT2S}") Duration window,
+                                @Value("${booking.datasource.replica.max-lag:PT5S}") Duration maxLag) {
+        this.cookieLifetime = (window.compareTo(maxLag) >= 0 ? window : maxLag).plusSeconds(1);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.clear();
+        Long previousWrite = lastWriteFrom(request);
+        if (previousWrite != null) {
+            ReadYourWrites.restore(previousWrite);
+        }
+        try {
+            // Writes commit inside the handler, before the status and body are written
+            chain.doFilter(request, new WriteAwareResponse(response, previousWrite));
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private Long lastWriteFrom(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the cookie once, when the status or body is written after a new write.
+     */
+    private final class WriteAwareResponse extends HttpServletResponseWrapper {
+
+        private final Long previousWrite;
+        private boolean cookieWritten;
+
+        WriteAwareResponse(HttpServletResponse response, Long previousWrite) {
+            super(response);
+            this.previousWrite = previousWrite;
+        }
+
+        private void addCookieIfWritten() {
+            Long lastWrite = ReadYourWrites.lastWriteMillis();
+            if (cookieWritten || lastWrite == null || Objects.equals(lastWrite, previousWrite) || isCommitted()) {
+                return;
+            }
+            cookieWritten = true;
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(lastWrite))
+                    .path("/api")
+                    .maxAge(cookieLifetime)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addCookieIfWritten();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addCookieIfWritten();
+            return super.getWriter();
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            addCookieIfWritten();
+            super.setStatus(sc);
+        }
+    }
+}
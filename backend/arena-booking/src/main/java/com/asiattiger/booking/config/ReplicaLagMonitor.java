@@ -0,0 +1,99 @@
+package com.asiattiger.booking.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Probes the replica in the background and decides whether reads may use it.
+ *
+ * Every {@code check-interval} ({@link ReadWriteRoutingConfig} schedules {@link #probe()}) the
+ * replica is validated and, if {@code lag-query} is set, asked how many seconds it is behind
+ * (for MySQL typically a heartbeat table, e.g.
+ * {@code SELECT TIMESTAMPDIFF(SECOND, MAX(ts), UTC_TIMESTAMP()) FROM heartbeat}). The replica
+ * is usable while it answers and its lag is within {@code max-lag}; until the first probe
+ * succeeds reads stay on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    private volatile boolean reachable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    public boolean isUsable() {
+        return reachable && lagMillis <= maxLagMillis;
+    }
+
+    /**
+     * Last measured lag, or 0 when no lag query is configured; -1 before the first successful probe.
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("status", reachable ? "UP" : "DOWN");
+        status.put("lagMillis", lagMillis);
+        status.put("maxLagMillis", maxLagMillis);
+        status.put("serving", isUsable());
+        return status;
+    }
+
+    void probe() {
+        boolean wasUsable = isUsable();
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Replica connection failed validation");
+            }
+            lagMillis = measureLag(connection);
+            reachable = true;
+        } catch (SQLException | RuntimeException e) {
+            reachable = false;
+            if (wasUsable) {
+                log.warn("⚠️ Replica probe failed, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+        if (!wasUsable && isUsable()) {
+            log.info("✅ Replica available for reads (lag {} ms)", lagMillis);
+        } else if (wasUsable && reachable && !isUsable()) {
+            log.warn("⏱️ Replica lag {} ms exceeds {} ms, routing reads to the primary", lagMillis, maxLagMillis);
+        }
+    }
+
+    private long measureLag(Connection connection) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                throw new SQLException("Replica lag query returned no rows");
+            }
+            double seconds = resultSet.getDouble(1);
+            if (resultSet.wasNull()) {
+                throw new SQLException("Replica lag query returned null (replication stopped?)");
+            }
+            return Math.round(seconds * 1000);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.asiattiger.booking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs (@Scheduled methods, and tasks scheduled at runtime on the {@code TaskScheduler})
+ * share Spring Boot's one ThreadPoolTaskScheduler, sized by {@code spring.task.scheduling.pool.size}.
+ * A run that throws is logged and the task stays scheduled.
+ */
+@Configuration
+@EnableScheduling
+@Slf4j
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer loggingErrorHandler() {
+        return scheduler -> scheduler.setErrorHandler(e -> log.error("❌ Scheduled task failed", e));
+    }
+}
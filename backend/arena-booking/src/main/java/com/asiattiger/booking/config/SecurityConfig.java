@@ -1,25 +1,74 @@
 package com.asiattiger.booking.config;
 
+import com.asiattiger.booking.security.FirebaseAuthenticationFilter;
+import com.asiattiger.booking.security.FirebasePrincipal;
+import com.asiattiger.booking.security.FirebaseTokenVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.context.annotation.Bean;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.function.Supplier;
 
 @Configuration
 public class SecurityConfig {
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           ObjectProvider<FirebaseTokenVerifier> firebaseVerifier,
+                                           ObjectMapper objectMapper,
+                                           @Value("${booking.auth.required:false}") boolean authRequired) throws Exception {
+        FirebaseTokenVerifier verifier = firebaseVerifier.getIfAvailable();
         http
-            .authorizeHttpRequests((requests) -> requests
-                .requestMatchers("/h2-console/**").permitAll()
-                .anyRequest().permitAll()
-            )
-            .csrf((csrf) -> csrf
-                .ignoringRequestMatchers("/h2-console/**")
+            .authorizeHttpRequests((requests) -> {
+                requests.requestMatchers("/h2-console/**").permitAll();
+                // With Firebase auth required, admin endpoints need the admin claim, a user's bookings
+                // their owner (or an admin), booking reads and every API write a token; other reads stay public
+                if (verifier != null && authRequired) {
+                    requests.requestMatchers("/api/bookings/bulk/**", "/api/bookings/export", "/api/dashboard/**")
+                            .hasRole("ADMIN")
+                            .requestMatchers(HttpMethod.GET, "/api/bookings/user/{userId}", "/api/bookings/user/{userId}/*")
+                            .access(SecurityConfig::ownerOrAdmin)
+                            .requestMatchers(HttpMethod.GET, "/api/bookings", "/api/bookings/**").authenticated()
+                            .requestMatchers(HttpMethod.GET, "/api/**").permitAll()
+                            .requestMatchers("/api/**").authenticated();
+                }
+                requests.anyRequest().permitAll();
+            })
+            .csrf((csrf) -> {
+                csrf.ignoringRequestMatchers("/h2-console/**");
+                // Browsers never attach a bearer token on their own, so such requests cannot be forged cross-site
+                if (verifier != null) {
+                    csrf.ignoringRequestMatchers(FirebaseAuthenticationFilter::hasBearerToken);
+                }
+            })
+            .exceptionHandling((exceptions) -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
             )
             .headers((headers) -> headers
                 .frameOptions(frameOptions -> frameOptions.sameOrigin())
             );
+        if (verifier != null) {
+            http.addFilterBefore(new FirebaseAuthenticationFilter(verifier, objectMapper),
+                    UsernamePasswordAuthenticationFilter.class);
+        }
         return http.build();
     }
+
+    private static AuthorizationDecision ownerOrAdmin(Supplier<Authentication> authentication,
+                                                      RequestAuthorizationContext context) {
+        boolean allowed = authentication.get() != null
+                && authentication.get().getPrincipal() instanceof FirebasePrincipal principal
+                && (principal.admin() || principal.uid().equals(context.getVariables().get("userId")));
+        return new AuthorizationDecision(allowed);
+    }
 }
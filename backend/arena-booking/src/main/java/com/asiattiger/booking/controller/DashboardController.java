@@ -0,0 +1,48 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.dto.ApiResponse;
+import com.asiattiger.booking.dto.DashboardStatsDTO;
+import com.asiattiger.booking.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "📊 Asian Tiger Dashboard", description = "Facility and booking statistics")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"})
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @Operation(summary = "Get dashboard statistics",
+            description = "Slow sections are left out and listed in unavailableSections, with partial=true")
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<DashboardStatsDTO>> getDashboardStatistics() {
+        try {
+            DashboardStatsDTO stats = dashboardService.getDashboardStatistics();
+            
+            return ResponseEntity.ok(ApiResponse.<DashboardStatsDTO>builder()
+                .success(true)
+                .data(stats)
+                .message(stats.isPartial()
+                        ? "Dashboard statistics retrieved without: " + String.join(", ", stats.getUnavailableSections())
+                        : "Dashboard statistics retrieved successfully")
+                .build());
+                
+        } catch (Exception e) {
+            log.error("❌ Error generating dashboard statistics", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.<DashboardStatsDTO>builder()
+                    .success(false)
+                    .error("Failed to retrieve dashboard statistics: " + e.getMessage())
+                    .build());
+        }
+    }
+}
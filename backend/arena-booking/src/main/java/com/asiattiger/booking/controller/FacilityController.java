@@ -1,7 +1,10 @@
 package com.asiattiger.booking.controller;
 
+import com.asiattiger.booking.dto.FacilityAvailabilityDTO;
 import com.asiattiger.booking.dto.FacilityDTO;
 import com.asiattiger.booking.dto.ApiResponse;
+import com.asiattiger.booking.service.AvailabilityService;
+import com.asiattiger.booking.service.AvailabilityStreamHub;
 import com.asiattiger.booking.service.FacilityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,11 +12,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/facilities")
@@ -24,12 +33,18 @@ import java.util.List;
 public class FacilityController {
 
     private final FacilityService facilityService;
+    private final AvailabilityService availabilityService;
+    private final AvailabilityStreamHub availabilityStreamHub;
 
     @Operation(summary = "Get all active facilities", description = "Retrieve all available facilities for booking")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<FacilityDTO>>> getAllFacilities() {
+    public ResponseEntity<ApiResponse<List<FacilityDTO>>> getAllFacilities(WebRequest request) {
         try {
-            log.info("🏟️ Fetching all active facilities");
+            // Unchanged catalog: answer 304 without building a body
+            if (request.checkNotModified(facilityService.getCatalogETag())) {
+                return null;
+            }
+            log.debug("🏟️ Fetching all active facilities");
             List<FacilityDTO> facilities = facilityService.getAllActiveFacilities();
             
             return ResponseEntity.ok(ApiResponse.<List<FacilityDTO>>builder()
@@ -52,9 +67,13 @@ public class FacilityController {
     @GetMapping("/type/{type}")
     public ResponseEntity<ApiResponse<List<FacilityDTO>>> getFacilitiesByType(
             @Parameter(description = "Facility type", example = "futsal")
-            @PathVariable String type) {
+            @PathVariable String type,
+            WebRequest request) {
         try {
-            log.info("🎯 Fetching facilities of type: {}", type);
+            if (request.checkNotModified(facilityService.getCatalogETag())) {
+                return null;
+            }
+            log.debug("🎯 Fetching facilities of type: {}", type);
             List<FacilityDTO> facilities = facilityService.getFacilitiesByType(type);
             
             return ResponseEntity.ok(ApiResponse.<List<FacilityDTO>>builder()
@@ -77,9 +96,13 @@ public class FacilityController {
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<FacilityDTO>> getFacilityById(
             @Parameter(description = "Facility ID") 
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
         try {
-            log.info("🔍 Fetching facility with ID: {}", id);
+            if (request.checkNotModified(facilityService.getCatalogETag())) {
+                return null;
+            }
+            log.debug("🔍 Fetching facility with ID: {}", id);
             FacilityDTO facility = facilityService.getFacilityById(id);
             
             return ResponseEntity.ok(ApiResponse.<FacilityDTO>builder()
@@ -105,6 +128,88 @@ public class FacilityController {
         }
     }
 
+    @Operation(summary = "Get facility availability", description = "Hourly slot availability of a facility for a date, encoded as a bitset")
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<ApiResponse<FacilityAvailabilityDTO>> getFacilityAvailability(
+            @Parameter(description = "Facility ID") 
+            @PathVariable Long id,
+            @Parameter(description = "Date to check", example = "2025-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            log.debug("📅 Fetching availability for facility {} on {}", id, date);
+            FacilityAvailabilityDTO availability = availabilityService.getFacilityAvailability(id, date);
+            
+            return ResponseEntity.ok(ApiResponse.<FacilityAvailabilityDTO>builder()
+                .success(true)
+                .data(availability)
+                .message(availability.getFreeSlotCount() + " of " + availability.getSlotCount() + " slots available")
+                .build());
+                
+        } catch (NoSuchElementException e) {
+            log.error("❌ Facility not found for availability with ID: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.<FacilityAvailabilityDTO>builder()
+                    .success(false)
+                    .error("Facility not found with ID: " + id)
+                    .build());
+        } catch (Exception e) {
+            log.error("❌ Error computing availability for facility {} on {}", id, date, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.<FacilityAvailabilityDTO>builder()
+                    .success(false)
+                    .error("Failed to retrieve availability: " + e.getMessage())
+                    .build());
+        }
+    }
+
+    @Operation(summary = "Stream facility availability changes",
+            description = "Server-Sent Events: 'ready' once subscribed, then a 'slot' event per booked, confirmed or released slot; 'resync' means events were dropped and the day should be reloaded")
+    @GetMapping(value = "/{id}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamFacilityAvailability(
+            @Parameter(description = "Facility ID")
+            @PathVariable Long id) {
+        try {
+            facilityService.getFacilityById(id);
+        } catch (RuntimeException e) {
+            log.error("❌ Facility not found for availability stream with ID: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        try {
+            log.debug("📡 Opening availability stream for facility {}", id);
+            return ResponseEntity.ok(availabilityStreamHub.subscribe(id));
+        } catch (IllegalStateException e) {
+            log.warn("⚠️ Refusing availability stream for facility {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Operation(summary = "Get availability for many facilities", description = "Hourly slot availability of every active facility (optionally of one type) for a date")
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<List<FacilityAvailabilityDTO>>> getAvailability(
+            @Parameter(description = "Facility type", example = "futsal")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Date to check", example = "2025-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            log.debug("📅 Fetching availability for {} facilities on {}", type != null ? type : "all", date);
+            List<FacilityAvailabilityDTO> availability = availabilityService.getAvailabilityByType(type, date);
+            
+            return ResponseEntity.ok(ApiResponse.<List<FacilityAvailabilityDTO>>builder()
+                .success(true)
+                .data(availability)
+                .message("Computed availability for " + availability.size() + " facilities")
+                .build());
+                
+        } catch (Exception e) {
+            log.error("❌ Error computing availability for type: {}", type, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.<List<FacilityAvailabilityDTO>>builder()
+                    .success(false)
+                    .error("Failed to compute availability: " + e.getMessage())
+                    .build());
+        }
+    }
+
     @Operation(summary = "Create new facility", description = "Add a new sports facility (Admin only)")
     @PostMapping
     public ResponseEntity<ApiResponse<FacilityDTO>> createFacility(
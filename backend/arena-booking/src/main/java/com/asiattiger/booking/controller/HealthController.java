@@ -1,7 +1,11 @@
 package com.asiattiger.booking.controller;
 
 import com.asiattiger.booking.dto.ApiResponse;
+import com.asiattiger.booking.service.DatabaseHealthService;
+import com.asiattiger.booking.service.FacilityService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,19 +16,35 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"})
+@RequiredArgsConstructor
 @Slf4j
 public class HealthController {
 
+    private final FacilityService facilityService;
+    private final DatabaseHealthService databaseHealthService;
+
     @GetMapping("/health")
     public ResponseEntity<ApiResponse<Map<String, Object>>> health() {
-        log.info("🔍 Health check requested");
+        log.debug("🔍 Health check requested");
+        
+        Map<String, Object> database = databaseHealthService.check();
+        boolean databaseUp = "UP".equals(database.get("status"));
         
         Map<String, Object> healthData = new HashMap<>();
-        healthData.put("status", "UP");
+        healthData.put("status", databaseUp ? "UP" : "DOWN");
         healthData.put("timestamp", LocalDateTime.now());
         healthData.put("service", "Asian Tiger Booking System");
         healthData.put("version", "1.0.0");
-        healthData.put("database", "H2 (In-Memory)");
+        healthData.put("database", database);
+        healthData.put("facilityCache", facilityService.getCatalogCacheStats());
+        
+        if (!databaseUp) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.<Map<String, Object>>builder()
+                .success(false)
+                .data(healthData)
+                .error("Database is unreachable")
+                .build());
+        }
         
         return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
             .success(true)
@@ -35,7 +55,7 @@ public class HealthController {
 
     @GetMapping("/test")
     public ResponseEntity<ApiResponse<String>> test() {
-        log.info("🧪 Test endpoint called");
+        log.debug("🧪 Test endpoint called");
         
         return ResponseEntity.ok(ApiResponse.<String>builder()
             .success(true)
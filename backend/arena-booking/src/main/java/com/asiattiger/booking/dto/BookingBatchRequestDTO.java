@@ -0,0 +1,24 @@
+package com.asiattiger.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingBatchRequestDTO {
+
+    // Items are validated one by one in the service so a partial batch can report each failure
+    @NotEmpty(message = "At least one booking is required")
+    private List<BookingDTO> bookings;
+
+    // true: create all or nothing; false: create every valid item and report the rest
+    @Builder.Default
+    private Boolean atomic = true;
+}
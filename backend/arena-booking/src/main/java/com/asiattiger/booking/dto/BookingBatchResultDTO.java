@@ -0,0 +1,38 @@
+package com.asiattiger.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingBatchResultDTO {
+
+    private boolean atomic;
+    private Integer requested;
+    private Integer created;
+    private Integer failed;
+
+    // One entry per requested booking, in request order
+    private List<BookingBatchItemDTO> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BookingBatchItemDTO {
+        private Integer index;
+        private boolean created;
+        private BookingDTO booking;
+        private String error;
+    }
+
+    public boolean isFullyCreated() {
+        return created != null && created.equals(requested);
+    }
+}
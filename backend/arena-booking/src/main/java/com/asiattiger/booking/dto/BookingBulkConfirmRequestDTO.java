@@ -0,0 +1,19 @@
+package com.asiattiger.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingBulkConfirmRequestDTO {
+
+    @NotEmpty(message = "At least one booking ID is required")
+    private List<Long> ids;
+}
@@ -0,0 +1,26 @@
+package com.asiattiger.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingBulkResultDTO {
+
+    // confirm, cancel or complete
+    private String operation;
+
+    // Number of IDs asked for; null for operations selecting bookings by criteria
+    private Integer requested;
+    private Integer affected;
+    private Integer chunks;
+
+    // Requested IDs left unchanged because they do not exist or are in the wrong status
+    private List<Long> skippedIds;
+}
@@ -0,0 +1,44 @@
+package com.asiattiger.booking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in booking listings ordered by (startTime, id). The next page starts
+ * strictly after this position (before it in newest-first listings), so pages stay stable
+ * while new bookings are inserted.
+ */
+public record BookingCursor(LocalDateTime startTime, Long id) {
+
+    // Sorts before every booking; used when the client sends no cursor
+    public static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(1000, 1, 1, 0, 0), 0L);
+
+    // Sorts after every booking; the start of newest-first listings
+    public static final BookingCursor LAST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static BookingCursor decode(String cursor) {
+        return decode(cursor, FIRST);
+    }
+
+    public static BookingCursor decode(String cursor, BookingCursor whenAbsent) {
+        if (cursor == null || cursor.isBlank()) {
+            return whenAbsent;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            return new BookingCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -50,6 +50,9 @@ public class BookingDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Optimistic lock version; an update carrying an older one is rejected
+    private Long version;
+
     // Computed fields
     private Double durationInHours;
     private Boolean canBeCancelled;
@@ -0,0 +1,22 @@
+package com.asiattiger.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingPageDTO {
+
+    private List<BookingDTO> bookings;
+
+    // Opaque keyset cursor for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+    private Integer limit;
+}
@@ -38,6 +38,10 @@ public class DashboardStatsDTO {
     private List<Map<String, Object>> revenueByMonth;
     private List<Map<String, Object>> bookingTrends;
 
+    // Set when slow or failed sections were left out of this response
+    private boolean partial;
+    private List<String> unavailableSections;
+
     // Computed Properties
     public Double getBookingConfirmationRate() {
         if (totalBookings == null || totalBookings == 0) return 0.0;
@@ -0,0 +1,38 @@
+package com.asiattiger.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacilityAvailabilityDTO {
+
+    private Long facilityId;
+    private String facilityName;
+    private String facilityType;
+    private LocalDate date;
+
+    // Slot grid: slot i starts at openingTime + i * slotMinutes
+    private String openingTime;
+    private String closingTime;
+    private Integer slotMinutes;
+    private Integer slotCount;
+
+    // Bitset of free slots: bit i is set when slot i can still be booked
+    private Long freeSlots;
+
+    // Helper methods
+    public boolean isSlotFree(int slot) {
+        return freeSlots != null && slot >= 0 && slot < 64 && (freeSlots & (1L << slot)) != 0;
+    }
+
+    public Integer getFreeSlotCount() {
+        return freeSlots != null ? Long.bitCount(freeSlots) : 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.asiattiger.booking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringBookingRequestDTO {
+
+    // First occurrence; later ones repeat its facility, times and purpose
+    @NotNull(message = "Booking is required")
+    @Valid
+    private BookingDTO booking;
+
+    @NotBlank(message = "Frequency is required")
+    @Pattern(regexp = "^(?i)(daily|weekly|fortnightly)$",
+             message = "Frequency must be one of: daily, weekly, fortnightly")
+    private String frequency;
+
+    @NotNull(message = "Occurrences is required")
+    @Min(value = 1, message = "Occurrences must be at least 1")
+    private Integer occurrences;
+
+    @Builder.Default
+    private Boolean atomic = true;
+}
@@ -13,14 +13,26 @@ import java.time.LocalDateTime;
 import java.time.Duration;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+    // Conflict checks and per-facility listings: facility + status equality, then the time range
+    @Index(name = "idx_bookings_facility_status_time", columnList = "facility_id, status, start_time, end_time"),
+    @Index(name = "idx_bookings_user_start", columnList = "user_id, start_time"),
+    @Index(name = "idx_bookings_status_start", columnList = "status, start_time"),
+    // Keyset pagination, date ranges and trend aggregation
+    @Index(name = "idx_bookings_start_id", columnList = "start_time, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
 
+    // Bookings can be cancelled up to this long before they start
+    public static final Duration CANCELLATION_NOTICE = Duration.ofHours(2);
+
+    // Pooled sequence IDs let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "User ID is required")
@@ -44,6 +56,7 @@ public class Booking {
     @NotBlank(message = "Status is required")
     @Pattern(regexp = "^(pending|confirmed|cancelled|completed)$", 
              message = "Status must be one of: pending, confirmed, cancelled, completed")
+    @Convert(converter = BookingStatusConverter.class)
     @Column(nullable = false)
     private String status = "pending";
 
@@ -66,6 +79,11 @@ public class Booking {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock: entity updates check it, conditional status updates in the repository bump it
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Business logic methods
     @PrePersist
     @PreUpdate
@@ -92,6 +110,19 @@ public class Booking {
     }
 
     public double getDurationInHoursAsDouble() {
+        return durationInHours(startTime, endTime);
+    }
+
+    public boolean isActive() {
+        return isActiveStatus(this.status);
+    }
+
+    public boolean canBeCancelled() {
+        return isCancellable(this.status, this.startTime);
+    }
+
+    // Shared with projections that carry booking fields without the entity
+    public static double durationInHours(LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime != null && endTime != null) {
             long minutes = Duration.between(startTime, endTime).toMinutes();
             return minutes / 60.0;
@@ -99,16 +130,16 @@ public class Booking {
         return 0.0;
     }
 
-    public boolean isActive() {
-        return "confirmed".equals(this.status) || "pending".equals(this.status);
+    public static boolean isActiveStatus(String status) {
+        return "confirmed".equals(status) || "pending".equals(status);
     }
 
-    public boolean canBeCancelled() {
-        if (!"confirmed".equals(this.status) && !"pending".equals(this.status)) {
+    public static boolean isCancellable(String status, LocalDateTime startTime) {
+        if (!isActiveStatus(status)) {
             return false;
         }
         // Can cancel if booking is more than 2 hours in the future
-        return startTime != null && LocalDateTime.now().plusHours(2).isBefore(startTime);
+        return startTime != null && LocalDateTime.now().plus(CANCELLATION_NOTICE).isBefore(startTime);
     }
 
     public String getFacilityName() {
@@ -0,0 +1,40 @@
+package com.asiattiger.booking.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores booking status as a one-byte code instead of free text. The entity and every
+ * JPQL query keep using the status names; Hibernate converts literals compared against
+ * the column as well, so only native SQL needs to know the codes.
+ */
+@Converter
+public class BookingStatusConverter implements AttributeConverter<String, Byte> {
+
+    // Index in this array is the stored code; append only, never reorder
+    private static final String[] STATUSES = {"pending", "confirmed", "cancelled", "completed"};
+
+    @Override
+    public Byte convertToDatabaseColumn(String status) {
+        if (status == null) {
+            return null;
+        }
+        for (byte code = 0; code < STATUSES.length; code++) {
+            if (STATUSES[code].equals(status)) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("Unknown booking status: " + status);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Byte code) {
+        if (code == null) {
+            return null;
+        }
+        if (code < 0 || code >= STATUSES.length) {
+            throw new IllegalArgumentException("Unknown booking status code: " + code);
+        }
+        return STATUSES[code];
+    }
+}
@@ -0,0 +1,191 @@
+package com.asiattiger.booking.housekeeping;
+
+import com.asiattiger.booking.dto.BookingBulkResultDTO;
+import com.asiattiger.booking.service.BookingBulkService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Background housekeeping for the booking lifecycle, enabled with {@code booking.housekeeping.enabled=true}.
+ *
+ * Jobs: {@code pending-expiry} cancels pending bookings not confirmed within {@code hold} (or whose
+ * slot has started), {@code auto-complete} completes confirmed bookings that have ended and
+ * {@code archive} moves finished bookings older than {@code retention} to {@code bookings_archive}.
+ * Each can be switched off and has its own interval under {@code booking.housekeeping.<job>}.
+ *
+ * Runs are bounded to {@code max-chunks-per-run} chunks and leave the rest to the next run. A job
+ * only runs on the node holding its lease (see {@link JobLeases}); the holder renews it at the start
+ * of every run and before every further chunk, for the interval plus {@code lease-grace}, so another
+ * node takes over only after the leader has missed a run. A run whose renewal fails stops before its
+ * next chunk, so a long run never overlaps the node that took the lease over.
+ *
+ * Metrics: {@code booking.housekeeping.runs} (timer by job and outcome: success, failure, skipped
+ * when another node leads, or lease-lost when a run stopped early because its lease was taken
+ * over), {@code booking.housekeeping.rows} (rows changed by job) and
+ * {@code booking.housekeeping.leader} (1 while this node holds the job's lease).
+ */
+@Component
+@ConditionalOnProperty(name = "booking.housekeeping.enabled", havingValue = "true")
+@Slf4j
+public class HousekeepingScheduler {
+
+    public static final String PENDING_EXPIRY = "pending-expiry";
+    public static final String AUTO_COMPLETE = "auto-complete";
+    public static final String ARCHIVE = "archive";
+
+    // The work gets the lease renewal to call before each further chunk
+    private record Job(String name, Duration interval, Function<BooleanSupplier, BookingBulkResultDTO> work) {
+    }
+
+    private final JobLeases leases;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final Duration leaseGrace;
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> leading = new LinkedHashMap<>();
+    private final List<ScheduledFuture<?>> schedules = new ArrayList<>();
+
+    public HousekeepingScheduler(BookingBulkService bulkService,
+                                 JobLeases leases,
+                                 MeterRegistry meterRegistry,
+                                 TaskScheduler taskScheduler,
+                                 @Value("${booking.housekeeping.node-id:}") String nodeId,
+                                 @Value("${booking.housekeeping.lease-grace:PT1M}") Duration leaseGrace,
+                                 @Value("${booking.housekeeping.max-chunks-per-run:20}") int maxChunks,
+                                 @Value("${booking.housekeeping.pending-expiry.enabled:true}") boolean expiryEnabled,
+                                 @Value("${booking.housekeeping.pending-expiry.interval:PT1M}") Duration expiryInterval,
+                                 @Value("${booking.housekeeping.pending-expiry.hold:PT24H}") Duration hold,
+                                 @Value("${booking.housekeeping.auto-complete.enabled:true}") boolean completeEnabled,
+                                 @Value("${booking.housekeeping.auto-complete.interval:PT5M}") Duration completeInterval,
+                                 @Value("${booking.housekeeping.archive.enabled:true}") boolean archiveEnabled,
+                                 @Value("${booking.housekeeping.archive.interval:PT1H}") Duration archiveInterval,
+                                 @Value("${booking.housekeeping.archive.retention:P365D}") Duration retention) {
+        this.leases = leases;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId.isBlank() ? JobLeases.defaultOwner() : nodeId;
+        this.leaseGrace = leaseGrace;
+
+        if (expiryEnabled) {
+            register(new Job(PENDING_EXPIRY, expiryInterval, renew -> bulkService.expireStalePendingBookings(hold, maxChunks, renew)));
+        }
+        if (completeEnabled) {
+            register(new Job(AUTO_COMPLETE, completeInterval, renew -> bulkService.completeEndedBookings(maxChunks, renew)));
+        }
+        if (archiveEnabled) {
+            register(new Job(ARCHIVE, archiveInterval, renew -> bulkService.archiveFinishedBookings(retention, maxChunks, renew)));
+        }
+
+        // Runs are synchronized: jobs never overlap each other, and a slow run delays only the next ones
+        for (Job job : jobs.values()) {
+            schedules.add(taskScheduler.scheduleWithFixedDelay(() -> run(job), Instant.now().plus(job.interval()),
+                    job.interval()));
+        }
+        log.info("🧹 Housekeeping jobs {} scheduled on node {}", jobs.keySet(), this.nodeId);
+    }
+
+    private void register(Job job) {
+        jobs.put(job.name(), job);
+        AtomicInteger leader = new AtomicInteger();
+        leading.put(job.name(), leader);
+        Gauge.builder("booking.housekeeping.leader", leader, AtomicInteger::get)
+                .description("1 while this node holds the housekeeping job's lease")
+                .tag("job", job.name())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a job now, outside its schedule; empty when another node holds its lease or the run failed.
+     * A run that lost its lease part way returns the chunks it completed.
+     */
+    public Optional<BookingBulkResultDTO> runNow(String jobName) {
+        Job job = jobs.get(jobName);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown or disabled housekeeping job: " + jobName);
+        }
+        return run(job);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Synchronized like run(), so a running job finishes before its lease is released
+    @PreDestroy
+    public synchronized void shutdown() {
+        schedules.forEach(schedule -> schedule.cancel(false));
+        for (String job : jobs.keySet()) {
+            try {
+                leases.release(job, nodeId);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Could not release housekeeping lease {}: {}", job, e.getMessage());
+            }
+        }
+    }
+
+    private boolean renewLease(Job job) {
+        boolean leader = leases.tryAcquire(job.name(), nodeId, job.interval().plus(leaseGrace));
+        leading.get(job.name()).set(leader ? 1 : 0);
+        return leader;
+    }
+
+    private synchronized Optional<BookingBulkResultDTO> run(Job job) {
+        long started = System.nanoTime();
+        String outcome = "failure";
+        try {
+            if (!renewLease(job)) {
+                outcome = "skipped";
+                log.debug("Housekeeping job {} is led by another node", job.name());
+                return Optional.empty();
+            }
+
+            AtomicBoolean leaseLost = new AtomicBoolean();
+            BookingBulkResultDTO result = job.work().apply(() -> {
+                if (renewLease(job)) {
+                    return true;
+                }
+                leaseLost.set(true);
+                log.warn("⚠️ Housekeeping job {} lost its lease, stopping the run", job.name());
+                return false;
+            });
+            outcome = leaseLost.get() ? "lease-lost" : "success";
+            Counter.builder("booking.housekeeping.rows")
+                    .description("Bookings changed by housekeeping jobs")
+                    .tag("job", job.name())
+                    .register(meterRegistry)
+                    .increment(result.getAffected());
+            return Optional.of(result);
+        } catch (RuntimeException e) {
+            log.error("❌ Housekeeping job {} failed", job.name(), e);
+            return Optional.empty();
+        } finally {
+            Timer.builder("booking.housekeeping.runs")
+                    .description("Housekeeping job runs")
+                    .tag("job", job.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
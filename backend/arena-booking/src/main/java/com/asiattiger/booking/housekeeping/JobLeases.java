@@ -0,0 +1,75 @@
+package com.asiattiger.booking.housekeeping;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Leader election per job through a row in {@code job_leases}.
+ *
+ * A node may run a job while it holds the job's row with {@code lease_until} in the future.
+ * Acquiring is one conditional UPDATE (the holder renews, anyone takes over an expired lease)
+ * or, for a job never run before, an INSERT that only one node can win. Expiry is judged by the
+ * database clock, so the nodes' clocks do not have to agree.
+ */
+@Component
+public class JobLeases {
+
+    // acquired_at is assigned first: MySQL evaluates SET assignments left to right
+    private static final String RENEW_OR_TAKE_OVER = "UPDATE job_leases SET " +
+            "acquired_at = CASE WHEN owner = ? THEN acquired_at ELSE LOCALTIMESTAMP(6) END, " +
+            "owner = ?, lease_until = TIMESTAMPADD(MICROSECOND, ?, LOCALTIMESTAMP(6)) " +
+            "WHERE job_name = ? AND (owner = ? OR lease_until < LOCALTIMESTAMP(6))";
+
+    private static final String CLAIM_NEW = "INSERT INTO job_leases (job_name, owner, lease_until, acquired_at) " +
+            "VALUES (?, ?, TIMESTAMPADD(MICROSECOND, ?, LOCALTIMESTAMP(6)), LOCALTIMESTAMP(6))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobLeases(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes or renews the lease on {@code job} for {@code ttl}; false while another owner holds it.
+     */
+    public boolean tryAcquire(String job, String owner, Duration ttl) {
+        long ttlMicros = ttl.toNanos() / 1_000;
+        if (jdbcTemplate.update(RENEW_OR_TAKE_OVER, owner, owner, ttlMicros, job, owner) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(CLAIM_NEW, job, owner, ttlMicros) == 1;
+        } catch (DuplicateKeyException e) {
+            // The row exists and is held by someone else, or another node inserted it first
+            return false;
+        }
+    }
+
+    /**
+     * Ends the lease early so another node can take over without waiting for it to expire.
+     */
+    public void release(String job, String owner) {
+        jdbcTemplate.update("UPDATE job_leases SET lease_until = LOCALTIMESTAMP(6) WHERE job_name = ? AND owner = ?",
+                job, owner);
+    }
+
+    /**
+     * Owner name for this process when none is configured: host name plus a random suffix, so two
+     * instances on one host never share a lease.
+     */
+    public static String defaultOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.asiattiger.booking.outbox;
+
+import com.asiattiger.booking.service.BookingSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends booking changes to {@code booking_outbox} on the caller's transaction, so a change and
+ * its outbox row commit or roll back together. {@link OutboxRelay} delivers them afterwards.
+ *
+ * Callers append after taking the booking's row lock (the conditional UPDATE, the flushed entity
+ * update or the bulk SELECT ... FOR UPDATE). A later change to the same booking waits for that
+ * lock, so its row gets a higher id and outbox order is the booking's change order.
+ */
+@Component
+public class BookingOutbox {
+
+    private static final String INSERT = "INSERT INTO booking_outbox (booking_id, event_type, payload, created_at) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public BookingOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records one change; {@code before} is null for a new booking.
+     */
+    public void append(BookingSnapshot before, BookingSnapshot after) {
+        jdbcTemplate.update(INSERT, row(before, after, LocalDateTime.now()));
+    }
+
+    /**
+     * Records changes pairwise ({@code befores.get(i)} became {@code afters.get(i)}) in one JDBC batch.
+     */
+    public void appendAll(List<BookingSnapshot> befores, List<BookingSnapshot> afters) {
+        if (afters.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(afters.size());
+        for (int i = 0; i < afters.size(); i++) {
+            rows.add(row(befores.get(i), afters.get(i), now));
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    static String eventType(BookingSnapshot before, BookingSnapshot after) {
+        if (before == null) {
+            return "created";
+        }
+        return before.status().equals(after.status()) ? "updated" : after.status();
+    }
+
+    private Object[] row(BookingSnapshot before, BookingSnapshot after, LocalDateTime now) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("bookingId", after.id());
+        payload.put("facilityId", after.facilityId());
+        payload.put("status", after.status());
+        payload.put("previousStatus", before != null ? before.status() : null);
+        payload.put("startTime", after.startTime());
+        payload.put("endTime", after.endTime());
+        payload.put("totalCost", after.totalCost());
+        try {
+            return new Object[]{after.id(), eventType(before, after), objectMapper.writeValueAsString(payload),
+                    Timestamp.valueOf(now)};
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for booking " + after.id(), e);
+        }
+    }
+}
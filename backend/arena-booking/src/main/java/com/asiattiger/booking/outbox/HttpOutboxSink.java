@@ -0,0 +1,73 @@
+package com.asiattiger.booking.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch as a JSON array to {@code booking.outbox.http.url}; any response other than
+ * 2xx is a failed delivery. The last event id goes in {@code Outbox-Last-Event-Id} so a receiver
+ * can drop batches it has already seen.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.outbox.http.url")
+public class HttpOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    public HttpOutboxSink(ObjectMapper objectMapper,
+                          @Value("${booking.outbox.http.url}") String url,
+                          @Value("${booking.outbox.http.timeout:PT5S}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(url)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .header("Outbox-Last-Event-Id", Long.toString(events.get(events.size() - 1).id()))
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(events)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox batch", e);
+        }
+
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Outbox HTTP sink unreachable: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while delivering outbox batch", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Outbox HTTP sink answered " + response.statusCode());
+        }
+    }
+}
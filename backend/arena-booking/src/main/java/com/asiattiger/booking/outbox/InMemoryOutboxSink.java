@@ -0,0 +1,50 @@
+package com.asiattiger.booking.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands relayed changes to in-process consumers through a bounded queue. A batch that does not
+ * fit is refused, so a consumer that falls behind slows the relay down instead of losing events.
+ */
+@Component
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxEvent> queue;
+    private final int capacity;
+
+    public InMemoryOutboxSink(@Value("${booking.outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    // The relay is the only producer, so free space cannot shrink between the check and the adds
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        if (queue.remainingCapacity() < events.size()) {
+            throw new IllegalStateException("In-memory outbox queue is full (" + capacity + " events)");
+        }
+        queue.addAll(events);
+    }
+
+    public OutboxEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    public List<OutboxEvent> drain() {
+        List<OutboxEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        return events;
+    }
+}
@@ -0,0 +1,32 @@
+package com.asiattiger.booking.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes each relayed change as one line on the {@code booking.outbox} logger.
+ */
+@Component
+public class LogOutboxSink implements OutboxSink {
+
+    private static final Logger outboxLog = LoggerFactory.getLogger("booking.outbox");
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        if (!outboxLog.isInfoEnabled()) {
+            return;
+        }
+        for (OutboxEvent event : events) {
+            outboxLog.info("id={} booking={} type={} attempts={} payload={}",
+                    event.id(), event.bookingId(), event.type(), event.attempts(), event.payload());
+        }
+    }
+}
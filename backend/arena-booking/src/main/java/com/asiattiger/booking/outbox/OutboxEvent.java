@@ -0,0 +1,14 @@
+package com.asiattiger.booking.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking change read from {@code booking_outbox}. {@code type} is {@code created},
+ * {@code updated} or the new status for a status change; {@code payload} is the booking's
+ * state after the change as JSON.
+ */
+public record OutboxEvent(long id, Long bookingId, String type, @JsonRawValue String payload,
+                          LocalDateTime createdAt, int attempts) {
+}
@@ -0,0 +1,305 @@
+package com.asiattiger.booking.outbox;
+
+import com.asiattiger.booking.housekeeping.JobLeases;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains {@code booking_outbox} to the sinks named in {@code booking.outbox.sinks}.
+ *
+ * Every {@code poll-interval} the node holding the {@code outbox-relay} lease reads the oldest
+ * rows in batches of {@code batch-size} (at most {@code max-batches-per-poll} per poll), hands
+ * each batch to every sink and deletes it once all have accepted it. Delivery is at least once:
+ * a failed batch stays in the table with its {@code attempts} raised and is retried after a
+ * backoff that doubles from {@code initial-backoff} up to {@code max-backoff}. Later rows wait
+ * behind it, which keeps each booking's changes in order.
+ *
+ * A row out of attempts ({@code max-attempts}) is tried on its own. If it still fails while a row
+ * of another booking behind it goes through, the sinks are up and refuse that one event, so it
+ * moves to {@code booking_outbox_dead_letter} and the rows behind it go on; while the sinks keep
+ * failing it stays where it is and the backoff keeps growing. {@link #replayDeadLetters()} puts
+ * dead-lettered events back at the end of the outbox.
+ *
+ * Meters: {@code booking.outbox.relayed} (events delivered), {@code booking.outbox.batches}
+ * (timer by outcome), {@code booking.outbox.failures} (by sink), {@code booking.outbox.dead-lettered}
+ * (by sink), {@code booking.outbox.pending} (rows waiting) and {@code booking.outbox.lag} (age in
+ * seconds of the oldest waiting row).
+ */
+@Component
+@ConditionalOnProperty(name = "booking.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    public static final String LEASE = "outbox-relay";
+
+    private static final String SELECT_BATCH = "SELECT id, booking_id, event_type, payload, created_at, attempts " +
+            "FROM booking_outbox ORDER BY id LIMIT ?";
+
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final JobLeases leases;
+    private final List<OutboxSink> sinks;
+    private final MeterRegistry meterRegistry;
+    private final String owner;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Duration leaseDuration;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Counter relayed;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private volatile int consecutiveFailures;
+    private long retryAtNanos;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       JobLeases leases,
+                       List<OutboxSink> availableSinks,
+                       MeterRegistry meterRegistry,
+                       @Value("${booking.outbox.sinks:log}") List<String> sinkNames,
+                       @Value("${booking.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.relay.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                       @Value("${booking.outbox.relay.poll-interval:PT1S}") Duration pollInterval,
+                       @Value("${booking.outbox.relay.lease:PT30S}") Duration leaseDuration,
+                       @Value("${booking.outbox.relay.initial-backoff:PT1S}") Duration initialBackoff,
+                       @Value("${booking.outbox.relay.max-backoff:PT1M}") Duration maxBackoff,
+                       @Value("${booking.outbox.relay.max-attempts:20}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.leases = leases;
+        this.meterRegistry = meterRegistry;
+        this.owner = JobLeases.defaultOwner();
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.leaseDuration = leaseDuration;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+
+        Map<String, OutboxSink> byName = availableSinks.stream()
+                .collect(Collectors.toMap(OutboxSink::name, Function.identity()));
+        this.sinks = new ArrayList<>();
+        for (String name : sinkNames) {
+            OutboxSink sink = byName.get(name.trim());
+            if (sink == null) {
+                throw new IllegalStateException("Unknown or unconfigured outbox sink: " + name
+                        + " (available: " + byName.keySet() + ")");
+            }
+            this.sinks.add(sink);
+        }
+
+        this.relayed = Counter.builder("booking.outbox.relayed")
+                .description("Outbox events delivered to every sink")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox rows waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.lag", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest outbox row waiting for delivery")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.consecutive-failures", this, relay -> relay.consecutiveFailures)
+                .description("Failed relay polls in a row; the retry backoff doubles with each")
+                .register(meterRegistry);
+
+        log.info("📮 Outbox relay delivering to {} every {}", sinkNames, pollInterval);
+    }
+
+    /**
+     * Relays now, outside the schedule and ignoring any backoff; returns the events delivered.
+     */
+    public synchronized int relayNow() {
+        retryAtNanos = 0;
+        return relay();
+    }
+
+    // Synchronized like poll(), so a running poll finishes before the lease is released
+    @PreDestroy
+    public synchronized void shutdown() {
+        try {
+            leases.release(LEASE, owner);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not release outbox relay lease: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.relay.poll-interval:PT1S}",
+            initialDelayString = "${booking.outbox.relay.poll-interval:PT1S}")
+    synchronized void poll() {
+        if (System.nanoTime() - retryAtNanos < 0) {
+            return;
+        }
+        relay();
+    }
+
+    private int relay() {
+        if (!leases.tryAcquire(LEASE, owner, leaseDuration)) {
+            return 0;
+        }
+        int delivered = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerPoll; batch++) {
+                List<OutboxEvent> events = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> new OutboxEvent(
+                        rs.getLong("id"), rs.getLong("booking_id"), rs.getString("event_type"), rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime(), rs.getInt("attempts")), batchSize);
+                if (events.isEmpty()) {
+                    break;
+                }
+                OutboxEvent head = events.get(0);
+                if (head.attempts() + 1 < maxAttempts) {
+                    Failure failure = send(events);
+                    if (failure != null) {
+                        retryLater(events, failure);
+                        break;
+                    }
+                    delivered += events.size();
+                    if (events.size() < batchSize) {
+                        break;
+                    }
+                    continue;
+                }
+
+                // The head is out of attempts: tried alone, and only set aside once a row of another
+                // booking behind it goes through, which shows the sinks are up rather than down
+                Failure failure = send(List.of(head));
+                if (failure == null) {
+                    delivered++;
+                    continue;
+                }
+                Optional<OutboxEvent> probe = events.stream().skip(1)
+                        .filter(event -> !event.bookingId().equals(head.bookingId()))
+                        .findFirst();
+                if (probe.isEmpty() || send(List.of(probe.get())) != null) {
+                    retryLater(List.of(head), failure);
+                    break;
+                }
+                delivered++;
+                deadLetter(head, failure);
+            }
+        } finally {
+            refreshBacklog();
+        }
+        return delivered;
+    }
+
+    /**
+     * Moves every dead-lettered event back to the end of the outbox with its attempts reset;
+     * returns the events requeued.
+     */
+    public synchronized int replayDeadLetters() {
+        Integer replayed = transaction.execute(status -> {
+            int count = jdbcTemplate.update("INSERT INTO booking_outbox (booking_id, event_type, payload, created_at, " +
+                    "attempts) SELECT booking_id, event_type, payload, created_at, 0 FROM booking_outbox_dead_letter " +
+                    "ORDER BY id");
+            jdbcTemplate.update("DELETE FROM booking_outbox_dead_letter");
+            return count;
+        });
+        log.info("📮 Requeued {} dead-lettered outbox events", replayed);
+        refreshBacklog();
+        return replayed;
+    }
+
+    // The sink that refused a batch, or null when every sink took it
+    private record Failure(String sink, RuntimeException error) {
+    }
+
+    private Failure send(List<OutboxEvent> events) {
+        long started = System.nanoTime();
+        String failedSink = null;
+        try {
+            for (OutboxSink sink : sinks) {
+                failedSink = sink.name();
+                sink.deliver(events);
+            }
+            failedSink = null;
+        } catch (RuntimeException e) {
+            Counter.builder("booking.outbox.failures")
+                    .description("Outbox batches a sink refused or failed to take")
+                    .tag("sink", failedSink)
+                    .register(meterRegistry)
+                    .increment();
+            return new Failure(failedSink, e);
+        } finally {
+            Timer.builder("booking.outbox.batches")
+                    .description("Outbox batches handed to the sinks")
+                    .tag("outcome", failedSink == null ? "success" : "failure")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        List<Object[]> ids = events.stream().map(event -> new Object[]{event.id()}).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("DELETE FROM booking_outbox WHERE id = ?", ids);
+        relayed.increment(events.size());
+        consecutiveFailures = 0;
+        return null;
+    }
+
+    private void retryLater(List<OutboxEvent> events, Failure failure) {
+        List<Object[]> ids = events.stream().map(event -> new Object[]{event.id()}).collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("UPDATE booking_outbox SET attempts = attempts + 1 WHERE id = ?", ids);
+
+        consecutiveFailures++;
+        long backoffMillis = Math.min(maxBackoff.toMillis(),
+                initialBackoff.toMillis() << Math.min(consecutiveFailures - 1, 20));
+        retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+        log.warn("⚠️ Outbox sink {} failed on events {}..{} (attempt {}), retrying in {} ms: {}", failure.sink(),
+                events.get(0).id(), events.get(events.size() - 1).id(), events.get(0).attempts() + 1, backoffMillis,
+                failure.error().getMessage());
+    }
+
+    private void deadLetter(OutboxEvent event, Failure failure) {
+        RuntimeException error = failure.error();
+        String message = error.getMessage() == null ? error.getClass().getName() : error.getMessage();
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO booking_outbox_dead_letter (id, booking_id, event_type, payload, " +
+                            "created_at, attempts, failed_sink, last_error, dead_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    event.id(), event.bookingId(), event.type(), event.payload(), Timestamp.valueOf(event.createdAt()),
+                    event.attempts() + 1, failure.sink(), message.length() > 500 ? message.substring(0, 500) : message,
+                    Timestamp.valueOf(LocalDateTime.now()));
+            jdbcTemplate.update("DELETE FROM booking_outbox WHERE id = ?", event.id());
+        });
+        Counter.builder("booking.outbox.dead-lettered")
+                .description("Outbox events set aside after max-attempts failed deliveries")
+                .tag("sink", failure.sink())
+                .register(meterRegistry)
+                .increment();
+        log.error("❌ Outbox event {} ({} of booking {}) failed {} times at sink {}; moved to booking_outbox_dead_letter: {}",
+                event.id(), event.type(), event.bookingId(), event.attempts() + 1, failure.sink(), message);
+    }
+
+    private void refreshBacklog() {
+        jdbcTemplate.query("SELECT COUNT(*), MIN(created_at) FROM booking_outbox", rs -> {
+            pending.set(rs.getLong(1));
+            Timestamp oldest = rs.getTimestamp(2);
+            lagMillis.set(oldest == null ? 0
+                    : Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toMillis()));
+        });
+    }
+}
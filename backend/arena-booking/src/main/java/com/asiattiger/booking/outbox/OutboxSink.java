@@ -0,0 +1,17 @@
+package com.asiattiger.booking.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed booking changes, selected by name with {@code booking.outbox.sinks}.
+ *
+ * A batch is accepted as a whole or not at all: throwing makes the relay retry the same events
+ * later, possibly after other sinks already took them, so sinks must tolerate duplicates.
+ * Events arrive in outbox order, which is the order of changes to each booking.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void deliver(List<OutboxEvent> events);
+}
@@ -0,0 +1,88 @@
+package com.asiattiger.booking.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets in {@code rate_limit_buckets}, shared by every node on the database.
+ *
+ * Same representation as {@link LocalRateLimitStore} (the time the bucket is full again, here in
+ * epoch microseconds), and taking a token is one conditional UPDATE, so concurrent nodes never
+ * lose tokens to each other. Each request costs a round trip, which suits a few nodes rather
+ * than a large fleet. Times come from the nodes' clocks, so they are expected to be kept in sync.
+ * Rows of refilled buckets are deleted by {@link #sweep()}.
+ *
+ * When the database cannot be reached the store fails open: the request is let through and
+ * counted in {@code booking.rate-limit.store-failures}, so a database problem never turns into
+ * refused API calls on its own.
+ */
+@Slf4j
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final String TAKE = "UPDATE rate_limit_buckets SET full_at = GREATEST(full_at, ?) + ? " +
+            "WHERE bucket_key = ? AND GREATEST(full_at, ?) + ? - ? <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter failures;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failures = Counter.builder("booking.rate-limit.store-failures")
+                .description("Rate limit checks let through because the bucket store failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryAcquire(String key, long capacity, long periodNanos) {
+        try {
+            return acquire(key, capacity, periodNanos);
+        } catch (DataAccessException e) {
+            failures.increment();
+            log.warn("⚠️ Rate limit store failed for {}, letting the request through: {}", key, e.getMessage());
+            return 0;
+        }
+    }
+
+    private long acquire(String key, long capacity, long periodNanos) {
+        long now = currentMicros();
+        long periodMicros = periodNanos / 1_000;
+        long tokenMicros = periodMicros / capacity;
+        if (take(key, now, tokenMicros, periodMicros)) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO rate_limit_buckets (bucket_key, full_at) VALUES (?, ?)",
+                    key, now + tokenMicros);
+            return 0;
+        } catch (DuplicateKeyException e) {
+            // The bucket exists and is empty, or another node created it first
+            if (take(key, now, tokenMicros, periodMicros)) {
+                return 0;
+            }
+        }
+        List<Long> fullAt = jdbcTemplate.queryForList("SELECT full_at FROM rate_limit_buckets WHERE bucket_key = ?",
+                Long.class, key);
+        long next = Math.max(fullAt.isEmpty() ? now : fullAt.get(0), now) + tokenMicros;
+        return Math.max(1, next - periodMicros - now) * 1_000;
+    }
+
+    private boolean take(String key, long now, long tokenMicros, long periodMicros) {
+        return jdbcTemplate.update(TAKE, now, tokenMicros, key, now, tokenMicros, periodMicros, now) == 1;
+    }
+
+    @Override
+    public void sweep() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE full_at <= ?", currentMicros());
+    }
+
+    private static long currentMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+}
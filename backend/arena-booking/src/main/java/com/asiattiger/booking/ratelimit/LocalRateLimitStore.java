@@ -0,0 +1,86 @@
+package com.asiattiger.booking.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets in this node's memory, one {@link AtomicLong} each.
+ *
+ * A bucket is stored as the time at which it will be full again (the generic cell rate
+ * algorithm form of a token bucket): taking a token pushes that time forward by one token's
+ * refill time, and is refused while it would end up more than a whole period ahead. A full
+ * bucket carries no state, so buckets that have refilled are dropped by {@link #sweep()}.
+ *
+ * The map holds at most {@code max-keys} buckets. When it is full of active buckets, new keys
+ * share one of a few overflow buckets by hash, so memory stays bounded while a flood of new
+ * clients is still limited, only collectively.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private static final int OVERFLOW_BUCKETS = 64;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong[] overflow = new AtomicLong[OVERFLOW_BUCKETS];
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final int maxKeys;
+
+    public LocalRateLimitStore(int maxKeys) {
+        this.maxKeys = maxKeys;
+        long now = System.nanoTime();
+        for (int i = 0; i < OVERFLOW_BUCKETS; i++) {
+            overflow[i] = new AtomicLong(now);
+        }
+    }
+
+    @Override
+    public long tryAcquire(String key, long capacity, long periodNanos) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(key, now);
+        long tokenNanos = periodNanos / capacity;
+        while (true) {
+            long fullAt = bucket.get();
+            // Overflow-safe max(fullAt, now): nanoTime values are only comparable by difference
+            long next = (fullAt - now > 0 ? fullAt : now) + tokenNanos;
+            long wait = next - periodNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            if (sweeping.compareAndSet(false, true)) {
+                try {
+                    sweep();
+                } finally {
+                    sweeping.set(false);
+                }
+            }
+            if (buckets.size() >= maxKeys) {
+                return overflow[(key.hashCode() & Integer.MAX_VALUE) % OVERFLOW_BUCKETS];
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    // A caller that fetched a bucket just before it is swept takes its token from the removed
+    // bucket; at worst the client gets one extra token, which is cheaper than locking every acquire
+    @Override
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.asiattiger.booking.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rate limiting on the API, enabled with {@code booking.rate-limit.enabled=true}.
+ *
+ * {@code booking.rate-limit.rules} names the rules; each takes {@code methods}, {@code paths}
+ * (path patterns), {@code capacity}, {@code anonymous-capacity} and {@code period} under
+ * {@code booking.rate-limit.<rule>}. See {@link RateLimiter} for how they apply.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.rate-limit.enabled", havingValue = "true")
+@Slf4j
+public class RateLimitConfig {
+
+    private static final String PREFIX = "booking.rate-limit.";
+
+    @Bean
+    public RateLimitStore rateLimitStore(JdbcTemplate jdbcTemplate,
+                                         MeterRegistry meterRegistry,
+                                         TaskScheduler taskScheduler,
+                                         @Value("${booking.rate-limit.store:local}") String store,
+                                         @Value("${booking.rate-limit.max-keys:100000}") int maxKeys,
+                                         @Value("${booking.rate-limit.sweep-interval:PT1M}") Duration sweepInterval) {
+        RateLimitStore rateLimitStore = switch (store) {
+            case "local" -> {
+                LocalRateLimitStore local = new LocalRateLimitStore(maxKeys);
+                Gauge.builder("booking.rate-limit.buckets", local, LocalRateLimitStore::getBucketCount)
+                        .description("Token buckets held in memory")
+                        .register(meterRegistry);
+                yield local;
+            }
+            case "jdbc" -> new JdbcRateLimitStore(jdbcTemplate, meterRegistry);
+            default -> throw new IllegalStateException("Unknown rate limit store: " + store + " (local, jdbc)");
+        };
+        taskScheduler.scheduleWithFixedDelay(rateLimitStore::sweep, Instant.now().plus(sweepInterval), sweepInterval);
+        return rateLimitStore;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(Environment environment, RateLimitStore store, MeterRegistry meterRegistry) {
+        List<RateLimitRule> rules = new ArrayList<>();
+        for (String name : environment.getProperty(PREFIX + "rules", String[].class, new String[0])) {
+            rules.add(rule(environment, name.trim()));
+        }
+        log.info("🚦 Rate limits {} using the {} store", rules.stream().map(RateLimitRule::name).toList(),
+                environment.getProperty(PREFIX + "store", "local"));
+        return new RateLimiter(rules, store, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, objectMapper));
+        // Inside the security chain, so the signed-in user is known
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    private static RateLimitRule rule(Environment environment, String name) {
+        String prefix = PREFIX + name + ".";
+        Set<String> methods = Arrays.stream(environment.getProperty(prefix + "methods", String[].class, new String[0]))
+                .map(method -> method.trim().toUpperCase())
+                .collect(Collectors.toSet());
+        List<String> paths = Arrays.stream(environment.getRequiredProperty(prefix + "paths", String[].class))
+                .map(String::trim)
+                .toList();
+        long capacity = environment.getRequiredProperty(prefix + "capacity", Long.class);
+        long anonymousCapacity = environment.getProperty(prefix + "anonymous-capacity", Long.class, capacity);
+        Duration period = environment.getProperty(prefix + "period", Duration.class, Duration.ofMinutes(1));
+        return RateLimitRule.of(name, methods, paths, capacity, anonymousCapacity, period);
+    }
+}
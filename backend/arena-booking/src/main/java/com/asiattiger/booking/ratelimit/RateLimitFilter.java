@@ -0,0 +1,68 @@
+package com.asiattiger.booking.ratelimit;
+
+import com.asiattiger.booking.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers API requests over their rate limit with 429 and {@code Retry-After} (whole seconds,
+ * rounded up). Runs after the security chain, so requests are limited per signed-in user where
+ * there is one, otherwise per client address. Behind a proxy that address is the proxy's unless
+ * {@code server.forward-headers-strategy} is set (the prod profile sets {@code native}, which
+ * takes {@code X-Forwarded-For} from the internal proxies Tomcat trusts); without it every
+ * anonymous client shares one bucket.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = limiter.check(request.getMethod(), request.getRequestURI(), user(), request.getRemoteAddr());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests",
+                "Rate limit exceeded, retry in " + retryAfterSeconds + " s"));
+    }
+
+    private static String user() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
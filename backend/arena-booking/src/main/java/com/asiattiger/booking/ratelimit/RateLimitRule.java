@@ -0,0 +1,39 @@
+package com.asiattiger.booking.ratelimit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One limit: requests with one of {@code methods} (any method when empty) to a path matching one
+ * of {@code paths} may draw {@code capacity} tokens per {@code period} per signed-in user, or
+ * {@code anonymousCapacity} per client address for anonymous requests.
+ */
+public record RateLimitRule(String name, Set<String> methods, List<PathPattern> paths,
+                            long capacity, long anonymousCapacity, Duration period) {
+
+    public static RateLimitRule of(String name, Set<String> methods, List<String> paths,
+                                   long capacity, long anonymousCapacity, Duration period) {
+        if (capacity < 1 || anonymousCapacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and period");
+        }
+        List<PathPattern> patterns = paths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return new RateLimitRule(name, Set.copyOf(methods), patterns, capacity, anonymousCapacity, period);
+    }
+
+    boolean matches(String method, PathContainer path) {
+        if (!methods.isEmpty() && !methods.contains(method)) {
+            return false;
+        }
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.asiattiger.booking.ratelimit;
+
+/**
+ * Where token buckets live, selected with {@code booking.rate-limit.store}: {@code local} keeps
+ * them in this node's memory, {@code jdbc} in the shared database so every node draws on the
+ * same buckets.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket {@code key}, which holds {@code capacity} tokens and refills
+     * completely over {@code periodNanos}. Returns 0 when a token was taken, otherwise the
+     * nanoseconds until one will be available.
+     */
+    long tryAcquire(String key, long capacity, long periodNanos);
+
+    /**
+     * Drops buckets that have refilled, which carry no state; run every {@code sweep-interval}.
+     */
+    void sweep();
+}
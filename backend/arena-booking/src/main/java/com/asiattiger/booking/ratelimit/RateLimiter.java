@@ -0,0 +1,68 @@
+package com.asiattiger.booking.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the configured {@link RateLimitRule}s to a request. Every matching rule takes a token
+ * from its own bucket, keyed by the signed-in user or, for anonymous requests, the client address;
+ * the request is refused as soon as one of them is empty.
+ *
+ * Meters: {@code booking.rate-limit.requests} (by rule and outcome: allowed, limited).
+ */
+public class RateLimiter {
+
+    private final List<Limit> limits;
+    private final RateLimitStore store;
+
+    private record Limit(RateLimitRule rule, String userPrefix, String addressPrefix, long periodNanos,
+                         Counter allowed, Counter limited) {
+    }
+
+    public RateLimiter(List<RateLimitRule> rules, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.limits = new ArrayList<>(rules.size());
+        for (RateLimitRule rule : rules) {
+            limits.add(new Limit(rule, rule.name() + "|u:", rule.name() + "|ip:", rule.period().toNanos(),
+                    requests(meterRegistry, rule, "allowed"), requests(meterRegistry, rule, "limited")));
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, RateLimitRule rule, String outcome) {
+        return Counter.builder("booking.rate-limit.requests")
+                .description("Requests checked against a rate limit")
+                .tag("rule", rule.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns 0 when the request may proceed, otherwise the nanoseconds until it would be allowed.
+     * {@code user} is null for anonymous requests.
+     */
+    public long check(String method, String path, String user, String address) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (Limit limit : limits) {
+            if (!limit.rule().matches(method, container)) {
+                continue;
+            }
+            long wait = user != null
+                    ? store.tryAcquire(limit.userPrefix() + user, limit.rule().capacity(), limit.periodNanos())
+                    : store.tryAcquire(limit.addressPrefix() + address, limit.rule().anonymousCapacity(), limit.periodNanos());
+            if (wait > 0) {
+                limit.limited().increment();
+                return wait;
+            }
+            limit.allowed().increment();
+        }
+        return 0;
+    }
+
+    public List<RateLimitRule> getRules() {
+        return limits.stream().map(Limit::rule).toList();
+    }
+}
@@ -0,0 +1,46 @@
+package com.asiattiger.booking.repository;
+
+import com.asiattiger.booking.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only booking row for listings, selected together with its facility's name and
+ * type in a single joined query. Nothing is attached to the persistence context, so
+ * converting a page of views never triggers lazy facility loads.
+ */
+public record BookingListView(
+        Long id,
+        String userId,
+        Long facilityId,
+        String facilityName,
+        String facilityType,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String status,
+        String purpose,
+        BigDecimal totalCost,
+        String userName,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version) {
+
+    // The same row after a conditional status update, which also bumps the version
+    public BookingListView withStatus(String newStatus, LocalDateTime changedAt) {
+        return new BookingListView(id, userId, facilityId, facilityName, facilityType, startTime, endTime,
+                newStatus, purpose, totalCost, userName, createdAt, changedAt, version == null ? null : version + 1);
+    }
+
+    public double durationInHours() {
+        return Booking.durationInHours(startTime, endTime);
+    }
+
+    public boolean isActive() {
+        return Booking.isActiveStatus(status);
+    }
+
+    public boolean canBeCancelled() {
+        return Booking.isCancellable(status, startTime);
+    }
+}
@@ -2,30 +2,113 @@ package com.asiattiger.booking.repository;
 
 import com.asiattiger.booking.entity.Booking;
 import com.asiattiger.booking.entity.Facility;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // Listing projection: booking columns plus facility name/type from one joined select.
+    // facility_id is never null, so the left join only pins bookings as the driving table
+    // and lets the planner walk a bookings index in ORDER BY order.
+    String LIST_VIEW_SELECT = "SELECT new com.asiattiger.booking.repository.BookingListView(" +
+            "b.id, b.userId, f.id, f.name, f.type, b.startTime, b.endTime, b.status, " +
+            "b.purpose, b.totalCost, b.userName, b.createdAt, b.updatedAt, b.version) FROM Booking b LEFT JOIN b.facility f ";
+
     // Find bookings by user
     List<Booking> findByUserIdOrderByStartTimeDesc(String userId);
 
+    @Query(LIST_VIEW_SELECT + "WHERE b.userId = :userId ORDER BY b.startTime DESC, b.id DESC")
+    List<BookingListView> findViewsByUserId(@Param("userId") String userId);
+
     // Find bookings by facility
     List<Booking> findByFacilityOrderByStartTimeAsc(Facility facility);
 
     // Find active bookings (confirmed or pending)
-    @Query("SELECT b FROM Booking b WHERE b.status IN ('confirmed', 'pending') ORDER BY b.startTime ASC")
-    List<Booking> findActiveBookings();
+    @Query(LIST_VIEW_SELECT + "WHERE b.status IN ('confirmed', 'pending') ORDER BY b.startTime ASC")
+    List<BookingListView> findActiveBookings();
+
+    // Active booking intervals for the in-memory schedule index: [facilityId, bookingId, startTime, endTime]
+    @Query("SELECT b.facility.id, b.id, b.startTime, b.endTime FROM Booking b WHERE b.status IN ('confirmed', 'pending')")
+    List<Object[]> findActiveBookingIntervals();
+
+    // Active booking intervals overlapping a window for several facilities: [facilityId, startTime, endTime]
+    @Query("SELECT b.facility.id, b.startTime, b.endTime FROM Booking b WHERE b.facility.id IN :facilityIds AND " +
+           "b.status IN ('confirmed', 'pending') AND b.startTime < :windowEnd AND b.endTime > :windowStart")
+    List<Object[]> findActiveIntervalsForFacilities(
+            @Param("facilityIds") Collection<Long> facilityIds,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd);
 
     // Find bookings by status
     List<Booking> findByStatusOrderByStartTimeDesc(String status);
 
+    // Keyset pages ordered by (startTime, id): rows strictly after the cursor, limited by the pageable.
+    // The leading startTime >= bound keeps the seek a plain index range scan.
+    @Query(LIST_VIEW_SELECT + "WHERE " +
+           "b.startTime >= :afterStart AND (b.startTime > :afterStart OR b.id > :afterId) " +
+           "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingListView> findPageAfter(
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Status listings are newest first, so their keyset runs backwards: rows strictly before the cursor
+    @Query(LIST_VIEW_SELECT + "WHERE b.status = :status AND " +
+           "b.startTime <= :beforeStart AND (b.startTime < :beforeStart OR b.id < :beforeId) " +
+           "ORDER BY b.startTime DESC, b.id DESC")
+    List<BookingListView> findPageByStatusBefore(
+            @Param("status") String status,
+            @Param("beforeStart") LocalDateTime beforeStart,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    @Query(LIST_VIEW_SELECT + "WHERE f.id = :facilityId AND " +
+           "b.startTime >= :afterStart AND (b.startTime > :afterStart OR b.id > :afterId) " +
+           "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingListView> findPageByFacilityAfter(
+            @Param("facilityId") Long facilityId,
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query(LIST_VIEW_SELECT + "WHERE " +
+           "b.startTime >= :startDate AND b.endTime <= :endDate AND " +
+           "b.startTime >= :afterStart AND (b.startTime > :afterStart OR b.id > :afterId) " +
+           "ORDER BY b.startTime ASC, b.id ASC")
+    List<BookingListView> findPageInDateRangeAfter(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Forward-only export cursor; rows are fetched from the driver in batches instead of materialized
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.facility WHERE " +
+           "b.startTime >= :startDate AND b.startTime < :endDate ORDER BY b.startTime ASC, b.id ASC")
+    Stream<Booking> streamBookingsStartingBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
     // Check for conflicting bookings (same facility, overlapping time)
     @Query("SELECT b FROM Booking b WHERE b.facility = :facility AND " +
            "b.status IN ('confirmed', 'pending') AND " +
@@ -35,6 +118,11 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    // Row lock on the facility that serializes booking writers across nodes (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Facility f WHERE f.id = :facilityId")
+    Optional<Facility> lockFacilityForBooking(@Param("facilityId") Long facilityId);
+
     // Check for conflicting bookings excluding specific booking (for updates)
     @Query("SELECT b FROM Booking b WHERE b.facility = :facility AND " +
            "b.id != :excludeId AND " +
@@ -53,17 +141,17 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("endDate") LocalDateTime endDate);
 
     // Find upcoming bookings for a user
-    @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND " +
+    @Query(LIST_VIEW_SELECT + "WHERE b.userId = :userId AND " +
            "b.startTime > :now AND b.status IN ('confirmed', 'pending') " +
            "ORDER BY b.startTime ASC")
-    List<Booking> findUpcomingBookingsByUserId(
+    List<BookingListView> findUpcomingBookingsByUserId(
             @Param("userId") String userId,
             @Param("now") LocalDateTime now);
 
     // Find past bookings for a user
-    @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND " +
+    @Query(LIST_VIEW_SELECT + "WHERE b.userId = :userId AND " +
            "b.endTime < :now ORDER BY b.startTime DESC")
-    List<Booking> findPastBookingsByUserId(
+    List<BookingListView> findPastBookingsByUserId(
             @Param("userId") String userId,
             @Param("now") LocalDateTime now);
 
@@ -72,10 +160,10 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Long countBookingsByFacility(@Param("facility") Facility facility);
 
     // Find bookings that can be cancelled (future bookings with confirmed/pending status)
-    @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND " +
+    @Query(LIST_VIEW_SELECT + "WHERE b.userId = :userId AND " +
            "b.status IN ('confirmed', 'pending') AND " +
            "b.startTime > :cutoffTime ORDER BY b.startTime ASC")
-    List<Booking> findCancellableBookingsByUserId(
+    List<BookingListView> findCancellableBookingsByUserId(
             @Param("userId") String userId,
             @Param("cutoffTime") LocalDateTime cutoffTime);
 
@@ -101,6 +189,33 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countBookingsByStatus();
+
+    // Monthly totals by start month: [year, month, bookingCount, confirmedRevenue]
+    @Query("SELECT YEAR(b.startTime), MONTH(b.startTime), COUNT(b), " +
+           "SUM(CASE WHEN b.status = 'confirmed' THEN b.totalCost ELSE 0 END) FROM Booking b " +
+           "GROUP BY YEAR(b.startTime), MONTH(b.startTime)")
+    List<Object[]> getMonthlyBookingTotals();
+
+    // Monthly totals in a range by start month: [year, month, bookingCount, confirmedRevenue]
+    @Query("SELECT YEAR(b.startTime), MONTH(b.startTime), COUNT(b), " +
+           "SUM(CASE WHEN b.status = 'confirmed' THEN b.totalCost ELSE 0 END) FROM Booking b " +
+           "WHERE b.startTime >= :startDate AND b.endTime <= :endDate " +
+           "GROUP BY YEAR(b.startTime), MONTH(b.startTime)")
+    List<Object[]> getMonthlyTotalsInDateRange(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    // Daily totals in a range by start day: [year, month, day, bookingCount, confirmedRevenue]
+    @Query("SELECT YEAR(b.startTime), MONTH(b.startTime), DAY(b.startTime), COUNT(b), " +
+           "SUM(CASE WHEN b.status = 'confirmed' THEN b.totalCost ELSE 0 END) FROM Booking b " +
+           "WHERE b.startTime >= :startDate AND b.endTime <= :endDate " +
+           "GROUP BY YEAR(b.startTime), MONTH(b.startTime), DAY(b.startTime)")
+    List<Object[]> getDailyTotalsInDateRange(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
     // Popular time slots
     @Query("SELECT HOUR(b.startTime) as hour, COUNT(b) as count FROM Booking b " +
            "WHERE b.status IN ('confirmed', 'completed') " +
@@ -112,4 +227,102 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "WHERE b.status IN ('confirmed', 'completed') " +
            "GROUP BY b.facility ORDER BY bookingCount DESC")
     List<Object[]> getFacilityUsageStatistics();
-}
\ No newline at end of file
+
+    @Query("SELECT b.facility.id, COUNT(b) FROM Booking b " +
+           "WHERE b.status IN ('confirmed', 'completed') GROUP BY b.facility.id")
+    List<Object[]> countFulfilledBookingsByFacility();
+
+    // One booking as a listing row: the response and the view updates of a status transition
+    // are built from it without loading the entity
+    @Query(LIST_VIEW_SELECT + "WHERE b.id = :id")
+    Optional<BookingListView> findViewById(@Param("id") Long id);
+
+    // Conditional status transitions: a single UPDATE whose affected-row count says whether the
+    // booking was still in the expected state. They bump the version like an entity update would
+    // and set updated_at themselves, since no entity lifecycle callbacks run.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to, b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") String from, @Param("to") String to,
+                         @Param("now") LocalDateTime now);
+
+    // Cancellation additionally requires the start to be later than the notice cutoff
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'cancelled', b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status = :from AND b.startTime > :cutoff")
+    int cancelIfStartsAfter(@Param("id") Long id, @Param("from") String from,
+                            @Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+    // Completion additionally requires the booking to have ended
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'completed', b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.status = 'confirmed' AND b.endTime <= :now")
+    int completeIfEnded(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Bulk transitions lock the rows of one chunk and read what the in-memory views need before
+    // updating them by id, so the views follow exactly the rows the UPDATE changed.
+    // Rows: [id, facilityId, status, startTime, endTime, totalCost]
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id, b.facility.id, b.status, b.startTime, b.endTime, b.totalCost FROM Booking b " +
+           "WHERE b.id IN :ids AND b.status = :status")
+    List<Object[]> lockTransitionRowsByIds(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    // Active bookings on a facility overlapping a window, one keyset chunk at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id, b.facility.id, b.status, b.startTime, b.endTime, b.totalCost FROM Booking b " +
+           "WHERE b.facility.id = :facilityId AND b.status IN ('confirmed', 'pending') AND " +
+           "b.startTime < :windowEnd AND b.endTime > :windowStart AND b.id > :afterId ORDER BY b.id ASC")
+    List<Object[]> lockActiveRowsInWindow(
+            @Param("facilityId") Long facilityId,
+            @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Confirmed bookings that ended before a point in time, one keyset chunk at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id, b.facility.id, b.status, b.startTime, b.endTime, b.totalCost FROM Booking b " +
+           "WHERE b.status = 'confirmed' AND b.endTime <= :endedBy AND b.id > :afterId ORDER BY b.id ASC")
+    List<Object[]> lockEndedConfirmedRows(
+            @Param("endedBy") LocalDateTime endedBy,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Pending bookings held too long, or whose slot has already started, one keyset chunk at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id, b.facility.id, b.status, b.startTime, b.endTime, b.totalCost FROM Booking b " +
+           "WHERE b.status = 'pending' AND (b.createdAt <= :createdBefore OR b.startTime <= :startedBy) " +
+           "AND b.id > :afterId ORDER BY b.id ASC")
+    List<Object[]> lockStalePendingRows(
+            @Param("createdBefore") LocalDateTime createdBefore,
+            @Param("startedBy") LocalDateTime startedBy,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Cancelled and completed bookings that started before the retention cutoff, one keyset chunk at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id, b.facility.id, b.status, b.startTime, b.endTime, b.totalCost FROM Booking b " +
+           "WHERE b.status IN ('cancelled', 'completed') AND b.startTime < :startedBefore " +
+           "AND b.id > :afterId ORDER BY b.id ASC")
+    List<Object[]> lockArchivableRows(
+            @Param("startedBefore") LocalDateTime startedBefore,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "INSERT INTO bookings_archive (id, user_id, facility_id, start_time, end_time, " +
+           "status, purpose, total_cost, user_name, created_at, updated_at, version, archived_at) " +
+           "SELECT id, user_id, facility_id, start_time, end_time, status, purpose, total_cost, user_name, " +
+           "created_at, updated_at, version, :archivedAt FROM bookings WHERE id IN (:ids)")
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to, b.version = b.version + 1, b.updatedAt = :now " +
+           "WHERE b.id IN :ids AND b.status IN :from")
+    int transitionStatusByIds(@Param("ids") Collection<Long> ids, @Param("from") Collection<String> from,
+                              @Param("to") String to, @Param("now") LocalDateTime now);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +21,9 @@ public interface FacilityRepository extends JpaRepository<Facility, Long> {
     @Query("SELECT f FROM Facility f WHERE LOWER(f.type) = LOWER(:type) AND f.isActive = true ORDER BY f.hourlyRate ASC")
     List<Facility> findByTypeIgnoreCaseAndIsActiveTrue(@Param("type") String type);
 
+    @Query("SELECT DISTINCT f FROM Facility f LEFT JOIN FETCH f.equipment WHERE f.id IN :ids")
+    List<Facility> findAllWithEquipmentByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT f FROM Facility f WHERE f.isActive = true AND f.isUnderMaintenance = false ORDER BY f.name ASC")
     List<Facility> findAllAvailableForBooking();
 
@@ -0,0 +1,79 @@
+package com.asiattiger.booking.security;
+
+import com.asiattiger.booking.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates API requests carrying {@code Authorization: Bearer <Firebase ID token>}; the
+ * principal is a {@link FirebasePrincipal}, with ROLE_ADMIN when its admin claim is set. Requests without a bearer token pass through
+ * anonymous, and an invalid token is answered with 401 before reaching any controller.
+ *
+ * Registered in the security chain by {@link com.asiattiger.booking.config.SecurityConfig}, not
+ * as a servlet filter of its own.
+ */
+public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final List<SimpleGrantedAuthority> USER = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<SimpleGrantedAuthority> ADMIN =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final FirebaseTokenVerifier verifier;
+    private final ObjectMapper objectMapper;
+
+    public FirebaseAuthenticationFilter(FirebaseTokenVerifier verifier, ObjectMapper objectMapper) {
+        this.verifier = verifier;
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean hasBearerToken(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || !hasBearerToken(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION).substring(BEARER.length()).trim();
+        FirebasePrincipal principal;
+        try {
+            principal = verifier.verify(token);
+        } catch (BadCredentialsException e) {
+            reject(response, e.getMessage());
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(principal, null,
+                principal.admin() ? ADMIN : USER));
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, String reason) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Invalid ID token", reason));
+    }
+}
@@ -0,0 +1,32 @@
+package com.asiattiger.booking.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The user a verified Firebase ID token speaks for; {@link #getName()} is the Firebase uid.
+ * {@code admin} comes from the custom claim named by {@code booking.auth.admin-claim}.
+ */
+public record FirebasePrincipal(String uid, String email, String name, boolean admin, Instant expiresAt)
+        implements Principal {
+
+    @Override
+    public String getName() {
+        return uid;
+    }
+
+    /**
+     * The principal of the current request, empty for anonymous requests and while Firebase auth
+     * is off.
+     */
+    public static Optional<FirebasePrincipal> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof FirebasePrincipal principal
+                ? Optional.of(principal)
+                : Optional.empty();
+    }
+}
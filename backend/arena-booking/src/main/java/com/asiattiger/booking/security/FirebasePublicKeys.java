@@ -0,0 +1,190 @@
+package com.asiattiger.booking.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The public keys Firebase signs ID tokens with, kept in memory so verifying a token never waits
+ * on the network.
+ *
+ * The key set is fetched from {@code booking.auth.jwks-url} at startup and again in the background
+ * when its {@code Cache-Control: max-age} runs out (bounded by {@code min-refresh} and
+ * {@code refresh-interval}). A failed fetch keeps the current keys and is retried after
+ * {@code min-refresh}. A token naming an unknown key is refused, and asks for an early refresh
+ * (at most one per {@code min-refresh}) so a rotated key is picked up within seconds.
+ *
+ * Meters: {@code booking.auth.jwks.refreshes} (by outcome) and {@code booking.auth.jwks.keys} (gauge).
+ */
+@Component
+@ConditionalOnProperty(name = "booking.auth.enabled", havingValue = "true")
+@Slf4j
+public class FirebasePublicKeys {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final URI jwksUrl;
+    private final Duration refreshInterval;
+    private final Duration minRefresh;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final TaskScheduler taskScheduler;
+    private final AtomicLong lastFetchNanos = new AtomicLong();
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile ScheduledFuture<?> nextRefresh;
+    private volatile boolean stopped;
+
+    public FirebasePublicKeys(ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              TaskScheduler taskScheduler,
+                              @Value("${booking.auth.jwks-url}") String jwksUrl,
+                              @Value("${booking.auth.jwks.refresh-interval:PT6H}") Duration refreshInterval,
+                              @Value("${booking.auth.jwks.min-refresh:PT30S}") Duration minRefresh,
+                              @Value("${booking.auth.jwks.timeout:PT5S}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.jwksUrl = URI.create(jwksUrl);
+        this.refreshInterval = refreshInterval;
+        this.minRefresh = minRefresh;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.taskScheduler = taskScheduler;
+        Gauge.builder("booking.auth.jwks.keys", this, publicKeys -> publicKeys.keys.size())
+                .description("Firebase token signing keys held in memory")
+                .register(meterRegistry);
+
+        // Fetched once up front so the first requests can be verified; the refresh chain starts from it
+        lastFetchNanos.set(System.nanoTime());
+        Duration next = refresh();
+        nextRefresh = taskScheduler.schedule(this::scheduledRefresh, Instant.now().plus(next));
+    }
+
+    /**
+     * The key with this id, or null when the current key set does not have it.
+     */
+    public PublicKey get(String keyId) {
+        PublicKey key = keys.get(keyId);
+        if (key == null) {
+            requestRefresh();
+        }
+        return key;
+    }
+
+    public int getKeyCount() {
+        return keys.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        nextRefresh.cancel(false);
+    }
+
+    private void requestRefresh() {
+        long last = lastFetchNanos.get();
+        long now = System.nanoTime();
+        if (!stopped && now - last >= minRefresh.toNanos() && lastFetchNanos.compareAndSet(last, now)) {
+            taskScheduler.schedule(this::refresh, Instant.now());
+        }
+    }
+
+    private void scheduledRefresh() {
+        lastFetchNanos.set(System.nanoTime());
+        Duration next = refresh();
+        if (!stopped) {
+            nextRefresh = taskScheduler.schedule(this::scheduledRefresh, Instant.now().plus(next));
+        }
+    }
+
+    // Returns the delay until the next scheduled refresh; never throws
+    private Duration refresh() {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(jwksUrl).timeout(timeout).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("JWKS endpoint answered " + response.statusCode());
+            }
+            Map<String, PublicKey> fetched = parse(response.body());
+            if (fetched.isEmpty()) {
+                throw new IOException("JWKS endpoint returned no RSA keys");
+            }
+            keys = fetched;
+            refreshed("success");
+            log.debug("Loaded {} Firebase signing keys", fetched.size());
+            return nextRefresh(response.headers().firstValue("Cache-Control").orElse(""));
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            refreshed("failure");
+            log.warn("⚠️ Could not refresh Firebase signing keys from {} (keeping {}): {}", jwksUrl, keys.size(),
+                    e.getMessage());
+            return minRefresh;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return minRefresh;
+        }
+    }
+
+    private void refreshed(String outcome) {
+        Counter.builder("booking.auth.jwks.refreshes")
+                .description("Firebase signing key set fetches")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Duration nextRefresh(String cacheControl) {
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        if (!maxAge.find()) {
+            return refreshInterval;
+        }
+        Duration advertised = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+        if (advertised.compareTo(minRefresh) < 0) {
+            return minRefresh;
+        }
+        return advertised.compareTo(refreshInterval) > 0 ? refreshInterval : advertised;
+    }
+
+    private Map<String, PublicKey> parse(String body) throws IOException, GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JsonNode key : objectMapper.readTree(body).path("keys")) {
+            if (!"RSA".equals(key.path("kty").asText()) || !key.hasNonNull("kid")) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, decoder.decode(key.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, decoder.decode(key.path("e").asText()));
+            parsed.put(key.get("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        return Map.copyOf(parsed);
+    }
+}
@@ -0,0 +1,191 @@
+package com.asiattiger.booking.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies Firebase ID tokens locally, the way the Admin SDK does: an RS256 signature by one of
+ * the keys in {@link FirebasePublicKeys}, issuer {@code https://securetoken.google.com/<project>},
+ * audience {@code <project>}, a non-empty subject and issue, auth and expiry times that hold
+ * within {@code clock-skew}.
+ *
+ * Verified tokens are kept in a bounded LRU ({@code token-cache.max-size}) until they expire, so
+ * a client sending the same token on every request pays for the signature check once. Rejected
+ * tokens are never cached.
+ *
+ * Meters: {@code booking.auth.verification} (timer of full checks by outcome: valid, invalid) and
+ * the Caffeine cache meters tagged {@code cache=firebase-id-tokens} ({@code cache.gets} by result
+ * gives the hit rate).
+ */
+@Component
+@ConditionalOnProperty(name = "booking.auth.enabled", havingValue = "true")
+public class FirebaseTokenVerifier {
+
+    private static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+
+    private final FirebasePublicKeys publicKeys;
+    private final ObjectMapper objectMapper;
+    private final String projectId;
+    private final String issuer;
+    private final long clockSkewSeconds;
+    private final String adminClaim;
+    private final Cache<String, FirebasePrincipal> verified;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public FirebaseTokenVerifier(FirebasePublicKeys publicKeys,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${booking.auth.project-id}") String projectId,
+                                 @Value("${booking.auth.clock-skew:PT30S}") Duration clockSkew,
+                                 @Value("${booking.auth.token-cache.max-size:10000}") long cacheSize,
+                                 @Value("${booking.auth.admin-claim:admin}") String adminClaim) {
+        if (projectId.isBlank()) {
+            throw new IllegalStateException("booking.auth.project-id must be set when booking.auth.enabled=true");
+        }
+        this.publicKeys = publicKeys;
+        this.objectMapper = objectMapper;
+        this.projectId = projectId;
+        this.issuer = ISSUER_PREFIX + projectId;
+        this.clockSkewSeconds = clockSkew.toSeconds();
+        this.adminClaim = adminClaim;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, FirebasePrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, FirebasePrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, FirebasePrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, FirebasePrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "firebase-id-tokens");
+        this.validTimer = verificationTimer(meterRegistry, "valid");
+        this.invalidTimer = verificationTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("booking.auth.verification")
+                .description("Firebase ID token signature and claim checks (cache misses)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The principal the token speaks for; throws {@link BadCredentialsException} when it is not a
+     * valid, unexpired Firebase ID token for this project.
+     */
+    public FirebasePrincipal verify(String token) {
+        FirebasePrincipal cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        long started = System.nanoTime();
+        try {
+            FirebasePrincipal principal = check(token);
+            validTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            verified.put(token, principal);
+            return principal;
+        } catch (BadCredentialsException e) {
+            invalidTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    public long getCacheSize() {
+        return verified.estimatedSize();
+    }
+
+    private FirebasePrincipal check(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new BadCredentialsException("Malformed ID token");
+        }
+        JsonNode header = decode(parts[0]);
+        if (!"RS256".equals(header.path("alg").asText())) {
+            throw new BadCredentialsException("ID token is not signed with RS256");
+        }
+        PublicKey key = publicKeys.get(header.path("kid").asText());
+        if (key == null) {
+            throw new BadCredentialsException("ID token is signed with an unknown key");
+        }
+        if (!signatureMatches(key, parts)) {
+            throw new BadCredentialsException("ID token signature does not match");
+        }
+
+        JsonNode claims = decode(parts[1]);
+        long now = Instant.now().getEpochSecond();
+        if (!issuer.equals(claims.path("iss").asText())) {
+            throw new BadCredentialsException("ID token was issued for another project");
+        }
+        if (!projectId.equals(claims.path("aud").asText())) {
+            throw new BadCredentialsException("ID token has the wrong audience");
+        }
+        long expiresAt = claims.path("exp").asLong(0);
+        if (expiresAt + clockSkewSeconds <= now) {
+            throw new BadCredentialsException("ID token has expired");
+        }
+        if (claims.path("iat").asLong(Long.MAX_VALUE) > now + clockSkewSeconds
+                || claims.path("auth_time").asLong(Long.MAX_VALUE) > now + clockSkewSeconds) {
+            throw new BadCredentialsException("ID token is issued in the future");
+        }
+        String uid = claims.path("sub").asText();
+        if (uid.isEmpty() || uid.length() > 128) {
+            throw new BadCredentialsException("ID token has no valid subject");
+        }
+        // Custom claims (set with the Admin SDK's setCustomUserClaims) sit at the top level of the token
+        return new FirebasePrincipal(uid, claims.path("email").asText(null), claims.path("name").asText(null),
+                claims.path(adminClaim).asBoolean(false), Instant.ofEpochSecond(expiresAt));
+    }
+
+    private static boolean signatureMatches(PublicKey key, String[] parts) {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(key);
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            return signature.verify(Base64.getUrlDecoder().decode(parts[2]));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private JsonNode decode(String part) {
+        try {
+            return objectMapper.readTree(Base64.getUrlDecoder().decode(part));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Malformed ID token");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.dto.FacilityAvailabilityDTO;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AvailabilityService {
+
+    static final int SLOT_MINUTES = 60;
+    private static final int MAX_SLOTS = 64;
+
+    private final FacilityRepository facilityRepository;
+    private final BookingRepository bookingRepository;
+
+    public FacilityAvailabilityDTO getFacilityAvailability(Long facilityId, LocalDate date) {
+        log.debug("Computing availability for facility {} on {}", facilityId, date);
+        Facility facility = facilityRepository.findById(facilityId)
+                .orElseThrow(() -> new NoSuchElementException("Facility not found with ID: " + facilityId));
+
+        return computeAvailability(List.of(facility), date).get(0);
+    }
+
+    public List<FacilityAvailabilityDTO> getAvailabilityByType(String type, LocalDate date) {
+        log.debug("Computing availability for {} facilities on {}", type != null ? type : "all", date);
+        List<Facility> facilities = type != null
+                ? facilityRepository.findByTypeIgnoreCaseAndIsActiveTrue(type)
+                : facilityRepository.findByIsActiveTrueOrderByNameAsc();
+
+        return computeAvailability(facilities, date);
+    }
+
+    // ==================== GRID COMPUTATION ====================
+
+    // One projection query for all facilities, then a single pass over the day's intervals
+    private List<FacilityAvailabilityDTO> computeAvailability(List<Facility> facilities, LocalDate date) {
+        if (facilities.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime dayStart = date.atStartOfDay();
+        Map<Long, SlotGrid> grids = new LinkedHashMap<>();
+        for (Facility facility : facilities) {
+            grids.put(facility.getId(), SlotGrid.of(facility));
+        }
+
+        for (Object[] row : bookingRepository.findActiveIntervalsForFacilities(
+                grids.keySet(), dayStart, dayStart.plusDays(1))) {
+            SlotGrid grid = grids.get((Long) row[0]);
+            grid.markBooked(secondsSince(dayStart, (LocalDateTime) row[1]), secondsSince(dayStart, (LocalDateTime) row[2]));
+        }
+
+        // Slots that have already started can no longer be booked
+        long nowSeconds = secondsSince(dayStart, LocalDateTime.now());
+        return facilities.stream()
+                .map(facility -> {
+                    SlotGrid grid = grids.get(facility.getId());
+                    grid.markBooked(Long.MIN_VALUE, nowSeconds);
+                    return FacilityAvailabilityDTO.builder()
+                            .facilityId(facility.getId())
+                            .facilityName(facility.getName())
+                            .facilityType(facility.getType())
+                            .date(date)
+                            .openingTime(facility.getOpeningTime())
+                            .closingTime(facility.getClosingTime())
+                            .slotMinutes(SLOT_MINUTES)
+                            .slotCount(grid.slotCount)
+                            .freeSlots(facility.isAvailableForBooking() ? grid.freeSlots() : 0L)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static long secondsSince(LocalDateTime dayStart, LocalDateTime time) {
+        return Duration.between(dayStart, time).getSeconds();
+    }
+
+    private static final class SlotGrid {
+
+        private static final long SLOT_SECONDS = SLOT_MINUTES * 60L;
+
+        final long openSecond;
+        final int slotCount;
+        long booked;
+
+        private SlotGrid(long openSecond, int slotCount) {
+            this.openSecond = openSecond;
+            this.slotCount = slotCount;
+        }
+
+        static SlotGrid of(Facility facility) {
+            long open = parseMinuteOfDay(facility.getOpeningTime(), 6 * 60) * 60L;
+            long close = parseMinuteOfDay(facility.getClosingTime(), 23 * 60) * 60L;
+            return new SlotGrid(open, (int) Math.min(MAX_SLOTS, Math.max(0, (close - open) / SLOT_SECONDS)));
+        }
+
+        // Marks every slot overlapping [start, end), both given in seconds since midnight
+        void markBooked(long start, long end) {
+            long from = Math.max(start, openSecond);
+            long to = Math.min(end, openSecond + slotCount * SLOT_SECONDS);
+            if (to > from) {
+                booked |= slotRange((int) ((from - openSecond) / SLOT_SECONDS),
+                        (int) ((to - 1 - openSecond) / SLOT_SECONDS));
+            }
+        }
+
+        long freeSlots() {
+            return slotCount > 0 ? slotRange(0, slotCount - 1) & ~booked : 0L;
+        }
+    }
+
+    // Bits first..last inclusive
+    private static long slotRange(int first, int last) {
+        return (-1L >>> (63 - last)) & (-1L << first);
+    }
+
+    private static int parseMinuteOfDay(String time, int defaultMinutes) {
+        if (time == null) {
+            return defaultMinutes;
+        }
+        String[] parts = time.split(":");
+        return Integer.parseInt(parts[0].trim()) * 60 + Integer.parseInt(parts[1].trim());
+    }
+}
@@ -0,0 +1,392 @@
+package com.asiattiger.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed slot changes out to Server-Sent Events subscribers, grouped by facility.
+ *
+ * Publishing never blocks: a {@link SlotChangeEvent} is serialized once and appended to each
+ * subscriber's queue, and a small sender pool writes the queues to the connections, one drain
+ * at a time per subscriber. A queue holds at most {@code queue-capacity} events; a subscriber
+ * that falls further behind loses its backlog and gets a single {@code resync} event telling it
+ * to reload the day. Quiet connections get a comment every {@code heartbeat-interval}, and a
+ * connection that has not taken a write for {@code idle-timeout} (dead, or stuck on a full
+ * socket) is closed. Every connection ends after {@code timeout}; browsers reconnect on their own.
+ *
+ * A write to a client that stopped reading blocks its sender thread until the container's socket
+ * timeout. A subscriber whose write has run longer than {@code write-timeout} is evicted, and
+ * while that write stays blocked the pool runs one extra sender in its place (at most
+ * {@code max-stalled-senders}), so stalled clients never take senders away from healthy ones.
+ *
+ * Meters: {@code booking.availability.stream.subscribers} (gauge),
+ * {@code booking.availability.stream.stalled-senders} (gauge of senders blocked on evicted clients),
+ * {@code booking.availability.stream.events} (slot changes published),
+ * {@code booking.availability.stream.resyncs} (overflowed queues) and
+ * {@code booking.availability.stream.evictions} (by reason: idle, stalled, failed).
+ */
+@Component
+@Slf4j
+public class AvailabilityStreamHub {
+
+    public static final String READY_EVENT = "ready";
+    public static final String SLOT_EVENT = "slot";
+    public static final String RESYNC_EVENT = "resync";
+
+    // One queued write; a null name is a heartbeat comment
+    private record Frame(String name, long id, String data) {
+    }
+
+    private static final Frame HEARTBEAT = new Frame(null, 0, "keep-alive");
+
+    // Subscriber.writeStarted when no write is in progress, and once the sweeper gave up on the write
+    private static final long NOT_WRITING = Long.MIN_VALUE;
+    private static final long STALLED = Long.MIN_VALUE + 1;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final long heartbeatNanos;
+    private final long idleTimeoutNanos;
+    private final long writeTimeoutNanos;
+    private final int senderThreads;
+    private final int maxStalledSenders;
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledFuture<?> heartbeats;
+    private final Counter published;
+    private final Counter resyncs;
+    private final Counter idleEvictions;
+    private final Counter stalledEvictions;
+    private final Counter failedEvictions;
+
+    public AvailabilityStreamHub(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 TaskScheduler taskScheduler,
+                                 @Value("${booking.availability-stream.max-subscribers:10000}") int maxSubscribers,
+                                 @Value("${booking.availability-stream.queue-capacity:32}") int queueCapacity,
+                                 @Value("${booking.availability-stream.sender-threads:4}") int senderThreads,
+                                 @Value("${booking.availability-stream.timeout:PT30M}") Duration timeout,
+                                 @Value("${booking.availability-stream.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                                 @Value("${booking.availability-stream.idle-timeout:PT1M}") Duration idleTimeout,
+                                 @Value("${booking.availability-stream.write-timeout:PT5S}") Duration writeTimeout,
+                                 @Value("${booking.availability-stream.max-stalled-senders:64}") int maxStalledSenders) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.senderThreads = senderThreads;
+        this.maxStalledSenders = maxStalledSenders;
+
+        // Each subscriber has at most one drain queued, so the task queue is bounded by the subscriber limit
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "availability-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+        Duration tick = Duration.ofMillis(Math.max(1, heartbeatInterval.toMillis() / 2));
+        this.heartbeats = taskScheduler.scheduleWithFixedDelay(this::sweep, Instant.now().plus(tick), tick);
+
+        Gauge.builder("booking.availability.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open availability stream connections")
+                .register(meterRegistry);
+        Gauge.builder("booking.availability.stream.stalled-senders", stalledSenders, AtomicInteger::get)
+                .description("Sender threads blocked writing to evicted availability stream clients")
+                .register(meterRegistry);
+        this.published = Counter.builder("booking.availability.stream.events")
+                .description("Slot changes published to availability stream subscribers")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("booking.availability.stream.resyncs")
+                .description("Subscribers whose queue overflowed and were told to reload")
+                .register(meterRegistry);
+        this.idleEvictions = eviction(meterRegistry, "idle");
+        this.stalledEvictions = eviction(meterRegistry, "stalled");
+        this.failedEvictions = eviction(meterRegistry, "failed");
+    }
+
+    private static Counter eviction(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("booking.availability.stream.evictions")
+                .description("Availability stream connections closed by the server")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of slot changes for one facility; it starts with a {@code ready} event, after
+     * which the client loads the current bookings and applies changes on top.
+     */
+    public SseEmitter subscribe(Long facilityId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many availability stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(facilityId, emitter);
+        subscribers.compute(facilityId, (id, facilitySubscribers) -> {
+            Set<Subscriber> set = facilitySubscribers != null ? facilitySubscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        subscriber.offer(new Frame(READY_EVENT, eventIds.get(), "{\"facilityId\":" + facilityId + "}"));
+        return emitter;
+    }
+
+    // BookingService publishes after commit, so subscribers only ever see committed changes
+    @EventListener
+    public void onSlotChange(SlotChangeEvent event) {
+        published.increment();
+        Set<Subscriber> facilitySubscribers = subscribers.get(event.facilityId());
+        if (facilitySubscribers == null || facilitySubscribers.isEmpty()) {
+            return;
+        }
+        Frame frame;
+        try {
+            frame = new Frame(SLOT_EVENT, eventIds.incrementAndGet(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.warn("⚠️ Could not serialize slot change for booking {}", event.bookingId(), e);
+            return;
+        }
+        for (Subscriber subscriber : facilitySubscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public int getSubscriberCount(Long facilityId) {
+        Set<Subscriber> facilitySubscribers = subscribers.get(facilityId);
+        return facilitySubscribers != null ? facilitySubscribers.size() : 0;
+    }
+
+    public int getStalledSenderCount() {
+        return stalledSenders.get();
+    }
+
+    // Heartbeats quiet connections and closes those that have not accepted a write for too long,
+    // or whose current write has been blocked for too long
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> facilitySubscribers : subscribers.values()) {
+            for (Subscriber subscriber : facilitySubscribers) {
+                long writeStarted = subscriber.writeStarted;
+                long quietNanos = now - subscriber.lastWriteNanos;
+                if (writeStarted != NOT_WRITING && writeStarted != STALLED && now - writeStarted >= writeTimeoutNanos) {
+                    stalledEvictions.increment();
+                    subscriber.evict();
+                } else if (quietNanos >= idleTimeoutNanos) {
+                    idleEvictions.increment();
+                    subscriber.evict();
+                } else if (quietNanos >= heartbeatNanos && subscriber.queued.get() == 0) {
+                    subscriber.offer(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    // A sender blocked on an evicted client is replaced for as long as its write stays blocked.
+    // Core size is what matters with the unbounded task queue; raising it starts a thread when
+    // drains are waiting.
+    private synchronized boolean senderStalled() {
+        if (stalledSenders.get() >= maxStalledSenders) {
+            log.warn("⚠️ {} availability stream senders already stalled; not replacing another", maxStalledSenders);
+            return false;
+        }
+        int size = senderThreads + stalledSenders.incrementAndGet();
+        senders.setMaximumPoolSize(size);
+        senders.setCorePoolSize(size);
+        return true;
+    }
+
+    private synchronized void senderReleased() {
+        int size = senderThreads + stalledSenders.decrementAndGet();
+        senders.setCorePoolSize(size);
+        senders.setMaximumPoolSize(size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.cancel(false);
+        senders.shutdownNow();
+        subscribers.values().forEach(facilitySubscribers -> facilitySubscribers.forEach(Subscriber::evict));
+    }
+
+    private final class Subscriber {
+
+        private final Long facilityId;
+        private final SseEmitter emitter;
+        private final Queue<Frame> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Written under the subscriber's lock, so a write returning and the sweeper giving up on it
+        // agree on whether its sender was replaced
+        private volatile long writeStarted = NOT_WRITING;
+        private boolean replaced;
+        private volatile boolean overflowed;
+        private volatile long lastWriteNanos = System.nanoTime();
+
+        private Subscriber(Long facilityId, SseEmitter emitter) {
+            this.facilityId = facilityId;
+            this.emitter = emitter;
+        }
+
+        void offer(Frame frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > queueCapacity) {
+                queued.decrementAndGet();
+                overflowed = true;
+            } else {
+                queue.add(frame);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    if (overflowed) {
+                        overflowed = false;
+                        discardBacklog();
+                        resyncs.increment();
+                        write(new Frame(RESYNC_EVENT, eventIds.get(), "{\"facilityId\":" + facilityId + "}"));
+                    }
+                    Frame frame = queue.poll();
+                    if (frame == null) {
+                        break;
+                    }
+                    queued.decrementAndGet();
+                    write(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                failedEvictions.increment();
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                // Evicted while this drain was writing; the write is over, so completing cannot block
+                complete();
+            } else if (overflowed || !queue.isEmpty()) {
+                // An offer may have landed between the last poll and releasing the drain
+                scheduleDrain();
+            }
+        }
+
+        private void discardBacklog() {
+            while (queue.poll() != null) {
+                queued.decrementAndGet();
+            }
+        }
+
+        private void write(Frame frame) throws IOException {
+            synchronized (this) {
+                writeStarted = System.nanoTime();
+            }
+            try {
+                if (frame.name() == null) {
+                    emitter.send(SseEmitter.event().comment(frame.data()));
+                } else {
+                    emitter.send(SseEmitter.event().name(frame.name()).id(Long.toString(frame.id())).data(frame.data()));
+                }
+                lastWriteNanos = System.nanoTime();
+            } finally {
+                synchronized (this) {
+                    if (writeStarted == STALLED && replaced) {
+                        replaced = false;
+                        senderReleased();
+                    }
+                    writeStarted = NOT_WRITING;
+                }
+            }
+        }
+
+        // Completing waits for a write in progress, which a stuck client can hold until the socket
+        // times out; in that case the drain completes the emitter once its write returns, and the
+        // pool gets a replacement for the blocked sender meanwhile
+        void evict() {
+            close();
+            synchronized (this) {
+                if (writeStarted != NOT_WRITING) {
+                    if (writeStarted != STALLED) {
+                        writeStarted = STALLED;
+                        replaced = senderStalled();
+                    }
+                    return;
+                }
+            }
+            if (!draining.get()) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Availability stream for facility {} already closed", facilityId, e);
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribers.computeIfPresent(facilityId, (id, facilitySubscribers) -> {
+                facilitySubscribers.remove(this);
+                return facilitySubscribers.isEmpty() ? null : facilitySubscribers;
+            });
+            subscriberCount.decrementAndGet();
+            discardBacklog();
+        }
+    }
+}
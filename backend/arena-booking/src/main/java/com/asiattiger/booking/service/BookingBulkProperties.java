@@ -0,0 +1,19 @@
+package com.asiattiger.booking.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code booking.bulk.*}: rows per chunk transaction of the bulk operations, and the most IDs one
+ * bulk confirm accepts.
+ */
+@ConfigurationProperties(prefix = "booking.bulk")
+public record BookingBulkProperties(@DefaultValue("500") int chunkSize,
+                                    @DefaultValue("1000") int maxIds) {
+
+    public BookingBulkProperties {
+        if (chunkSize < 1 || maxIds < 1) {
+            throw new IllegalArgumentException("booking.bulk.chunk-size and booking.bulk.max-ids must be positive");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.dto.BookingBulkResultDTO;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based transitions for admins and housekeeping. Each chunk runs in its own transaction:
+ * it locks its rows, updates them with one statement and commits, so a long run never holds
+ * many locks and a failure keeps the chunks already committed.
+ */
+@Service
+@Slf4j
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Timed(value = "booking.service", histogram = true)
+@EnableConfigurationProperties(BookingBulkProperties.class)
+public class BookingBulkService {
+
+    private final BookingRepository bookingRepository;
+    private final FacilityRepository facilityRepository;
+    private final BookingChangeRecorder changes;
+    private final BookingBulkProperties properties;
+    private final TransactionTemplate chunkTransaction;
+
+    public BookingBulkService(BookingRepository bookingRepository,
+                              FacilityRepository facilityRepository,
+                              BookingChangeRecorder changes,
+                              BookingBulkProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.facilityRepository = facilityRepository;
+        this.changes = changes;
+        this.properties = properties;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public BookingBulkResultDTO confirmBookings(List<Long> ids) {
+        log.info("Confirming {} bookings in bulk", ids.size());
+        
+        if (ids.isEmpty()) {
+            throw new RuntimeException("At least one booking ID is required");
+        }
+        if (ids.size() > properties.maxIds()) {
+            throw new RuntimeException("Cannot confirm more than " + properties.maxIds() + " bookings at once");
+        }
+        
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        List<Long> skippedIds = new ArrayList<>();
+        int affected = 0;
+        int chunks = 0;
+        for (int from = 0; from < distinctIds.size(); from += properties.chunkSize()) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + properties.chunkSize(), distinctIds.size()));
+            List<BookingSnapshot> changed = inChunkTransaction(() ->
+                    transitionRows(bookingRepository.lockTransitionRowsByIds(chunk, "pending"), "confirmed"));
+            Set<Long> changedIds = changed.stream().map(BookingSnapshot::id).collect(Collectors.toSet());
+            chunk.stream().filter(id -> !changedIds.contains(id)).forEach(skippedIds::add);
+            affected += changed.size();
+            chunks++;
+        }
+        
+        log.info("Confirmed {} of {} bookings in {} chunks", affected, distinctIds.size(), chunks);
+        return BookingBulkResultDTO.builder()
+                .operation("confirm")
+                .requested(distinctIds.size())
+                .affected(affected)
+                .chunks(chunks)
+                .skippedIds(skippedIds)
+                .build();
+    }
+
+    // For closures: cancels every active booking overlapping the window, regardless of the usual notice period
+    public BookingBulkResultDTO cancelBookingsInWindow(Long facilityId, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        log.info("Cancelling bookings at facility {} between {} and {}", facilityId, windowStart, windowEnd);
+        
+        if (windowStart == null || windowEnd == null || !windowEnd.isAfter(windowStart)) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        if (!facilityRepository.existsById(facilityId)) {
+            throw new RuntimeException("Facility not found with ID: " + facilityId);
+        }
+        
+        BookingBulkResultDTO result = processInChunks("cancel", Integer.MAX_VALUE, () -> true, afterId -> transitionRows(
+                bookingRepository.lockActiveRowsInWindow(facilityId, windowStart, windowEnd, afterId,
+                        PageRequest.of(0, properties.chunkSize())), "cancelled"));
+        log.info("Cancelled {} bookings at facility {} in {} chunks", result.getAffected(), facilityId, result.getChunks());
+        return result;
+    }
+
+    public BookingBulkResultDTO completeEndedBookings() {
+        return completeEndedBookings(Integer.MAX_VALUE, () -> true);
+    }
+
+    // Housekeeping runs stop after maxChunks, or when beforeNextChunk says no (their lease could not
+    // be renewed), and pick up the rest on their next run
+    public BookingBulkResultDTO completeEndedBookings(int maxChunks, BooleanSupplier beforeNextChunk) {
+        LocalDateTime now = LocalDateTime.now();
+        log.debug("Completing confirmed bookings that ended before {}", now);
+        
+        BookingBulkResultDTO result = processInChunks("complete", maxChunks, beforeNextChunk, afterId -> transitionRows(
+                bookingRepository.lockEndedConfirmedRows(now, afterId, PageRequest.of(0, properties.chunkSize())), "completed"));
+        log.info("Completed {} bookings in {} chunks", result.getAffected(), result.getChunks());
+        return result;
+    }
+
+    // Pending bookings block their slot; release those not confirmed within the hold period or whose slot has started
+    public BookingBulkResultDTO expireStalePendingBookings(Duration hold, int maxChunks, BooleanSupplier beforeNextChunk) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdBefore = now.minus(hold);
+        log.debug("Expiring pending bookings created before {}", createdBefore);
+        
+        BookingBulkResultDTO result = processInChunks("expire", maxChunks, beforeNextChunk, afterId -> transitionRows(
+                bookingRepository.lockStalePendingRows(createdBefore, now, afterId, PageRequest.of(0, properties.chunkSize())),
+                "cancelled"));
+        log.info("Expired {} pending bookings in {} chunks", result.getAffected(), result.getChunks());
+        return result;
+    }
+
+    // Moves finished bookings out of the hot table; they leave the live dashboard statistics with it
+    public BookingBulkResultDTO archiveFinishedBookings(Duration retention, int maxChunks, BooleanSupplier beforeNextChunk) {
+        LocalDateTime startedBefore = LocalDateTime.now().minus(retention);
+        log.debug("Archiving finished bookings that started before {}", startedBefore);
+        
+        BookingBulkResultDTO result = processInChunks("archive", maxChunks, beforeNextChunk, afterId -> archiveRows(
+                bookingRepository.lockArchivableRows(startedBefore, afterId, PageRequest.of(0, properties.chunkSize()))));
+        log.info("Archived {} bookings in {} chunks", result.getAffected(), result.getChunks());
+        return result;
+    }
+
+    // Walks the matching rows in id order, one chunk per transaction, until a chunk comes back short,
+    // maxChunks chunks are done or beforeNextChunk refuses the next one
+    private BookingBulkResultDTO processInChunks(String operation, int maxChunks, BooleanSupplier beforeNextChunk,
+                                                 Function<Long, List<BookingSnapshot>> processChunkAfter) {
+        int affected = 0;
+        int chunks = 0;
+        long afterId = 0;
+        while (chunks < maxChunks) {
+            if (chunks > 0 && !beforeNextChunk.getAsBoolean()) {
+                log.info("Stopping {} after {} chunks at the caller's request", operation, chunks);
+                break;
+            }
+            long cursor = afterId;
+            List<BookingSnapshot> changed = inChunkTransaction(() -> processChunkAfter.apply(cursor));
+            if (changed.isEmpty()) {
+                break;
+            }
+            affected += changed.size();
+            chunks++;
+            afterId = changed.get(changed.size() - 1).id();
+            if (changed.size() < properties.chunkSize()) {
+                break;
+            }
+        }
+        return BookingBulkResultDTO.builder()
+                .operation(operation)
+                .affected(affected)
+                .chunks(chunks)
+                .skippedIds(List.of())
+                .build();
+    }
+
+    // Rows are locked, so the UPDATE must change every one of them; anything else rolls the chunk back
+    private List<BookingSnapshot> transitionRows(List<Object[]> lockedRows, String toStatus) {
+        List<BookingSnapshot> before = toSnapshots(lockedRows);
+        if (before.isEmpty()) {
+            return before;
+        }
+        
+        List<Long> ids = before.stream().map(BookingSnapshot::id).collect(Collectors.toList());
+        Set<String> fromStatuses = before.stream().map(BookingSnapshot::status).collect(Collectors.toSet());
+        int updated = bookingRepository.transitionStatusByIds(ids, fromStatuses, toStatus, LocalDateTime.now());
+        if (updated != before.size()) {
+            throw new IllegalStateException("Expected to update " + before.size() + " locked bookings, updated " + updated);
+        }
+        
+        changes.transitioned(before, toStatus);
+        return before;
+    }
+
+    // Copy then delete by id; both must cover every locked row or the chunk rolls back
+    private List<BookingSnapshot> archiveRows(List<Object[]> lockedRows) {
+        List<BookingSnapshot> archived = toSnapshots(lockedRows);
+        if (archived.isEmpty()) {
+            return archived;
+        }
+        
+        List<Long> ids = archived.stream().map(BookingSnapshot::id).collect(Collectors.toList());
+        int copied = bookingRepository.copyToArchive(ids, LocalDateTime.now());
+        int deleted = bookingRepository.deleteByIds(ids);
+        if (copied != archived.size() || deleted != archived.size()) {
+            throw new IllegalStateException("Expected to archive " + archived.size() + " locked bookings, copied "
+                    + copied + " and deleted " + deleted);
+        }
+        
+        changes.archived(archived);
+        return archived;
+    }
+
+    // Rows of the bulk lock queries: [id, facilityId, status, startTime, endTime, totalCost]
+    private static List<BookingSnapshot> toSnapshots(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> new BookingSnapshot((Long) row[0], (Long) row[1], (String) row[2],
+                        (LocalDateTime) row[3], (LocalDateTime) row[4], (BigDecimal) row[5]))
+                .collect(Collectors.toList());
+    }
+
+    private <T> T inChunkTransaction(Supplier<T> work) {
+        return chunkTransaction.execute(status -> work.get());
+    }
+}
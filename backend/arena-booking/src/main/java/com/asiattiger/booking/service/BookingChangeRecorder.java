@@ -0,0 +1,74 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.outbox.BookingOutbox;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Where every booking change goes once it is written: an outbox row on the same transaction,
+ * and after commit the schedule index, dashboard statistics, status metrics and slot events.
+ * Shared by the single-booking and the bulk services so both keep the views in step.
+ */
+@Component
+class BookingChangeRecorder {
+
+    private final FacilityScheduleIndex scheduleIndex;
+    private final BookingStatsAggregator statsAggregator;
+    private final BookingMetrics metrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingOutbox outbox;
+
+    BookingChangeRecorder(FacilityScheduleIndex scheduleIndex,
+                          BookingStatsAggregator statsAggregator,
+                          BookingMetrics metrics,
+                          ApplicationEventPublisher eventPublisher,
+                          BookingOutbox outbox) {
+        this.scheduleIndex = scheduleIndex;
+        this.statsAggregator = statsAggregator;
+        this.metrics = metrics;
+        this.eventPublisher = eventPublisher;
+        this.outbox = outbox;
+    }
+
+    // Called once the change is flushed and its row locked: the outbox row commits with the change.
+    // The entity is read again after commit so flush-time changes are included
+    void changed(BookingSnapshot before, Booking booking) {
+        outbox.append(before, BookingSnapshot.of(booking));
+        TransactionCallbacks.afterCommit(() -> track(before, BookingSnapshot.of(booking)));
+    }
+
+    // Conditional status updates: both sides come from the row read around the UPDATE
+    void changed(BookingSnapshot before, BookingSnapshot after) {
+        outbox.append(before, after);
+        TransactionCallbacks.afterCommit(() -> track(before, after));
+    }
+
+    void created(List<Booking> bookings) {
+        outbox.appendAll(Collections.nCopies(bookings.size(), null),
+                bookings.stream().map(BookingSnapshot::of).collect(Collectors.toList()));
+        bookings.forEach(booking -> TransactionCallbacks.afterCommit(() -> track(null, BookingSnapshot.of(booking))));
+    }
+
+    // Bulk transitions of locked rows; befores are their state before the UPDATE
+    void transitioned(List<BookingSnapshot> befores, String toStatus) {
+        outbox.appendAll(befores, befores.stream().map(snapshot -> snapshot.withStatus(toStatus)).collect(Collectors.toList()));
+        TransactionCallbacks.afterCommit(() -> befores.forEach(snapshot -> track(snapshot, snapshot.withStatus(toStatus))));
+    }
+
+    // Finished bookings are not in the schedule index; only the statistics drop them
+    void archived(List<BookingSnapshot> archived) {
+        TransactionCallbacks.afterCommit(() -> archived.forEach(snapshot -> statsAggregator.record(snapshot, null)));
+    }
+
+    private void track(BookingSnapshot before, BookingSnapshot after) {
+        scheduleIndex.track(after);
+        statsAggregator.record(before, after);
+        metrics.statusChanged(before, after);
+        SlotChangeEvent.between(before, after).forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,145 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams bookings straight from a database cursor to an output stream as NDJSON or CSV.
+ *
+ * Rows are written and detached one at a time, so heap use stays flat no matter how many
+ * bookings the range covers. On MySQL the driver only honours the fetch size when the
+ * connection URL enables {@code useCursorFetch=true}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExportService {
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String[] COLUMNS = {
+            "id", "userId", "userName", "facilityId", "facilityName", "facilityType",
+            "startTime", "endTime", "status", "totalCost", "purpose", "createdAt"
+    };
+
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportBookings(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format,
+                               OutputStream outputStream) throws IOException {
+        log.info("Exporting bookings starting between {} and {} as {}", startDate, endDate, format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamBookingsStartingBetween(startDate, endDate)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                Object[] row = toRow(booking);
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, row);
+                } else {
+                    writeJsonLine(writer, row);
+                }
+                // Keep the persistence context from growing with the export
+                entityManager.detach(booking);
+                count++;
+            }
+        }
+
+        writer.flush();
+        log.info("Exported {} bookings as {}", count, format);
+        return count;
+    }
+
+    private Object[] toRow(Booking booking) {
+        return new Object[]{
+                booking.getId(),
+                booking.getUserId(),
+                booking.getUserName(),
+                booking.getFacility().getId(),
+                booking.getFacilityName(),
+                booking.getFacilityType(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getStatus(),
+                booking.getTotalCost(),
+                booking.getPurpose(),
+                booking.getCreatedAt()
+        };
+    }
+
+    private void writeJsonLine(Writer writer, Object[] row) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            line.put(COLUMNS[i], row[i]);
+        }
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    private void writeCsvLine(Writer writer, Object[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(row[i]));
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: fields containing separators, quotes or line breaks are wrapped and quotes doubled
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
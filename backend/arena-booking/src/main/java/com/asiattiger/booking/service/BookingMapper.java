@@ -0,0 +1,84 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.repository.BookingListView;
+
+/**
+ * Converts bookings between entities, listing projections and DTOs. Stateless, so services and
+ * benchmarks call it without building a service around it.
+ */
+public final class BookingMapper {
+
+    private BookingMapper() {
+    }
+
+    public static BookingDTO toDTO(Booking booking) {
+        return BookingDTO.builder()
+                .id(booking.getId())
+                .userId(booking.getUserId())
+                .facilityId(booking.getFacility().getId())
+                .facilityName(booking.getFacilityName())
+                .facilityType(booking.getFacilityType())
+                .startTime(booking.getStartTime())
+                .endTime(booking.getEndTime())
+                .status(booking.getStatus())
+                .purpose(booking.getPurpose())
+                .totalCost(booking.getTotalCost())
+                .userName(booking.getUserName())
+                .createdAt(booking.getCreatedAt())
+                .updatedAt(booking.getUpdatedAt())
+                .version(booking.getVersion())
+                .durationInHours(booking.getDurationInHoursAsDouble())
+                .canBeCancelled(booking.canBeCancelled())
+                .isActive(booking.isActive())
+                .build();
+    }
+
+    // Listings convert projections, which already carry the facility fields
+    public static BookingDTO toDTO(BookingListView view) {
+        return BookingDTO.builder()
+                .id(view.id())
+                .userId(view.userId())
+                .facilityId(view.facilityId())
+                .facilityName(view.facilityName())
+                .facilityType(view.facilityType())
+                .startTime(view.startTime())
+                .endTime(view.endTime())
+                .status(view.status())
+                .purpose(view.purpose())
+                .totalCost(view.totalCost())
+                .userName(view.userName())
+                .createdAt(view.createdAt())
+                .updatedAt(view.updatedAt())
+                .version(view.version())
+                .durationInHours(view.durationInHours())
+                .canBeCancelled(view.canBeCancelled())
+                .isActive(view.isActive())
+                .build();
+    }
+
+    static Booking toEntity(BookingDTO dto) {
+        Booking booking = new Booking();
+        updateFromDTO(booking, dto);
+        return booking;
+    }
+
+    static void updateFromDTO(Booking booking, BookingDTO dto) {
+        if (dto.getUserId() != null) {
+            booking.setUserId(dto.getUserId());
+        }
+        if (dto.getStartTime() != null) {
+            booking.setStartTime(dto.getStartTime());
+        }
+        if (dto.getEndTime() != null) {
+            booking.setEndTime(dto.getEndTime());
+        }
+        if (dto.getPurpose() != null) {
+            booking.setPurpose(dto.getPurpose());
+        }
+        if (dto.getUserName() != null) {
+            booking.setUserName(dto.getUserName());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.asiattiger.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters for the booking write paths; method latencies come from {@code @Timed}.
+ *
+ * {@code booking.conflicts}: requests rejected because the slot overlaps an active booking,
+ * by operation (create, update, batch).
+ * {@code booking.status.transitions}: committed status changes, by from/to status;
+ * new bookings count as a transition from "new".
+ * {@code booking.transitions.rejected}: status transitions whose conditional update matched no
+ * row because the booking was not (or no longer) in the required state, by target status.
+ */
+@Component
+public class BookingMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void conflictRejected(String operation) {
+        Counter.builder("booking.conflicts")
+                .description("Booking requests rejected for overlapping an active booking")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void transitionRejected(String toStatus) {
+        Counter.builder("booking.transitions.rejected")
+                .description("Status transitions rejected because the booking was not in the required state")
+                .tag("to", toStatus)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void statusChanged(BookingSnapshot before, BookingSnapshot after) {
+        String from = before != null ? before.status() : "new";
+        if (from.equals(after.status())) {
+            return;
+        }
+        Counter.builder("booking.status.transitions")
+                .description("Committed booking status changes")
+                .tag("from", from)
+                .tag("to", after.status())
+                .register(meterRegistry)
+                .increment();
+    }
+}
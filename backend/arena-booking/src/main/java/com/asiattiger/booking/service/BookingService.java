@@ -1,135 +1,207 @@
 package com.asiattiger.booking.service;
 
+import com.asiattiger.booking.dto.BookingBatchResultDTO;
+import com.asiattiger.booking.dto.BookingCursor;
 import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.dto.BookingPageDTO;
 import com.asiattiger.booking.entity.Booking;
 import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingListView;
 import com.asiattiger.booking.repository.BookingRepository;
 import com.asiattiger.booking.repository.FacilityRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.Duration;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "booking.service", histogram = true)
 public class BookingService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final int MAX_ADVANCE_DAYS = 30;
+
     private final BookingRepository bookingRepository;
     private final FacilityRepository facilityRepository;
+    private final FacilityScheduleIndex scheduleIndex;
+    private final FacilityLockManager lockManager;
+    private final BookingMetrics metrics;
+    private final BookingChangeRecorder changes;
+    private final int maxBatchSize;
+    private final int maxOccurrences;
+    private final int recurringMaxAdvanceDays;
+
+    public BookingService(BookingRepository bookingRepository,
+                          FacilityRepository facilityRepository,
+                          FacilityScheduleIndex scheduleIndex,
+                          FacilityLockManager lockManager,
+                          BookingMetrics metrics,
+                          BookingChangeRecorder changes,
+                          @Value("${booking.batch.max-size:100}") int maxBatchSize,
+                          @Value("${booking.recurring.max-occurrences:52}") int maxOccurrences,
+                          @Value("${booking.recurring.max-advance-days:90}") int recurringMaxAdvanceDays) {
+        this.bookingRepository = bookingRepository;
+        this.facilityRepository = facilityRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.lockManager = lockManager;
+        this.metrics = metrics;
+        this.changes = changes;
+        this.maxBatchSize = maxBatchSize;
+        this.maxOccurrences = maxOccurrences;
+        this.recurringMaxAdvanceDays = recurringMaxAdvanceDays;
+    }
+
+    public enum Recurrence {
+        DAILY(Period.ofDays(1)),
+        WEEKLY(Period.ofWeeks(1)),
+        FORTNIGHTLY(Period.ofWeeks(2));
+
+        private final Period step;
+
+        Recurrence(Period step) {
+            this.step = step;
+        }
+
+        public static Recurrence from(String frequency) {
+            try {
+                return valueOf(frequency.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new RuntimeException("Unsupported recurrence frequency: " + frequency);
+            }
+        }
+    }
 
     // ==================== READ OPERATIONS ====================
 
+    // Listings are keyset-paginated on (startTime, id); one extra row tells whether another page exists
     @Transactional(readOnly = true)
-    public List<BookingDTO> getAllBookings() {
-        log.info("Fetching all bookings");
-        List<Booking> bookings = bookingRepository.findAll();
-        
-        return bookings.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public BookingPageDTO getAllBookings(String cursor, int limit) {
+        log.debug("Fetching bookings page after cursor: {}", cursor);
+        BookingCursor after = BookingCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
+        List<BookingListView> bookings = bookingRepository.findPageAfter(
+                after.startTime(), after.id(), PageRequest.of(0, pageSize + 1));
+        
+        return toPage(bookings, pageSize);
     }
 
     @Transactional(readOnly = true)
     public List<BookingDTO> getBookingsByUserId(String userId) {
-        log.info("Fetching bookings for user: {}", userId);
-        List<Booking> bookings = bookingRepository.findByUserIdOrderByStartTimeDesc(userId);
+        log.debug("Fetching bookings for user: {}", userId);
+        List<BookingListView> bookings = bookingRepository.findViewsByUserId(userId);
         
         return bookings.stream()
-                .map(this::convertToDTO)
+                .map(BookingMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public BookingDTO getBookingById(Long id) {
-        log.info("Fetching booking with ID: {}", id);
+        log.debug("Fetching booking with ID: {}", id);
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
         
-        return convertToDTO(booking);
+        return BookingMapper.toDTO(booking);
     }
 
     @Transactional(readOnly = true)
     public List<BookingDTO> getUpcomingBookingsByUserId(String userId) {
-        log.info("Fetching upcoming bookings for user: {}", userId);
+        log.debug("Fetching upcoming bookings for user: {}", userId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = bookingRepository.findUpcomingBookingsByUserId(userId, now);
+        List<BookingListView> bookings = bookingRepository.findUpcomingBookingsByUserId(userId, now);
         
         return bookings.stream()
-                .map(this::convertToDTO)
+                .map(BookingMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<BookingDTO> getPastBookingsByUserId(String userId) {
-        log.info("Fetching past bookings for user: {}", userId);
+        log.debug("Fetching past bookings for user: {}", userId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = bookingRepository.findPastBookingsByUserId(userId, now);
+        List<BookingListView> bookings = bookingRepository.findPastBookingsByUserId(userId, now);
         
         return bookings.stream()
-                .map(this::convertToDTO)
+                .map(BookingMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public List<BookingDTO> getBookingsByFacility(Long facilityId) {
-        log.info("Fetching bookings for facility ID: {}", facilityId);
+    public BookingPageDTO getBookingsByFacility(Long facilityId, String cursor, int limit) {
+        log.debug("Fetching bookings page for facility ID: {}", facilityId);
         
-        Facility facility = facilityRepository.findById(facilityId)
-                .orElseThrow(() -> new RuntimeException("Facility not found with ID: " + facilityId));
+        if (!facilityRepository.existsById(facilityId)) {
+            throw new RuntimeException("Facility not found with ID: " + facilityId);
+        }
         
-        List<Booking> bookings = bookingRepository.findByFacilityOrderByStartTimeAsc(facility);
+        BookingCursor after = BookingCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
+        List<BookingListView> bookings = bookingRepository.findPageByFacilityAfter(
+                facilityId, after.startTime(), after.id(), PageRequest.of(0, pageSize + 1));
         
-        return bookings.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return toPage(bookings, pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<BookingDTO> getBookingsByStatus(String status) {
-        log.info("Fetching bookings with status: {}", status);
-        List<Booking> bookings = bookingRepository.findByStatusOrderByStartTimeDesc(status);
-        
-        return bookings.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public BookingPageDTO getBookingsByStatus(String status, String cursor, int limit) {
+        log.debug("Fetching bookings page with status: {}", status);
+        BookingCursor before = BookingCursor.decode(cursor, BookingCursor.LAST);
+        int pageSize = clampPageSize(limit);
+        List<BookingListView> bookings = bookingRepository.findPageByStatusBefore(
+                status, before.startTime(), before.id(), PageRequest.of(0, pageSize + 1));
+        
+        return toPage(bookings, pageSize);
     }
 
     @Transactional(readOnly = true)
     public List<BookingDTO> getActiveBookings() {
-        log.info("Fetching active bookings");
-        List<Booking> bookings = bookingRepository.findActiveBookings();
+        log.debug("Fetching active bookings");
+        List<BookingListView> bookings = bookingRepository.findActiveBookings();
         
         return bookings.stream()
-                .map(this::convertToDTO)
+                .map(BookingMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public List<BookingDTO> getBookingsInDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching bookings between {} and {}", startDate, endDate);
-        List<Booking> bookings = bookingRepository.findBookingsInDateRange(startDate, endDate);
-        
-        return bookings.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public BookingPageDTO getBookingsInDateRange(LocalDateTime startDate, LocalDateTime endDate, String cursor, int limit) {
+        log.debug("Fetching bookings page between {} and {}", startDate, endDate);
+        BookingCursor after = BookingCursor.decode(cursor);
+        int pageSize = clampPageSize(limit);
+        List<BookingListView> bookings = bookingRepository.findPageInDateRangeAfter(
+                startDate, endDate, after.startTime(), after.id(), PageRequest.of(0, pageSize + 1));
+        
+        return toPage(bookings, pageSize);
     }
 
     @Transactional(readOnly = true)
     public List<BookingDTO> getCancellableBookingsByUserId(String userId) {
-        log.info("Fetching cancellable bookings for user: {}", userId);
+        log.debug("Fetching cancellable bookings for user: {}", userId);
         LocalDateTime cutoffTime = LocalDateTime.now().plusHours(2); // 2-hour cancellation policy
-        List<Booking> bookings = bookingRepository.findCancellableBookingsByUserId(userId, cutoffTime);
+        List<BookingListView> bookings = bookingRepository.findCancellableBookingsByUserId(userId, cutoffTime);
         
         return bookings.stream()
-                .map(this::convertToDTO)
+                .map(BookingMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -149,29 +221,67 @@ public class BookingService {
         }
         
         // Validate booking times
-        validateBookingTimes(bookingDTO.getStartTime(), bookingDTO.getEndTime());
-        
-        // Check for conflicting bookings (simplified check)
-        List<Booking> conflictingBookings = bookingRepository.findConflictingBookings(
-                facility, bookingDTO.getStartTime(), bookingDTO.getEndTime());
+        validateBookingTimes(bookingDTO.getStartTime(), bookingDTO.getEndTime(), MAX_ADVANCE_DAYS);
         
-        if (!conflictingBookings.isEmpty()) {
+        // Serialize writers on this facility until commit, then check for conflicting bookings
+        lockManager.lockForTransaction(facility.getId());
+        if (hasConflict(facility, bookingDTO.getStartTime(), bookingDTO.getEndTime(), null)) {
+            metrics.conflictRejected("create");
             throw new RuntimeException("Time slot conflicts with existing booking. Please choose different time.");
         }
         
-        // Create booking entity
-        Booking booking = convertToEntity(bookingDTO);
-        booking.setFacility(facility);
-        booking.setStatus("pending");
-        
-        // Calculate total cost
-        double hours = Duration.between(booking.getStartTime(), booking.getEndTime()).toMinutes() / 60.0;
-        booking.setTotalCost(facility.getHourlyRate().multiply(BigDecimal.valueOf(hours)));
+        // Create booking entity with its total cost
+        Booking booking = newPendingBooking(bookingDTO, facility);
         
-        Booking savedBooking = bookingRepository.save(booking);
+        // Sequence IDs defer the insert to flush; flush now so generated timestamps are returned
+        Booking savedBooking = bookingRepository.saveAndFlush(booking);
+        changes.changed(null, savedBooking);
         log.info("Successfully created booking with ID: {}", savedBooking.getId());
         
-        return convertToDTO(savedBooking);
+        return BookingMapper.toDTO(savedBooking);
+    }
+
+    public BookingBatchResultDTO createBookings(List<BookingDTO> bookingDTOs) {
+        return createBookings(bookingDTOs, true);
+    }
+
+    public BookingBatchResultDTO createBookings(List<BookingDTO> bookingDTOs, boolean atomic) {
+        log.info("Creating batch of {} bookings (atomic: {})", bookingDTOs.size(), atomic);
+        
+        if (bookingDTOs.isEmpty()) {
+            throw new RuntimeException("At least one booking is required");
+        }
+        if (bookingDTOs.size() > maxBatchSize) {
+            throw new RuntimeException("Cannot create more than " + maxBatchSize + " bookings at once");
+        }
+        
+        return createBookingBatch(bookingDTOs, atomic, MAX_ADVANCE_DAYS);
+    }
+
+    public BookingBatchResultDTO createRecurringBookings(BookingDTO firstBooking, Recurrence recurrence,
+                                                        int occurrences, boolean atomic) {
+        log.info("Creating {} {} bookings for user: {} at facility: {}", occurrences, recurrence,
+                firstBooking.getUserId(), firstBooking.getFacilityId());
+        
+        if (occurrences < 1 || occurrences > maxOccurrences) {
+            throw new RuntimeException("Occurrences must be between 1 and " + maxOccurrences);
+        }
+        
+        List<BookingDTO> bookingDTOs = new ArrayList<>(occurrences);
+        for (int i = 0; i < occurrences; i++) {
+            Period offset = recurrence.step.multipliedBy(i);
+            bookingDTOs.add(BookingDTO.builder()
+                    .userId(firstBooking.getUserId())
+                    .userName(firstBooking.getUserName())
+                    .facilityId(firstBooking.getFacilityId())
+                    .startTime(firstBooking.getStartTime().plus(offset))
+                    .endTime(firstBooking.getEndTime().plus(offset))
+                    .purpose(firstBooking.getPurpose())
+                    .build());
+        }
+        
+        // Leagues book a season ahead, so recurring series get a longer advance window
+        return createBookingBatch(bookingDTOs, atomic, recurringMaxAdvanceDays);
     }
 
     public BookingDTO updateBooking(Long id, BookingDTO bookingDTO) {
@@ -184,75 +294,92 @@ public class BookingService {
         if (!"pending".equals(existingBooking.getStatus())) {
             throw new RuntimeException("Can only update pending bookings. Current status: " + existingBooking.getStatus());
         }
+        // A client sending the version it read gets the same answer as a concurrent flush would
+        if (bookingDTO.getVersion() != null && !bookingDTO.getVersion().equals(existingBooking.getVersion())) {
+            throw new RuntimeException("Booking was changed by another request. Please reload and try again.");
+        }
+        BookingSnapshot before = BookingSnapshot.of(existingBooking);
+        
+        // Update booking fields; moving a booking must not overlap another active booking
+        lockManager.lockForTransaction(existingBooking.getFacility().getId());
+        BookingMapper.updateFromDTO(existingBooking, bookingDTO);
         
-        // Update booking fields
-        updateBookingFromDTO(existingBooking, bookingDTO);
+        if (hasConflict(existingBooking.getFacility(), existingBooking.getStartTime(),
+                existingBooking.getEndTime(), existingBooking.getId())) {
+            metrics.conflictRejected("update");
+            throw new RuntimeException("Time slot conflicts with existing booking. Please choose different time.");
+        }
         
-        Booking updatedBooking = bookingRepository.save(existingBooking);
+        // The version check fails if a transition or another update committed since the read
+        Booking updatedBooking;
+        try {
+            updatedBooking = bookingRepository.saveAndFlush(existingBooking);
+        } catch (OptimisticLockingFailureException e) {
+            throw new RuntimeException("Booking was changed by another request. Please reload and try again.");
+        }
+        changes.changed(before, updatedBooking);
         log.info("Successfully updated booking with ID: {}", updatedBooking.getId());
         
-        return convertToDTO(updatedBooking);
+        return BookingMapper.toDTO(updatedBooking);
     }
 
     public BookingDTO confirmBooking(Long id) {
         log.info("Confirming booking with ID: {}", id);
         
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
-        
-        if (!"pending".equals(booking.getStatus())) {
-            throw new RuntimeException("Can only confirm pending bookings. Current status: " + booking.getStatus());
+        // The conditional update decides; of several concurrent transitions exactly one matches the row
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.transitionStatus(id, "pending", "confirmed", now) == 0) {
+            String status = currentStatus(id);
+            metrics.transitionRejected("confirmed");
+            throw new RuntimeException("Can only confirm pending bookings. Current status: " + status);
         }
         
-        booking.setStatus("confirmed");
-        Booking confirmedBooking = bookingRepository.save(booking);
-        
-        log.info("Successfully confirmed booking with ID: {}", confirmedBooking.getId());
-        return convertToDTO(confirmedBooking);
+        BookingListView confirmed = afterTransition(id, "pending");
+        log.info("Successfully confirmed booking with ID: {}", id);
+        return BookingMapper.toDTO(confirmed);
     }
 
     public BookingDTO cancelBooking(Long id) {
         log.info("Cancelling booking with ID: {}", id);
         
-        Booking booking = bookingRepository.findById(id)
+        // Two statuses are cancellable, so the row is read first for the one the update replaces;
+        // the conditional update still decides, and a concurrent change makes it match nothing
+        BookingListView current = bookingRepository.findViewById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
-        
-        if (!booking.canBeCancelled()) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.plus(Booking.CANCELLATION_NOTICE);
+        if (!current.isActive() || !current.startTime().isAfter(cutoff)
+                || bookingRepository.cancelIfStartsAfter(id, current.status(), cutoff, now) == 0) {
+            metrics.transitionRejected("cancelled");
             throw new RuntimeException("Booking cannot be cancelled. Either it's not in cancellable status or it's too close to start time.");
         }
         
-        booking.setStatus("cancelled");
-        Booking cancelledBooking = bookingRepository.save(booking);
-        
-        log.info("Successfully cancelled booking with ID: {}", cancelledBooking.getId());
-        return convertToDTO(cancelledBooking);
+        BookingListView cancelled = current.withStatus("cancelled", now);
+        changes.changed(BookingSnapshot.of(current), BookingSnapshot.of(cancelled));
+        log.info("Successfully cancelled booking with ID: {}", id);
+        return BookingMapper.toDTO(cancelled);
     }
 
     public BookingDTO completeBooking(Long id) {
         log.info("Completing booking with ID: {}", id);
         
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
-        
-        if (!"confirmed".equals(booking.getStatus())) {
-            throw new RuntimeException("Can only complete confirmed bookings. Current status: " + booking.getStatus());
-        }
-        
-        // Check if booking end time has passed
-        if (LocalDateTime.now().isBefore(booking.getEndTime())) {
+        if (bookingRepository.completeIfEnded(id, LocalDateTime.now()) == 0) {
+            String status = currentStatus(id);
+            metrics.transitionRejected("completed");
+            if (!"confirmed".equals(status)) {
+                throw new RuntimeException("Can only complete confirmed bookings. Current status: " + status);
+            }
             throw new RuntimeException("Cannot complete booking before its end time");
         }
         
-        booking.setStatus("completed");
-        Booking completedBooking = bookingRepository.save(booking);
-        
-        log.info("Successfully completed booking with ID: {}", completedBooking.getId());
-        return convertToDTO(completedBooking);
+        BookingListView completed = afterTransition(id, "confirmed");
+        log.info("Successfully completed booking with ID: {}", id);
+        return BookingMapper.toDTO(completed);
     }
 
     // ==================== VALIDATION & UTILITY METHODS ====================
 
-    private void validateBookingTimes(LocalDateTime startTime, LocalDateTime endTime) {
+    private void validateBookingTimes(LocalDateTime startTime, LocalDateTime endTime, int maxAdvanceDays) {
         LocalDateTime now = LocalDateTime.now();
         
         // Start time must be in the future
@@ -276,9 +403,9 @@ public class BookingService {
             throw new RuntimeException("Maximum booking duration is 8 hours");
         }
         
-        // Booking must be within 30 days from now
-        if (startTime.isAfter(now.plusDays(30))) {
-            throw new RuntimeException("Cannot book more than 30 days in advance");
+        // Booking must be within the advance window (30 days for single bookings)
+        if (startTime.isAfter(now.plusDays(maxAdvanceDays))) {
+            throw new RuntimeException("Cannot book more than " + maxAdvanceDays + " days in advance");
         }
     }
 
@@ -289,64 +416,182 @@ public class BookingService {
 
     @Transactional(readOnly = true)
     public boolean isTimeSlotAvailable(Long facilityId, LocalDateTime startTime, LocalDateTime endTime, Long excludeBookingId) {
-        Facility facility = facilityRepository.findById(facilityId)
-                .orElseThrow(() -> new RuntimeException("Facility not found with ID: " + facilityId));
-        
-        List<Booking> conflictingBookings;
-        if (excludeBookingId != null) {
-            conflictingBookings = bookingRepository.findConflictingBookingsExcluding(
-                    facility, startTime, endTime, excludeBookingId);
-        } else {
-            conflictingBookings = bookingRepository.findConflictingBookings(facility, startTime, endTime);
+        if (!facilityRepository.existsById(facilityId)) {
+            throw new RuntimeException("Facility not found with ID: " + facilityId);
         }
         
-        return conflictingBookings.isEmpty();
+        return !scheduleIndex.hasConflict(facilityId, startTime, endTime, excludeBookingId);
     }
 
-    // ==================== CONVERSION METHODS ====================
-
-    private BookingDTO convertToDTO(Booking booking) {
-        return BookingDTO.builder()
-                .id(booking.getId())
-                .userId(booking.getUserId())
-                .facilityId(booking.getFacility().getId())
-                .facilityName(booking.getFacilityName())
-                .facilityType(booking.getFacilityType())
-                .startTime(booking.getStartTime())
-                .endTime(booking.getEndTime())
-                .status(booking.getStatus())
-                .purpose(booking.getPurpose())
-                .totalCost(booking.getTotalCost())
-                .userName(booking.getUserName())
-                .createdAt(booking.getCreatedAt())
-                .updatedAt(booking.getUpdatedAt())
-                .durationInHours(booking.getDurationInHoursAsDouble())
-                .canBeCancelled(booking.canBeCancelled())
-                .isActive(booking.isActive())
-                .build();
+    // Only valid while holding the facility lock; the database is authoritative when other nodes may write
+    private boolean hasConflict(Facility facility, LocalDateTime startTime, LocalDateTime endTime, Long excludeBookingId) {
+        if (!lockManager.isPessimistic()) {
+            return scheduleIndex.hasConflict(facility.getId(), startTime, endTime, excludeBookingId);
+        }
+        List<Booking> conflictingBookings = excludeBookingId != null
+                ? bookingRepository.findConflictingBookingsExcluding(facility, startTime, endTime, excludeBookingId)
+                : bookingRepository.findConflictingBookings(facility, startTime, endTime);
+        return !conflictingBookings.isEmpty();
     }
 
-    private Booking convertToEntity(BookingDTO dto) {
-        Booking booking = new Booking();
-        updateBookingFromDTO(booking, dto);
-        return booking;
+    /**
+     * Validates every item, then inserts the valid ones in JDBC batches.
+     *
+     * Facilities are loaded with one query and locked together in stripe order, so two
+     * batches over overlapping facilities cannot deadlock. Conflicts are checked against one range load
+     * of the active bookings overlapping the whole batch, plus the items already accepted
+     * from this batch. An atomic batch with any invalid item creates nothing.
+     */
+    private BookingBatchResultDTO createBookingBatch(List<BookingDTO> bookingDTOs, boolean atomic, int maxAdvanceDays) {
+        int size = bookingDTOs.size();
+        String[] errors = new String[size];
+        
+        Set<Long> facilityIds = bookingDTOs.stream()
+                .map(BookingDTO::getFacilityId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Facility> facilities = facilityRepository.findAllById(facilityIds).stream()
+                .collect(Collectors.toMap(Facility::getId, Function.identity()));
+        lockManager.lockAllForTransaction(facilities.keySet());
+        
+        LocalDateTime windowStart = null;
+        LocalDateTime windowEnd = null;
+        for (int i = 0; i < size; i++) {
+            BookingDTO dto = bookingDTOs.get(i);
+            try {
+                validateBatchItem(dto, facilities.get(dto.getFacilityId()), maxAdvanceDays);
+                windowStart = windowStart == null || dto.getStartTime().isBefore(windowStart) ? dto.getStartTime() : windowStart;
+                windowEnd = windowEnd == null || dto.getEndTime().isAfter(windowEnd) ? dto.getEndTime() : windowEnd;
+            } catch (RuntimeException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+        
+        // Active intervals per facility: existing bookings in the window, then accepted batch items
+        Map<Long, List<LocalDateTime[]>> taken = new HashMap<>();
+        if (windowStart != null) {
+            for (Object[] row : bookingRepository.findActiveIntervalsForFacilities(facilities.keySet(), windowStart, windowEnd)) {
+                taken.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add(new LocalDateTime[]{(LocalDateTime) row[1], (LocalDateTime) row[2]});
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            BookingDTO dto = bookingDTOs.get(i);
+            List<LocalDateTime[]> intervals = taken.computeIfAbsent(dto.getFacilityId(), id -> new ArrayList<>());
+            boolean conflict = intervals.stream().anyMatch(interval ->
+                    interval[0].isBefore(dto.getEndTime()) && interval[1].isAfter(dto.getStartTime()));
+            if (conflict) {
+                metrics.conflictRejected("batch");
+                errors[i] = "Time slot conflicts with existing booking. Please choose different time.";
+            } else {
+                intervals.add(new LocalDateTime[]{dto.getStartTime(), dto.getEndTime()});
+            }
+        }
+        
+        boolean anyFailed = Arrays.stream(errors).anyMatch(Objects::nonNull);
+        Booking[] created = new Booking[size];
+        if (!(atomic && anyFailed)) {
+            List<Booking> toSave = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (errors[i] == null) {
+                    created[i] = newPendingBooking(bookingDTOs.get(i), facilities.get(bookingDTOs.get(i).getFacilityId()));
+                    toSave.add(created[i]);
+                }
+            }
+            // Flushed here so the whole batch goes out as JDBC batches before results are built
+            bookingRepository.saveAll(toSave);
+            bookingRepository.flush();
+            changes.created(toSave);
+        }
+        
+        List<BookingBatchResultDTO.BookingBatchItemDTO> results = new ArrayList<>(size);
+        int createdCount = 0;
+        for (int i = 0; i < size; i++) {
+            BookingBatchResultDTO.BookingBatchItemDTO.BookingBatchItemDTOBuilder item =
+                    BookingBatchResultDTO.BookingBatchItemDTO.builder().index(i);
+            if (created[i] != null) {
+                item.created(true).booking(BookingMapper.toDTO(created[i]));
+                createdCount++;
+            } else {
+                item.created(false).booking(bookingDTOs.get(i))
+                        .error(errors[i] != null ? errors[i] : "Not created because other bookings in the batch failed");
+            }
+            results.add(item.build());
+        }
+        
+        log.info("Batch created {} of {} bookings", createdCount, size);
+        return BookingBatchResultDTO.builder()
+                .atomic(atomic)
+                .requested(size)
+                .created(createdCount)
+                .failed(size - createdCount)
+                .results(results)
+                .build();
     }
 
-    private void updateBookingFromDTO(Booking booking, BookingDTO dto) {
-        if (dto.getUserId() != null) {
-            booking.setUserId(dto.getUserId());
+    private void validateBatchItem(BookingDTO dto, Facility facility, int maxAdvanceDays) {
+        if (dto.getUserId() == null || dto.getUserId().isBlank()) {
+            throw new RuntimeException("User ID is required");
         }
-        if (dto.getStartTime() != null) {
-            booking.setStartTime(dto.getStartTime());
+        if (dto.getFacilityId() == null) {
+            throw new RuntimeException("Facility ID is required");
         }
-        if (dto.getEndTime() != null) {
-            booking.setEndTime(dto.getEndTime());
+        if (dto.getStartTime() == null || dto.getEndTime() == null) {
+            throw new RuntimeException("Start time and end time are required");
         }
-        if (dto.getPurpose() != null) {
-            booking.setPurpose(dto.getPurpose());
+        if (facility == null) {
+            throw new RuntimeException("Facility not found with ID: " + dto.getFacilityId());
         }
-        if (dto.getUserName() != null) {
-            booking.setUserName(dto.getUserName());
+        if (!facility.isAvailableForBooking()) {
+            throw new RuntimeException("Facility '" + facility.getName() + "' is not available for booking");
         }
+        validateBookingTimes(dto.getStartTime(), dto.getEndTime(), maxAdvanceDays);
+    }
+
+    private Booking newPendingBooking(BookingDTO bookingDTO, Facility facility) {
+        Booking booking = BookingMapper.toEntity(bookingDTO);
+        booking.setFacility(facility);
+        booking.setStatus("pending");
+        
+        double hours = Duration.between(booking.getStartTime(), booking.getEndTime()).toMinutes() / 60.0;
+        booking.setTotalCost(facility.getHourlyRate().multiply(BigDecimal.valueOf(hours)));
+        return booking;
+    }
+
+    // Reads the listing row of a booking a conditional update just transitioned. The update holds
+    // the row lock until commit, so this sees exactly that transition; one joined select, no entity.
+    private BookingListView afterTransition(Long id, String fromStatus) {
+        BookingListView booking = bookingRepository.findViewById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
+        BookingSnapshot after = BookingSnapshot.of(booking);
+        changes.changed(after.withStatus(fromStatus), after);
+        return booking;
+    }
+
+    // Only read when a conditional update matched nothing, to tell a missing booking from a wrong state
+    private String currentStatus(Long id) {
+        return bookingRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id))
+                .getStatus();
+    }
+
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private BookingPageDTO toPage(List<BookingListView> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<BookingListView> page = hasMore ? rows.subList(0, pageSize) : rows;
+        BookingListView last = page.isEmpty() ? null : page.get(page.size() - 1);
+        
+        return BookingPageDTO.builder()
+                .bookings(page.stream().map(BookingMapper::toDTO).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new BookingCursor(last.startTime(), last.id()).encode() : null)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
     }
-}
\ No newline at end of file
+}
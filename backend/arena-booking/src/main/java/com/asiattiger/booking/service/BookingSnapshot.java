@@ -0,0 +1,38 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.repository.BookingListView;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the booking fields the in-memory views (schedule index, statistics)
+ * care about, taken before or after a state change.
+ */
+public record BookingSnapshot(Long id, Long facilityId, String status,
+                              LocalDateTime startTime, LocalDateTime endTime, BigDecimal totalCost) {
+
+    public static BookingSnapshot of(Booking booking) {
+        return new BookingSnapshot(booking.getId(), booking.getFacility().getId(), booking.getStatus(),
+                booking.getStartTime(), booking.getEndTime(), booking.getTotalCost());
+    }
+
+    public static BookingSnapshot of(BookingListView view) {
+        return new BookingSnapshot(view.id(), view.facilityId(), view.status(),
+                view.startTime(), view.endTime(), view.totalCost());
+    }
+
+    public BookingSnapshot withStatus(String otherStatus) {
+        return new BookingSnapshot(id, facilityId, otherStatus, startTime, endTime, totalCost);
+    }
+
+    public boolean isActive() {
+        return "confirmed".equals(status) || "pending".equals(status);
+    }
+
+    // Bookings that count as used capacity in the dashboard statistics
+    public boolean isFulfilled() {
+        return "confirmed".equals(status) || "completed".equals(status);
+    }
+}
@@ -0,0 +1,178 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Incrementally maintained booking statistics for the dashboard.
+ *
+ * Counters are rebuilt from grouped queries at startup and then adjusted by
+ * {@link BookingService} on every committed state change, so reading them costs
+ * no database access. Revenue is kept in cents to allow lock-free accumulation.
+ *
+ * Only this node's changes are applied, so the counters are also rebuilt every
+ * {@code booking.stats.rebuild-interval} to pick up other nodes' changes (and bulk SQL
+ * run outside the services). A change committed while a rebuild runs may be missing
+ * until the next one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingStatsAggregator {
+
+    private final BookingRepository bookingRepository;
+
+    private volatile Counters counters = new Counters();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${booking.stats.rebuild-interval:PT5M}",
+            initialDelayString = "${booking.stats.rebuild-interval:PT5M}")
+    public void rebuild() {
+        Counters rebuilt = new Counters();
+
+        for (Object[] row : bookingRepository.countBookingsByStatus()) {
+            rebuilt.status((String) row[0]).add(((Number) row[1]).longValue());
+        }
+        for (Object[] row : bookingRepository.getMonthlyBookingTotals()) {
+            MonthTotals month = rebuilt.month(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()));
+            month.bookings.add(((Number) row[2]).longValue());
+            month.confirmedRevenueCents.add(toCents(row[3] != null ? new BigDecimal(row[3].toString()) : null));
+        }
+        for (Object[] row : bookingRepository.findPopularTimeSlots()) {
+            rebuilt.hours[((Number) row[0]).intValue()].add(((Number) row[1]).longValue());
+        }
+        for (Object[] row : bookingRepository.countFulfilledBookingsByFacility()) {
+            rebuilt.facility((Long) row[0]).add(((Number) row[1]).longValue());
+        }
+
+        counters = rebuilt;
+        log.info("Booking statistics rebuilt: {} bookings across {} months", rebuilt.totalBookings(), rebuilt.months.size());
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Applies a state change. {@code before} is null for new bookings and {@code after}
+     * is null for removed ones.
+     */
+    public void record(BookingSnapshot before, BookingSnapshot after) {
+        Counters current = counters;
+        if (before != null) {
+            apply(current, before, -1);
+        }
+        if (after != null) {
+            apply(current, after, 1);
+        }
+    }
+
+    private static void apply(Counters target, BookingSnapshot booking, int sign) {
+        target.status(booking.status()).add(sign);
+
+        MonthTotals month = target.month(YearMonth.from(booking.startTime()));
+        month.bookings.add(sign);
+        if ("confirmed".equals(booking.status())) {
+            month.confirmedRevenueCents.add(sign * toCents(booking.totalCost()));
+        }
+
+        if (booking.isFulfilled()) {
+            target.hours[booking.startTime().getHour()].add(sign);
+            target.facility(booking.facilityId()).add(sign);
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    public long countByStatus(String status) {
+        LongAdder count = counters.statuses.get(status);
+        return count != null ? count.sum() : 0L;
+    }
+
+    // Bookings of any status starting in the month
+    public long bookingsIn(YearMonth month) {
+        MonthTotals totals = counters.months.get(month);
+        return totals != null ? totals.bookings.sum() : 0L;
+    }
+
+    // Revenue of confirmed bookings starting in the month
+    public BigDecimal confirmedRevenueIn(YearMonth month) {
+        MonthTotals totals = counters.months.get(month);
+        return BigDecimal.valueOf(totals != null ? totals.confirmedRevenueCents.sum() : 0L, 2);
+    }
+
+    // Start hours of confirmed/completed bookings, busiest first: hour -> count
+    public List<Map.Entry<Integer, Long>> popularHours(int limit) {
+        LongAdder[] hours = counters.hours;
+        return IntStream.range(0, hours.length)
+                .mapToObj(hour -> Map.entry(hour, hours[hour].sum()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    // Facilities by confirmed/completed bookings, busiest first: facilityId -> count
+    public List<Map.Entry<Long, Long>> busiestFacilities(int limit) {
+        return counters.facilities.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    // ==================== COUNTERS ====================
+
+    private static final class Counters {
+
+        final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        final Map<YearMonth, MonthTotals> months = new ConcurrentHashMap<>();
+        final LongAdder[] hours = new LongAdder[24];
+        final Map<Long, LongAdder> facilities = new ConcurrentHashMap<>();
+
+        Counters() {
+            for (int i = 0; i < hours.length; i++) {
+                hours[i] = new LongAdder();
+            }
+        }
+
+        LongAdder status(String status) {
+            return statuses.computeIfAbsent(status, key -> new LongAdder());
+        }
+
+        MonthTotals month(YearMonth month) {
+            return months.computeIfAbsent(month, key -> new MonthTotals());
+        }
+
+        LongAdder facility(Long facilityId) {
+            return facilities.computeIfAbsent(facilityId, key -> new LongAdder());
+        }
+
+        long totalBookings() {
+            return statuses.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    private static final class MonthTotals {
+        final LongAdder bookings = new LongAdder();
+        final LongAdder confirmedRevenueCents = new LongAdder();
+    }
+}
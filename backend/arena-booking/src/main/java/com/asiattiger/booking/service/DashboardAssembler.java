@@ -0,0 +1,214 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.dto.DashboardStatsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Builds dashboard statistics from independent sections.
+ *
+ * Database sections run concurrently on a small dedicated pool, each in its own read-only
+ * transaction (and so on its own connection); in-memory sections run on the caller. Every
+ * section has a deadline, {@code booking.dashboard.timeouts.<section>} or the default
+ * {@code booking.dashboard.section-timeout}, measured from the start of the fan-out. A section
+ * that is late, fails or cannot be queued is left out and the result is flagged as partial.
+ *
+ * Meters: {@code booking.dashboard.section} (timer, by section and outcome),
+ * {@code booking.dashboard.section.degraded} (counter, by section and reason) and
+ * {@code booking.dashboard.assembly} (timer, by partial).
+ */
+@Component
+@Slf4j
+public class DashboardAssembler {
+
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final Duration defaultTimeout;
+    private final ThreadPoolExecutor executor;
+
+    public DashboardAssembler(PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              Environment environment,
+                              @Value("${booking.dashboard.threads:4}") int threads,
+                              @Value("${booking.dashboard.queue-capacity:64}") int queueCapacity,
+                              @Value("${booking.dashboard.section-timeout:PT2S}") Duration defaultTimeout) {
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.defaultTimeout = defaultTimeout;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ==================== SECTIONS ====================
+
+    /**
+     * A section that reads from the database; it runs on the pool in its own read-only transaction.
+     */
+    public static <T> Section<T> query(String name, Supplier<T> loader,
+                                       BiConsumer<DashboardStatsDTO.DashboardStatsDTOBuilder, T> apply) {
+        return new Section<>(name, true, loader, apply);
+    }
+
+    /**
+     * A section computed from in-memory state; it runs on the caller and cannot time out.
+     */
+    public static <T> Section<T> inMemory(String name, Supplier<T> loader,
+                                          BiConsumer<DashboardStatsDTO.DashboardStatsDTOBuilder, T> apply) {
+        return new Section<>(name, false, loader, apply);
+    }
+
+    public record Section<T>(String name, boolean database, Supplier<T> loader,
+                             BiConsumer<DashboardStatsDTO.DashboardStatsDTOBuilder, T> apply) {
+
+        void applyTo(DashboardStatsDTO.DashboardStatsDTOBuilder builder, Object value) {
+            @SuppressWarnings("unchecked")
+            T typed = (T) value;
+            apply.accept(builder, typed);
+        }
+    }
+
+    // ==================== ASSEMBLY ====================
+
+    public DashboardStatsDTO assemble(List<Section<?>> sections) {
+        long started = System.nanoTime();
+        Map<Section<?>, Future<Object>> pending = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        DashboardStatsDTO.DashboardStatsDTOBuilder builder = DashboardStatsDTO.builder();
+
+        // Fan out the database sections first so they overlap with the in-memory ones
+        for (Section<?> section : sections) {
+            if (!section.database()) {
+                continue;
+            }
+            try {
+                pending.put(section, executor.submit(() -> runQuery(section)));
+            } catch (RejectedExecutionException e) {
+                degraded(section, "rejected", unavailable);
+            }
+        }
+
+        for (Section<?> section : sections) {
+            if (!section.database()) {
+                try {
+                    section.applyTo(builder, timed(section, section.loader()));
+                } catch (RuntimeException e) {
+                    log.warn("⚠️ Dashboard section '{}' failed: {}", section.name(), e.getMessage());
+                    degraded(section, "error", unavailable);
+                }
+            }
+        }
+
+        for (Map.Entry<Section<?>, Future<Object>> entry : pending.entrySet()) {
+            Section<?> section = entry.getKey();
+            Future<Object> future = entry.getValue();
+            long remainingNanos = started + timeoutOf(section).toNanos() - System.nanoTime();
+            try {
+                section.applyTo(builder, future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // No interrupt: it would break the JDBC connection; the transaction timeout ends the query
+                future.cancel(false);
+                log.warn("⏱️ Dashboard section '{}' exceeded {} and was left out", section.name(), timeoutOf(section));
+                degraded(section, "timeout", unavailable);
+            } catch (ExecutionException e) {
+                log.warn("⚠️ Dashboard section '{}' failed: {}", section.name(), e.getCause().getMessage());
+                degraded(section, "error", unavailable);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+                degraded(section, "interrupted", unavailable);
+            }
+        }
+
+        boolean partial = !unavailable.isEmpty();
+        Timer.builder("booking.dashboard.assembly")
+                .description("Time to assemble dashboard statistics")
+                .tag("partial", Boolean.toString(partial))
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        return builder
+                .partial(partial)
+                .unavailableSections(unavailable)
+                .build();
+    }
+
+    private Object runQuery(Section<?> section) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Backstop that lets the driver abort a query still running well past the section deadline;
+        // one extra second because Hibernate truncates the remaining time to whole seconds
+        transaction.setTimeout((int) ((timeoutOf(section).toMillis() + 999) / 1000) + 1);
+        return timed(section, () -> transaction.execute(status -> section.loader().get()));
+    }
+
+    private Object timed(Section<?> section, Supplier<?> loader) {
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object value = loader.get();
+            outcome = "success";
+            return value;
+        } finally {
+            Timer.builder("booking.dashboard.section")
+                    .description("Time spent computing one dashboard section")
+                    .tag("section", section.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void degraded(Section<?> section, String reason, List<String> unavailable) {
+        unavailable.add(section.name());
+        Counter.builder("booking.dashboard.section.degraded")
+                .description("Dashboard sections left out of a response")
+                .tag("section", section.name())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Duration timeoutOf(Section<?> section) {
+        return environment.getProperty("booking.dashboard.timeouts." + section.name(), Duration.class, defaultTimeout);
+    }
+}
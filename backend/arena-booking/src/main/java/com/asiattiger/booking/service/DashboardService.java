@@ -1,16 +1,20 @@
 package com.asiattiger.booking.service;
 
 import com.asiattiger.booking.dto.DashboardStatsDTO;
+import com.asiattiger.booking.entity.Facility;
 import com.asiattiger.booking.repository.BookingRepository;
 import com.asiattiger.booking.repository.FacilityRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,33 +27,51 @@ public class DashboardService {
 
     private final FacilityRepository facilityRepository;
     private final BookingRepository bookingRepository;
+    private final BookingStatsAggregator statsAggregator;
+    private final DashboardAssembler dashboardAssembler;
 
+    // Sections run on the assembler's own threads and transactions; don't hold a connection meanwhile
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardStatsDTO getDashboardStatistics() {
-        log.info("📊 Generating dashboard statistics");
-        
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfMonth = now.with(TemporalAdjusters.firstDayOfMonth()).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfMonth = now.with(TemporalAdjusters.lastDayOfMonth()).withHour(23).withMinute(59).withSecond(59);
-        
-        return DashboardStatsDTO.builder()
-                .totalFacilities(facilityRepository.countActiveFacilities())
-                .facilitiesUnderMaintenance(facilityRepository.countFacilitiesUnderMaintenance())
-                .totalBookings(bookingRepository.countConfirmedBookings() + bookingRepository.countPendingBookings())
-                .confirmedBookings(bookingRepository.countConfirmedBookings())
-                .pendingBookings(bookingRepository.countPendingBookings())
-                .cancelledBookings(bookingRepository.countCancelledBookings())
-                .monthlyBookings(bookingRepository.countBookingsInDateRange(startOfMonth, endOfMonth))
-                .monthlyRevenue(bookingRepository.getTotalRevenueInDateRange(startOfMonth, endOfMonth))
-                .averageHourlyRate(facilityRepository.getAverageHourlyRate())
-                .popularTimeSlots(getPopularTimeSlots())
-                .facilityUsageStats(getFacilityUsageStatistics())
-                .revenueByMonth(getMonthlyRevenueData())
-                .bookingTrends(getBookingTrendsData())
-                .build();
+        log.debug("📊 Generating dashboard statistics");
+        
+        // Booking figures come from the in-memory aggregator; only facility figures hit the database
+        YearMonth currentMonth = YearMonth.now();
+        
+        DashboardStatsDTO stats = dashboardAssembler.assemble(List.of(
+                DashboardAssembler.query("totalFacilities", facilityRepository::countActiveFacilities,
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::totalFacilities),
+                DashboardAssembler.query("facilitiesUnderMaintenance", facilityRepository::countFacilitiesUnderMaintenance,
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::facilitiesUnderMaintenance),
+                DashboardAssembler.query("averageHourlyRate", facilityRepository::getAverageHourlyRate,
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::averageHourlyRate),
+                DashboardAssembler.query("facilityUsageStats", this::getFacilityUsageStatistics,
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::facilityUsageStats),
+                DashboardAssembler.inMemory("bookingCounts", this::getBookingCounts, (builder, counts) -> builder
+                        .totalBookings(counts.get("confirmed") + counts.get("pending"))
+                        .confirmedBookings(counts.get("confirmed"))
+                        .pendingBookings(counts.get("pending"))
+                        .cancelledBookings(counts.get("cancelled"))),
+                DashboardAssembler.inMemory("monthlyBookings", () -> statsAggregator.bookingsIn(currentMonth),
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::monthlyBookings),
+                DashboardAssembler.inMemory("monthlyRevenue", () -> statsAggregator.confirmedRevenueIn(currentMonth),
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::monthlyRevenue),
+                DashboardAssembler.inMemory("popularTimeSlots", this::getPopularTimeSlots,
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::popularTimeSlots),
+                DashboardAssembler.inMemory("revenueByMonth", this::getMonthlyRevenueData,
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::revenueByMonth),
+                DashboardAssembler.inMemory("bookingTrends", this::getBookingTrendsData,
+                        DashboardStatsDTO.DashboardStatsDTOBuilder::bookingTrends)
+        ));
+        
+        if (stats.isPartial()) {
+            log.warn("📊 Dashboard statistics are partial, missing: {}", stats.getUnavailableSections());
+        }
+        return stats;
     }
 
     public Map<String, Object> getRevenueData(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("💰 Getting revenue data from {} to {}", startDate, endDate);
+        log.debug("💰 Getting revenue data from {} to {}", startDate, endDate);
         
         BigDecimal totalRevenue = bookingRepository.getTotalRevenueInDateRange(startDate, endDate);
         Long totalBookings = bookingRepository.countBookingsInDateRange(startDate, endDate);
@@ -70,53 +92,62 @@ public class DashboardService {
     }
 
     public List<Map<String, Object>> getPopularFacilities() {
-        log.info("🔥 Getting popular facilities data");
-        
-        List<Object[]> facilityStats = bookingRepository.getFacilityUsageStatistics();
+        log.debug("🔥 Getting popular facilities data");
         
-        return facilityStats.stream()
-                .limit(10) // Top 10 popular facilities
-                .map(stat -> {
-                    Map<String, Object> facilityData = new HashMap<>();
-                    // stat[0] is Facility entity, stat[1] is booking count
-                    facilityData.put("facility", stat[0]);
-                    facilityData.put("bookingCount", stat[1]);
-                    return facilityData;
-                })
-                .collect(Collectors.toList());
+        return getFacilityUsage(10); // Top 10 popular facilities
     }
 
     public List<Map<String, Object>> getBookingTrends(int months) {
-        log.info("📈 Getting booking trends for last {} months", months);
+        log.debug("📈 Getting booking trends for last {} months", months);
         
-        List<Map<String, Object>> trends = new ArrayList<>();
-        LocalDateTime endDate = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+        LocalDate firstMonth = today.minusMonths(months - 1L).with(TemporalAdjusters.firstDayOfMonth());
         
-        for (int i = 0; i < months; i++) {
-            LocalDateTime startDate = endDate.minusMonths(i + 1).with(TemporalAdjusters.firstDayOfMonth())
-                    .withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime monthEnd = endDate.minusMonths(i).with(TemporalAdjusters.lastDayOfMonth())
-                    .withHour(23).withMinute(59).withSecond(59);
-            
-            Long bookingCount = bookingRepository.countBookingsInDateRange(startDate, monthEnd);
-            BigDecimal revenue = bookingRepository.getTotalRevenueInDateRange(startDate, monthEnd);
+        return getBookingTrends(firstMonth, today.with(TemporalAdjusters.lastDayOfMonth()), TrendGranularity.MONTH);
+    }
+
+    public List<Map<String, Object>> getBookingTrends(LocalDate fromDate, LocalDate toDate, TrendGranularity granularity) {
+        log.debug("📈 Getting {} booking trends from {} to {}", granularity, fromDate, toDate);
+        
+        LocalDateTime startDate = fromDate.atStartOfDay();
+        LocalDateTime endDate = toDate.atTime(23, 59, 59);
+        
+        // One grouped query for the whole range; months come back per month, weeks are rolled up from days
+        TreeMap<LocalDate, TrendBucket> buckets = new TreeMap<>();
+        if (granularity == TrendGranularity.MONTH) {
+            for (Object[] row : bookingRepository.getMonthlyTotalsInDateRange(startDate, endDate)) {
+                LocalDate period = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1);
+                buckets.computeIfAbsent(period, key -> new TrendBucket()).add(row[2], row[3]);
+            }
+        } else {
+            for (Object[] row : bookingRepository.getDailyTotalsInDateRange(startDate, endDate)) {
+                LocalDate day = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+                buckets.computeIfAbsent(granularity.periodStart(day), key -> new TrendBucket()).add(row[3], row[4]);
+            }
+        }
+        
+        // Fill empty periods in memory so charts get a continuous series
+        List<Map<String, Object>> trends = new ArrayList<>();
+        for (LocalDate period = granularity.periodStart(fromDate); !period.isAfter(toDate); period = granularity.next(period)) {
+            TrendBucket bucket = buckets.getOrDefault(period, TrendBucket.EMPTY);
             
-            Map<String, Object> monthData = new HashMap<>();
-            monthData.put("month", startDate.getMonth().toString());
-            monthData.put("year", startDate.getYear());
-            monthData.put("bookingCount", bookingCount);
-            monthData.put("revenue", revenue != null ? revenue : BigDecimal.ZERO);
-            monthData.put("startDate", startDate);
-            monthData.put("endDate", monthEnd);
+            Map<String, Object> periodData = new HashMap<>();
+            periodData.put("period", period);
+            periodData.put("month", period.getMonth().toString());
+            periodData.put("year", period.getYear());
+            periodData.put("bookingCount", bucket.bookingCount);
+            periodData.put("revenue", bucket.revenue);
+            periodData.put("startDate", period.atStartOfDay());
+            periodData.put("endDate", granularity.next(period).atStartOfDay().minusSeconds(1));
             
-            trends.add(0, monthData); // Add to beginning to get chronological order
+            trends.add(periodData);
         }
         
         return trends;
     }
 
     public Map<String, Object> getTodayStats() {
-        log.info("📅 Getting today's statistics");
+        log.debug("📅 Getting today's statistics");
         
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
         LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
@@ -133,7 +164,7 @@ public class DashboardService {
     }
 
     public Map<String, Object> getWeeklyStats() {
-        log.info("📊 Getting weekly statistics");
+        log.debug("📊 Getting weekly statistics");
         
         LocalDateTime startOfWeek = LocalDate.now().atStartOfDay().minusDays(7);
         LocalDateTime endOfWeek = LocalDateTime.now();
@@ -151,7 +182,7 @@ public class DashboardService {
     }
 
     public List<Map<String, Object>> getFacilityTypeDistribution() {
-        log.info("📊 Getting facility type distribution");
+        log.debug("📊 Getting facility type distribution");
         
         // This would need a custom query in the repository, but for now we'll simulate
         Map<String, Long> distribution = new HashMap<>();
@@ -171,30 +202,84 @@ public class DashboardService {
                 .collect(Collectors.toList());
     }
 
+    public enum TrendGranularity {
+        DAY, WEEK, MONTH;
+
+        LocalDate periodStart(LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return date.with(TemporalAdjusters.firstDayOfMonth());
+                default:
+                    return date;
+            }
+        }
+
+        LocalDate next(LocalDate periodStart) {
+            switch (this) {
+                case WEEK:
+                    return periodStart.plusWeeks(1);
+                case MONTH:
+                    return periodStart.plusMonths(1);
+                default:
+                    return periodStart.plusDays(1);
+            }
+        }
+    }
+
+    private static final class TrendBucket {
+        static final TrendBucket EMPTY = new TrendBucket();
+
+        long bookingCount;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        void add(Object count, Object confirmedRevenue) {
+            bookingCount += ((Number) count).longValue();
+            if (confirmedRevenue != null) {
+                revenue = revenue.add(new BigDecimal(confirmedRevenue.toString()));
+            }
+        }
+    }
+
     // Private helper methods
+    private Map<String, Long> getBookingCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (String status : List.of("confirmed", "pending", "cancelled")) {
+            counts.put(status, statsAggregator.countByStatus(status));
+        }
+        return counts;
+    }
+
     private List<Map<String, Object>> getPopularTimeSlots() {
-        List<Object[]> timeSlots = bookingRepository.findPopularTimeSlots();
-        
-        return timeSlots.stream()
-                .limit(5) // Top 5 time slots
+        return statsAggregator.popularHours(5).stream() // Top 5 time slots
                 .map(slot -> {
                     Map<String, Object> slotData = new HashMap<>();
-                    slotData.put("hour", slot[0]);
-                    slotData.put("bookingCount", slot[1]);
+                    slotData.put("hour", slot.getKey());
+                    slotData.put("bookingCount", slot.getValue());
                     return slotData;
                 })
                 .collect(Collectors.toList());
     }
 
     private List<Map<String, Object>> getFacilityUsageStatistics() {
-        List<Object[]> facilityStats = bookingRepository.getFacilityUsageStatistics();
+        return getFacilityUsage(5); // Top 5 facilities
+    }
+
+    // Ranking comes from memory; one lookup loads the facilities to display, equipment included
+    // because the dashboard fan-out serializes them after their transaction has ended
+    private List<Map<String, Object>> getFacilityUsage(int limit) {
+        List<Map.Entry<Long, Long>> usage = statsAggregator.busiestFacilities(limit);
+        Map<Long, Facility> facilities = facilityRepository.findAllWithEquipmentByIdIn(
+                usage.stream().map(Map.Entry::getKey).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Facility::getId, facility -> facility));
         
-        return facilityStats.stream()
-                .limit(5) // Top 5 facilities
-                .map(stat -> {
+        return usage.stream()
+                .filter(entry -> facilities.containsKey(entry.getKey()))
+                .map(entry -> {
                     Map<String, Object> facilityData = new HashMap<>();
-                    facilityData.put("facility", stat[0]);
-                    facilityData.put("bookingCount", stat[1]);
+                    facilityData.put("facility", facilities.get(entry.getKey()));
+                    facilityData.put("bookingCount", entry.getValue());
                     return facilityData;
                 })
                 .collect(Collectors.toList());
@@ -202,20 +287,15 @@ public class DashboardService {
 
     private List<Map<String, Object>> getMonthlyRevenueData() {
         List<Map<String, Object>> monthlyData = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
+        YearMonth currentMonth = YearMonth.now();
         
         for (int i = 5; i >= 0; i--) {
-            LocalDateTime startDate = now.minusMonths(i).with(TemporalAdjusters.firstDayOfMonth())
-                    .withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime endDate = now.minusMonths(i).with(TemporalAdjusters.lastDayOfMonth())
-                    .withHour(23).withMinute(59).withSecond(59);
-            
-            BigDecimal revenue = bookingRepository.getTotalRevenueInDateRange(startDate, endDate);
+            YearMonth month = currentMonth.minusMonths(i);
             
             Map<String, Object> monthData = new HashMap<>();
-            monthData.put("month", startDate.getMonth().toString());
-            monthData.put("year", startDate.getYear());
-            monthData.put("revenue", revenue != null ? revenue : BigDecimal.ZERO);
+            monthData.put("month", month.getMonth().toString());
+            monthData.put("year", month.getYear());
+            monthData.put("revenue", statsAggregator.confirmedRevenueIn(month));
             
             monthlyData.add(monthData);
         }
@@ -225,24 +305,19 @@ public class DashboardService {
 
     private List<Map<String, Object>> getBookingTrendsData() {
         List<Map<String, Object>> trends = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
+        YearMonth currentMonth = YearMonth.now();
         
         for (int i = 6; i >= 0; i--) {
-            LocalDateTime startDate = now.minusMonths(i).with(TemporalAdjusters.firstDayOfMonth())
-                    .withHour(0).withMinute(0).withSecond(0);
-            LocalDateTime endDate = now.minusMonths(i).with(TemporalAdjusters.lastDayOfMonth())
-                    .withHour(23).withMinute(59).withSecond(59);
-            
-            Long bookingCount = bookingRepository.countBookingsInDateRange(startDate, endDate);
+            YearMonth month = currentMonth.minusMonths(i);
             
             Map<String, Object> trendData = new HashMap<>();
-            trendData.put("month", startDate.getMonth().toString());
-            trendData.put("year", startDate.getYear());
-            trendData.put("bookingCount", bookingCount);
+            trendData.put("month", month.getMonth().toString());
+            trendData.put("year", month.getYear());
+            trendData.put("bookingCount", statsAggregator.bookingsIn(month));
             
             trends.add(trendData);
         }
         
         return trends;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.config.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live database and connection pool status for /api/health.
+ *
+ * Pool figures are read before probing, so a saturated pool is reported as such; the
+ * probe itself then waits at most the pool's connection timeout. The probe and pool figures are
+ * for the primary; with a read replica configured its last probe result is added as "replica".
+ */
+@Service
+@Slf4j
+public class DatabaseHealthService {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+
+    public DatabaseHealthService(DataSource dataSource, ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        this.dataSource = dataSource;
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    public Map<String, Object> check() {
+        Map<String, Object> health = new LinkedHashMap<>();
+        Map<String, Object> pool = poolStats();
+        
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            DatabaseMetaData metaData = connection.getMetaData();
+            health.put("status", valid ? "UP" : "DOWN");
+            health.put("product", metaData.getDatabaseProductName() + " " + metaData.getDatabaseProductVersion());
+        } catch (SQLException e) {
+            log.warn("❌ Database health probe failed: {}", e.getMessage());
+            health.put("status", "DOWN");
+            health.put("error", e.getMessage());
+        }
+        health.put("probeMillis", (System.nanoTime() - started) / 1_000_000);
+        if (pool != null) {
+            health.put("pool", pool);
+        }
+        replicaLagMonitor.ifAvailable(monitor -> health.put("replica", monitor.status()));
+        return health;
+    }
+
+    private Map<String, Object> poolStats() {
+        HikariDataSource hikari;
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            return null;
+        }
+        HikariPoolMXBean poolBean = hikari.getHikariPoolMXBean();
+        if (poolBean == null) {
+            return null;
+        }
+        
+        int max = hikari.getMaximumPoolSize();
+        int active = poolBean.getActiveConnections();
+        int waiting = poolBean.getThreadsAwaitingConnection();
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("name", hikari.getPoolName());
+        pool.put("active", active);
+        pool.put("idle", poolBean.getIdleConnections());
+        pool.put("total", poolBean.getTotalConnections());
+        pool.put("max", max);
+        pool.put("threadsAwaiting", waiting);
+        pool.put("utilization", max > 0 ? (double) active / max : 0.0);
+        pool.put("saturated", active >= max || waiting > 0);
+        return pool;
+    }
+}
@@ -0,0 +1,99 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.config.ReadYourWrites;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache for facility catalog reads, keyed by query shape
+ * ("all", "available", "type:futsal", "id:42").
+ *
+ * Every invalidation bumps a catalog version which doubles as the HTTP ETag, so
+ * clients can revalidate with If-None-Match without the catalog being rebuilt.
+ */
+@Component
+@Slf4j
+public class FacilityCatalogCache {
+
+    static final String ALL = "all";
+    static final String AVAILABLE = "available";
+
+    private final Cache<String, Object> cache;
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+    private volatile long version;
+
+    public FacilityCatalogCache(@Value("${booking.facility-cache.max-size:500}") long maxSize,
+                                @Value("${booking.facility-cache.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    static String typeKey(String type) {
+        return "type:" + type.toLowerCase();
+    }
+
+    static String idKey(Long id) {
+        return "id:" + id;
+    }
+
+    // Misses load from the primary: an entry filled from a lagging replica after an invalidation
+    // would be served under the new ETag until it expires
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        return (T) cache.get(key, k -> ReadYourWrites.fromPrimary(loader));
+    }
+
+    // Weak validator for the whole catalog; the instance tag keeps versions of different nodes apart
+    public String getETag() {
+        return "W/\"facilities-" + instanceTag + "-" + version + "\"";
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    public Cache<String, Object> getNativeCache() {
+        return cache;
+    }
+
+    // ==================== INVALIDATION ====================
+
+    // A facility was created, changed or removed: drop its own entry and every list it may appear in
+    public void invalidateFacility(Long id, String... types) {
+        if (id != null) {
+            cache.invalidate(idKey(id));
+        }
+        cache.invalidate(ALL);
+        cache.invalidate(AVAILABLE);
+        for (String type : types) {
+            if (type != null) {
+                cache.invalidate(typeKey(type));
+            }
+        }
+        bumpVersion();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        bumpVersion();
+    }
+
+    private synchronized void bumpVersion() {
+        version++;
+        log.debug("Facility catalog cache invalidated, version {}", version);
+    }
+}
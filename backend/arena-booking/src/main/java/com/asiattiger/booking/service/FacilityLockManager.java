@@ -0,0 +1,136 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Striped write locks keyed by facility ID.
+ *
+ * Writers on the same facility are serialized from the conflict check until their
+ * transaction completes; writers on other facilities only contend if they hash to
+ * the same stripe. With {@code booking.locking.pessimistic=true} the facility row is
+ * additionally locked with SELECT ... FOR UPDATE so several nodes can share one database.
+ */
+@Component
+@Slf4j
+public class FacilityLockManager {
+
+    private final BookingRepository bookingRepository;
+    private final StampedLock[] stripes;
+    private final long timeoutMillis;
+    private final boolean pessimistic;
+
+    public FacilityLockManager(BookingRepository bookingRepository,
+                               @Value("${booking.locking.stripes:64}") int stripeCount,
+                               @Value("${booking.locking.timeout-ms:5000}") long timeoutMillis,
+                               @Value("${booking.locking.pessimistic:false}") boolean pessimistic) {
+        this.bookingRepository = bookingRepository;
+        this.stripes = new StampedLock[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new StampedLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.pessimistic = pessimistic;
+    }
+
+    /**
+     * Whether the database row lock is authoritative. In that mode other nodes may have
+     * written bookings this node has not seen, so callers must check conflicts against
+     * the database instead of the in-memory schedule index.
+     */
+    public boolean isPessimistic() {
+        return pessimistic;
+    }
+
+    /**
+     * Locks the facility for the rest of the current transaction. The lock is released
+     * after commit or rollback, so the next writer sees every index update made by this one.
+     * Locking the same facility twice in one transaction is a no-op.
+     */
+    public void lockForTransaction(Long facilityId) {
+        lockAllForTransaction(List.of(facilityId));
+    }
+
+    /**
+     * Locks several facilities for the rest of the current transaction. Stripes are taken in
+     * ascending stripe order, which is not facility ID order (IDs 2 and 65 share no order with
+     * their stripes 2 and 1), so two writers over overlapping sets cannot each hold a stripe
+     * the other waits for. Database row locks follow in ascending facility ID order.
+     */
+    public void lockAllForTransaction(Collection<Long> facilityIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Facility locks require an active transaction");
+        }
+
+        SortedMap<Integer, Long> stripesToLock = new TreeMap<>();
+        for (Long facilityId : facilityIds) {
+            stripesToLock.putIfAbsent(stripeIndex(facilityId), facilityId);
+        }
+        Set<Integer> heldStripes = heldStripes();
+        stripesToLock.forEach((stripe, facilityId) -> {
+            if (heldStripes.add(stripe)) {
+                StampedLock lock = stripes[stripe];
+                long stamp = acquire(lock, facilityId);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlockWrite(stamp);
+                    }
+                });
+            }
+        });
+
+        if (pessimistic) {
+            facilityIds.stream().distinct().sorted().forEach(facilityId -> bookingRepository.lockFacilityForBooking(facilityId)
+                    .orElseThrow(() -> new RuntimeException("Facility not found with ID: " + facilityId)));
+        }
+    }
+
+    private long acquire(StampedLock lock, Long facilityId) {
+        try {
+            long stamp = lock.tryWriteLock(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (stamp == 0L) {
+                log.warn("Timed out after {} ms waiting for booking lock on facility {}", timeoutMillis, facilityId);
+                throw new RuntimeException("Facility is busy processing other bookings. Please try again.");
+            }
+            return stamp;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for booking lock on facility " + facilityId, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Integer> heldStripes() {
+        Set<Integer> held = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+        if (held == null) {
+            held = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, held);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(FacilityLockManager.this);
+                }
+            });
+        }
+        return held;
+    }
+
+    private int stripeIndex(Long facilityId) {
+        int hash = facilityId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.dto.FacilityDTO;
+import com.asiattiger.booking.entity.Facility;
+
+/**
+ * Converts facility entities to DTOs. Stateless, like {@link BookingMapper}.
+ */
+public final class FacilityMapper {
+
+    private FacilityMapper() {
+    }
+
+    public static FacilityDTO toDTO(Facility facility) {
+        FacilityDTO dto = FacilityDTO.builder()
+                .id(facility.getId())
+                .name(facility.getName())
+                .type(facility.getType())
+                .description(facility.getDescription())
+                .hourlyRate(facility.getHourlyRate())
+                .capacity(facility.getCapacity())
+                .location(facility.getLocation())
+                .isActive(facility.getIsActive())
+                .amenities(facility.getAmenities())
+                .imageUrl(facility.getImageUrl())
+                .openingTime(facility.getOpeningTime())
+                .closingTime(facility.getClosingTime())
+                .isUnderMaintenance(facility.getIsUnderMaintenance())
+                .maintenanceNote(facility.getMaintenanceNote())
+                .createdBy(facility.getCreatedBy())
+                .createdAt(facility.getCreatedAt())
+                .updatedAt(facility.getUpdatedAt())
+                .build();
+
+        // Set computed fields
+        dto.setDisplayName(facility.getDisplayName());
+        dto.setStatusDisplay(facility.getStatusDisplay());
+        dto.setAvailableForBooking(facility.isAvailableForBooking());
+        dto.setActiveBookingsCount(0); // We'll implement this later once bookings work
+
+        return dto;
+    }
+}
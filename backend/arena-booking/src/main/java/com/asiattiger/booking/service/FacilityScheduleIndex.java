@@ -0,0 +1,204 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of active (pending/confirmed) booking intervals per facility.
+ *
+ * Each facility holds an immutable snapshot of intervals sorted by start time together
+ * with a running maximum of end times, so an overlap check is a single binary search.
+ * Writers replace the snapshot atomically; readers never block and never allocate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FacilityScheduleIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Schedule> schedules = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, List<long[]>> intervalsByFacility = new HashMap<>();
+        for (Object[] row : bookingRepository.findActiveBookingIntervals()) {
+            Long facilityId = (Long) row[0];
+            long[] interval = {
+                    (Long) row[1],
+                    toEpochSecond((LocalDateTime) row[2]),
+                    toEpochSecond((LocalDateTime) row[3])
+            };
+            intervalsByFacility.computeIfAbsent(facilityId, id -> new ArrayList<>()).add(interval);
+        }
+
+        schedules.clear();
+        intervalsByFacility.forEach((facilityId, intervals) -> schedules.put(facilityId, Schedule.of(intervals)));
+        log.info("Schedule index warmed with {} active bookings across {} facilities",
+                intervalsByFacility.values().stream().mapToInt(List::size).sum(), schedules.size());
+    }
+
+    // ==================== QUERIES ====================
+
+    public boolean hasConflict(Long facilityId, LocalDateTime startTime, LocalDateTime endTime) {
+        return hasConflict(facilityId, startTime, endTime, null);
+    }
+
+    public boolean hasConflict(Long facilityId, LocalDateTime startTime, LocalDateTime endTime, Long excludeBookingId) {
+        Schedule schedule = schedules.get(facilityId);
+        if (schedule == null) {
+            return false;
+        }
+        return schedule.overlaps(toEpochSecond(startTime), toEpochSecond(endTime),
+                excludeBookingId != null ? excludeBookingId : Long.MIN_VALUE);
+    }
+
+    // ==================== UPDATES ====================
+
+    // Active bookings are (re)inserted, anything else is dropped from its facility's schedule
+    public void track(BookingSnapshot booking) {
+        long start = toEpochSecond(booking.startTime());
+        long end = toEpochSecond(booking.endTime());
+        schedules.compute(booking.facilityId(), (id, schedule) -> {
+            Schedule base = schedule != null ? schedule.without(booking.id()) : Schedule.EMPTY;
+            Schedule updated = booking.isActive() ? base.with(booking.id(), start, end) : base;
+            return updated.size() > 0 ? updated : null;
+        });
+    }
+
+    static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    private static final class Schedule {
+
+        static final Schedule EMPTY = new Schedule(new long[0], new long[0], new long[0], new long[0]);
+
+        // Parallel arrays sorted by start; maxEnds[i] = max(ends[0..i])
+        final long[] ids;
+        final long[] starts;
+        final long[] ends;
+        final long[] maxEnds;
+
+        private Schedule(long[] ids, long[] starts, long[] ends, long[] maxEnds) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = maxEnds;
+        }
+
+        static Schedule of(List<long[]> intervals) {
+            intervals.sort((a, b) -> Long.compare(a[1], b[1]));
+            int n = intervals.size();
+            long[] ids = new long[n];
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                long[] interval = intervals.get(i);
+                ids[i] = interval[0];
+                starts[i] = interval[1];
+                ends[i] = interval[2];
+            }
+            return new Schedule(ids, starts, ends, runningMax(ends));
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean overlaps(long start, long end, long excludeId) {
+            int i = lastStartingBefore(end);
+            if (i < 0 || maxEnds[i] <= start) {
+                return false;
+            }
+            if (excludeId == Long.MIN_VALUE) {
+                return true;
+            }
+            // Walk back only while some earlier interval can still reach past start
+            for (; i >= 0 && maxEnds[i] > start; i--) {
+                if (ends[i] > start && ids[i] != excludeId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Schedule with(long id, long start, long end) {
+            int n = size();
+            int pos = lastStartingBefore(start + 1) + 1;
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            newIds[pos] = id;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, n - pos);
+            return new Schedule(newIds, newStarts, newEnds, runningMax(newEnds));
+        }
+
+        Schedule without(long id) {
+            int pos = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                return this;
+            }
+            long[] newIds = removeAt(ids, pos);
+            long[] newEnds = removeAt(ends, pos);
+            return new Schedule(newIds, removeAt(starts, pos), newEnds, runningMax(newEnds));
+        }
+
+        // Index of the last interval whose start is strictly before the given instant, or -1
+        private int lastStartingBefore(long instant) {
+            int low = 0;
+            int high = starts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < instant) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        private static long[] runningMax(long[] values) {
+            long[] max = Arrays.copyOf(values, values.length);
+            for (int i = 1; i < max.length; i++) {
+                max[i] = Math.max(max[i - 1], max[i]);
+            }
+            return max;
+        }
+
+        private static long[] removeAt(long[] values, int pos) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, pos);
+            System.arraycopy(values, pos + 1, result, pos, values.length - pos - 1);
+            return result;
+        }
+    }
+}
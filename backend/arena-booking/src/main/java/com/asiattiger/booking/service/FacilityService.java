@@ -3,95 +3,92 @@ package com.asiattiger.booking.service;
 import com.asiattiger.booking.dto.FacilityDTO;
 import com.asiattiger.booking.entity.Facility;
 import com.asiattiger.booking.repository.FacilityRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "facility.service", histogram = true)
 public class FacilityService {
 
     private final FacilityRepository facilityRepository;
+    private final FacilityCatalogCache catalogCache;
 
     // ==================== READ OPERATIONS ====================
 
-    @Transactional(readOnly = true)
+    // Cached reads join an existing transaction but never start one, so cache hits borrow no connection
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<FacilityDTO> getAllActiveFacilities() {
-        log.info("Fetching all active facilities");
-        List<Facility> facilities = facilityRepository.findByIsActiveTrueOrderByNameAsc();
-        
-        return facilities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        log.debug("Fetching all active facilities");
+        return catalogCache.get(FacilityCatalogCache.ALL,
+                () -> toDTOs(facilityRepository.findByIsActiveTrueOrderByNameAsc()));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<FacilityDTO> getFacilitiesByType(String type) {
-        log.info("Fetching facilities of type: {}", type);
-        List<Facility> facilities = facilityRepository.findByTypeIgnoreCaseAndIsActiveTrue(type);
-        
-        return facilities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        log.debug("Fetching facilities of type: {}", type);
+        return catalogCache.get(FacilityCatalogCache.typeKey(type),
+                () -> toDTOs(facilityRepository.findByTypeIgnoreCaseAndIsActiveTrue(type)));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public FacilityDTO getFacilityById(Long id) {
-        log.info("Fetching facility with ID: {}", id);
-        Facility facility = facilityRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Facility not found with ID: " + id));
-        
-        return convertToDTO(facility);
+        log.debug("Fetching facility with ID: {}", id);
+        return catalogCache.get(FacilityCatalogCache.idKey(id), () -> FacilityMapper.toDTO(facilityRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Facility not found with ID: " + id))));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<FacilityDTO> getAvailableFacilities() {
-        log.info("Fetching available facilities for booking");
-        List<Facility> facilities = facilityRepository.findAllAvailableForBooking();
-        
-        return facilities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        log.debug("Fetching available facilities for booking");
+        return catalogCache.get(FacilityCatalogCache.AVAILABLE,
+                () -> toDTOs(facilityRepository.findAllAvailableForBooking()));
     }
 
     @Transactional(readOnly = true)
     public List<FacilityDTO> searchFacilities(String name) {
-        log.info("Searching facilities with name containing: {}", name);
+        log.debug("Searching facilities with name containing: {}", name);
         List<Facility> facilities = facilityRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(name);
         
         return facilities.stream()
-                .map(this::convertToDTO)
+                .map(FacilityMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<FacilityDTO> getFacilitiesByPriceRange(BigDecimal minRate, BigDecimal maxRate) {
-        log.info("Fetching facilities in price range: {} - {}", minRate, maxRate);
+        log.debug("Fetching facilities in price range: {} - {}", minRate, maxRate);
         List<Facility> facilities = facilityRepository.findByHourlyRateBetweenAndIsActiveTrueOrderByHourlyRateAsc(minRate, maxRate);
         
         return facilities.stream()
-                .map(this::convertToDTO)
+                .map(FacilityMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<FacilityDTO> getFacilitiesWithFilters(String type, BigDecimal minRate, 
                                                      BigDecimal maxRate, Integer minCapacity) {
-        log.info("Fetching facilities with filters - type: {}, price: {}-{}, capacity: {}+", 
+        log.debug("Fetching facilities with filters - type: {}, price: {}-{}, capacity: {}+", 
                 type, minRate, maxRate, minCapacity);
         
         List<Facility> facilities = facilityRepository.findFacilitiesWithFilters(type, minRate, maxRate, minCapacity);
         
         return facilities.stream()
-                .map(this::convertToDTO)
+                .map(FacilityMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -109,9 +106,11 @@ public class FacilityService {
         facility.setCreatedBy("system"); // In real app, get from security context
         
         Facility savedFacility = facilityRepository.save(facility);
+        String type = savedFacility.getType();
+        TransactionCallbacks.afterCommit(() -> catalogCache.invalidateFacility(null, type));
         log.info("Successfully created facility: {} with ID: {}", savedFacility.getName(), savedFacility.getId());
         
-        return convertToDTO(savedFacility);
+        return FacilityMapper.toDTO(savedFacility);
     }
 
     public FacilityDTO updateFacility(Long id, FacilityDTO facilityDTO) {
@@ -127,11 +126,14 @@ public class FacilityService {
             }
         }
         
+        String previousType = existingFacility.getType();
         updateFacilityFromDTO(existingFacility, facilityDTO);
         Facility updatedFacility = facilityRepository.save(existingFacility);
+        String type = updatedFacility.getType();
+        TransactionCallbacks.afterCommit(() -> catalogCache.invalidateFacility(id, previousType, type));
         
         log.info("Successfully updated facility: {}", updatedFacility.getName());
-        return convertToDTO(updatedFacility);
+        return FacilityMapper.toDTO(updatedFacility);
     }
 
     public void deleteFacility(Long id) {
@@ -143,6 +145,8 @@ public class FacilityService {
         // Soft delete - just set inactive
         facility.setIsActive(false);
         facilityRepository.save(facility);
+        String type = facility.getType();
+        TransactionCallbacks.afterCommit(() -> catalogCache.invalidateFacility(id, type));
         
         log.info("Successfully soft deleted facility: {}", facility.getName());
     }
@@ -185,10 +189,11 @@ public class FacilityService {
         );
         
         List<Facility> savedFacilities = facilityRepository.saveAll(sampleFacilities);
+        TransactionCallbacks.afterCommit(catalogCache::invalidateAll);
         log.info("Successfully seeded {} sample facilities", savedFacilities.size());
         
         return savedFacilities.stream()
-                .map(this::convertToDTO)
+                .map(FacilityMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -207,36 +212,32 @@ public class FacilityService {
         return facilityRepository.getAverageHourlyRate();
     }
 
-    // ==================== CONVERSION METHODS ====================
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getCatalogETag() {
+        return catalogCache.getETag();
+    }
 
-    private FacilityDTO convertToDTO(Facility facility) {
-        FacilityDTO dto = FacilityDTO.builder()
-                .id(facility.getId())
-                .name(facility.getName())
-                .type(facility.getType())
-                .description(facility.getDescription())
-                .hourlyRate(facility.getHourlyRate())
-                .capacity(facility.getCapacity())
-                .location(facility.getLocation())
-                .isActive(facility.getIsActive())
-                .amenities(facility.getAmenities())
-                .imageUrl(facility.getImageUrl())
-                .openingTime(facility.getOpeningTime())
-                .closingTime(facility.getClosingTime())
-                .isUnderMaintenance(facility.getIsUnderMaintenance())
-                .maintenanceNote(facility.getMaintenanceNote())
-                .createdBy(facility.getCreatedBy())
-                .createdAt(facility.getCreatedAt())
-                .updatedAt(facility.getUpdatedAt())
-                .build();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> getCatalogCacheStats() {
+        CacheStats stats = catalogCache.getStats();
+        
+        Map<String, Object> cacheStats = new HashMap<>();
+        cacheStats.put("size", catalogCache.getSize());
+        cacheStats.put("hits", stats.hitCount());
+        cacheStats.put("misses", stats.missCount());
+        cacheStats.put("hitRate", stats.hitRate());
+        cacheStats.put("evictions", stats.evictionCount());
+        
+        return cacheStats;
+    }
 
-        // Set computed fields
-        dto.setDisplayName(facility.getDisplayName());
-        dto.setStatusDisplay(facility.getStatusDisplay());
-        dto.setAvailableForBooking(facility.isAvailableForBooking());
-        dto.setActiveBookingsCount(0); // We'll implement this later once bookings work
+    // ==================== CONVERSION METHODS ====================
 
-        return dto;
+    // Cached lists are shared between requests, so they must not be modifiable
+    private List<FacilityDTO> toDTOs(List<Facility> facilities) {
+        return facilities.stream()
+                .map(FacilityMapper::toDTO)
+                .collect(Collectors.toUnmodifiableList());
     }
 
     private Facility convertToEntity(FacilityDTO dto) {
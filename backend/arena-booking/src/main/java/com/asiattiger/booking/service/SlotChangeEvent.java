@@ -0,0 +1,59 @@
+package com.asiattiger.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A committed change to the occupied slots of one facility, published on the application event
+ * bus and pushed to availability stream subscribers.
+ *
+ * {@code change} is {@code booked} when a booking starts holding its slot, {@code confirmed} when a
+ * pending booking that holds it is confirmed and {@code released} when the slot becomes free again.
+ */
+public record SlotChangeEvent(Long facilityId, Long bookingId, String change,
+                              LocalDateTime startTime, LocalDateTime endTime, String status) {
+
+    public static final String BOOKED = "booked";
+    public static final String CONFIRMED = "confirmed";
+    public static final String RELEASED = "released";
+
+    /**
+     * Slot changes between two snapshots of a booking; either may be null (created or removed).
+     * A booking moved to other times or another facility releases the old slot and books the new one.
+     */
+    public static List<SlotChangeEvent> between(BookingSnapshot before, BookingSnapshot after) {
+        boolean wasHeld = before != null && before.isActive();
+        boolean isHeld = after != null && after.isActive();
+        List<SlotChangeEvent> changes = new ArrayList<>(2);
+
+        if (wasHeld && isHeld && sameSlot(before, after)) {
+            if (!before.status().equals(after.status())) {
+                changes.add(of(after, CONFIRMED.equals(after.status()) ? CONFIRMED : BOOKED));
+            }
+            return changes;
+        }
+        if (wasHeld) {
+            // Released slots carry the booking's new status (cancelled, completed) when it still exists
+            String status = after != null ? after.status() : before.status();
+            changes.add(new SlotChangeEvent(before.facilityId(), before.id(), RELEASED,
+                    before.startTime(), before.endTime(), status));
+        }
+        if (isHeld) {
+            changes.add(of(after, BOOKED));
+        }
+        return changes;
+    }
+
+    private static boolean sameSlot(BookingSnapshot before, BookingSnapshot after) {
+        return Objects.equals(before.facilityId(), after.facilityId())
+                && Objects.equals(before.startTime(), after.startTime())
+                && Objects.equals(before.endTime(), after.endTime());
+    }
+
+    private static SlotChangeEvent of(BookingSnapshot snapshot, String change) {
+        return new SlotChangeEvent(snapshot.facilityId(), snapshot.id(), change,
+                snapshot.startTime(), snapshot.endTime(), snapshot.status());
+    }
+}
@@ -0,0 +1,27 @@
+package com.asiattiger.booking.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers work on in-memory state (indexes, counters, caches) until the surrounding
+ * transaction has committed, so a rollback never leaves them ahead of the database.
+ */
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,175 @@
+package com.asiattiger.booking.sync;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.cloud.FirestoreClient;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link FirestoreGateway} on the Firebase Admin SDK.
+ *
+ * Used while the sync is enabled, unless {@code booking.sync.gateway=memory}. Connects with the
+ * service account in {@code booking.sync.firestore.credentials}, or to the local emulator when
+ * {@code booking.sync.firestore.emulator-host} is set (no credentials needed).
+ */
+@Component
+@ConditionalOnExpression("${booking.sync.enabled:false} and '${booking.sync.gateway:firestore}' == 'firestore'")
+@Slf4j
+public class FirebaseFirestoreGateway implements FirestoreGateway {
+
+    private static final String APP_NAME = "booking-sync";
+
+    private final Firestore firestore;
+    private final FirebaseApp app;
+    private final long timeoutMillis;
+
+    public FirebaseFirestoreGateway(@Value("${booking.sync.firestore.project-id}") String projectId,
+                                    @Value("${booking.sync.firestore.credentials:}") String credentialsPath,
+                                    @Value("${booking.sync.firestore.emulator-host:}") String emulatorHost,
+                                    @Value("${booking.sync.firestore.timeout:PT10S}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+        if (!emulatorHost.isBlank()) {
+            this.app = null;
+            this.firestore = FirestoreOptions.getDefaultInstance().toBuilder()
+                    .setProjectId(projectId)
+                    .setEmulatorHost(emulatorHost)
+                    .build()
+                    .getService();
+            log.info("🔥 Firestore sync using the emulator at {} (project {})", emulatorHost, projectId);
+            return;
+        }
+        if (credentialsPath.isBlank()) {
+            throw new IllegalStateException("booking.sync.firestore.credentials or emulator-host must be set");
+        }
+        try (InputStream credentials = new FileInputStream(credentialsPath)) {
+            FirebaseOptions options = FirebaseOptions.builder()
+                    .setCredentials(GoogleCredentials.fromStream(credentials))
+                    .setProjectId(projectId)
+                    .build();
+            this.app = FirebaseApp.initializeApp(options, APP_NAME);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read Firestore credentials from " + credentialsPath, e);
+        }
+        this.firestore = FirestoreClient.getFirestore(app);
+        log.info("🔥 Firestore sync connected to project {}", projectId);
+    }
+
+    @Override
+    public void commit(List<Write> writes) {
+        if (writes.size() > MAX_BATCH_WRITES) {
+            throw new IllegalArgumentException("A batch holds at most " + MAX_BATCH_WRITES + " writes, got " + writes.size());
+        }
+        WriteBatch batch = firestore.batch();
+        for (Write write : writes) {
+            batch.set(firestore.collection(write.collection()).document(write.documentId()),
+                    toFirestore(write.data()), SetOptions.merge());
+        }
+        await(batch.commit());
+    }
+
+    @Override
+    public List<Document> changedSince(String collection, Cursor after, int limit) {
+        Query query = firestore.collection(collection)
+                .orderBy("updatedAt")
+                .orderBy(FieldPath.documentId());
+        if (after != null) {
+            query = query.startAfter(toTimestamp(after.updatedAt()), after.documentId());
+        }
+        List<Document> documents = new ArrayList<>();
+        for (QueryDocumentSnapshot snapshot : await(query.limit(limit).get()).getDocuments()) {
+            documents.add(document(collection, snapshot));
+        }
+        return documents;
+    }
+
+    @Override
+    public Optional<Document> find(String collection, String documentId) {
+        DocumentSnapshot snapshot = await(firestore.collection(collection).document(documentId).get());
+        return snapshot.exists() ? Optional.of(document(collection, snapshot)) : Optional.empty();
+    }
+
+    @Override
+    public List<Document> findBy(String collection, String field, Object value, int limit) {
+        List<Document> documents = new ArrayList<>();
+        for (QueryDocumentSnapshot snapshot : await(firestore.collection(collection)
+                .whereEqualTo(field, value).limit(limit).get()).getDocuments()) {
+            documents.add(document(collection, snapshot));
+        }
+        return documents;
+    }
+
+    private static Document document(String collection, DocumentSnapshot snapshot) {
+        Map<String, Object> data = fromFirestore(snapshot.getData());
+        return new Document(collection, snapshot.getId(), data,
+                data.get("updatedAt") instanceof Instant updatedAt ? updatedAt : null);
+    }
+
+    @PreDestroy
+    public void close() throws Exception {
+        if (app != null) {
+            app.delete();
+        } else {
+            firestore.close();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Firestore", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Firestore request failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Firestore request timed out after " + timeoutMillis + " ms", e);
+        }
+    }
+
+    private static Map<String, Object> toFirestore(Map<String, Object> data) {
+        Map<String, Object> converted = new HashMap<>(data.size());
+        data.forEach((field, value) -> converted.put(field, value instanceof Instant instant ? toTimestamp(instant) : value));
+        return converted;
+    }
+
+    private static Map<String, Object> fromFirestore(Map<String, Object> data) {
+        Map<String, Object> converted = new HashMap<>(data.size());
+        data.forEach((field, value) -> converted.put(field, value instanceof Timestamp timestamp
+                ? Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()) : value));
+        return converted;
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.ofTimeSecondsAndNanos(instant.getEpochSecond(), instant.getNano());
+    }
+}
@@ -0,0 +1,58 @@
+package com.asiattiger.booking.sync;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The few Firestore operations the sync needs, so it runs against Firestore (or its emulator)
+ * and against an in-memory stand-in alike. Timestamps are {@link Instant}s in both directions.
+ */
+public interface FirestoreGateway {
+
+    /**
+     * Firestore's limit on writes in one batch.
+     */
+    int MAX_BATCH_WRITES = 500;
+
+    /**
+     * A document to create or merge into.
+     */
+    record Write(String collection, String documentId, Map<String, Object> data) {
+    }
+
+    /**
+     * A document read back, with its {@code updatedAt} field lifted out for ordering (null when
+     * the document has none).
+     */
+    record Document(String collection, String documentId, Map<String, Object> data, Instant updatedAt) {
+    }
+
+    /**
+     * Position in a collection ordered by {@code updatedAt}, then document id.
+     */
+    record Cursor(Instant updatedAt, String documentId) {
+    }
+
+    /**
+     * Applies at most {@link #MAX_BATCH_WRITES} writes atomically; fields are merged into existing documents.
+     */
+    void commit(List<Write> writes);
+
+    /**
+     * Documents whose {@code updatedAt} is after the cursor (all documents with the field when it is
+     * null), oldest first, at most {@code limit}.
+     */
+    List<Document> changedSince(String collection, Cursor after, int limit);
+
+    /**
+     * The document with this id, if it exists.
+     */
+    Optional<Document> find(String collection, String documentId);
+
+    /**
+     * Documents whose {@code field} equals {@code value}, at most {@code limit}, in no particular order.
+     */
+    List<Document> findBy(String collection, String field, Object value, int limit);
+}
@@ -0,0 +1,33 @@
+package com.asiattiger.booking.sync;
+
+import com.asiattiger.booking.outbox.OutboxEvent;
+import com.asiattiger.booking.outbox.OutboxSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Mirrors relayed booking changes to Firestore. Each batch is exported as the bookings' current
+ * state, so repeated or collapsed events converge on the same documents.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.sync.enabled", havingValue = "true")
+public class FirestoreOutboxSink implements OutboxSink {
+
+    private final FirestoreSync sync;
+
+    public FirestoreOutboxSink(FirestoreSync sync) {
+        this.sync = sync;
+    }
+
+    @Override
+    public String name() {
+        return "firestore";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        sync.exportBookings(events.stream().map(OutboxEvent::bookingId).toList());
+    }
+}
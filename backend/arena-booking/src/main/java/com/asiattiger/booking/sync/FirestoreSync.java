@@ -0,0 +1,556 @@
+package com.asiattiger.booking.sync;
+
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.housekeeping.JobLeases;
+import com.asiattiger.booking.service.BookingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Two-way bridge between the booking tables and the Firestore collections the web app reads and
+ * writes, enabled with {@code booking.sync.enabled=true}.
+ *
+ * Export: bookings reach Firestore through the outbox (add {@code firestore} to
+ * {@code booking.outbox.sinks}), so each committed change is mirrored at least once and in order.
+ * Facilities are exported by a checkpointed scan over their update time. A facility exported for
+ * the first time takes over the web app's document for it (one already carrying its
+ * {@code backendId}, or an unclaimed one with its name) and is linked to it in {@code sync_links};
+ * only facilities the web app does not know get a new document under their row id. Writes go out
+ * in Firestore batches of up to {@code batch-size} (at most 500) documents, merged into existing
+ * documents so fields only the web app sets survive.
+ *
+ * Import: every {@code interval} the node holding the {@code firestore-sync} lease pages through
+ * booking documents changed since the {@code bookings-import} checkpoint, {@code page-size} at a
+ * time and at most {@code max-pages-per-run} pages. Exported documents carry {@code syncedAt}
+ * equal to {@code updatedAt}, which marks them as echoes of our own writes. A document created in
+ * the web app becomes a booking through {@link BookingService} and is linked to it in
+ * {@code sync_links}; its {@code facilityId} is a facility document id, resolved through the
+ * facility's link or the {@code backendId} on that document. A booking the rules refuse (a
+ * conflict, a time in the past) is written back cancelled with a {@code rejectionReason}, and one
+ * whose facility cannot be resolved yet is recorded in {@code sync_unresolved} and retried on every
+ * run. A changed document is applied to its booking (status transitions, and times or purpose
+ * while pending). When the booking also changed since it was last exported, the newer
+ * {@code updatedAt} wins; the booking rules win over both, so a change the service refuses is
+ * rejected and the booking's state is written back to Firestore.
+ *
+ * Metrics: {@code booking.sync.exported} (documents by collection), {@code booking.sync.imported}
+ * (documents by outcome, including unresolved), {@code booking.sync.conflicts} (by winner: local, remote) and
+ * {@code booking.sync.commits} (Firestore batch commit timer).
+ */
+@Component
+@ConditionalOnProperty(name = "booking.sync.enabled", havingValue = "true")
+@Slf4j
+public class FirestoreSync {
+
+    public static final String BOOKINGS = "bookings";
+    public static final String FACILITIES = "facilities";
+    public static final String LEASE = "firestore-sync";
+
+    static final String BOOKINGS_IMPORT = "bookings-import";
+    static final String FACILITIES_EXPORT = "facilities-export";
+
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    private static final String SELECT_BOOKINGS = "SELECT b.id, b.user_id, b.user_name, b.facility_id, " +
+            "f.name AS facility_name, b.start_time, b.end_time, b.status, b.purpose, b.total_cost, b.created_at, " +
+            "COALESCE(b.updated_at, b.created_at) AS changed_at " +
+            "FROM bookings b JOIN facilities f ON f.id = b.facility_id WHERE b.id IN (:ids)";
+
+    // The facilities table is small and rarely written, so the scan needs no index of its own
+    private static final String SELECT_CHANGED_FACILITIES = "SELECT id, name, type, capacity, hourly_rate, " +
+            "is_active, is_under_maintenance, description, image_url, location, opening_time, closing_time, " +
+            "created_at, COALESCE(updated_at, created_at) AS changed_at FROM facilities " +
+            "WHERE COALESCE(updated_at, created_at) > :changedAt " +
+            "OR (COALESCE(updated_at, created_at) = :changedAt AND id > :id) " +
+            "ORDER BY changed_at, id LIMIT :limit";
+
+    // A booking row with the fields mirrored to Firestore
+    private record LocalBooking(Long id, String userId, String userName, Long facilityId, String facilityName,
+                                LocalDateTime startTime, LocalDateTime endTime, String status, String purpose,
+                                BigDecimal totalCost, LocalDateTime createdAt, LocalDateTime changedAt) {
+    }
+
+    private final FirestoreGateway gateway;
+    private final SyncStore store;
+    private final BookingService bookingService;
+    private final JobLeases leases;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final String owner;
+    private final int batchSize;
+    private final int pageSize;
+    private final int maxPagesPerRun;
+    private final Duration leaseDuration;
+    private final Timer commits;
+
+    public FirestoreSync(FirestoreGateway gateway,
+                         SyncStore store,
+                         BookingService bookingService,
+                         JobLeases leases,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${booking.sync.batch-size:500}") int batchSize,
+                         @Value("${booking.sync.page-size:500}") int pageSize,
+                         @Value("${booking.sync.max-pages-per-run:20}") int maxPagesPerRun,
+                         @Value("${booking.sync.interval:PT30S}") Duration interval,
+                         @Value("${booking.sync.lease:PT2M}") Duration leaseDuration) {
+        this.gateway = gateway;
+        this.store = store;
+        this.bookingService = bookingService;
+        this.leases = leases;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.owner = JobLeases.defaultOwner();
+        this.batchSize = Math.min(batchSize, FirestoreGateway.MAX_BATCH_WRITES);
+        this.pageSize = pageSize;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.leaseDuration = leaseDuration;
+
+        this.commits = Timer.builder("booking.sync.commits")
+                .description("Firestore batch commits")
+                .register(meterRegistry);
+        log.info("🔄 Firestore sync every {} in batches of {}", interval, this.batchSize);
+    }
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Mirrors the current state of the given bookings; ids no longer in the table are skipped.
+     */
+    public int exportBookings(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        int exported = 0;
+        for (int from = 0; from < distinct.size(); from += pageSize) {
+            List<Long> page = distinct.subList(from, Math.min(distinct.size(), from + pageSize));
+            List<LocalBooking> bookings = loadBookings(page);
+            Map<Long, String> documentIds = store.documentIds(BOOKINGS, page);
+            Map<Long, String> facilityDocumentIds = store.documentIds(FACILITIES,
+                    bookings.stream().map(LocalBooking::facilityId).distinct().toList());
+            List<FirestoreGateway.Write> writes = new ArrayList<>(bookings.size());
+            for (LocalBooking booking : bookings) {
+                String documentId = documentIds.getOrDefault(booking.id(), booking.id().toString());
+                String facilityDocumentId = facilityDocumentIds.getOrDefault(booking.facilityId(),
+                        booking.facilityId().toString());
+                writes.add(new FirestoreGateway.Write(BOOKINGS, documentId, bookingDocument(booking, facilityDocumentId)));
+            }
+            commitAll(BOOKINGS, writes);
+            exported += writes.size();
+        }
+        return exported;
+    }
+
+    /**
+     * Mirrors facilities changed since the last run; returns the documents written.
+     */
+    public synchronized int exportFacilities() {
+        FirestoreGateway.Cursor cursor = store.checkpoint(FACILITIES_EXPORT)
+                .orElse(new FirestoreGateway.Cursor(Instant.EPOCH, "0"));
+        int exported = 0;
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<Map<String, Object>> facilities = jdbcTemplate.queryForList(SELECT_CHANGED_FACILITIES,
+                    new MapSqlParameterSource("changedAt", Timestamp.from(cursor.updatedAt()))
+                            .addValue("id", Long.parseLong(cursor.documentId()))
+                            .addValue("limit", pageSize));
+            if (facilities.isEmpty()) {
+                break;
+            }
+            Map<Long, List<String>> equipment = loadEquipment(facilities);
+            Map<Long, String> documentIds = facilityDocumentIds(facilities);
+            List<FirestoreGateway.Write> writes = new ArrayList<>(facilities.size());
+            for (Map<String, Object> facility : facilities) {
+                Long id = ((Number) facility.get("id")).longValue();
+                writes.add(new FirestoreGateway.Write(FACILITIES, documentIds.get(id),
+                        facilityDocument(id, facility, equipment.getOrDefault(id, List.of()))));
+            }
+            commitAll(FACILITIES, writes);
+            exported += writes.size();
+
+            Map<String, Object> last = facilities.get(facilities.size() - 1);
+            cursor = new FirestoreGateway.Cursor(((Timestamp) last.get("changed_at")).toInstant(),
+                    last.get("id").toString());
+            store.saveCheckpoint(FACILITIES_EXPORT, cursor);
+            if (facilities.size() < pageSize) {
+                break;
+            }
+        }
+        return exported;
+    }
+
+    // Links each facility not yet linked to the document it is exported to
+    private Map<Long, String> facilityDocumentIds(List<Map<String, Object>> facilities) {
+        List<Long> ids = facilities.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+        Map<Long, String> documentIds = store.documentIds(FACILITIES, ids);
+        for (Map<String, Object> facility : facilities) {
+            Long id = ((Number) facility.get("id")).longValue();
+            if (!documentIds.containsKey(id)) {
+                String documentId = webAppFacilityDocument(id, (String) facility.get("name")).orElse(id.toString());
+                store.link(FACILITIES, id, documentId);
+                documentIds.put(id, documentId);
+            }
+        }
+        return documentIds;
+    }
+
+    // The web app seeds its facilities under generated document ids
+    private Optional<String> webAppFacilityDocument(Long id, String name) {
+        List<FirestoreGateway.Document> claimed = gateway.findBy(FACILITIES, "backendId", id, 1);
+        if (!claimed.isEmpty()) {
+            return Optional.of(claimed.get(0).documentId());
+        }
+        return gateway.findBy(FACILITIES, "name", name, 10).stream()
+                .filter(document -> document.data().get("backendId") == null)
+                .map(FirestoreGateway.Document::documentId)
+                .filter(documentId -> store.localId(FACILITIES, documentId).isEmpty())
+                .findFirst();
+    }
+
+    private void commitAll(String collection, List<FirestoreGateway.Write> writes) {
+        for (int from = 0; from < writes.size(); from += batchSize) {
+            List<FirestoreGateway.Write> batch = writes.subList(from, Math.min(writes.size(), from + batchSize));
+            commits.record(() -> gateway.commit(batch));
+            Counter.builder("booking.sync.exported")
+                    .description("Documents written to Firestore")
+                    .tag("collection", collection)
+                    .register(meterRegistry)
+                    .increment(batch.size());
+        }
+    }
+
+    private Map<String, Object> bookingDocument(LocalBooking booking, String facilityDocumentId) {
+        Instant changedAt = toInstant(booking.changedAt());
+        Map<String, Object> data = new HashMap<>();
+        data.put("backendId", booking.id());
+        data.put("userId", booking.userId());
+        data.put("userName", booking.userName());
+        data.put("facilityId", facilityDocumentId);
+        data.put("facilityName", booking.facilityName());
+        data.put("startTime", toInstant(booking.startTime()));
+        data.put("endTime", toInstant(booking.endTime()));
+        data.put("status", booking.status());
+        data.put("purpose", booking.purpose());
+        data.put("totalCost", booking.totalCost() != null ? booking.totalCost().doubleValue() : null);
+        data.put("createdAt", toInstant(booking.createdAt()));
+        data.put("updatedAt", changedAt);
+        data.put("syncedAt", changedAt);
+        return data;
+    }
+
+    private Map<String, Object> facilityDocument(Long id, Map<String, Object> row, List<String> equipment) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("backendId", id);
+        data.put("name", row.get("name"));
+        data.put("type", row.get("type"));
+        data.put("capacity", row.get("capacity"));
+        data.put("hourlyRate", ((BigDecimal) row.get("hourly_rate")).doubleValue());
+        data.put("equipment", equipment);
+        data.put("isActive", row.get("is_active"));
+        data.put("isUnderMaintenance", row.get("is_under_maintenance"));
+        data.put("description", row.get("description"));
+        data.put("imageUrl", row.get("image_url"));
+        data.put("location", row.get("location"));
+        data.put("openingTime", row.get("opening_time"));
+        data.put("closingTime", row.get("closing_time"));
+        data.put("createdAt", ((Timestamp) row.get("created_at")).toInstant());
+        data.put("updatedAt", ((Timestamp) row.get("changed_at")).toInstant());
+        return data;
+    }
+
+    private Map<Long, List<String>> loadEquipment(List<Map<String, Object>> facilities) {
+        List<Long> ids = facilities.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+        Map<Long, List<String>> equipment = new HashMap<>();
+        jdbcTemplate.query("SELECT facility_id, equipment_item FROM facility_equipment WHERE facility_id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    equipment.computeIfAbsent(rs.getLong("facility_id"), id -> new ArrayList<>())
+                            .add(rs.getString("equipment_item"));
+                });
+        return equipment;
+    }
+
+    // ==================== IMPORT ====================
+
+    /**
+     * Applies booking documents changed in Firestore since the last run; returns the documents read.
+     */
+    public synchronized int importBookings() {
+        int read = retryUnresolved();
+        FirestoreGateway.Cursor cursor = store.checkpoint(BOOKINGS_IMPORT).orElse(null);
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<FirestoreGateway.Document> documents = gateway.changedSince(BOOKINGS, cursor, pageSize);
+            if (documents.isEmpty()) {
+                break;
+            }
+            for (FirestoreGateway.Document document : documents) {
+                countImported(importBooking(document));
+            }
+            read += documents.size();
+
+            FirestoreGateway.Document last = documents.get(documents.size() - 1);
+            cursor = new FirestoreGateway.Cursor(last.updatedAt(), last.documentId());
+            store.saveCheckpoint(BOOKINGS_IMPORT, cursor);
+            if (documents.size() < pageSize) {
+                break;
+            }
+        }
+        return read;
+    }
+
+    // Recorded documents are read again as they are now; any outcome but unresolved clears them
+    private int retryUnresolved() {
+        List<String> documentIds = store.unresolved(BOOKINGS, pageSize);
+        for (String documentId : documentIds) {
+            String outcome = gateway.find(BOOKINGS, documentId).map(this::importBooking).orElse("skipped");
+            countImported(outcome);
+            if (!"unresolved".equals(outcome)) {
+                store.clearUnresolved(BOOKINGS, documentId);
+            }
+        }
+        return documentIds.size();
+    }
+
+    private void countImported(String outcome) {
+        Counter.builder("booking.sync.imported")
+                .description("Firestore documents read by the sync, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Outcomes: echo, created, applied, unchanged, stale (the booking is newer), rejected, unresolved, skipped
+    private String importBooking(FirestoreGateway.Document document) {
+        Map<String, Object> data = document.data();
+        if (document.updatedAt() != null && document.updatedAt().equals(data.get("syncedAt"))) {
+            return "echo";
+        }
+        try {
+            Optional<Long> localId = store.localId(BOOKINGS, document.documentId());
+            if (localId.isEmpty() && data.get("backendId") instanceof Number backendId) {
+                localId = Optional.of(backendId.longValue());
+            }
+            if (localId.isEmpty()) {
+                return createFromDocument(document);
+            }
+            List<LocalBooking> found = loadBookings(List.of(localId.get()));
+            if (found.isEmpty()) {
+                // Archived, or deleted directly in the database
+                return "skipped";
+            }
+            return applyDocument(found.get(0), document);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not import Firestore booking {}: {}", document.documentId(), e.getMessage());
+            return "rejected";
+        }
+    }
+
+    private String createFromDocument(FirestoreGateway.Document document) {
+        Map<String, Object> data = document.data();
+        String status = (String) data.get("status");
+        if (!Booking.isActiveStatus(status)) {
+            return "skipped";
+        }
+        Object facilityDocumentId = data.get("facilityId");
+        Optional<Long> facilityId = resolveFacility(facilityDocumentId);
+        if (facilityId.isEmpty()) {
+            return unresolved(document, "Facility document " + facilityDocumentId + " is not linked to a facility");
+        }
+        BookingDTO request = BookingDTO.builder()
+                .userId((String) data.get("userId"))
+                .userName((String) data.get("userName"))
+                .facilityId(facilityId.get())
+                .startTime(toLocal(data.get("startTime")))
+                .endTime(toLocal(data.get("endTime")))
+                .purpose((String) data.get("purpose"))
+                .build();
+        try {
+            // The link commits with the booking, so its outbox export already targets this document
+            transactionTemplate.executeWithoutResult(tx -> {
+                BookingDTO created = bookingService.createBooking(request);
+                if ("confirmed".equals(status)) {
+                    bookingService.confirmBooking(created.getId());
+                }
+                store.link(BOOKINGS, created.getId(), document.documentId());
+            });
+        } catch (DataAccessException e) {
+            return unresolved(document, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Firestore booking {} rejected: {}", document.documentId(), e.getMessage());
+            rejectDocument(document, e.getMessage());
+            return "rejected";
+        }
+        log.info("📥 Imported Firestore booking {}", document.documentId());
+        return "created";
+    }
+
+    // Bookings name their facility by its Firestore document id
+    private Optional<Long> resolveFacility(Object facilityDocumentId) {
+        if (facilityDocumentId == null) {
+            return Optional.empty();
+        }
+        String documentId = facilityDocumentId.toString();
+        Optional<Long> linked = store.localId(FACILITIES, documentId);
+        if (linked.isPresent()) {
+            return linked;
+        }
+        return gateway.find(FACILITIES, documentId)
+                .map(document -> document.data().get("backendId"))
+                .filter(Number.class::isInstance)
+                .map(backendId -> ((Number) backendId).longValue())
+                .filter(id -> !jdbcTemplate.queryForList("SELECT id FROM facilities WHERE id = :id",
+                        new MapSqlParameterSource("id", id), Long.class).isEmpty());
+    }
+
+    private String unresolved(FirestoreGateway.Document document, String reason) {
+        log.warn("⚠️ Firestore booking {} left for a retry: {}", document.documentId(), reason);
+        store.recordUnresolved(BOOKINGS, document.documentId(), reason);
+        return "unresolved";
+    }
+
+    // Written as an echo, so the import passes over it when it comes back
+    private void rejectDocument(FirestoreGateway.Document document, String reason) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", "cancelled");
+        data.put("rejectionReason", reason);
+        data.put("updatedAt", now);
+        data.put("syncedAt", now);
+        commitAll(BOOKINGS, List.of(new FirestoreGateway.Write(BOOKINGS, document.documentId(), data)));
+    }
+
+    private String applyDocument(LocalBooking local, FirestoreGateway.Document document) {
+        Map<String, Object> data = document.data();
+        String status = (String) data.get("status");
+        LocalDateTime startTime = toLocal(data.get("startTime"));
+        LocalDateTime endTime = toLocal(data.get("endTime"));
+        String purpose = (String) data.get("purpose");
+        boolean statusChanged = !Objects.equals(status, local.status());
+        boolean slotChanged = !Objects.equals(startTime, local.startTime()) || !Objects.equals(endTime, local.endTime())
+                || !Objects.equals(purpose, local.purpose());
+        if (!statusChanged && !slotChanged) {
+            return "unchanged";
+        }
+
+        // Both sides changed when the booking moved on after Firestore last saw it
+        Instant localChangedAt = toInstant(local.changedAt());
+        if (!(data.get("syncedAt") instanceof Instant syncedAt) || localChangedAt.isAfter(syncedAt)) {
+            boolean localWins = localChangedAt.isAfter(document.updatedAt());
+            Counter.builder("booking.sync.conflicts")
+                    .description("Bookings changed on both sides since the last sync, by winner")
+                    .tag("winner", localWins ? "local" : "remote")
+                    .register(meterRegistry)
+                    .increment();
+            if (localWins) {
+                exportBookings(List.of(local.id()));
+                return "stale";
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (slotChanged && "pending".equals(local.status())) {
+                    bookingService.updateBooking(local.id(), BookingDTO.builder()
+                            .startTime(startTime)
+                            .endTime(endTime)
+                            .purpose(purpose)
+                            .build());
+                }
+                if (statusChanged) {
+                    transition(local.id(), status);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Put the booking's actual state back in front of the web app
+            log.warn("⚠️ Firestore change to booking {} rejected: {}", local.id(), e.getMessage());
+            exportBookings(List.of(local.id()));
+            return "rejected";
+        }
+        return "applied";
+    }
+
+    private void transition(Long id, String status) {
+        switch (status) {
+            case "confirmed" -> bookingService.confirmBooking(id);
+            case "cancelled" -> bookingService.cancelBooking(id);
+            case "completed" -> bookingService.completeBooking(id);
+            default -> throw new RuntimeException("Cannot move booking " + id + " back to " + status);
+        }
+    }
+
+    // ==================== SCHEDULING ====================
+
+    @Scheduled(fixedDelayString = "${booking.sync.interval:PT30S}", initialDelayString = "${booking.sync.interval:PT30S}")
+    synchronized void poll() {
+        if (!leases.tryAcquire(LEASE, owner, leaseDuration)) {
+            return;
+        }
+        exportFacilities();
+        importBookings();
+    }
+
+    // Synchronized like poll(), so a running sync finishes before the lease is released
+    @PreDestroy
+    public synchronized void shutdown() {
+        try {
+            leases.release(LEASE, owner);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not release Firestore sync lease: {}", e.getMessage());
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private List<LocalBooking> loadBookings(List<Long> ids) {
+        return jdbcTemplate.query(SELECT_BOOKINGS, new MapSqlParameterSource("ids", ids), this::mapBooking);
+    }
+
+    private LocalBooking mapBooking(ResultSet rs, int rowNum) throws SQLException {
+        return new LocalBooking(rs.getLong("id"), rs.getString("user_id"), rs.getString("user_name"),
+                rs.getLong("facility_id"), rs.getString("facility_name"),
+                rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime(),
+                STATUS_CODES.convertToEntityAttribute(rs.getByte("status")), rs.getString("purpose"),
+                rs.getBigDecimal("total_cost"), rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getTimestamp("changed_at").toLocalDateTime());
+    }
+
+    private Instant toInstant(LocalDateTime time) {
+        return time != null ? time.atZone(zone).toInstant() : null;
+    }
+
+    private LocalDateTime toLocal(Object value) {
+        return value != null ? LocalDateTime.ofInstant((Instant) value, zone) : null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.asiattiger.booking.sync;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Firestore stand-in kept in memory, for local runs without credentials and for tests
+ * ({@code booking.sync.gateway=memory}). Mirrors the behaviour the sync relies on: atomic batches
+ * of at most 500 writes, merge semantics and ordering by {@code updatedAt} then document id.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.sync.gateway", havingValue = "memory")
+public class InMemoryFirestoreGateway implements FirestoreGateway {
+
+    private static final Comparator<Document> ORDER = Comparator.comparing(Document::updatedAt)
+            .thenComparing(Document::documentId);
+
+    private final Map<String, Map<String, Map<String, Object>>> collections = new HashMap<>();
+    private final AtomicInteger commits = new AtomicInteger();
+
+    @Override
+    public synchronized void commit(List<Write> writes) {
+        if (writes.size() > MAX_BATCH_WRITES) {
+            throw new IllegalArgumentException("A batch holds at most " + MAX_BATCH_WRITES + " writes, got " + writes.size());
+        }
+        for (Write write : writes) {
+            collections.computeIfAbsent(write.collection(), name -> new HashMap<>())
+                    .computeIfAbsent(write.documentId(), id -> new HashMap<>())
+                    .putAll(write.data());
+        }
+        commits.incrementAndGet();
+    }
+
+    @Override
+    public synchronized List<Document> changedSince(String collection, Cursor after, int limit) {
+        return collections.getOrDefault(collection, Map.of()).entrySet().stream()
+                .filter(entry -> entry.getValue().get("updatedAt") instanceof Instant)
+                .map(entry -> new Document(collection, entry.getKey(), new HashMap<>(entry.getValue()),
+                        (Instant) entry.getValue().get("updatedAt")))
+                .filter(document -> after == null || ORDER.compare(document, new Document(collection,
+                        after.documentId(), Map.of(), after.updatedAt())) > 0)
+                .sorted(ORDER)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized Optional<Document> find(String collection, String documentId) {
+        return Optional.ofNullable(collections.getOrDefault(collection, Map.of()).get(documentId))
+                .map(data -> document(collection, documentId, data));
+    }
+
+    @Override
+    public synchronized List<Document> findBy(String collection, String field, Object value, int limit) {
+        return collections.getOrDefault(collection, Map.of()).entrySet().stream()
+                .filter(entry -> Objects.equals(entry.getValue().get(field), value))
+                .limit(limit)
+                .map(entry -> document(collection, entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static Document document(String collection, String documentId, Map<String, Object> data) {
+        return new Document(collection, documentId, new HashMap<>(data),
+                data.get("updatedAt") instanceof Instant updatedAt ? updatedAt : null);
+    }
+
+    /**
+     * Writes a document directly, as the web app would.
+     */
+    public synchronized void put(String collection, String documentId, Map<String, Object> data) {
+        collections.computeIfAbsent(collection, name -> new HashMap<>()).put(documentId, new HashMap<>(data));
+    }
+
+    public synchronized Map<String, Object> get(String collection, String documentId) {
+        Map<String, Object> data = collections.getOrDefault(collection, Map.of()).get(documentId);
+        return data != null ? new HashMap<>(data) : null;
+    }
+
+    public synchronized int size(String collection) {
+        return collections.getOrDefault(collection, Map.of()).size();
+    }
+
+    public int getCommitCount() {
+        return commits.get();
+    }
+
+    public synchronized void clear() {
+        collections.clear();
+        commits.set(0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.asiattiger.booking.sync;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sync bookkeeping in {@code sync_links} (Firestore documents mirroring a row under another id),
+ * {@code sync_checkpoints} (where each incremental scan stopped) and {@code sync_unresolved}
+ * (documents waiting to be retried).
+ */
+@Component
+public class SyncStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public SyncStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Document ids of the linked rows among {@code localIds}; rows without a link are absent.
+     */
+    public Map<Long, String> documentIds(String collection, Collection<Long> localIds) {
+        Map<Long, String> documentIds = new HashMap<>();
+        if (localIds.isEmpty()) {
+            return documentIds;
+        }
+        namedJdbcTemplate.query("SELECT local_id, document_id FROM sync_links " +
+                        "WHERE collection = :collection AND local_id IN (:ids)",
+                new MapSqlParameterSource("collection", collection).addValue("ids", localIds),
+                rs -> {
+                    documentIds.put(rs.getLong("local_id"), rs.getString("document_id"));
+                });
+        return documentIds;
+    }
+
+    public Optional<Long> localId(String collection, String documentId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT local_id FROM sync_links WHERE collection = ? AND document_id = ?",
+                Long.class, collection, documentId);
+        return ids.stream().findFirst();
+    }
+
+    public void link(String collection, Long localId, String documentId) {
+        jdbcTemplate.update("INSERT INTO sync_links (collection, local_id, document_id) VALUES (?, ?, ?)",
+                collection, localId, documentId);
+    }
+
+    public Optional<FirestoreGateway.Cursor> checkpoint(String name) {
+        return jdbcTemplate.query("SELECT updated_at, document_id FROM sync_checkpoints WHERE name = ?",
+                (rs, rowNum) -> new FirestoreGateway.Cursor(rs.getTimestamp("updated_at").toInstant(),
+                        rs.getString("document_id")), name).stream().findFirst();
+    }
+
+    public void saveCheckpoint(String name, FirestoreGateway.Cursor cursor) {
+        Timestamp updatedAt = Timestamp.from(cursor.updatedAt());
+        if (jdbcTemplate.update("UPDATE sync_checkpoints SET updated_at = ?, document_id = ? WHERE name = ?",
+                updatedAt, cursor.documentId(), name) == 1) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO sync_checkpoints (name, updated_at, document_id) VALUES (?, ?, ?)",
+                    name, updatedAt, cursor.documentId());
+        } catch (DuplicateKeyException e) {
+            // Created concurrently; only the lease holder moves checkpoints, so this one is as good
+            jdbcTemplate.update("UPDATE sync_checkpoints SET updated_at = ?, document_id = ? WHERE name = ?",
+                    updatedAt, cursor.documentId(), name);
+        }
+    }
+
+    public void clearCheckpoint(String name) {
+        jdbcTemplate.update("DELETE FROM sync_checkpoints WHERE name = ?", name);
+    }
+
+    /**
+     * Records a document to retry, or updates the reason of one already recorded.
+     */
+    public void recordUnresolved(String collection, String documentId, String reason) {
+        String trimmed = reason.length() > 500 ? reason.substring(0, 500) : reason;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update("UPDATE sync_unresolved SET reason = ?, recorded_at = ? " +
+                "WHERE collection = ? AND document_id = ?", trimmed, now, collection, documentId) == 1) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO sync_unresolved (collection, document_id, reason, recorded_at) " +
+                    "VALUES (?, ?, ?, ?)", collection, documentId, trimmed, now);
+        } catch (DuplicateKeyException e) {
+            // Recorded concurrently with the same outcome
+        }
+    }
+
+    /**
+     * Recorded documents, oldest first, at most {@code limit}.
+     */
+    public List<String> unresolved(String collection, int limit) {
+        return jdbcTemplate.queryForList("SELECT document_id FROM sync_unresolved WHERE collection = ? " +
+                "ORDER BY recorded_at, document_id LIMIT ?", String.class, collection, limit);
+    }
+
+    public void clearUnresolved(String collection, String documentId) {
+        jdbcTemplate.update("DELETE FROM sync_unresolved WHERE collection = ? AND document_id = ?",
+                collection, documentId);
+    }
+}
@@ -0,0 +1,9 @@
+-- Firestore documents the import could not apply yet (a booking naming a facility that is not
+-- linked to a local one). The checkpoint moves past them; each run retries them until they apply.
+CREATE TABLE sync_unresolved (
+    collection  VARCHAR(32)  NOT NULL,
+    document_id VARCHAR(128) NOT NULL,
+    reason      VARCHAR(500) NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (collection, document_id)
+);
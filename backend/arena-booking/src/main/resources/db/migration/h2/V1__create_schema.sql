@@ -0,0 +1,42 @@
+-- Schema as previously generated by Hibernate (ddl-auto), now owned by migrations
+
+CREATE TABLE facilities (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                 VARCHAR(255)   NOT NULL,
+    type                 VARCHAR(255)   NOT NULL,
+    capacity             INTEGER        NOT NULL,
+    hourly_rate          NUMERIC(10, 2) NOT NULL,
+    is_active            BOOLEAN        NOT NULL,
+    description          VARCHAR(500),
+    image_url            VARCHAR(255),
+    location             VARCHAR(200),
+    amenities            VARCHAR(1000),
+    opening_time         VARCHAR(255),
+    closing_time         VARCHAR(255),
+    is_under_maintenance BOOLEAN        NOT NULL,
+    maintenance_note     VARCHAR(500),
+    created_by           VARCHAR(100),
+    created_at           TIMESTAMP(6)   NOT NULL,
+    updated_at           TIMESTAMP(6)
+);
+
+CREATE TABLE facility_equipment (
+    facility_id    BIGINT NOT NULL,
+    equipment_item VARCHAR(255),
+    CONSTRAINT fk_facility_equipment_facility FOREIGN KEY (facility_id) REFERENCES facilities (id)
+);
+
+CREATE TABLE bookings (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     VARCHAR(255)   NOT NULL,
+    facility_id BIGINT         NOT NULL,
+    start_time  TIMESTAMP(6)   NOT NULL,
+    end_time    TIMESTAMP(6)   NOT NULL,
+    status      VARCHAR(255)   NOT NULL,
+    purpose     VARCHAR(200),
+    total_cost  NUMERIC(10, 2),
+    user_name   VARCHAR(255),
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT fk_bookings_facility FOREIGN KEY (facility_id) REFERENCES facilities (id)
+);
@@ -0,0 +1,26 @@
+-- Status becomes a one-byte code: 0 pending, 1 confirmed, 2 cancelled, 3 completed (see BookingStatusConverter)
+ALTER TABLE bookings ADD COLUMN status_code TINYINT;
+
+UPDATE bookings SET status_code = CASE status
+    WHEN 'pending' THEN 0
+    WHEN 'confirmed' THEN 1
+    WHEN 'cancelled' THEN 2
+    WHEN 'completed' THEN 3
+END;
+
+ALTER TABLE bookings DROP COLUMN status;
+ALTER TABLE bookings ALTER COLUMN status_code RENAME TO status;
+ALTER TABLE bookings ALTER COLUMN status SET NOT NULL;
+ALTER TABLE bookings ADD CONSTRAINT ck_bookings_status CHECK (status BETWEEN 0 AND 3);
+
+-- Conflict checks, active intervals and per-facility counts
+CREATE INDEX idx_bookings_facility_status_time ON bookings (facility_id, status, start_time, end_time);
+
+-- Per-user listings ordered by start time
+CREATE INDEX idx_bookings_user_start ON bookings (user_id, start_time);
+
+-- Status listings and status counts
+CREATE INDEX idx_bookings_status_start ON bookings (status, start_time);
+
+-- Keyset pagination on (start_time, id), date ranges and trend aggregation
+CREATE INDEX idx_bookings_start_id ON bookings (start_time, id);
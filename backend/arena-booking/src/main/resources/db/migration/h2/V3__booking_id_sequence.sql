@@ -0,0 +1,7 @@
+-- Booking IDs come from a pooled sequence (allocation size 50) so Hibernate can batch inserts.
+-- Rows inserted without an id draw from the same sequence; each takes the top of a fresh block,
+-- which never overlaps the ranges Hibernate hands out below the values it fetched.
+CREATE SEQUENCE bookings_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_seq;
@@ -0,0 +1,2 @@
+-- Optimistic locking: entity updates check the version, conditional status transitions bump it
+ALTER TABLE bookings ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,28 @@
+-- Housekeeping job leases: a node runs a job only while it holds the job's unexpired row.
+-- lease_until is compared with the database clock, so node clocks need not agree.
+CREATE TABLE job_leases (
+    job_name    VARCHAR(64)  NOT NULL PRIMARY KEY,
+    owner       VARCHAR(128) NOT NULL,
+    lease_until TIMESTAMP(6) NOT NULL,
+    acquired_at TIMESTAMP(6) NOT NULL
+);
+
+-- Finished bookings past the retention period, moved out of the hot table. No foreign key, so
+-- archived history never blocks changes to facilities.
+CREATE TABLE bookings_archive (
+    id          BIGINT         NOT NULL PRIMARY KEY,
+    user_id     VARCHAR(255)   NOT NULL,
+    facility_id BIGINT         NOT NULL,
+    start_time  TIMESTAMP(6)   NOT NULL,
+    end_time    TIMESTAMP(6)   NOT NULL,
+    status      TINYINT        NOT NULL,
+    purpose     VARCHAR(200),
+    total_cost  NUMERIC(10, 2),
+    user_name   VARCHAR(255),
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6),
+    version     BIGINT         NOT NULL,
+    archived_at TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX idx_bookings_archive_user_start ON bookings_archive (user_id, start_time);
@@ -0,0 +1,10 @@
+-- Booking changes awaiting delivery to outbox sinks, written in the transaction that made the change.
+-- Rows are relayed in id order and deleted once every sink has accepted them.
+CREATE TABLE booking_outbox (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id BIGINT        NOT NULL,
+    event_type VARCHAR(32)   NOT NULL,
+    payload    VARCHAR(2000) NOT NULL,
+    created_at TIMESTAMP(6)  NOT NULL,
+    attempts   INTEGER       NOT NULL DEFAULT 0
+);
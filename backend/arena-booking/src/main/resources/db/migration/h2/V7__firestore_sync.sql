@@ -0,0 +1,17 @@
+-- Firestore documents that mirror local rows under an id other than the row id (bookings created
+-- in the web app keep the document id Firestore gave them).
+CREATE TABLE sync_links (
+    collection  VARCHAR(32)  NOT NULL,
+    local_id    BIGINT       NOT NULL,
+    document_id VARCHAR(128) NOT NULL,
+    PRIMARY KEY (collection, local_id)
+);
+
+CREATE UNIQUE INDEX uk_sync_links_document ON sync_links (collection, document_id);
+
+-- Position of each incremental sync: the last (updated_at, document id) pair processed.
+CREATE TABLE sync_checkpoints (
+    name        VARCHAR(64)  NOT NULL PRIMARY KEY,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    document_id VARCHAR(128) NOT NULL
+);
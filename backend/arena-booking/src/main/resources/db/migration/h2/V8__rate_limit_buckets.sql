@@ -0,0 +1,6 @@
+-- Token buckets shared by all nodes (booking.rate-limit.store=jdbc): full_at is when the bucket
+-- is full again, in epoch microseconds. Rows of full buckets are swept.
+CREATE TABLE rate_limit_buckets (
+    bucket_key VARCHAR(191) NOT NULL PRIMARY KEY,
+    full_at    BIGINT       NOT NULL
+);
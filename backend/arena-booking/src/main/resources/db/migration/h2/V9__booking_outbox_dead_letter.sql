@@ -0,0 +1,14 @@
+-- Outbox rows the relay gave up on after booking.outbox.relay.max-attempts failed deliveries,
+-- with the sink that refused the last attempt and its error. Replay one by inserting it back
+-- into booking_outbox.
+CREATE TABLE booking_outbox_dead_letter (
+    id           BIGINT        NOT NULL PRIMARY KEY,
+    booking_id   BIGINT        NOT NULL,
+    event_type   VARCHAR(32)   NOT NULL,
+    payload      VARCHAR(2000) NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL,
+    attempts     INTEGER       NOT NULL,
+    failed_sink  VARCHAR(64)   NOT NULL,
+    last_error   VARCHAR(500),
+    dead_at      TIMESTAMP(6)  NOT NULL
+);
@@ -0,0 +1,45 @@
+-- Schema as previously generated by Hibernate (ddl-auto), now owned by migrations.
+-- Databases created that way are baselined at this version and start from V2.
+
+CREATE TABLE facilities (
+    id                   BIGINT         NOT NULL AUTO_INCREMENT,
+    name                 VARCHAR(255)   NOT NULL,
+    type                 VARCHAR(255)   NOT NULL,
+    capacity             INT            NOT NULL,
+    hourly_rate          DECIMAL(10, 2) NOT NULL,
+    is_active            BIT(1)         NOT NULL,
+    description          VARCHAR(500),
+    image_url            VARCHAR(255),
+    location             VARCHAR(200),
+    amenities            VARCHAR(1000),
+    opening_time         VARCHAR(255),
+    closing_time         VARCHAR(255),
+    is_under_maintenance BIT(1)         NOT NULL,
+    maintenance_note     VARCHAR(500),
+    created_by           VARCHAR(100),
+    created_at           DATETIME(6)    NOT NULL,
+    updated_at           DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE facility_equipment (
+    facility_id    BIGINT NOT NULL,
+    equipment_item VARCHAR(255),
+    CONSTRAINT fk_facility_equipment_facility FOREIGN KEY (facility_id) REFERENCES facilities (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE bookings (
+    id          BIGINT         NOT NULL AUTO_INCREMENT,
+    user_id     VARCHAR(255)   NOT NULL,
+    facility_id BIGINT         NOT NULL,
+    start_time  DATETIME(6)    NOT NULL,
+    end_time    DATETIME(6)    NOT NULL,
+    status      VARCHAR(255)   NOT NULL,
+    purpose     VARCHAR(200),
+    total_cost  DECIMAL(10, 2),
+    user_name   VARCHAR(255),
+    created_at  DATETIME(6)    NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_facility FOREIGN KEY (facility_id) REFERENCES facilities (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,21 @@
+-- Status becomes a one-byte code: 0 pending, 1 confirmed, 2 cancelled, 3 completed (see BookingStatusConverter)
+ALTER TABLE bookings ADD COLUMN status_code TINYINT NULL AFTER status;
+
+UPDATE bookings SET status_code = CASE status
+    WHEN 'pending' THEN 0
+    WHEN 'confirmed' THEN 1
+    WHEN 'cancelled' THEN 2
+    WHEN 'completed' THEN 3
+END;
+
+ALTER TABLE bookings DROP COLUMN status;
+
+-- idx_bookings_facility_status_time leads with facility_id, so InnoDB uses it for fk_bookings_facility
+-- and drops the single-column index it created implicitly for the foreign key
+ALTER TABLE bookings
+    CHANGE COLUMN status_code status TINYINT NOT NULL,
+    ADD CONSTRAINT ck_bookings_status CHECK (status BETWEEN 0 AND 3),
+    ADD INDEX idx_bookings_facility_status_time (facility_id, status, start_time, end_time),
+    ADD INDEX idx_bookings_user_start (user_id, start_time),
+    ADD INDEX idx_bookings_status_start (status, start_time),
+    ADD INDEX idx_bookings_start_id (start_time, id);
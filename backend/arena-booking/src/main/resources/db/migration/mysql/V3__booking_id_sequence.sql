@@ -0,0 +1,11 @@
+-- Booking IDs come from a pooled sequence (allocation size 50) so Hibernate can batch inserts.
+-- MySQL has no sequences; Hibernate emulates this one with a single-row table.
+CREATE TABLE bookings_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+-- Hibernate's pooled optimizer treats a fetched value as the top of its block, so the first value
+-- has to sit a whole block above the existing ids
+INSERT INTO bookings_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM bookings;
+
+ALTER TABLE bookings MODIFY COLUMN id BIGINT NOT NULL;
@@ -0,0 +1,2 @@
+-- Optimistic locking: entity updates check the version, conditional status transitions bump it
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
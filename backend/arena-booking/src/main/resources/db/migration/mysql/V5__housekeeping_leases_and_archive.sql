@@ -0,0 +1,29 @@
+-- Housekeeping job leases: a node runs a job only while it holds the job's unexpired row.
+-- lease_until is compared with the database clock, so node clocks need not agree.
+CREATE TABLE job_leases (
+    job_name    VARCHAR(64)  NOT NULL,
+    owner       VARCHAR(128) NOT NULL,
+    lease_until DATETIME(6)  NOT NULL,
+    acquired_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (job_name)
+) ENGINE = InnoDB;
+
+-- Finished bookings past the retention period, moved out of the hot table. No foreign key, so
+-- archived history never blocks changes to facilities.
+CREATE TABLE bookings_archive (
+    id          BIGINT         NOT NULL,
+    user_id     VARCHAR(255)   NOT NULL,
+    facility_id BIGINT         NOT NULL,
+    start_time  DATETIME(6)    NOT NULL,
+    end_time    DATETIME(6)    NOT NULL,
+    status      TINYINT        NOT NULL,
+    purpose     VARCHAR(200),
+    total_cost  DECIMAL(10, 2),
+    user_name   VARCHAR(255),
+    created_at  DATETIME(6)    NOT NULL,
+    updated_at  DATETIME(6),
+    version     BIGINT         NOT NULL,
+    archived_at DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_bookings_archive_user_start (user_id, start_time)
+) ENGINE = InnoDB;
@@ -0,0 +1,11 @@
+-- Booking changes awaiting delivery to outbox sinks, written in the transaction that made the change.
+-- Rows are relayed in id order and deleted once every sink has accepted them.
+CREATE TABLE booking_outbox (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    booking_id BIGINT        NOT NULL,
+    event_type VARCHAR(32)   NOT NULL,
+    payload    VARCHAR(2000) NOT NULL,
+    created_at DATETIME(6)   NOT NULL,
+    attempts   INT           NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
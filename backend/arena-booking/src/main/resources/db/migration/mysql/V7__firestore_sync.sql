@@ -0,0 +1,17 @@
+-- Firestore documents that mirror local rows under an id other than the row id (bookings created
+-- in the web app keep the document id Firestore gave them).
+CREATE TABLE sync_links (
+    collection  VARCHAR(32)  NOT NULL,
+    local_id    BIGINT       NOT NULL,
+    document_id VARCHAR(128) NOT NULL,
+    PRIMARY KEY (collection, local_id),
+    UNIQUE KEY uk_sync_links_document (collection, document_id)
+) ENGINE = InnoDB;
+
+-- Position of each incremental sync: the last (updated_at, document id) pair processed.
+CREATE TABLE sync_checkpoints (
+    name        VARCHAR(64)  NOT NULL,
+    updated_at  DATETIME(6)  NOT NULL,
+    document_id VARCHAR(128) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- Token buckets shared by all nodes (booking.rate-limit.store=jdbc): full_at is when the bucket
+-- is full again, in epoch microseconds. Rows of full buckets are swept.
+CREATE TABLE rate_limit_buckets (
+    bucket_key VARCHAR(191) NOT NULL,
+    full_at    BIGINT       NOT NULL,
+    PRIMARY KEY (bucket_key)
+) ENGINE = InnoDB;
@@ -0,0 +1,15 @@
+-- Outbox rows the relay gave up on after booking.outbox.relay.max-attempts failed deliveries,
+-- with the sink that refused the last attempt and its error. Replay one by inserting it back
+-- into booking_outbox.
+CREATE TABLE booking_outbox_dead_letter (
+    id           BIGINT        NOT NULL,
+    booking_id   BIGINT        NOT NULL,
+    event_type   VARCHAR(32)   NOT NULL,
+    payload      VARCHAR(2000) NOT NULL,
+    created_at   DATETIME(6)   NOT NULL,
+    attempts     INT           NOT NULL,
+    failed_sink  VARCHAR(64)   NOT NULL,
+    last_error   VARCHAR(500),
+    dead_at      DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,32 @@
+package com.asiattiger.booking;
+
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * The facility most tests book against: a futsal court for 10 at 20.00 an hour, open 00:00–23:59
+ * so any slot in the advance window can be booked. Tests that need other hours or rates adjust
+ * {@link #court(String)} before saving it.
+ */
+public final class TestFacilities {
+
+    private TestFacilities() {
+    }
+
+    public static Facility court(String name) {
+        Facility facility = new Facility();
+        facility.setName(name);
+        facility.setType("futsal");
+        facility.setCapacity(10);
+        facility.setHourlyRate(new BigDecimal("20.00"));
+        facility.setOpeningTime("00:00");
+        facility.setClosingTime("23:59");
+        return facility;
+    }
+
+    public static Long save(FacilityRepository facilityRepository, String name) {
+        return facilityRepository.save(court(name)).getId();
+    }
+}
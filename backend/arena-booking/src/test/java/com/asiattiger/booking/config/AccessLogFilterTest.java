@@ -0,0 +1,79 @@
+package com.asiattiger.booking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogFilterTest {
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger("booking.access");
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    @BeforeEach
+    void captureAccessLog() {
+        accessLogger.setLevel(Level.INFO);
+        events.start();
+        accessLogger.addAppender(events);
+    }
+
+    @AfterEach
+    void detach() {
+        accessLogger.detachAppender(events);
+        accessLogger.setLevel(null);
+    }
+
+    @Test
+    void sampledRequestIsLoggedAsKeyValuePairsWithStatementCount() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(1.0, Duration.ofSeconds(1));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/facilities/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/facilities/{id}");
+        request.setAttribute(QueryCountFilter.STATEMENTS_ATTRIBUTE, 2);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(events.list).singleElement().extracting(ILoggingEvent::getFormattedMessage).asString()
+                .startsWith("method=GET uri=/api/facilities/{id} path=/api/facilities/7 status=200 duration_ms=")
+                .endsWith("statements=2 sampled=true");
+    }
+
+    @Test
+    void unsampledRequestsAreSkippedButServerErrorsAreAlwaysLogged() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 20; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/facilities"),
+                    new MockHttpServletResponse(), new MockFilterChain());
+        }
+        assertThat(events.list).isEmpty();
+
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+        failed.setStatus(500);
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/bookings/batch"), failed, new MockFilterChain());
+
+        assertThat(events.list).singleElement().extracting(ILoggingEvent::getFormattedMessage).asString()
+                .contains("status=500").endsWith("sampled=false");
+    }
+
+    @Test
+    void nonApiRequestsAreNotLogged() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(1.0, Duration.ofSeconds(1));
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/prometheus"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(events.list).isEmpty();
+    }
+}
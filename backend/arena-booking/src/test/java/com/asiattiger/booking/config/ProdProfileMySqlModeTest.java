@@ -0,0 +1,175 @@
+package com.asiattiger.booking.config;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingBatchResultDTO;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.BookingService;
+import com.asiattiger.booking.service.FacilityLockManager;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the prod profile against H2 in MySQL compatibility mode, so the pool and Hibernate
+ * tuning is exercised without a MySQL server. H2 cannot parse the multi-clause ALTER TABLEs in
+ * the MySQL migrations, so the H2 scripts and dialect stand in for them; H2 also ignores the
+ * Connector/J settings, which are only checked for being handed to the driver.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "DB_URL=jdbc:h2:mem:prodmysqlmode;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "DB_DRIVER=org.h2.Driver",
+        "DB_USERNAME=sa",
+        "DB_DIALECT=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.asiattiger.booking.config.ProdProfileMySqlModeTest$StatementLog"
+})
+@ActiveProfiles("prod")
+class ProdProfileMySqlModeTest {
+
+    public static class StatementLog implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql.toLowerCase());
+            }
+            return sql;
+        }
+
+        static long count(String fragment) {
+            synchronized (STATEMENTS) {
+                return STATEMENTS.stream().filter(sql -> sql.contains(fragment)).count();
+            }
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private FacilityLockManager lockManager;
+
+    @BeforeEach
+    void clearStatements() {
+        StatementLog.clear();
+    }
+
+    @Test
+    void migrationsApplyInMySqlMode() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL ORDER BY installed_rank", String.class);
+        assertThat(versions).containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT setting_value FROM information_schema.settings WHERE setting_name = 'MODE'", String.class))
+                .isEqualTo("MySQL");
+    }
+
+    @Test
+    void poolAndHibernateAreTuned() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertThat(hikari.getPoolName()).isEqualTo("booking-mysql");
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(hikari.getDataSourceProperties())
+                .containsEntry("cachePrepStmts", "true")
+                .containsEntry("useServerPrepStmts", "true")
+                .containsEntry("rewriteBatchedStatements", "true")
+                .containsEntry("prepStmtCacheSize", "250");
+
+        assertThat(entityManagerFactory.getProperties())
+                .containsEntry("hibernate.jdbc.batch_size", "50")
+                .containsEntry("hibernate.order_inserts", "true")
+                .containsEntry("hibernate.order_updates", "true")
+                .containsEntry("hibernate.default_batch_fetch_size", "32");
+    }
+
+    @Test
+    void nodesSharingTheDatabaseLockFacilityRows() {
+        assertThat(lockManager.isPessimistic()).isTrue();
+    }
+
+    @Test
+    void batchCreationSendsOneInsertStatementPerJdbcBatch() {
+        Long facilityId = saveFacility("Prod Court");
+        LocalDateTime firstSlot = LocalDate.now().plusDays(3).atTime(6, 0);
+        List<BookingDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            requests.add(BookingDTO.builder()
+                    .userId("prod-user")
+                    .facilityId(facilityId)
+                    .startTime(firstSlot.plusHours(i))
+                    .endTime(firstSlot.plusHours(i + 1))
+                    .build());
+        }
+        StatementLog.clear();
+
+        BookingBatchResultDTO result = bookingService.createBookings(requests, true);
+
+        assertThat(result.getCreated()).isEqualTo(12);
+        assertThat(StatementLog.count("insert into bookings ")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE facility_id = ?", Integer.class, facilityId)).isEqualTo(12);
+    }
+
+    @Test
+    void lazyEquipmentIsLoadedInBatches() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(saveFacility("Batch Fetch Court " + i));
+        }
+        StatementLog.clear();
+
+        int equipmentItems = transactionTemplate.execute(status -> facilityRepository.findAllById(ids).stream()
+                .mapToInt(facility -> facility.getEquipment().size())
+                .sum());
+
+        assertThat(equipmentItems).isEqualTo(12);
+        assertThat(StatementLog.count("from facility_equipment")).isEqualTo(1);
+    }
+
+    private Long saveFacility(String name) {
+        Facility facility = TestFacilities.court(name);
+        facility.setEquipment(List.of("Goals", "Balls"));
+        return facilityRepository.save(facility).getId();
+    }
+}
@@ -0,0 +1,214 @@
+package com.asiattiger.booking.config;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.dto.FacilityDTO;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.BookingService;
+import com.asiattiger.booking.service.FacilityCatalogCache;
+import com.asiattiger.booking.service.FacilityService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routing between two local H2 databases standing in for a primary and its replica. Nothing
+ * replicates between them, so a row's visibility shows which one served a read.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary",
+        "booking.datasource.replica.enabled=true",
+        "booking.datasource.replica.url=jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1",
+        "booking.datasource.replica.username=sa",
+        "booking.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+        "booking.datasource.replica.check-interval=PT0.05S",
+        "booking.datasource.replica.max-lag=PT5S",
+        "booking.datasource.replica.read-your-writes-window=PT1S"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadWriteRoutingTest {
+
+    private static final String REPLICA_ONLY = "Replica Only Court";
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityService facilityService;
+
+    @Autowired
+    private FacilityCatalogCache catalogCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void prepareReplica() throws Exception {
+        Flyway.configure().dataSource(replicaDataSource).locations("classpath:db/migration/h2").load().migrate();
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE replica_lag (lag_seconds DOUBLE)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO facilities (name, type, capacity, hourly_rate, is_active, opening_time, closing_time, " +
+                "is_under_maintenance, created_at) VALUES (?, 'futsal', 10, 30.00, TRUE, '00:00', '23:59', FALSE, ?)",
+                REPLICA_ONLY, Timestamp.valueOf(LocalDateTime.now()));
+        awaitReplicaUsable(true);
+    }
+
+    @BeforeEach
+    @AfterEach
+    void resetThread() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        assertThat(readOnly(this::replicaOnlyRowVisible)).isTrue();
+        Boolean visibleInWriteTransaction = transactionTemplate.execute(status -> replicaOnlyRowVisible());
+        assertThat(visibleInWriteTransaction).isFalse();
+    }
+
+    @Test
+    void readsRightAfterAWriteGoToThePrimary() {
+        Long facilityId = saveFacilityOnPrimary();
+        LocalDateTime startTime = LocalDate.now().plusDays(4).atTime(9, 0);
+        BookingDTO created = bookingService.createBooking(BookingDTO.builder()
+                .userId("routing-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build());
+
+        // Still inside the window: the replica has not seen the booking, the primary has
+        assertThat(bookingService.getBookingById(created.getId()).getId()).isEqualTo(created.getId());
+        assertThat(readOnly(this::replicaOnlyRowVisible)).isFalse();
+
+        ReadYourWrites.clear();
+        assertThatThrownBy(() -> bookingService.getBookingById(created.getId())).hasMessageContaining("not found");
+    }
+
+    @Test
+    void laggingReplicaIsBypassedUntilItCatchesUp() throws Exception {
+        try {
+            replica.update("UPDATE replica_lag SET lag_seconds = 30");
+            awaitReplicaUsable(false);
+            assertThat(readOnly(this::replicaOnlyRowVisible)).isFalse();
+            assertThat(lagMonitor.status()).containsEntry("lagMillis", 30_000L).containsEntry("serving", false);
+        } finally {
+            replica.update("UPDATE replica_lag SET lag_seconds = 0");
+            awaitReplicaUsable(true);
+        }
+        assertThat(readOnly(this::replicaOnlyRowVisible)).isTrue();
+    }
+
+    @Test
+    void catalogCacheIsFilledFromThePrimary() {
+        // A write elsewhere invalidated the catalog; this thread has no recent write of its own
+        Long facilityId = saveFacilityOnPrimary();
+        ReadYourWrites.clear();
+        catalogCache.invalidateAll();
+        assertThat(readOnly(this::replicaOnlyRowVisible)).as("other reads still use the replica").isTrue();
+
+        // A lagging replica would keep serving the old catalog under the new ETag until the entry expires
+        assertThat(facilityService.getAllActiveFacilities()).extracting(FacilityDTO::getId).contains(facilityId);
+        assertThat(facilityService.getAllActiveFacilities()).extracting(FacilityDTO::getName).doesNotContain(REPLICA_ONLY);
+        assertThat(facilityService.getFacilityById(facilityId).getId()).isEqualTo(facilityId);
+    }
+
+    @Test
+    void writeCookieKeepsTheNextRequestOnThePrimary() throws Exception {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        readYourWritesFilter.doFilter(new MockHttpServletRequest("POST", "/api/bookings/batch"), writeResponse,
+                handler(response -> {
+                    saveFacilityOnPrimary();
+                    response.setStatus(201);
+                }));
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(ReadYourWrites.lastWriteMillis()).as("cleared after the request").isNull();
+
+        AtomicBoolean sawReplica = new AtomicBoolean(true);
+        MockHttpServletRequest followUp = new MockHttpServletRequest("GET", "/api/facilities");
+        followUp.setCookies(cookie);
+        readYourWritesFilter.doFilter(followUp, new MockHttpServletResponse(),
+                handler(response -> sawReplica.set(readOnly(this::replicaOnlyRowVisible))));
+        assertThat(sawReplica).isFalse();
+
+        // Without the cookie the same read is served by the replica
+        readYourWritesFilter.doFilter(new MockHttpServletRequest("GET", "/api/facilities"), new MockHttpServletResponse(),
+                handler(response -> sawReplica.set(readOnly(this::replicaOnlyRowVisible))));
+        assertThat(sawReplica).isTrue();
+    }
+
+    private static MockFilterChain handler(Consumer<HttpServletResponse> body) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                body.accept(response);
+            }
+        });
+    }
+
+    private boolean replicaOnlyRowVisible() {
+        return facilityRepository.findAll().stream().anyMatch(facility -> REPLICA_ONLY.equals(facility.getName()));
+    }
+
+    private boolean readOnly(BooleanSupplier read) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return Boolean.TRUE.equals(readOnly.execute(status -> read.getAsBoolean()));
+    }
+
+    private Long saveFacilityOnPrimary() {
+        return TestFacilities.save(facilityRepository, "Primary Court");
+    }
+
+    private void awaitReplicaUsable(boolean usable) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (lagMonitor.isUsable() != usable && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(lagMonitor.isUsable()).isEqualTo(usable);
+    }
+}
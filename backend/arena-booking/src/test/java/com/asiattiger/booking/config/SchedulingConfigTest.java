@@ -0,0 +1,59 @@
+package com.asiattiger.booking.config;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Background jobs share one scheduler, which keeps a task scheduled after a run throws, while
+ * async request work keeps its own executor.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:scheduling"
+})
+class SchedulingConfigTest {
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void failingRunsAreLoggedAndTheTaskStaysScheduled() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> schedule = taskScheduler.scheduleWithFixedDelay(() -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("Run failed");
+        }, Duration.ofMillis(10));
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (runs.get() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(runs.get()).isGreaterThanOrEqualTo(3);
+            assertThat(schedule.isDone()).isFalse();
+        } finally {
+            schedule.cancel(false);
+        }
+    }
+
+    @Test
+    void oneSharedSchedulerAndASeparateAsyncExecutor() {
+        assertThat(taskScheduler).isInstanceOf(ThreadPoolTaskScheduler.class);
+        assertThat(((ThreadPoolTaskScheduler) taskScheduler).getThreadNamePrefix()).isEqualTo("booking-scheduler-");
+        assertThat(context.getBeanNamesForType(TaskScheduler.class)).hasSize(1);
+        assertThat(context.containsBean("applicationTaskExecutor")).isTrue();
+    }
+}
@@ -0,0 +1,157 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.AvailabilityStreamHub;
+import com.asiattiger.booking.service.BookingService;
+import com.asiattiger.booking.service.SlotChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clients that never read block their sender on a full socket. They are evicted once a write
+ * runs past the write timeout, and the blocked senders are replaced until their writes return,
+ * so other facilities' subscribers keep getting their events.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:availabilitystall",
+                "booking.availability-stream.queue-capacity=4",
+                "booking.availability-stream.sender-threads=2",
+                "booking.availability-stream.heartbeat-interval=PT0.2S",
+                "booking.availability-stream.write-timeout=PT0.5S",
+                "booking.availability-stream.idle-timeout=PT1M"
+        })
+class AvailabilityStreamStallTest {
+
+    private static final LocalDateTime NEXT_WEEK = LocalDate.now().plusDays(7).atTime(10, 0);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private AvailabilityStreamHub hub;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void clientsThatNeverReadDoNotStarveOtherSubscribers() throws Exception {
+        Long slowFacilityId = TestFacilities.save(facilityRepository, "Stalled Court");
+        Long facilityId = TestFacilities.save(facilityRepository, "Healthy Court");
+        double stalledBefore = stalledEvictions();
+
+        // More never-reading clients than sender threads
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                sockets.add(openWithoutReading(slowFacilityId));
+            }
+            await(() -> hub.getSubscriberCount(slowFacilityId) == 4);
+
+            SlotChangeEvent change = new SlotChangeEvent(slowFacilityId, 1L, SlotChangeEvent.BOOKED,
+                    NEXT_WEEK, NEXT_WEEK.plusHours(1), "pending");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (hub.getSubscriberCount(slowFacilityId) > 0 && System.nanoTime() < deadline) {
+                hub.onSlotChange(change);
+            }
+            assertThat(hub.getSubscriberCount(slowFacilityId)).as("evicted").isZero();
+            assertThat(stalledEvictions()).isGreaterThanOrEqualTo(stalledBefore + 2);
+            // Both original senders are still blocked on clients that never read
+            assertThat(hub.getStalledSenderCount()).isGreaterThanOrEqualTo(2);
+
+            HttpClient client = HttpClient.newHttpClient();
+            BlockingQueue<String> events = new LinkedBlockingQueue<>();
+            CompletableFuture<?> stream = client.sendAsync(streamRequest(facilityId), HttpResponse.BodyHandlers.ofLines())
+                    .thenAccept(response -> response.body()
+                            .filter(line -> line.startsWith("event:"))
+                            .forEach(events::add));
+            try {
+                assertThat(events.poll(5, TimeUnit.SECONDS)).isEqualTo("event:" + AvailabilityStreamHub.READY_EVENT);
+                bookingService.createBooking(booking(facilityId));
+                assertThat(events.poll(5, TimeUnit.SECONDS)).isEqualTo("event:" + AvailabilityStreamHub.SLOT_EVENT);
+            } finally {
+                stream.cancel(true);
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+
+        // Closing the clients fails the blocked writes, which hands their extra senders back
+        await(() -> hub.getStalledSenderCount() == 0);
+    }
+
+    private Socket openWithoutReading(Long facilityId) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/facilities/" + facilityId + "/availability/stream HTTP/1.1\r\n" +
+                "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    private double stalledEvictions() {
+        return meterRegistry.get("booking.availability.stream.evictions").tag("reason", "stalled")
+                .counter().count();
+    }
+
+    private HttpRequest streamRequest(Long facilityId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/facilities/" + facilityId
+                        + "/availability/stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static BookingDTO booking(Long facilityId) {
+        return BookingDTO.builder()
+                .userId("stall-user")
+                .facilityId(facilityId)
+                .startTime(NEXT_WEEK)
+                .endTime(NEXT_WEEK.plusHours(1))
+                .build();
+    }
+}
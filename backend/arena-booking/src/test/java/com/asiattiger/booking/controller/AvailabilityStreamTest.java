@@ -0,0 +1,204 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.AvailabilityStreamHub;
+import com.asiattiger.booking.service.BookingService;
+import com.asiattiger.booking.service.SlotChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Availability streams over real connections: committed booking changes reach the facility's
+ * subscribers in order, and a client that stops reading is told to resync and then dropped.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:availabilitystream",
+                "booking.availability-stream.queue-capacity=4",
+                "booking.availability-stream.heartbeat-interval=PT0.2S",
+                "booking.availability-stream.idle-timeout=PT1S"
+        })
+class AvailabilityStreamTest {
+
+    private static final LocalDateTime NEXT_WEEK = LocalDate.now().plusDays(7).atTime(10, 0);
+
+    // One parsed server-sent event; comments (heartbeats) are skipped
+    private record Event(String name, String data) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private AvailabilityStreamHub hub;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<CompletableFuture<?>> openStreams = new ArrayList<>();
+
+    @AfterEach
+    void closeStreams() {
+        openStreams.forEach(stream -> stream.cancel(true));
+    }
+
+    @Test
+    void subscribersReceiveTheirFacilitysSlotChanges() throws Exception {
+        Long facilityId = TestFacilities.save(facilityRepository, "Stream Court");
+        Long otherFacilityId = TestFacilities.save(facilityRepository, "Quiet Court");
+        BlockingQueue<Event> events = subscribe(facilityId);
+        BlockingQueue<Event> otherEvents = subscribe(otherFacilityId);
+        assertThat(next(events).name()).isEqualTo(AvailabilityStreamHub.READY_EVENT);
+        assertThat(next(otherEvents).name()).isEqualTo(AvailabilityStreamHub.READY_EVENT);
+
+        BookingDTO created = bookingService.createBooking(booking(facilityId, NEXT_WEEK));
+        bookingService.confirmBooking(created.getId());
+        bookingService.cancelBooking(created.getId());
+
+        assertSlotEvent(next(events), created.getId(), SlotChangeEvent.BOOKED, "pending");
+        assertSlotEvent(next(events), created.getId(), SlotChangeEvent.CONFIRMED, "confirmed");
+        assertSlotEvent(next(events), created.getId(), SlotChangeEvent.RELEASED, "cancelled");
+
+        // The other facility's stream only sees its own booking
+        BookingDTO elsewhere = bookingService.createBooking(booking(otherFacilityId, NEXT_WEEK));
+        assertSlotEvent(next(otherEvents), elsewhere.getId(), SlotChangeEvent.BOOKED, "pending");
+        assertThat(events.poll(300, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void unknownFacilityIsNotFound() throws Exception {
+        HttpResponse<String> response = client.send(streamRequest(-1L), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void clientThatStopsReadingIsResyncedThenEvicted() throws Exception {
+        Long facilityId = TestFacilities.save(facilityRepository, "Slow Court");
+        double resyncsBefore = meterRegistry.get("booking.availability.stream.resyncs").counter().count();
+        double idleBefore = meterRegistry.get("booking.availability.stream.evictions").tag("reason", "idle")
+                .counter().count();
+
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(1024);
+            socket.connect(new InetSocketAddress("localhost", port));
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /api/facilities/" + facilityId + "/availability/stream HTTP/1.1\r\n" +
+                    "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            await(() -> hub.getSubscriberCount(facilityId) == 1);
+
+            // Never read: socket buffers fill, the sender blocks on a write and the queue overflows
+            SlotChangeEvent change = new SlotChangeEvent(facilityId, 1L, SlotChangeEvent.BOOKED,
+                    NEXT_WEEK, NEXT_WEEK.plusHours(1), "pending");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (hub.getSubscriberCount(facilityId) > 0 && System.nanoTime() < deadline) {
+                hub.onSlotChange(change);
+            }
+
+            assertThat(hub.getSubscriberCount(facilityId)).as("evicted").isZero();
+            assertThat(resyncCount()).isGreaterThan(resyncsBefore);
+            assertThat(meterRegistry.get("booking.availability.stream.evictions").tag("reason", "idle")
+                    .counter().count()).isGreaterThan(idleBefore);
+        }
+    }
+
+    private double resyncCount() {
+        return meterRegistry.get("booking.availability.stream.resyncs").counter().count();
+    }
+
+    private static void assertSlotEvent(Event event, Long bookingId, String change, String status) {
+        assertThat(event.name()).isEqualTo(AvailabilityStreamHub.SLOT_EVENT);
+        assertThat(event.data())
+                .contains("\"bookingId\":" + bookingId)
+                .contains("\"change\":\"" + change + "\"")
+                .contains("\"status\":\"" + status + "\"");
+    }
+
+    private BlockingQueue<Event> subscribe(Long facilityId) {
+        BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        openStreams.add(client.sendAsync(streamRequest(facilityId), HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(response -> parse(response.body(), events)));
+        return events;
+    }
+
+    private HttpRequest streamRequest(Long facilityId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/facilities/" + facilityId
+                        + "/availability/stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+    }
+
+    private static void parse(Stream<String> lines, BlockingQueue<Event> events) {
+        String[] current = new String[2];
+        lines.forEach(line -> {
+            if (line.startsWith("event:")) {
+                current[0] = line.substring("event:".length());
+            } else if (line.startsWith("data:")) {
+                current[1] = line.substring("data:".length());
+            } else if (line.isEmpty() && current[0] != null) {
+                events.add(new Event(current[0], current[1]));
+                current[0] = null;
+                current[1] = null;
+            }
+        });
+    }
+
+    private static Event next(BlockingQueue<Event> events) throws InterruptedException {
+        Event event = events.poll(5, TimeUnit.SECONDS);
+        assertThat(event).as("event within 5s").isNotNull();
+        return event;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static BookingDTO booking(Long facilityId, LocalDateTime startTime) {
+        return BookingDTO.builder()
+                .userId("stream-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookinglisting",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureMockMvc
+class BookingControllerTest {
+
+    // Seeds go through JDBC, so statuses are written as their stored codes
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    private static final int BOOKINGS = 25;
+    private static final LocalDateTime ORIGIN = LocalDate.of(2025, 3, 1).atTime(9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long facilityId;
+
+    @BeforeEach
+    void seedBookings() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        Facility facility = new Facility();
+        facility.setName("Listing Court");
+        facility.setType("futsal");
+        facility.setCapacity(10);
+        facility.setHourlyRate(new BigDecimal("50.00"));
+        facilityId = facilityRepository.save(facility).getId();
+
+        // Bookings come in pairs sharing a start time so paging has to break ties on id
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime startTime = ORIGIN.plusHours(i / 2);
+            rows.add(new Object[]{
+                    "user-" + i, facilityId, Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)),
+                    STATUS_CODES.convertToDatabaseColumn(i % 5 == 0 ? "cancelled" : "confirmed"), new BigDecimal("50.00"),
+                    i == 3 ? "Team \"A\", evening" : null, Timestamp.valueOf(ORIGIN)
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, " +
+                "total_cost, purpose, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void pagesThroughAllBookingsInStartTimeOrderWithoutGapsOrDuplicates() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = getPage("/api/bookings", cursor, 7);
+            for (JsonNode booking : page.get("bookings")) {
+                ids.add(booking.get("id").asLong());
+            }
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM bookings ORDER BY start_time, id", Long.class);
+        assertThat(pages).isEqualTo(4);
+        assertThat(ids).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void pagesThroughStatusListingsNewestFirst() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = getPage("/api/bookings/status/confirmed", cursor, 6);
+            for (JsonNode booking : page.get("bookings")) {
+                ids.add(booking.get("id").asLong());
+            }
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM bookings WHERE status = ? " +
+                "ORDER BY start_time DESC, id DESC", Long.class, STATUS_CODES.convertToDatabaseColumn("confirmed"));
+        assertThat(ids).hasSize(20).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void filtersPagesByStatusFacilityAndRange() throws Exception {
+        assertThat(getPage("/api/bookings/status/cancelled", null, 50).get("bookings")).hasSize(5);
+        assertThat(getPage("/api/bookings/facility/" + facilityId, null, 50).get("bookings")).hasSize(BOOKINGS);
+
+        String range = "/api/bookings/range?startDate=" + ORIGIN + "&endDate=" + ORIGIN.plusHours(3);
+        JsonNode firstPage = getPage(range, null, 4);
+        assertThat(firstPage.get("bookings")).hasSize(4);
+        assertThat(getPage(range, firstPage.get("nextCursor").asText(), 4).get("bookings")).hasSize(2);
+    }
+
+    @Test
+    void rejectsMalformedCursorUnknownFacilityAndExportFormat() throws Exception {
+        mockMvc.perform(get("/api/bookings").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/bookings/facility/999999"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/bookings/export")
+                        .param("startDate", ORIGIN.toString())
+                        .param("endDate", ORIGIN.plusDays(1).toString())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamsCsvAndNdjsonExports() throws Exception {
+        String csv = export("csv");
+        String[] lines = csv.split("\n");
+        assertThat(lines).hasSize(BOOKINGS + 1);
+        assertThat(lines[0]).startsWith("id,userId,userName,facilityId");
+        assertThat(csv).contains("\"Team \"\"A\"\", evening\"");
+
+        String[] json = export("ndjson").split("\n");
+        assertThat(json).hasSize(BOOKINGS);
+        assertThat(objectMapper.readTree(json[0]).get("facilityName").asText()).isEqualTo("Listing Court");
+    }
+
+    private JsonNode getPage(String path, String cursor, int limit) throws Exception {
+        var request = get(path).param("limit", String.valueOf(limit));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("data");
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/bookings/export")
+                        .param("startDate", ORIGIN.minusDays(1).toString())
+                        .param("endDate", ORIGIN.plusDays(1).toString())
+                        .param("format", format))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
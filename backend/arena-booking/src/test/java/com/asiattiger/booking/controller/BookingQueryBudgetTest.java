@@ -0,0 +1,129 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements Hibernate issues per listing request and fails when a listing
+ * goes over its budget, which is what an N+1 load of booking facilities looks like.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:querybudget",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.asiattiger.booking.controller.BookingQueryBudgetTest$StatementCounter"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryBudgetTest {
+
+    // Seeds go through JDBC, so statuses are written as their stored codes
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    // One statement for the listing itself, one for an existence check on the filter
+    private static final int QUERY_BUDGET = 2;
+    private static final int FACILITIES = 25;
+    private static final int BOOKINGS = 300;
+    private static final String USER_ID = "budget-user";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long facilityId;
+
+    public static class StatementCounter implements StatementInspector {
+
+        static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.incrementAndGet();
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    void seedBookings() {
+        List<Long> facilityIds = new ArrayList<>();
+        for (int i = 0; i < FACILITIES; i++) {
+            Facility facility = new Facility();
+            facility.setName("Budget Court " + i);
+            facility.setType(i % 2 == 0 ? "futsal" : "badminton");
+            facility.setCapacity(10);
+            facility.setHourlyRate(new BigDecimal("40.00"));
+            facilityIds.add(facilityRepository.save(facility).getId());
+        }
+        facilityId = facilityIds.get(0);
+
+        String[] statuses = {"pending", "confirmed", "cancelled", "completed"};
+        LocalDateTime origin = LocalDateTime.now().withNano(0).minusDays(10);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime startTime = origin.plusHours(i);
+            rows.add(new Object[]{
+                    USER_ID, facilityIds.get(i % FACILITIES), Timestamp.valueOf(startTime),
+                    Timestamp.valueOf(startTime.plusHours(1)), STATUS_CODES.convertToDatabaseColumn(statuses[i % statuses.length]),
+                    new BigDecimal("40.00"), Timestamp.valueOf(origin)
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, " +
+                "total_cost, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/bookings?limit=200",
+            "/api/bookings/status/confirmed?limit=200",
+            "/api/bookings/facility/{facilityId}?limit=200",
+            "/api/bookings/range?startDate={from}&endDate={to}&limit=200",
+            "/api/bookings/user/" + USER_ID,
+            "/api/bookings/user/" + USER_ID + "/upcoming",
+            "/api/bookings/user/" + USER_ID + "/past",
+            "/api/bookings/user/" + USER_ID + "/cancellable",
+            "/api/bookings/active"
+    })
+    void listingStaysWithinQueryBudget(String path) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        String url = path.replace("{facilityId}", facilityId.toString())
+                .replace("{from}", now.minusDays(30).toString())
+                .replace("{to}", now.plusDays(30).toString());
+
+        StatementCounter.COUNT.set(0);
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        int statements = StatementCounter.COUNT.get();
+
+        assertThat(statements)
+                .as("SQL statements issued by GET %s", url)
+                .isLessThanOrEqualTo(QUERY_BUDGET);
+    }
+}
@@ -0,0 +1,139 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput of {@code GET /api/facilities} with the default logging setup (SQL echo, INFO
+ * application logs, every request in the access log, synchronous console) against the prod
+ * profile (SQL logging off, sampled access log, async console appender).
+ *
+ * Requests go through MockMvc, so the full filter chain and controller run but loopback TCP
+ * (where delayed ACKs cap a small client at a few hundred requests per second) does not.
+ *
+ * Run each mode in its own JVM so JIT warm-up does not favour whichever goes second:
+ *   mvn test -Pbenchmark -Dtest='LoggingModeThroughputTest#defaultLogging'
+ *   mvn test -Pbenchmark -Dtest='LoggingModeThroughputTest$WithProdProfile'
+ *   [-Dload.clients=N] [-Dload.requests=N]
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loggingmode",
+        "logging.level.com.asiattiger.booking.controller.LoggingModeThroughputTest=INFO"
+})
+@AutoConfigureMockMvc
+class LoggingModeThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingModeThroughputTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requests", 2_000);
+    private static final int FACILITIES = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Test
+    void defaultLogging() throws Exception {
+        runLoad("default logging", mockMvc, facilityRepository);
+    }
+
+    @Nested
+    @ActiveProfiles("prod")
+    class WithProdProfile {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private FacilityRepository facilityRepository;
+
+        @Test
+        void prodLogging() throws Exception {
+            runLoad("prod logging", mockMvc, facilityRepository);
+        }
+    }
+
+    private static void runLoad(String mode, MockMvc mockMvc, FacilityRepository facilityRepository) throws Exception {
+        ensureFacilities(facilityRepository);
+
+        // Warm the facility cache and the JIT before measuring
+        for (int i = 0; i < 2_000; i++) {
+            send(mockMvc);
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    if (send(mockMvc) >= 400) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        clients.shutdown();
+
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        log.info("📝 {}: {} clients, {} x GET /api/facilities -> {} req/s", mode, CLIENTS, total,
+                String.format("%.1f", total / (elapsedNanos / 1e9)));
+
+        assertThat(failures.get()).as("failed requests with %s", mode).isZero();
+    }
+
+    private static void ensureFacilities(FacilityRepository facilityRepository) {
+        if (facilityRepository.count() < FACILITIES) {
+            for (int i = 0; i < FACILITIES; i++) {
+                Facility court = new Facility();
+                court.setName("Logging Court " + i);
+                court.setType(i % 2 == 0 ? "futsal" : "badminton");
+                court.setCapacity(10);
+                court.setHourlyRate(new BigDecimal("25.00"));
+                court.setEquipment(List.of("Nets", "Balls"));
+                facilityRepository.save(court);
+            }
+        }
+    }
+
+    private static int send(MockMvc mockMvc) {
+        try {
+            return mockMvc.perform(get("/api/facilities")).andReturn().getResponse().getStatus();
+        } catch (Exception e) {
+            return 599;
+        }
+    }
+}
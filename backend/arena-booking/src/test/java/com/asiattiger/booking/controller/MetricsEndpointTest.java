@@ -0,0 +1,96 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.BookingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:metricsendpoint",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Test
+    void prometheusScrapeCoversServiceTimersBusinessCountersAndPool() throws Exception {
+        Facility facility = new Facility();
+        facility.setName("Metrics Court");
+        facility.setType("badminton");
+        facility.setCapacity(4);
+        facility.setHourlyRate(new BigDecimal("20.00"));
+        Long facilityId = facilityRepository.save(facility).getId();
+
+        LocalDateTime startTime = LocalDate.now().plusDays(2).atTime(10, 0);
+        BookingDTO request = BookingDTO.builder()
+                .userId("metrics-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build();
+        BookingDTO created = bookingService.createBooking(request);
+        assertThatThrownBy(() -> bookingService.createBooking(request)).hasMessageContaining("conflicts");
+        bookingService.confirmBooking(created.getId());
+
+        mockMvc.perform(get("/api/bookings").param("limit", "5")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/facilities")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .containsPattern("booking_service_seconds_bucket\\{[^}]*method=\"createBooking\"")
+                .containsPattern("facility_service_seconds_count\\{[^}]*method=\"getAllActiveFacilities\"")
+                .containsPattern("booking_conflicts_total\\{[^}]*operation=\"create\"[^}]*} 1.0")
+                .containsPattern("booking_status_transitions_total\\{[^}]*from=\"new\"[^}]*to=\"pending\"")
+                .containsPattern("booking_status_transitions_total\\{[^}]*from=\"pending\"[^}]*to=\"confirmed\"")
+                .containsPattern("booking_http_db_statements_count\\{[^}]*uri=\"/api/bookings\"")
+                .contains("hikaricp_connections_active");
+    }
+
+    @Test
+    void healthReportsLiveDatabaseAndPool() throws Exception {
+        String body = mockMvc.perform(get("/api/health"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode database = objectMapper.readTree(body).path("data").path("database");
+        assertThat(database.path("status").asText()).isEqualTo("UP");
+        assertThat(database.path("product").asText()).startsWith("H2");
+        assertThat(database.path("pool").path("max").asInt()).isPositive();
+        assertThat(database.path("pool").path("saturated").asBoolean()).isFalse();
+    }
+}
@@ -0,0 +1,224 @@
+package com.asiattiger.booking.controller;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the facility and booking endpoints on platform vs virtual request threads,
+ * with every SQL statement delayed to simulate a slow database.
+ *
+ * Tomcat gets fewer platform threads than there are clients, so on platform threads the
+ * cached facility reads queue behind requests blocked on JDBC. On virtual threads only
+ * the requests that need a connection wait for the pool. The virtual-thread run needs Java 21.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=ThreadingModeLoadTest [-Pjava21]
+ *           [-Dload.clients=N] [-Dload.requests=N] [-Dload.db-latency-ms=N]
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = AsianTigerBookingApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:threadingload",
+                "spring.jpa.show-sql=false",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.com.asiattiger.booking=WARN",
+                "logging.level.com.asiattiger.booking.controller.ThreadingModeLoadTest=INFO",
+                "server.tomcat.threads.max=16",
+                "spring.datasource.hikari.maximum-pool-size=8",
+                "spring.datasource.hikari.connection-timeout=30000",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "com.asiattiger.booking.controller.ThreadingModeLoadTest$SlowDatabase"
+        })
+class ThreadingModeLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeLoadTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requests", 40);
+    private static final long DB_LATENCY_MS = Long.getLong("load.db-latency-ms", 20);
+    private static final int FACILITIES = 8;
+
+    /**
+     * Delays every statement Hibernate prepares while its connection is held.
+     */
+    public static class SlowDatabase implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            try {
+                Thread.sleep(DB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sql;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Test
+    void platformThreads() throws Exception {
+        runLoad("platform threads", port, facilityRepository);
+    }
+
+    @Nested
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class OnVirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private FacilityRepository facilityRepository;
+
+        @Test
+        void virtualThreads() throws Exception {
+            runLoad("virtual threads", port, facilityRepository);
+        }
+    }
+
+    private static void runLoad(String mode, int port, FacilityRepository facilityRepository) throws Exception {
+        List<Long> facilityIds = ensureFacilities(facilityRepository);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        String baseUrl = "http://localhost:" + port + "/api";
+
+        // Warm the facility cache and the JIT before measuring
+        for (int i = 0; i < 20; i++) {
+            send(client, get(baseUrl + "/facilities"));
+        }
+
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientId = c;
+            futures.add(clients.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    Long facilityId = facilityIds.get((clientId + i) % facilityIds.size());
+                    String endpoint;
+                    HttpRequest request;
+                    switch ((clientId + i) % 5) {
+                        case 0 -> {
+                            endpoint = "GET /facilities";
+                            request = get(baseUrl + "/facilities");
+                        }
+                        case 1 -> {
+                            endpoint = "GET /facilities/{id}";
+                            request = get(baseUrl + "/facilities/" + facilityId);
+                        }
+                        case 2 -> {
+                            endpoint = "GET /bookings";
+                            request = get(baseUrl + "/bookings?limit=20");
+                        }
+                        case 3 -> {
+                            endpoint = "GET /bookings/facility/{id}";
+                            request = get(baseUrl + "/bookings/facility/" + facilityId + "?limit=20");
+                        }
+                        default -> {
+                            endpoint = "GET /bookings/user/{id}";
+                            request = get(baseUrl + "/bookings/user/user-" + (clientId % 10));
+                        }
+                    }
+                    long begin = System.nanoTime();
+                    int status = send(client, request);
+                    latencies.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - begin);
+                    if (status >= 400) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        clients.shutdown();
+
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        log.info("🧵 {}: {} clients, {} requests, {} ms simulated DB latency -> {} req/s, {} failures",
+                mode, CLIENTS, total, DB_LATENCY_MS,
+                String.format("%.1f", total / (elapsedNanos / 1e9)), failures.get());
+        new TreeMap<>(latencies).forEach((endpoint, samples) -> {
+            List<Long> sorted = samples.stream().sorted().toList();
+            log.info("   {} {} p50={} ms p99={} ms max={} ms", mode, String.format("%-28s", endpoint),
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 99)), millis(sorted.get(sorted.size() - 1)));
+        });
+
+        assertThat(failures.get()).as("failed requests on %s", mode).isZero();
+    }
+
+    private static List<Long> ensureFacilities(FacilityRepository facilityRepository) {
+        if (facilityRepository.count() < FACILITIES) {
+            for (int i = 0; i < FACILITIES; i++) {
+                Facility court = new Facility();
+                court.setName("Load Court " + i);
+                court.setType(i % 2 == 0 ? "futsal" : "badminton");
+                court.setCapacity(10);
+                court.setHourlyRate(new BigDecimal("25.00"));
+                court.setOpeningTime("00:00");
+                court.setClosingTime("23:59");
+                facilityRepository.save(court);
+            }
+        }
+        return facilityRepository.findAll().stream().map(Facility::getId).toList();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static int send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return 599;
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+}
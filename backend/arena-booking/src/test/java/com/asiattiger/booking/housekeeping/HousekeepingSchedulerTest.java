@@ -0,0 +1,266 @@
+package com.asiattiger.booking.housekeeping;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.BookingBulkResultDTO;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.BookingStatsAggregator;
+import com.asiattiger.booking.service.FacilityScheduleIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Housekeeping jobs triggered directly (their schedules are an hour apart here), with chunks of
+ * three rows and at most two chunks per run. Leases can be handed to another node mid-run.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:housekeeping",
+        "booking.housekeeping.enabled=true",
+        "booking.housekeeping.node-id=node-a",
+        "booking.housekeeping.max-chunks-per-run=2",
+        "booking.housekeeping.pending-expiry.interval=PT1H",
+        "booking.housekeeping.pending-expiry.hold=PT30M",
+        "booking.housekeeping.auto-complete.interval=PT1H",
+        "booking.housekeeping.archive.interval=PT1H",
+        "booking.housekeeping.archive.retention=P30D",
+        "booking.bulk.chunk-size=3"
+})
+@Import(HousekeepingSchedulerTest.TakeoverLeasesConfig.class)
+class HousekeepingSchedulerTest {
+
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    // Leases that can hand a job to another node between two renewals, as if that node took over
+    // while this one was stalled; other jobs' calls (e.g. the outbox relay's) do not count
+    static class TakeoverLeases extends JobLeases {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final AtomicInteger callsBeforeTakeover = new AtomicInteger(-1);
+        private volatile String takeoverJob;
+        private volatile String takeoverOwner;
+
+        TakeoverLeases(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        void takeOverAfter(String job, int calls, String owner) {
+            takeoverJob = job;
+            takeoverOwner = owner;
+            callsBeforeTakeover.set(calls);
+        }
+
+        @Override
+        public boolean tryAcquire(String job, String owner, Duration ttl) {
+            if (job.equals(takeoverJob) && callsBeforeTakeover.getAndDecrement() == 0) {
+                jdbcTemplate.update("UPDATE job_leases SET owner = ?, lease_until = TIMESTAMPADD(MINUTE, 5, LOCALTIMESTAMP(6)) " +
+                        "WHERE job_name = ?", takeoverOwner, job);
+            }
+            return super.tryAcquire(job, owner, ttl);
+        }
+    }
+
+    @TestConfiguration
+    static class TakeoverLeasesConfig {
+
+        @Bean
+        @Primary
+        TakeoverLeases takeoverLeases(JdbcTemplate jdbcTemplate) {
+            return new TakeoverLeases(jdbcTemplate);
+        }
+    }
+
+    @Autowired
+    private HousekeepingScheduler scheduler;
+
+    @Autowired
+    private TakeoverLeases leases;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private FacilityScheduleIndex scheduleIndex;
+
+    @Autowired
+    private BookingStatsAggregator statsAggregator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long facilityId;
+
+    @BeforeEach
+    void resetTables() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM bookings_archive");
+        jdbcTemplate.update("DELETE FROM job_leases");
+        Facility facility = new Facility();
+        facility.setName("Housekeeping Court");
+        facility.setType("futsal");
+        facility.setCapacity(10);
+        facility.setHourlyRate(new BigDecimal("20.00"));
+        facilityId = facilityRepository.save(facility).getId();
+    }
+
+    @Test
+    void expiresPendingBookingsPastTheHold() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        Long stale = insert("pending", tomorrow, LocalDateTime.now().minusHours(2));
+        Long fresh = insert("pending", tomorrow.plusHours(2), LocalDateTime.now());
+        Long started = insert("pending", LocalDateTime.now().minusMinutes(10), LocalDateTime.now());
+        Long confirmed = insert("confirmed", tomorrow.plusHours(4), LocalDateTime.now().minusHours(2));
+        rebuildViews();
+        assertThat(scheduleIndex.hasConflict(facilityId, tomorrow, tomorrow.plusHours(1))).isTrue();
+
+        BookingBulkResultDTO result = scheduler.runNow(HousekeepingScheduler.PENDING_EXPIRY).orElseThrow();
+
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(statusOf(stale)).isEqualTo("cancelled");
+        assertThat(statusOf(started)).isEqualTo("cancelled");
+        assertThat(statusOf(fresh)).isEqualTo("pending");
+        assertThat(statusOf(confirmed)).isEqualTo("confirmed");
+        assertThat(scheduleIndex.hasConflict(facilityId, tomorrow, tomorrow.plusHours(1))).as("slot released").isFalse();
+        assertThat(meterRegistry.get("booking.housekeeping.rows").tag("job", "pending-expiry").counter().count())
+                .isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void runsAreBoundedAndTheNextRunContinues() {
+        List<Long> ended = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ended.add(insert("confirmed", LocalDateTime.now().minusDays(2).plusHours(i), LocalDateTime.now().minusDays(3)));
+        }
+        rebuildViews();
+
+        assertThat(scheduler.runNow(HousekeepingScheduler.AUTO_COMPLETE).orElseThrow().getAffected()).isEqualTo(6);
+        assertThat(completedCount()).isEqualTo(6);
+        assertThat(scheduler.runNow(HousekeepingScheduler.AUTO_COMPLETE).orElseThrow().getAffected()).isEqualTo(2);
+        ended.forEach(id -> assertThat(statusOf(id)).isEqualTo("completed"));
+        assertThat(statsAggregator.countByStatus("completed")).isEqualTo(8);
+    }
+
+    @Test
+    void archivesFinishedBookingsPastTheRetention() {
+        Long oldCompleted = insert("completed", LocalDateTime.now().minusDays(40), LocalDateTime.now().minusDays(45));
+        Long oldCancelled = insert("cancelled", LocalDateTime.now().minusDays(60), LocalDateTime.now().minusDays(61));
+        Long recent = insert("completed", LocalDateTime.now().minusDays(10), LocalDateTime.now().minusDays(11));
+        Long oldPending = insert("pending", LocalDateTime.now().minusDays(40), LocalDateTime.now().minusMinutes(1));
+        rebuildViews();
+
+        BookingBulkResultDTO result = scheduler.runNow(HousekeepingScheduler.ARCHIVE).orElseThrow();
+
+        assertThat(result.getAffected()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings_archive ORDER BY id", Long.class))
+                .containsExactly(oldCompleted, oldCancelled);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings ORDER BY id", Long.class))
+                .containsExactly(recent, oldPending);
+        assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM bookings_archive WHERE id = ?", String.class,
+                oldCompleted)).startsWith("housekeeping-");
+        assertThat(statsAggregator.countByStatus("completed")).isEqualTo(1);
+        assertThat(statsAggregator.countByStatus("cancelled")).isZero();
+    }
+
+    @Test
+    void onlyTheLeaseHolderRunsAJob() {
+        Long ended = insert("confirmed", LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(2));
+        assertThat(leases.tryAcquire(HousekeepingScheduler.AUTO_COMPLETE, "node-b", Duration.ofMinutes(5))).isTrue();
+
+        Optional<BookingBulkResultDTO> skipped = scheduler.runNow(HousekeepingScheduler.AUTO_COMPLETE);
+
+        assertThat(skipped).isEmpty();
+        assertThat(statusOf(ended)).isEqualTo("confirmed");
+        assertThat(meterRegistry.get("booking.housekeeping.leader").tag("job", "auto-complete").gauge().value()).isZero();
+        assertThat(meterRegistry.get("booking.housekeeping.runs").tags("job", "auto-complete", "outcome", "skipped")
+                .timer().count()).isPositive();
+
+        leases.release(HousekeepingScheduler.AUTO_COMPLETE, "node-b");
+        assertThat(scheduler.runNow(HousekeepingScheduler.AUTO_COMPLETE)).isPresent();
+        assertThat(statusOf(ended)).isEqualTo("completed");
+        assertThat(meterRegistry.get("booking.housekeeping.leader").tag("job", "auto-complete").gauge().value()).isOne();
+        assertThat(leases.tryAcquire(HousekeepingScheduler.AUTO_COMPLETE, "node-b", Duration.ofMinutes(5)))
+                .as("node-a renewed its lease").isFalse();
+    }
+
+    @Test
+    void runStopsBeforeTheNextChunkOnceItsLeaseIsTakenOver() {
+        for (int i = 0; i < 6; i++) {
+            insert("confirmed", LocalDateTime.now().minusDays(2).plusHours(i), LocalDateTime.now().minusDays(3));
+        }
+        rebuildViews();
+        // The run acquires its lease, completes a chunk, then fails to renew before the second
+        leases.takeOverAfter(HousekeepingScheduler.AUTO_COMPLETE, 1, "node-b");
+
+        BookingBulkResultDTO result = scheduler.runNow(HousekeepingScheduler.AUTO_COMPLETE).orElseThrow();
+
+        assertThat(result.getChunks()).isEqualTo(1);
+        assertThat(result.getAffected()).isEqualTo(3);
+        assertThat(completedCount()).isEqualTo(3);
+        assertThat(meterRegistry.get("booking.housekeeping.leader").tag("job", "auto-complete").gauge().value()).isZero();
+        assertThat(meterRegistry.get("booking.housekeeping.runs").tags("job", "auto-complete", "outcome", "lease-lost")
+                .timer().count()).isOne();
+        assertThat(scheduler.runNow(HousekeepingScheduler.AUTO_COMPLETE)).as("node-b leads now").isEmpty();
+    }
+
+    @Test
+    void expiredLeasesCanBeTakenOver() throws InterruptedException {
+        assertThat(leases.tryAcquire("lease-test", "node-b", Duration.ofMillis(200))).isTrue();
+        assertThat(leases.tryAcquire("lease-test", "node-c", Duration.ofMinutes(1))).isFalse();
+        assertThat(leases.tryAcquire("lease-test", "node-b", Duration.ofMillis(200))).as("holder renews").isTrue();
+
+        Thread.sleep(300);
+
+        assertThat(leases.tryAcquire("lease-test", "node-c", Duration.ofMinutes(1))).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT owner FROM job_leases WHERE job_name = 'lease-test'", String.class))
+                .isEqualTo("node-c");
+    }
+
+    private long completedCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE status = ?", Long.class,
+                STATUS_CODES.convertToDatabaseColumn("completed"));
+    }
+
+    // Rows are seeded with SQL, so the in-memory views are rebuilt from the database first
+    private void rebuildViews() {
+        scheduleIndex.rebuild();
+        statsAggregator.rebuild();
+    }
+
+    private String statusOf(Long id) {
+        Byte code = jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", Byte.class, id);
+        return STATUS_CODES.convertToEntityAttribute(code);
+    }
+
+    private Long insert(String status, LocalDateTime startTime, LocalDateTime createdAt) {
+        String userId = "housekeeping-" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, total_cost, " +
+                        "created_at) VALUES (?, ?, ?, ?, ?, 20.00, ?)",
+                userId, facilityId, Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)),
+                STATUS_CODES.convertToDatabaseColumn(status), Timestamp.valueOf(createdAt));
+        return jdbcTemplate.queryForObject("SELECT id FROM bookings WHERE user_id = ?", Long.class, userId);
+    }
+}
@@ -0,0 +1,301 @@
+package com.asiattiger.booking.outbox;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.BookingBulkService;
+import com.asiattiger.booking.service.BookingService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Outbox rows commit with booking changes, and the relay (triggered directly here) delivers them
+ * in batches of three to the in-memory sink and a local HTTP stub, retrying failed batches. A
+ * third sink refuses one chosen booking's events, which end up in the dead-letter table.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxrelay",
+        "booking.outbox.sinks=picky,memory,http",
+        "booking.outbox.relay.poll-interval=PT1H",
+        "booking.outbox.relay.batch-size=3",
+        "booking.outbox.relay.max-batches-per-poll=10",
+        "booking.outbox.relay.max-attempts=3"
+})
+@Import(OutboxRelayTest.PickySinkConfig.class)
+class OutboxRelayTest {
+
+    // Refuses every batch holding an event of the booking it is set to
+    static class PickySink implements OutboxSink {
+
+        private volatile Long refusedBookingId;
+
+        @Override
+        public String name() {
+            return "picky";
+        }
+
+        @Override
+        public void deliver(List<OutboxEvent> events) {
+            if (events.stream().anyMatch(event -> event.bookingId().equals(refusedBookingId))) {
+                throw new IllegalStateException("Refusing booking " + refusedBookingId);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class PickySinkConfig {
+
+        @Bean
+        PickySink pickySink() {
+            return new PickySink();
+        }
+    }
+
+    private static final LocalDateTime NEXT_WEEK = LocalDate.now().plusDays(7).atTime(9, 0);
+
+    private static final HttpServer STUB = startStub();
+    private static final List<String> STUB_BODIES = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger STUB_STATUS = new AtomicInteger(200);
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/outbox", exchange -> {
+                STUB_BODIES.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(STUB_STATUS.get(), -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubUrl(DynamicPropertyRegistry registry) {
+        registry.add("booking.outbox.http.url",
+                () -> "http://localhost:" + STUB.getAddress().getPort() + "/outbox");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingBulkService bookingBulkService;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private InMemoryOutboxSink memorySink;
+
+    @Autowired
+    private PickySink pickySink;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long facilityId;
+
+    @BeforeEach
+    void reset() {
+        jdbcTemplate.update("DELETE FROM booking_outbox");
+        jdbcTemplate.update("DELETE FROM booking_outbox_dead_letter");
+        pickySink.refusedBookingId = null;
+        memorySink.drain();
+        STUB_BODIES.clear();
+        STUB_STATUS.set(200);
+        Facility facility = new Facility();
+        facility.setName("Outbox Court");
+        facility.setType("badminton");
+        facility.setCapacity(4);
+        facility.setHourlyRate(new BigDecimal("20.00"));
+        facility.setOpeningTime("00:00");
+        facility.setClosingTime("23:59");
+        facilityId = facilityRepository.save(facility).getId();
+    }
+
+    @Test
+    void changesAreWrittenWithTheirTransaction() {
+        BookingDTO booking = bookingService.createBooking(booking(NEXT_WEEK));
+        bookingService.confirmBooking(booking.getId());
+        bookingService.cancelBooking(booking.getId());
+
+        // A booking rolled back by an outer transaction takes its outbox row with it
+        Long rolledBack = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return bookingService.createBooking(booking(NEXT_WEEK.plusHours(1))).getId();
+        });
+        bookingService.createBooking(booking(NEXT_WEEK.plusHours(2)));
+        assertThatThrownBy(() -> bookingService.createBooking(booking(NEXT_WEEK.plusHours(2))))
+                .hasMessageContaining("conflicts");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox WHERE booking_id = ?", Long.class,
+                rolledBack)).isZero();
+
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT event_type FROM booking_outbox WHERE booking_id = ? ORDER BY id", String.class, booking.getId());
+        assertThat(types).containsExactly("created", "confirmed", "cancelled");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox", Long.class)).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT payload FROM booking_outbox WHERE booking_id = ? AND " +
+                "event_type = 'cancelled'", String.class, booking.getId()))
+                .contains("\"status\":\"cancelled\"", "\"previousStatus\":\"confirmed\"");
+    }
+
+    @Test
+    void relayDeliversInBatchesAndKeepsEachBookingsOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(bookingService.createBooking(booking(NEXT_WEEK.plusHours(i))).getId());
+        }
+        bookingBulkService.confirmBookings(ids);
+        bookingService.cancelBooking(ids.get(0));
+        double relayedBefore = meterRegistry.get("booking.outbox.relayed").counter().count();
+
+        assertThat(relay.relayNow()).isEqualTo(9);
+
+        List<OutboxEvent> delivered = memorySink.drain();
+        assertThat(delivered).extracting(OutboxEvent::id).isSorted();
+        assertThat(delivered.stream().filter(event -> event.bookingId().equals(ids.get(0))).map(OutboxEvent::type))
+                .containsExactly("created", "confirmed", "cancelled");
+        assertThat(STUB_BODIES).hasSize(3);
+        assertThat(STUB_BODIES.get(0)).contains("\"type\":\"created\"", "\"payload\":{\"bookingId\":" + ids.get(0));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox", Long.class)).isZero();
+        assertThat(meterRegistry.get("booking.outbox.relayed").counter().count() - relayedBefore).isEqualTo(9);
+        assertThat(meterRegistry.get("booking.outbox.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void failedBatchesAreRetriedUntilDelivered() {
+        Long id = bookingService.createBooking(booking(NEXT_WEEK)).getId();
+        bookingService.confirmBooking(id);
+        STUB_STATUS.set(503);
+
+        assertThat(relay.relayNow()).isZero();
+        assertThat(relay.relayNow()).isZero();
+
+        assertThat(jdbcTemplate.queryForList("SELECT attempts FROM booking_outbox ORDER BY id", Integer.class))
+                .containsExactly(2, 2);
+        assertThat(meterRegistry.get("booking.outbox.failures").tag("sink", "http").counter().count()).isPositive();
+        assertThat(meterRegistry.get("booking.outbox.pending").gauge().value()).isEqualTo(2);
+
+        STUB_STATUS.set(200);
+        assertThat(relay.relayNow()).isEqualTo(2);
+
+        // At least once: the memory sink took the batch on every attempt
+        List<String> seen = memorySink.drain().stream().map(OutboxEvent::type).collect(Collectors.toList());
+        assertThat(seen).containsExactly("created", "confirmed", "created", "confirmed", "created", "confirmed");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox", Long.class)).isZero();
+    }
+
+    @Test
+    void eventThatKeepsFailingIsDeadLetteredAndTheRestGoOn() {
+        Long before = bookingService.createBooking(booking(NEXT_WEEK)).getId();
+        Long refused = bookingService.createBooking(booking(NEXT_WEEK.plusHours(1))).getId();
+        Long after = bookingService.createBooking(booking(NEXT_WEEK.plusHours(2))).getId();
+        pickySink.refusedBookingId = refused;
+
+        assertThat(relay.relayNow()).isZero();
+        assertThat(relay.relayNow()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox_dead_letter", Long.class)).isZero();
+
+        // Out of attempts, rows go one by one: the refused row is set aside once the row behind it
+        // gets through, and the rest are delivered in the same poll
+        assertThat(relay.relayNow()).isEqualTo(2);
+
+        assertThat(memorySink.drain()).extracting(OutboxEvent::bookingId).containsExactly(before, after);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox", Long.class)).isZero();
+        Map<String, Object> deadLetter = jdbcTemplate.queryForMap(
+                "SELECT booking_id, event_type, attempts, failed_sink, last_error FROM booking_outbox_dead_letter");
+        assertThat(deadLetter)
+                .containsEntry("BOOKING_ID", refused)
+                .containsEntry("EVENT_TYPE", "created")
+                .containsEntry("ATTEMPTS", 3)
+                .containsEntry("FAILED_SINK", "picky")
+                .containsEntry("LAST_ERROR", "Refusing booking " + refused);
+        assertThat(meterRegistry.get("booking.outbox.dead-lettered").tag("sink", "picky").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("booking.outbox.pending").gauge().value()).isZero();
+
+        pickySink.refusedBookingId = null;
+        assertThat(relay.replayDeadLetters()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM booking_outbox", Integer.class)).isZero();
+        assertThat(relay.relayNow()).isEqualTo(1);
+        assertThat(memorySink.drain()).extracting(OutboxEvent::bookingId).containsExactly(refused);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox_dead_letter", Long.class)).isZero();
+    }
+
+    @Test
+    void outagePastMaxAttemptsDeadLettersNothingAndKeepsBackingOff() {
+        Long first = bookingService.createBooking(booking(NEXT_WEEK)).getId();
+        Long second = bookingService.createBooking(booking(NEXT_WEEK.plusHours(1))).getId();
+        STUB_STATUS.set(503);
+
+        for (int poll = 1; poll <= 5; poll++) {
+            assertThat(relay.relayNow()).isZero();
+            assertThat(meterRegistry.get("booking.outbox.consecutive-failures").gauge().value()).isEqualTo(poll);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_outbox_dead_letter", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT booking_id FROM booking_outbox ORDER BY id", Long.class))
+                .containsExactly(first, second);
+
+        STUB_STATUS.set(200);
+        memorySink.drain();
+        assertThat(relay.relayNow()).isEqualTo(2);
+        assertThat(memorySink.drain()).extracting(OutboxEvent::bookingId).containsExactly(first, second);
+        assertThat(meterRegistry.get("booking.outbox.consecutive-failures").gauge().value()).isZero();
+    }
+
+    private BookingDTO booking(LocalDateTime startTime) {
+        return BookingDTO.builder()
+                .userId("outbox-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build();
+    }
+}
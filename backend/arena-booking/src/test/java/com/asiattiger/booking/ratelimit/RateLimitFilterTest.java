@@ -0,0 +1,168 @@
+package com.asiattiger.booking.ratelimit;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * The default rules with small buckets that do not refill during the test. Every test uses its
+ * own client addresses and users, as the buckets outlive each test.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratelimit",
+        "booking.rate-limit.enabled=true",
+        "booking.rate-limit.booking-writes.capacity=3",
+        "booking.rate-limit.booking-writes.anonymous-capacity=2",
+        "booking.rate-limit.booking-writes.period=PT1H",
+        "booking.rate-limit.facility-lists.capacity=5",
+        "booking.rate-limit.facility-lists.period=PT1H"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void requestsOverTheLimitGet429WithRetryAfter() throws Exception {
+        double limitedBefore = requests("booking-writes", "limited");
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(write(from("10.0.0.1")).getStatus()).isNotEqualTo(429);
+        }
+        MockHttpServletResponse refused = write(from("10.0.0.1"));
+
+        assertThat(refused.getStatus()).isEqualTo(429);
+        // Two tokens an hour: the next one is half an hour away
+        assertThat(Long.parseLong(refused.getHeader("Retry-After"))).isBetween(1_700L, 1_800L);
+        assertThat(refused.getContentAsString()).contains("\"success\":false", "Too many requests");
+        assertThat(requests("booking-writes", "limited") - limitedBefore).isOne();
+
+        // Another client, and reads, have buckets of their own
+        assertThat(write(from("10.0.0.2")).getStatus()).isNotEqualTo(429);
+        assertThat(mockMvc.perform(get("/api/facilities").with(from("10.0.0.1"))).andReturn()
+                .getResponse().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void signedInUsersAreLimitedPerUserWithTheirOwnCapacity() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(write(from("10.0.1.1"), user("alice")).getStatus()).isNotEqualTo(429);
+        }
+        assertThat(write(from("10.0.1.2"), user("alice")).getStatus()).as("same user, other address").isEqualTo(429);
+
+        // Neither another user behind the same address nor its anonymous clients are affected
+        assertThat(write(from("10.0.1.1"), user("bob")).getStatus()).isNotEqualTo(429);
+        assertThat(write(from("10.0.1.1")).getStatus()).isNotEqualTo(429);
+    }
+
+    @Test
+    void onlyMatchingRoutesAndMethodsAreLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/facilities").with(from("10.0.2.1")));
+        }
+        assertThat(mockMvc.perform(get("/api/facilities").with(from("10.0.2.1"))).andReturn()
+                .getResponse().getStatus()).isEqualTo(429);
+
+        // Single facilities and the booking reads match no rule
+        for (int i = 0; i < 10; i++) {
+            assertThat(mockMvc.perform(get("/api/health").with(from("10.0.2.1"))).andReturn()
+                    .getResponse().getStatus()).isEqualTo(200);
+            assertThat(mockMvc.perform(get("/api/bookings").with(from("10.0.2.1"))).andReturn()
+                    .getResponse().getStatus()).isNotEqualTo(429);
+        }
+    }
+
+    @Test
+    void localBucketsRefillAndStayBounded() throws InterruptedException {
+        LocalRateLimitStore store = new LocalRateLimitStore(2);
+        long period = TimeUnit.MILLISECONDS.toNanos(100);
+        assertThat(store.tryAcquire("a", 2, period)).isZero();
+        assertThat(store.tryAcquire("a", 2, period)).isZero();
+        assertThat(store.tryAcquire("a", 2, period)).isBetween(1L, period / 2);
+
+        // Past the key limit, new keys share overflow buckets instead of growing the map
+        store.tryAcquire("b", 2, period);
+        store.tryAcquire("c", 2, period);
+        assertThat(store.getBucketCount()).isEqualTo(2);
+
+        Thread.sleep(120);
+        assertThat(store.tryAcquire("a", 2, period)).isZero();
+        store.sweep();
+        assertThat(store.getBucketCount()).as("only a is still refilling").isOne();
+    }
+
+    @Test
+    void jdbcBucketsAreSharedBetweenNodes() {
+        JdbcRateLimitStore node1 = new JdbcRateLimitStore(jdbcTemplate, meterRegistry);
+        JdbcRateLimitStore node2 = new JdbcRateLimitStore(jdbcTemplate, meterRegistry);
+        long hour = TimeUnit.HOURS.toNanos(1);
+        assertThat(node1.tryAcquire("shared", 3, hour)).isZero();
+        assertThat(node2.tryAcquire("shared", 3, hour)).isZero();
+        assertThat(node1.tryAcquire("shared", 3, hour)).isZero();
+
+        long wait = node2.tryAcquire("shared", 3, hour);
+        assertThat(wait).isBetween(TimeUnit.MINUTES.toNanos(19), TimeUnit.MINUTES.toNanos(20));
+        assertThat(node1.tryAcquire("other", 3, hour)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rate_limit_buckets", Integer.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void jdbcStoreLetsRequestsThroughWhenTheDatabaseFails() {
+        // A database without the buckets table fails every statement
+        JdbcTemplate broken = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:ratelimitbroken", "sa", ""));
+        JdbcRateLimitStore store = new JdbcRateLimitStore(broken, meterRegistry);
+        double failuresBefore = meterRegistry.get("booking.rate-limit.store-failures").counter().count();
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire("unreachable", 1, TimeUnit.HOURS.toNanos(1))).isZero();
+        }
+        assertThat(meterRegistry.get("booking.rate-limit.store-failures").counter().count() - failuresBefore)
+                .isEqualTo(3);
+    }
+
+    private MockHttpServletResponse write(RequestPostProcessor... postProcessors) throws Exception {
+        MockHttpServletRequestBuilder request = post("/api/bookings/batch").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content("[]");
+        for (RequestPostProcessor postProcessor : postProcessors) {
+            request.with(postProcessor);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private double requests(String rule, String outcome) {
+        return meterRegistry.get("booking.rate-limit.requests").tags("rule", rule, "outcome", outcome)
+                .counter().count();
+    }
+}
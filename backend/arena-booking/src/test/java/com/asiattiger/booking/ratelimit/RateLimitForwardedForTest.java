@@ -0,0 +1,58 @@
+package com.asiattiger.booking.ratelimit;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behind a load balancer every request arrives from the proxy's address. With the prod profile's
+ * forward-headers strategy, anonymous clients are limited by the X-Forwarded-For address the
+ * proxy (here the loopback, an internal proxy) passes on, not by the connection's. Runs on a real
+ * port, since the forwarded headers are applied by Tomcat.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "DB_URL=jdbc:h2:mem:ratelimitforwarded;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORE_UNKNOWN_SETTINGS=TRUE",
+                "DB_DRIVER=org.h2.Driver",
+                "DB_USERNAME=sa",
+                "DB_DIALECT=org.hibernate.dialect.H2Dialect",
+                "booking.rate-limit.facility-lists.capacity=2",
+                "booking.rate-limit.facility-lists.period=PT1H"
+        })
+@ActiveProfiles("prod")
+class RateLimitForwardedForTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void clientsBehindTheProxyAreLimitedByTheirForwardedAddress() throws Exception {
+        assertThat(listFacilities("203.0.113.10")).isEqualTo(200);
+        assertThat(listFacilities("203.0.113.10")).isEqualTo(200);
+        assertThat(listFacilities("203.0.113.10")).isEqualTo(429);
+
+        // Same proxy connection, other clients: buckets of their own
+        assertThat(listFacilities("203.0.113.11")).isEqualTo(200);
+        assertThat(listFacilities("198.51.100.7, 10.0.0.5")).as("first untrusted hop").isEqualTo(200);
+        assertThat(listFacilities("198.51.100.7")).isEqualTo(200);
+        assertThat(listFacilities("198.51.100.7")).isEqualTo(429);
+    }
+
+    private int listFacilities(String forwardedFor) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/facilities"))
+                .header("X-Forwarded-For", forwardedFor)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
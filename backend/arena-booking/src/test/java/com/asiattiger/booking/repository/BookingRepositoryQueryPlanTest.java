@@ -0,0 +1,264 @@
+package com.asiattiger.booking.repository;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression test: runs every query declared on {@link BookingRepository}
+ * against a seeded database, EXPLAINs the SQL Hibernate generated and checks which index
+ * the bookings table is read through. A new repository method fails until it is given an
+ * expectation here.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplans",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.asiattiger.booking.repository.BookingRepositoryQueryPlanTest$StatementCapture"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingRepositoryQueryPlanTest {
+
+    private static final String FULL_SCAN = "BOOKINGS.tableScan";
+
+    // H2 keeps the implicit index it created for the facility foreign key and prefers it for
+    // single-facility lookups; on MySQL those fold into idx_bookings_facility_status_time
+    private static final String FACILITY_FK = "FK_BOOKINGS_FACILITY";
+
+    // Index each query must read bookings through (facilities for the row lock)
+    private static final Map<String, String> EXPECTED_INDEX = Map.ofEntries(
+            entry("cancelIfStartsAfter", "PRIMARY_KEY"),
+            entry("completeIfEnded", "PRIMARY_KEY"),
+            entry("copyToArchive", "PRIMARY_KEY"),
+            entry("countBookingsByFacility", "IDX_BOOKINGS_FACILITY_STATUS_TIME"),
+            entry("countBookingsByStatus", "IDX_BOOKINGS_STATUS_START"),
+            entry("countBookingsInDateRange", "IDX_BOOKINGS_START_ID"),
+            entry("countCancelledBookings", "IDX_BOOKINGS_STATUS_START"),
+            entry("countConfirmedBookings", "IDX_BOOKINGS_STATUS_START"),
+            entry("countFulfilledBookingsByFacility", "IDX_BOOKINGS_STATUS_START"),
+            entry("countPendingBookings", "IDX_BOOKINGS_STATUS_START"),
+            entry("deleteByIds", "PRIMARY_KEY"),
+            entry("findActiveBookingIntervals", "IDX_BOOKINGS_STATUS_START"),
+            entry("findActiveBookings", "IDX_BOOKINGS_STATUS_START"),
+            entry("findActiveIntervalsForFacilities", "IDX_BOOKINGS_FACILITY_STATUS_TIME"),
+            entry("findBookingsInDateRange", "IDX_BOOKINGS_START_ID"),
+            entry("findByFacilityOrderByStartTimeAsc", FACILITY_FK),
+            entry("findByStatusOrderByStartTimeDesc", "IDX_BOOKINGS_STATUS_START"),
+            entry("findByUserIdOrderByStartTimeDesc", "IDX_BOOKINGS_USER_START"),
+            entry("findCancellableBookingsByUserId", "IDX_BOOKINGS_USER_START"),
+            entry("findConflictingBookings", "IDX_BOOKINGS_FACILITY_STATUS_TIME"),
+            entry("findConflictingBookingsExcluding", "IDX_BOOKINGS_FACILITY_STATUS_TIME"),
+            entry("findPageAfter", "IDX_BOOKINGS_START_ID"),
+            entry("findPageByFacilityAfter", FACILITY_FK),
+            entry("findPageByStatusBefore", "IDX_BOOKINGS_STATUS_START"),
+            entry("findPageInDateRangeAfter", "IDX_BOOKINGS_START_ID"),
+            entry("findPastBookingsByUserId", "IDX_BOOKINGS_USER_START"),
+            entry("findPopularTimeSlots", "IDX_BOOKINGS_STATUS_START"),
+            entry("findUpcomingBookingsByUserId", "IDX_BOOKINGS_USER_START"),
+            entry("findViewById", "PRIMARY_KEY"),
+            entry("findViewsByUserId", "IDX_BOOKINGS_USER_START"),
+            entry("getDailyTotalsInDateRange", "IDX_BOOKINGS_START_ID"),
+            entry("getFacilityUsageStatistics", "IDX_BOOKINGS_STATUS_START"),
+            // Whole-history aggregate, only run once at startup to warm the dashboard counters
+            entry("getMonthlyBookingTotals", FULL_SCAN),
+            entry("getMonthlyTotalsInDateRange", "IDX_BOOKINGS_START_ID"),
+            entry("getTotalRevenueInDateRange", "IDX_BOOKINGS_STATUS_START"),
+            entry("lockArchivableRows", "IDX_BOOKINGS_STATUS_START"),
+            entry("lockActiveRowsInWindow", "IDX_BOOKINGS_FACILITY_STATUS_TIME"),
+            entry("lockEndedConfirmedRows", "IDX_BOOKINGS_STATUS_START"),
+            entry("lockFacilityForBooking", "PRIMARY_KEY"),
+            entry("lockStalePendingRows", "IDX_BOOKINGS_STATUS_START"),
+            entry("lockTransitionRowsByIds", "PRIMARY_KEY"),
+            entry("streamBookingsStartingBetween", "IDX_BOOKINGS_START_ID"),
+            // Conditional status transitions address a single row by id
+            entry("transitionStatus", "PRIMARY_KEY"),
+            entry("transitionStatusByIds", "PRIMARY_KEY")
+    );
+
+    // Access path comment H2 prints after a table in EXPLAIN output, e.g. /* PUBLIC.IDX_X: COL = ?1 */
+    private static final Pattern BOOKINGS_ACCESS = Pattern.compile("\"BOOKINGS\" \"\\w+\"\\s*/\\*([^*]*)\\*/");
+    private static final Pattern FIRST_ACCESS = Pattern.compile("\"\\w+\" \"\\w+\"\\s*/\\*([^*]*)\\*/");
+
+    private static final List<String> CAPTURED = new ArrayList<>();
+
+    public static class StatementCapture implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            synchronized (CAPTURED) {
+                CAPTURED.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Facility facility;
+
+    @BeforeAll
+    void seedBookings() {
+        List<Long> facilityIds = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Facility court = new Facility();
+            court.setName("Plan Court " + i);
+            court.setType(i % 2 == 0 ? "futsal" : "badminton");
+            court.setCapacity(10);
+            court.setHourlyRate(new BigDecimal("30.00"));
+            facilityIds.add(facilityRepository.save(court).getId());
+        }
+        facility = facilityRepository.findById(facilityIds.get(0)).orElseThrow();
+
+        BookingStatusConverter statusCodes = new BookingStatusConverter();
+        String[] statuses = {"pending", "confirmed", "cancelled", "completed"};
+        LocalDateTime origin = LocalDateTime.now().withNano(0).minusYears(2);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime startTime = origin.plusHours(i * 3L);
+            rows.add(new Object[]{
+                    "user-" + (i % 1_000), facilityIds.get(i % facilityIds.size()), Timestamp.valueOf(startTime),
+                    Timestamp.valueOf(startTime.plusHours(1)), statusCodes.convertToDatabaseColumn(statuses[i % 4]),
+                    new BigDecimal("30.00"), Timestamp.valueOf(origin)
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, " +
+                "total_cost, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyBookingQueryReadsThroughItsIndex() {
+        return Arrays.stream(BookingRepository.class.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .sorted(Comparator.comparing(Method::getName))
+                .map(method -> DynamicTest.dynamicTest(method.getName(), () -> checkPlan(method)));
+    }
+
+    private void checkPlan(Method method) {
+        String expectedIndex = EXPECTED_INDEX.get(method.getName());
+        assertThat(expectedIndex)
+                .as("No query-plan expectation for BookingRepository.%s; add one to EXPECTED_INDEX", method.getName())
+                .isNotNull();
+
+        List<String> statements = captureSql(method);
+        assertThat(statements).as("SQL issued by %s", method.getName()).isNotEmpty();
+        for (String sql : statements) {
+            // Parameters stay unbound; H2 plans from the predicates, not the values
+            int parameters = (int) sql.chars().filter(c -> c == '?').count();
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, new Object[parameters]);
+
+            assertThat(accessPath(plan))
+                    .as("Plan of %s:%n%s", method.getName(), plan)
+                    .contains(expectedIndex);
+            if (!FULL_SCAN.equals(expectedIndex)) {
+                assertThat(plan).as("Plan of %s", method.getName()).doesNotContain(FULL_SCAN);
+            }
+        }
+    }
+
+    private static String accessPath(String plan) {
+        Matcher bookings = BOOKINGS_ACCESS.matcher(plan);
+        if (bookings.find()) {
+            return bookings.group(1);
+        }
+        Matcher first = FIRST_ACCESS.matcher(plan);
+        return first.find() ? first.group(1) : plan;
+    }
+
+    private List<String> captureSql(Method method) {
+        synchronized (CAPTURED) {
+            CAPTURED.clear();
+        }
+        // Rolled back so the conditional updates leave the seeded rows as they were
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            try {
+                Object result = method.invoke(bookingRepository, sampleArguments(method));
+                if (result instanceof Stream<?> stream) {
+                    try (stream) {
+                        stream.count();
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        synchronized (CAPTURED) {
+            return List.copyOf(CAPTURED);
+        }
+    }
+
+    private Object[] sampleArguments(Method method) {
+        LocalDateTime now = LocalDateTime.now();
+        Class<?>[] types = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        boolean statusArguments = method.getName().contains("Status")
+                || method.isAnnotationPresent(Modifying.class) || method.isAnnotationPresent(Lock.class);
+        Object[] args = new Object[types.length];
+        int dates = 0;
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == String.class) {
+                args[i] = statusArguments ? "confirmed" : "user-7";
+            } else if (type == Long.class) {
+                args[i] = facility.getId();
+            } else if (type == Facility.class) {
+                args[i] = facility;
+            } else if (type == LocalDateTime.class) {
+                args[i] = now.minusMonths(1).plusWeeks(dates++);
+            } else if (Collection.class.isAssignableFrom(type)) {
+                boolean strings = genericTypes[i] instanceof ParameterizedType parameterized
+                        && parameterized.getActualTypeArguments()[0] == String.class;
+                args[i] = strings ? List.of("confirmed") : List.of(facility.getId());
+            } else if (type == Pageable.class) {
+                args[i] = PageRequest.of(0, 20);
+            } else {
+                throw new IllegalStateException("No sample value for " + type + " in " + method.getName());
+            }
+        }
+        return args;
+    }
+}
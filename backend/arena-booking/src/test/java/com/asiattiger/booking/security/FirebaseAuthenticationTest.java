@@ -0,0 +1,335 @@
+package com.asiattiger.booking.security;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ID tokens minted with locally generated RSA keys, whose public halves a stub JWKS endpoint
+ * serves in place of Google's. Writes and booking reads require a token here, a user's bookings
+ * their owner or an admin, and admin endpoints the admin claim; other reads stay public.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:firebaseauth",
+        "booking.auth.enabled=true",
+        "booking.auth.required=true",
+        "booking.auth.project-id=arena-test",
+        "booking.auth.clock-skew=PT0S",
+        "booking.auth.jwks.min-refresh=PT0S"
+})
+@AutoConfigureMockMvc
+class FirebaseAuthenticationTest {
+
+    private static final String PROJECT = "arena-test";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final KeyPair KEY = generateKey();
+    private static final KeyPair ROTATED_KEY = generateKey();
+    private static final AtomicReference<Map<String, KeyPair>> PUBLISHED = new AtomicReference<>(Map.of("key-1", KEY));
+    private static final HttpServer JWKS = startJwks();
+
+    private static KeyPair generateKey() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpServer startJwks() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/jwks", exchange -> {
+                byte[] body = jwks(PUBLISHED.get()).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add("Cache-Control", "public, max-age=3600");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void jwksUrl(DynamicPropertyRegistry registry) {
+        registry.add("booking.auth.jwks-url", () -> "http://localhost:" + JWKS.getAddress().getPort() + "/jwks");
+    }
+
+    @AfterAll
+    static void stopJwks() {
+        JWKS.stop(0);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FirebaseTokenVerifier verifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void validTokensAreVerifiedOnceAndThenServedFromTheCache() {
+        String token = mint("key-1", KEY, claims("user-1", Instant.now().plusSeconds(600)));
+        double hitsBefore = cacheGets("hit");
+        long checksBefore = verifications("valid");
+
+        FirebasePrincipal principal = verifier.verify(token);
+        FirebasePrincipal again = verifier.verify(token);
+
+        assertThat(principal.uid()).isEqualTo("user-1");
+        assertThat(principal.getName()).isEqualTo("user-1");
+        assertThat(principal.email()).isEqualTo("user-1@example.com");
+        assertThat(again).isSameAs(principal);
+        assertThat(verifications("valid") - checksBefore).isOne();
+        assertThat(cacheGets("hit") - hitsBefore).isOne();
+    }
+
+    @Test
+    void invalidTokensAreRefused() {
+        Instant later = Instant.now().plusSeconds(600);
+        Map<String, Object> otherProject = claims("user-2", later);
+        otherProject.put("aud", "other-project");
+        otherProject.put("iss", "https://securetoken.google.com/other-project");
+        String valid = mint("key-1", KEY, claims("user-2", later));
+        String tampered = valid.substring(0, valid.lastIndexOf('.') + 1) + "AAAA" + valid.substring(valid.lastIndexOf('.') + 5);
+        long refusedBefore = verifications("invalid");
+
+        for (String token : List.of(
+                mint("key-1", KEY, claims("user-2", Instant.now().minusSeconds(5))),
+                mint("key-1", KEY, otherProject),
+                mint("key-1", ROTATED_KEY, claims("user-2", later)),
+                tampered,
+                "not-a-token")) {
+            assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(BadCredentialsException.class);
+        }
+        assertThat(verifications("invalid") - refusedBefore).isEqualTo(5);
+    }
+
+    @Test
+    void rotatedKeysArePickedUpInTheBackground() throws InterruptedException {
+        String token = mint("key-2", ROTATED_KEY, claims("user-3", Instant.now().plusSeconds(600)));
+        PUBLISHED.set(Map.of("key-1", KEY, "key-2", ROTATED_KEY));
+        try {
+            // The unknown key is refused without waiting for the fetch it triggers
+            assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(BadCredentialsException.class);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            FirebasePrincipal principal = null;
+            while (principal == null && System.nanoTime() < deadline) {
+                try {
+                    principal = verifier.verify(token);
+                } catch (BadCredentialsException e) {
+                    Thread.sleep(50);
+                }
+            }
+            assertThat(principal).isNotNull();
+            assertThat(principal.uid()).isEqualTo("user-3");
+        } finally {
+            PUBLISHED.set(Map.of("key-1", KEY));
+        }
+    }
+
+    @Test
+    void apiWritesNeedAValidBearerToken() throws Exception {
+        String token = mint("key-1", KEY, claims("user-4", Instant.now().plusSeconds(600)));
+
+        mockMvc.perform(get("/api/health")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/bookings").with(csrf()).contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/bookings").header("Authorization", "Bearer not-a-token")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnauthorized());
+
+        // Authenticated, so the request reaches validation instead of being refused
+        int status = mockMvc.perform(post("/api/bookings").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andReturn().getResponse().getStatus();
+        assertThat(status).isNotIn(401, 403);
+    }
+
+    @Test
+    void adminEndpointsNeedTheAdminClaim() throws Exception {
+        String user = mint("key-1", KEY, claims("user-5", Instant.now().plusSeconds(600)));
+        Map<String, Object> adminClaims = claims("admin-1", Instant.now().plusSeconds(600));
+        adminClaims.put("admin", true);
+        String admin = mint("key-1", KEY, adminClaims);
+        String export = "/api/bookings/export?startDate=2025-01-01T00:00:00&endDate=2025-02-01T00:00:00";
+
+        mockMvc.perform(get(export)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get(export).header("Authorization", "Bearer " + user)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/dashboard/stats").header("Authorization", "Bearer " + user))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/bookings/bulk/complete").header("Authorization", "Bearer " + user))
+                .andExpect(status().isForbidden());
+
+        assertThat(verifier.verify(admin).admin()).isTrue();
+        mockMvc.perform(get(export).header("Authorization", "Bearer " + admin)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/dashboard/stats").header("Authorization", "Bearer " + admin))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/bookings/bulk/complete").header("Authorization", "Bearer " + admin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bookingsAreOnlyListedForSignedInUsersAndTheirOwners() throws Exception {
+        String user = mint("key-1", KEY, claims("user-7", Instant.now().plusSeconds(600)));
+        Map<String, Object> adminClaims = claims("admin-2", Instant.now().plusSeconds(600));
+        adminClaims.put("admin", true);
+        String admin = mint("key-1", KEY, adminClaims);
+
+        mockMvc.perform(get("/api/facilities")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/bookings")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/bookings/active")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/bookings").header("Authorization", "Bearer " + user)).andExpect(status().isOk());
+
+        for (String path : List.of("/api/bookings/user/%s", "/api/bookings/user/%s/upcoming")) {
+            mockMvc.perform(get(path.formatted("user-7"))).andExpect(status().isUnauthorized());
+            mockMvc.perform(get(path.formatted("user-7")).header("Authorization", "Bearer " + user))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get(path.formatted("someone-else")).header("Authorization", "Bearer " + user))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get(path.formatted("someone-else")).header("Authorization", "Bearer " + admin))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void usersCanOnlyBookForThemselves() throws Exception {
+        String token = mint("key-1", KEY, claims("user-6", Instant.now().plusSeconds(600)));
+        Long facilityId = TestFacilities.save(facilityRepository, "Own Court");
+        String startTime = LocalDate.now().plusDays(2).atTime(10, 0).toString();
+        String endTime = LocalDate.now().plusDays(2).atTime(11, 0).toString();
+
+        mockMvc.perform(post("/api/bookings/batch").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookings\":[{\"userId\":\"someone-else\",\"facilityId\":" + facilityId
+                                + ",\"startTime\":\"" + startTime + "\",\"endTime\":\"" + endTime + "\"}]}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/bookings/recurring").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"frequency\":\"weekly\",\"occurrences\":2,\"booking\":{\"userId\":\"someone-else\","
+                                + "\"facilityId\":" + facilityId + ",\"startTime\":\"" + startTime
+                                + "\",\"endTime\":\"" + endTime + "\"}}"))
+                .andExpect(status().isForbidden());
+        assertThat(bookingRepository.findViewsByUserId("someone-else")).isEmpty();
+
+        // A booking without a user ID is made for the token's user
+        mockMvc.perform(post("/api/bookings/batch").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookings\":[{\"facilityId\":" + facilityId
+                                + ",\"startTime\":\"" + startTime + "\",\"endTime\":\"" + endTime + "\"}]}"))
+                .andExpect(status().isCreated());
+        assertThat(bookingRepository.findViewsByUserId("user-6")).singleElement()
+                .satisfies(booking -> assertThat(booking.facilityId()).isEqualTo(facilityId));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "firebase-id-tokens", "result", result)
+                .functionCounter().count();
+    }
+
+    private long verifications(String outcome) {
+        return meterRegistry.get("booking.auth.verification").tag("outcome", outcome).timer().count();
+    }
+
+    private static Map<String, Object> claims(String uid, Instant expiresAt) {
+        long now = Instant.now().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", "https://securetoken.google.com/" + PROJECT);
+        claims.put("aud", PROJECT);
+        claims.put("auth_time", now - 60);
+        claims.put("iat", now - 60);
+        claims.put("exp", expiresAt.getEpochSecond());
+        claims.put("sub", uid);
+        claims.put("email", uid + "@example.com");
+        return claims;
+    }
+
+    private static String mint(String keyId, KeyPair key, Map<String, Object> claims) {
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String signed = encoder.encodeToString(JSON.writeValueAsBytes(Map.of("alg", "RS256", "kid", keyId, "typ", "JWT")))
+                    + "." + encoder.encodeToString(JSON.writeValueAsBytes(claims));
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(key.getPrivate());
+            signature.update(signed.getBytes(StandardCharsets.US_ASCII));
+            return signed + "." + encoder.encodeToString(signature.sign());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String jwks(Map<String, KeyPair> keys) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        keys.forEach((keyId, pair) -> {
+            RSAPublicKey key = (RSAPublicKey) pair.getPublic();
+            if (json.charAt(json.length() - 1) == '}') {
+                json.append(',');
+            }
+            json.append("{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"").append(keyId)
+                    .append("\",\"n\":\"").append(encoder.encodeToString(toUnsigned(key.getModulus().toByteArray())))
+                    .append("\",\"e\":\"").append(encoder.encodeToString(key.getPublicExponent().toByteArray()))
+                    .append("\"}");
+        });
+        return json.append("]}").toString();
+    }
+
+    private static byte[] toUnsigned(byte[] bytes) {
+        return bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+}
@@ -0,0 +1,148 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.FacilityAvailabilityDTO;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The hourly slot bitset: bit i is slot i counted from opening time, and a booking marks
+ * every slot it overlaps. Bookings touching a slot boundary leave the neighbouring slot
+ * free, and bookings crossing midnight only mark the part inside the requested day.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:availabilityslots",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureMockMvc
+class AvailabilityServiceTest {
+
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+    private static final LocalDate DAY = LocalDate.now().plusDays(5);
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void opensOneBitPerHourBetweenOpeningAndClosing() {
+        Long id = saveFacility("Empty Court", "06:00", "22:00");
+
+        FacilityAvailabilityDTO availability = availabilityService.getFacilityAvailability(id, DAY);
+
+        assertThat(availability.getSlotCount()).isEqualTo(16);
+        assertThat(availability.getFreeSlots()).isEqualTo(0xFFFFL);
+        assertThat(availability.getFreeSlotCount()).isEqualTo(16);
+    }
+
+    @Test
+    void bookingsMarkEverySlotTheyOverlapAndNoOther() {
+        Long id = saveFacility("Boundary Court", "06:00", "22:00");
+        // Exactly one slot, touching both neighbours
+        saveBooking(id, "confirmed", DAY.atTime(7, 0), DAY.atTime(8, 0));
+        // Half past to half past spans two slots
+        saveBooking(id, "pending", DAY.atTime(9, 30), DAY.atTime(10, 30));
+        // Starts where another ends: both slots booked, the one after stays free
+        saveBooking(id, "confirmed", DAY.atTime(12, 0), DAY.atTime(13, 0));
+        saveBooking(id, "confirmed", DAY.atTime(13, 0), DAY.atTime(14, 0));
+        // Cancelled and completed bookings free their slots
+        saveBooking(id, "cancelled", DAY.atTime(16, 0), DAY.atTime(17, 0));
+        saveBooking(id, "completed", DAY.atTime(18, 0), DAY.atTime(19, 0));
+
+        long booked = bit(1) | bit(3) | bit(4) | bit(6) | bit(7);
+        assertThat(availabilityService.getFacilityAvailability(id, DAY).getFreeSlots())
+                .isEqualTo(0xFFFFL & ~booked);
+    }
+
+    @Test
+    void bookingsCrossingMidnightOnlyMarkTheirPartOfTheDay() {
+        Long id = saveFacility("Midnight Court", "00:00", "23:59");
+        saveBooking(id, "confirmed", DAY.minusDays(1).atTime(22, 0), DAY.atTime(1, 30));
+        saveBooking(id, "confirmed", DAY.atTime(22, 30), DAY.plusDays(1).atTime(2, 0));
+
+        FacilityAvailabilityDTO availability = availabilityService.getFacilityAvailability(id, DAY);
+
+        // 23:00 to 23:59 is not a whole slot, so the day has 23
+        assertThat(availability.getSlotCount()).isEqualTo(23);
+        assertThat(availability.getFreeSlots()).isEqualTo(((1L << 23) - 1) & ~(bit(0) | bit(1) | bit(22)));
+        // The next day only sees the part after midnight
+        assertThat(availabilityService.getFacilityAvailability(id, DAY.plusDays(1)).getFreeSlots())
+                .isEqualTo(((1L << 23) - 1) & ~(bit(0) | bit(1)));
+        // A booking ending exactly at the opening time marks nothing
+        assertThat(availabilityService.getFacilityAvailability(id, DAY.minusDays(1)).getFreeSlots())
+                .isEqualTo(((1L << 23) - 1) & ~bit(22));
+    }
+
+    @Test
+    void bookingsOutsideOpeningHoursAreIgnored() {
+        Long id = saveFacility("Daytime Court", "08:00", "12:00");
+        saveBooking(id, "confirmed", DAY.atTime(6, 0), DAY.atTime(8, 0));
+        saveBooking(id, "confirmed", DAY.atTime(11, 30), DAY.atTime(13, 0));
+
+        FacilityAvailabilityDTO availability = availabilityService.getFacilityAvailability(id, DAY);
+
+        assertThat(availability.getSlotCount()).isEqualTo(4);
+        assertThat(availability.getFreeSlots()).isEqualTo(bit(0) | bit(1) | bit(2));
+    }
+
+    @Test
+    void unknownFacilitiesAreNotFoundAndOtherFailuresAreServerErrors() throws Exception {
+        assertThatThrownBy(() -> availabilityService.getFacilityAvailability(-1L, DAY))
+                .isInstanceOf(NoSuchElementException.class);
+        mockMvc.perform(get("/api/facilities/{id}/availability", -1L).param("date", DAY.toString()))
+                .andExpect(status().isNotFound());
+
+        // An opening time the slot grid cannot parse is a server fault, not a missing facility.
+        // Entity validation refuses it, so it is written directly
+        Long broken = saveFacility("Broken Court", "06:00", "22:00");
+        jdbcTemplate.update("UPDATE facilities SET opening_time = 'six' WHERE id = ?", broken);
+        mockMvc.perform(get("/api/facilities/{id}/availability", broken).param("date", DAY.toString()))
+                .andExpect(status().isInternalServerError());
+    }
+
+    private static long bit(int slot) {
+        return 1L << slot;
+    }
+
+    private Long saveFacility(String name, String openingTime, String closingTime) {
+        Facility facility = TestFacilities.court(name);
+        facility.setOpeningTime(openingTime);
+        facility.setClosingTime(closingTime);
+        return facilityRepository.save(facility).getId();
+    }
+
+    // Inserted directly so bookings can cross midnight and sit outside opening hours
+    private void saveBooking(Long facilityId, String status, LocalDateTime startTime, LocalDateTime endTime) {
+        jdbcTemplate.update("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, total_cost, " +
+                        "created_at) VALUES (?, ?, ?, ?, ?, 40.00, ?)",
+                "slot-user", facilityId, Timestamp.valueOf(startTime), Timestamp.valueOf(endTime),
+                STATUS_CODES.convertToDatabaseColumn(status), Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
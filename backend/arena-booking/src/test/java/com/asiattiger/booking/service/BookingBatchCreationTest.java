@@ -0,0 +1,155 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.BookingBatchResultDTO;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchbookings",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.asiattiger.booking.service.BookingBatchCreationTest$StatementLog"
+})
+class BookingBatchCreationTest {
+
+    public static class StatementLog implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql.toLowerCase());
+            }
+            return sql;
+        }
+
+        static long count(String fragment) {
+            synchronized (STATEMENTS) {
+                return STATEMENTS.stream().filter(sql -> sql.contains(fragment)).count();
+            }
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    private Facility facility;
+    private LocalDateTime nextTuesday;
+
+    @BeforeEach
+    void createFacility() {
+        facility = new Facility();
+        facility.setName("League Court " + System.nanoTime());
+        facility.setType("futsal");
+        facility.setCapacity(10);
+        facility.setHourlyRate(new BigDecimal("60.00"));
+        facility = facilityRepository.save(facility);
+        nextTuesday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.TUESDAY)).atTime(19, 0);
+    }
+
+    @Test
+    void weeklySeriesIsValidatedWithOneRangeLoadAndInsertedInOneBatch() {
+        StatementLog.clear();
+        BookingBatchResultDTO result = bookingService.createRecurringBookings(
+                booking(nextTuesday, 2), BookingService.Recurrence.WEEKLY, 12, true);
+
+        assertThat(result.getCreated()).isEqualTo(12);
+        assertThat(result.getResults()).allSatisfy(item -> {
+            assertThat(item.isCreated()).isTrue();
+            assertThat(item.getBooking().getId()).isNotNull();
+            assertThat(item.getBooking().getTotalCost()).isEqualByComparingTo("120.00");
+        });
+        assertThat(result.getResults().get(11).getBooking().getStartTime()).isEqualTo(nextTuesday.plusWeeks(11));
+
+        // One prepared insert for the whole series, one conflict range load, one facility lookup
+        assertThat(StatementLog.count("insert into bookings")).isEqualTo(1);
+        assertThat(StatementLog.count("from bookings")).isEqualTo(1);
+        assertThat(StatementLog.count("from facilities")).isEqualTo(1);
+
+        assertThat(bookingService.isTimeSlotAvailable(facility.getId(),
+                nextTuesday.plusWeeks(5), nextTuesday.plusWeeks(5).plusHours(1))).isFalse();
+    }
+
+    @Test
+    void atomicBatchCreatesNothingWhenOneItemConflicts() {
+        bookingService.createBooking(booking(nextTuesday.plusWeeks(1), 1));
+        long before = bookingRepository.count();
+
+        BookingBatchResultDTO result = bookingService.createBookings(List.of(
+                booking(nextTuesday, 1),
+                booking(nextTuesday.plusWeeks(1).plusMinutes(30), 1),
+                booking(nextTuesday.plusWeeks(2), 1)), true);
+
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getResults().get(1).getError()).contains("conflicts");
+        assertThat(result.getResults().get(0).getError()).contains("other bookings in the batch failed");
+        assertThat(bookingRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    void partialBatchCreatesValidItemsAndReportsEachFailure() {
+        BookingBatchResultDTO result = bookingService.createBookings(List.of(
+                booking(nextTuesday, 2),
+                booking(nextTuesday.plusHours(1), 1),          // overlaps item 0 of the same batch
+                booking(LocalDateTime.now().minusDays(1), 1),  // in the past
+                booking(nextTuesday.plusDays(1), 1)), false);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(BookingBatchResultDTO.BookingBatchItemDTO::isCreated)
+                .containsExactly(true, false, false, true);
+        assertThat(result.getResults().get(1).getError()).contains("conflicts");
+        assertThat(result.getResults().get(2).getError()).contains("future");
+    }
+
+    @Test
+    void singleBookingsStillReturnGeneratedFields() {
+        BookingDTO created = bookingService.createBooking(booking(nextTuesday.plusDays(2), 1));
+
+        assertThat(created.getId()).isNotNull();
+        assertThat(created.getCreatedAt()).isNotNull();
+        assertThat(bookingRepository.findById(created.getId())).isPresent();
+    }
+
+    private BookingDTO booking(LocalDateTime startTime, int hours) {
+        return BookingDTO.builder()
+                .userId("league-captain")
+                .facilityId(facility.getId())
+                .startTime(startTime)
+                .endTime(startTime.plusHours(hours))
+                .purpose("Tuesday league")
+                .build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingBulkResultDTO;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulk transitions run chunk by chunk (three rows per chunk here), change exactly the rows they
+ * lock and keep the schedule index and dashboard counters in step with the database.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkoperations",
+        "booking.bulk.chunk-size=3",
+        "booking.bulk.max-ids=20",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.asiattiger.booking.service.BookingBulkOperationsTest$StatementLog"
+})
+class BookingBulkOperationsTest {
+
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+    private static final LocalDateTime NEXT_WEEK = LocalDate.now().plusDays(7).atTime(9, 0);
+
+    public static class StatementLog implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql.toLowerCase());
+            }
+            return sql;
+        }
+
+        static long count(String fragment) {
+            synchronized (STATEMENTS) {
+                return STATEMENTS.stream().filter(sql -> sql.contains(fragment)).count();
+            }
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+    }
+
+    @Autowired
+    private BookingBulkService bookingBulkService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private FacilityScheduleIndex scheduleIndex;
+
+    @Autowired
+    private BookingStatsAggregator statsAggregator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long facilityId;
+    private Long otherFacilityId;
+
+    @BeforeEach
+    void createFacilities() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        facilityId = TestFacilities.save(facilityRepository, "Bulk Court");
+        otherFacilityId = TestFacilities.save(facilityRepository, "Other Court");
+    }
+
+    @Test
+    void confirmsPendingBookingsByIdInChunks() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(insert(facilityId, "pending", NEXT_WEEK.plusHours(i)));
+        }
+        Long cancelled = insert(facilityId, "cancelled", NEXT_WEEK.plusDays(1));
+        ids.add(cancelled);
+        ids.add(-1L);
+        ids.add(ids.get(0));
+        rebuildViews();
+
+        StatementLog.clear();
+        BookingBulkResultDTO result = bookingBulkService.confirmBookings(ids);
+
+        assertThat(result.getRequested()).isEqualTo(9);
+        assertThat(result.getAffected()).isEqualTo(7);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(result.getSkippedIds()).containsExactly(cancelled, -1L);
+        assertThat(StatementLog.count("update bookings ")).isEqualTo(3);
+        assertThat(StatementLog.count("for update")).isEqualTo(3);
+
+        assertThat(statusOf(ids.get(6))).isEqualTo("confirmed");
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM bookings WHERE id = ?", Long.class, ids.get(6)))
+                .isEqualTo(1L);
+        assertViewsMatchDatabase();
+    }
+
+    @Test
+    void cancelsActiveBookingsOverlappingAClosure() {
+        LocalDateTime closureStart = NEXT_WEEK;
+        LocalDateTime closureEnd = NEXT_WEEK.plusHours(6);
+        List<Long> inWindow = List.of(
+                insert(facilityId, "pending", closureStart.minusMinutes(30)),
+                insert(facilityId, "confirmed", closureStart.plusHours(1)),
+                insert(facilityId, "pending", closureStart.plusHours(2)),
+                insert(facilityId, "confirmed", closureStart.plusHours(3)),
+                insert(facilityId, "pending", closureEnd.minusMinutes(30)));
+        Long alreadyCancelled = insert(facilityId, "cancelled", closureStart.plusHours(4));
+        Long afterWindow = insert(facilityId, "confirmed", closureEnd);
+        Long otherFacility = insert(otherFacilityId, "confirmed", closureStart.plusHours(1));
+        rebuildViews();
+
+        BookingBulkResultDTO result = bookingBulkService.cancelBookingsInWindow(facilityId, closureStart, closureEnd);
+
+        assertThat(result.getAffected()).isEqualTo(5);
+        assertThat(result.getChunks()).isEqualTo(2);
+        inWindow.forEach(id -> assertThat(statusOf(id)).isEqualTo("cancelled"));
+        assertThat(statusOf(alreadyCancelled)).isEqualTo("cancelled");
+        assertThat(statusOf(afterWindow)).isEqualTo("confirmed");
+        assertThat(statusOf(otherFacility)).isEqualTo("confirmed");
+
+        assertThat(scheduleIndex.hasConflict(facilityId, closureStart, closureEnd)).isFalse();
+        assertThat(scheduleIndex.hasConflict(otherFacilityId, closureStart, closureEnd)).isTrue();
+        assertViewsMatchDatabase();
+    }
+
+    @Test
+    void closesBookingsStartingWithinTheNoticePeriod() {
+        Long startsSoon = insert(facilityId, "confirmed", LocalDateTime.now().plusMinutes(20));
+        rebuildViews();
+
+        bookingBulkService.cancelBookingsInWindow(facilityId, LocalDateTime.now(), LocalDateTime.now().plusHours(4));
+
+        assertThat(statusOf(startsSoon)).isEqualTo("cancelled");
+    }
+
+    @Test
+    void completesConfirmedBookingsThatHaveEnded() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        List<Long> ended = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ended.add(insert(i % 2 == 0 ? facilityId : otherFacilityId, "confirmed", yesterday.plusHours(i)));
+        }
+        Long running = insert(facilityId, "confirmed", LocalDateTime.now().minusMinutes(30));
+        Long pendingEnded = insert(facilityId, "pending", yesterday.minusHours(3));
+        rebuildViews();
+
+        BookingBulkResultDTO result = bookingBulkService.completeEndedBookings();
+
+        // Six rows in full chunks of three, then an empty probe ends the walk
+        assertThat(result.getAffected()).isEqualTo(6);
+        assertThat(result.getChunks()).isEqualTo(2);
+        ended.forEach(id -> assertThat(statusOf(id)).isEqualTo("completed"));
+        assertThat(statusOf(running)).isEqualTo("confirmed");
+        assertThat(statusOf(pendingEnded)).isEqualTo("pending");
+        assertThat(bookingBulkService.completeEndedBookings().getAffected()).isZero();
+        assertViewsMatchDatabase();
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        assertThatThrownBy(() -> bookingBulkService.confirmBookings(List.of()))
+                .hasMessage("At least one booking ID is required");
+        assertThatThrownBy(() -> bookingBulkService.confirmBookings(new ArrayList<>(Collections.nCopies(21, 1L))))
+                .hasMessage("Cannot confirm more than 20 bookings at once");
+        assertThatThrownBy(() -> bookingBulkService.cancelBookingsInWindow(facilityId, NEXT_WEEK, NEXT_WEEK))
+                .hasMessage("End time must be after start time");
+        assertThatThrownBy(() -> bookingBulkService.cancelBookingsInWindow(-1L, NEXT_WEEK, NEXT_WEEK.plusHours(1)))
+                .hasMessage("Facility not found with ID: -1");
+    }
+
+    private void assertViewsMatchDatabase() {
+        for (String status : List.of("pending", "confirmed", "cancelled", "completed")) {
+            Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE status = ?", Long.class,
+                    STATUS_CODES.convertToDatabaseColumn(status));
+            assertThat(statsAggregator.countByStatus(status)).as("%s bookings", status).isEqualTo(stored);
+        }
+    }
+
+    // Rows are seeded with SQL, so the in-memory views are rebuilt from the database before each operation
+    private void rebuildViews() {
+        scheduleIndex.rebuild();
+        statsAggregator.rebuild();
+    }
+
+    private String statusOf(Long id) {
+        Byte code = jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", Byte.class, id);
+        return STATUS_CODES.convertToEntityAttribute(code);
+    }
+
+    private Long insert(Long facility, String status, LocalDateTime startTime) {
+        String userId = "bulk-" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, total_cost, " +
+                        "created_at) VALUES (?, ?, ?, ?, ?, 20.00, ?)",
+                userId, facility, Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)),
+                STATUS_CODES.convertToDatabaseColumn(status), Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.queryForObject("SELECT id FROM bookings WHERE user_id = ?", Long.class, userId);
+    }
+}
@@ -0,0 +1,157 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires thousands of overlapping booking requests at a handful of facilities and
+ * verifies that no two active bookings on the same facility overlap afterwards.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class)
+class BookingConcurrencyStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingConcurrencyStressTest.class);
+
+    private static final int REQUESTS = Integer.getInteger("stress.requests", 3000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 32);
+    private static final int FACILITIES = 3;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Test
+    void concurrentOverlappingRequestsNeverDoubleBook() throws Exception {
+        runStress("in-memory index", bookingService, bookingRepository, facilityRepository);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "booking.locking.pessimistic=true")
+    class WithPessimisticDatabaseLocks {
+
+        @Autowired
+        private BookingService bookingService;
+
+        @Autowired
+        private BookingRepository bookingRepository;
+
+        @Autowired
+        private FacilityRepository facilityRepository;
+
+        @Test
+        void concurrentOverlappingRequestsNeverDoubleBook() throws Exception {
+            runStress("pessimistic row lock", bookingService, bookingRepository, facilityRepository);
+        }
+    }
+
+    private static void runStress(String mode, BookingService bookingService,
+                                  BookingRepository bookingRepository,
+                                  FacilityRepository facilityRepository) throws Exception {
+        List<Facility> facilities = new ArrayList<>();
+        for (int i = 0; i < FACILITIES; i++) {
+            facilities.add(facilityRepository.save(stressFacility()));
+        }
+
+        // Hourly starts over three days with 1-3 hour durations: most requests overlap something
+        Random random = new Random(42);
+        LocalDateTime base = LocalDate.now().plusDays(2).atTime(8, 0);
+        List<BookingDTO> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            LocalDateTime start = base.plusDays(random.nextInt(3)).plusHours(random.nextInt(12));
+            requests.add(BookingDTO.builder()
+                    .userId("stress-user-" + i)
+                    .facilityId(facilities.get(random.nextInt(FACILITIES)).getId())
+                    .startTime(start)
+                    .endTime(start.plusHours(1 + random.nextInt(3)))
+                    .build());
+        }
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long startNanos = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (BookingDTO request : requests) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        bookingService.createBooking(request);
+                        created.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        log.info("[{}] {} requests on {} threads in {} s ({} req/s): {} created, {} rejected",
+                mode, REQUESTS, THREADS, String.format("%.2f", seconds),
+                String.format("%.0f", REQUESTS / seconds), created.get(), rejected.get());
+
+        int persisted = 0;
+        for (Facility facility : facilities) {
+            List<Booking> bookings = bookingRepository.findByFacilityOrderByStartTimeAsc(facility);
+            bookings.sort(Comparator.comparing(Booking::getStartTime));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertThat(bookings.get(i).getStartTime())
+                        .as("booking %d overlaps booking %d", bookings.get(i).getId(), bookings.get(i - 1).getId())
+                        .isAfterOrEqualTo(bookings.get(i - 1).getEndTime());
+            }
+            persisted += bookings.size();
+        }
+
+        assertThat(persisted).isEqualTo(created.get());
+        assertThat(created.get()).isPositive();
+        assertThat(created.get() + rejected.get()).isEqualTo(REQUESTS);
+    }
+
+    private static Facility stressFacility() {
+        Facility facility = new Facility();
+        facility.setName("Stress Court " + UUID.randomUUID().toString().substring(0, 8));
+        facility.setType("futsal");
+        facility.setCapacity(10);
+        facility.setHourlyRate(new BigDecimal("50.00"));
+        facility.setIsActive(true);
+        facility.setIsUnderMaintenance(false);
+        return facility;
+    }
+}
@@ -0,0 +1,125 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The incrementally adjusted dashboard counters must equal a recount from the database after
+ * every kind of change: creation, update, confirmation, cancellation and bulk transitions.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statsaggregator",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class BookingStatsAggregatorTest {
+
+    private static final List<String> STATUSES = List.of("pending", "confirmed", "cancelled", "completed");
+    // Three weeks apart, so most runs spread the bookings over two months; within the advance limit
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(3);
+    private static final LocalDate SECOND_DAY = FIRST_DAY.plusDays(22);
+
+    @Autowired
+    private BookingStatsAggregator statsAggregator;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingBulkService bulkService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Test
+    void incrementalCountersMatchARecountAfterEveryChange() {
+        Long court = saveFacility("Stats Court", "30.00");
+        Long hall = saveFacility("Stats Hall", "45.50");
+
+        BookingDTO early = bookingService.createBooking(booking(court, FIRST_DAY.atTime(8, 0), 2));
+        BookingDTO late = bookingService.createBooking(booking(court, FIRST_DAY.atTime(19, 0), 1));
+        BookingDTO other = bookingService.createBooking(booking(hall, SECOND_DAY.atTime(8, 0), 3));
+        BookingDTO moved = bookingService.createBooking(booking(hall, FIRST_DAY.atTime(12, 0), 1));
+        assertMatchesRecount();
+
+        // Moving a booking shifts its day, hour and possibly month
+        bookingService.updateBooking(moved.getId(), BookingDTO.builder()
+                .startTime(SECOND_DAY.atTime(15, 0)).endTime(SECOND_DAY.atTime(16, 0)).build());
+        assertMatchesRecount();
+
+        bookingService.confirmBooking(early.getId());
+        bookingService.confirmBooking(other.getId());
+        assertMatchesRecount();
+
+        bookingService.cancelBooking(early.getId());
+        bookingService.cancelBooking(late.getId());
+        assertMatchesRecount();
+
+        bulkService.confirmBookings(List.of(moved.getId(), late.getId()));
+        assertMatchesRecount();
+
+        bulkService.cancelBookingsInWindow(hall, SECOND_DAY.atStartOfDay(), SECOND_DAY.plusDays(1).atStartOfDay());
+        assertMatchesRecount();
+        assertThat(statsAggregator.countByStatus("cancelled")).isGreaterThanOrEqualTo(4);
+    }
+
+    // Reads every counter, rebuilds them from grouped queries and reads them again
+    private void assertMatchesRecount() {
+        Map<String, Object> incremental = readings();
+        statsAggregator.rebuild();
+        assertThat(incremental).isEqualTo(readings());
+    }
+
+    private Map<String, Object> readings() {
+        Map<String, Object> readings = new LinkedHashMap<>();
+        STATUSES.forEach(status -> readings.put("status " + status, statsAggregator.countByStatus(status)));
+        for (LocalDate day : List.of(FIRST_DAY, SECOND_DAY)) {
+            YearMonth month = YearMonth.from(day);
+            readings.put("bookings " + month, statsAggregator.bookingsIn(month));
+            readings.put("revenue " + month, statsAggregator.confirmedRevenueIn(month));
+        }
+        // Ties come back in map order, so the rankings are compared as sorted maps
+        readings.put("hours", sorted(statsAggregator.popularHours(24)));
+        readings.put("facilities", sorted(statsAggregator.busiestFacilities(Integer.MAX_VALUE)));
+        return readings;
+    }
+
+    private static <K> Map<K, Long> sorted(List<Map.Entry<K, Long>> ranking) {
+        return ranking.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, Long::sum, TreeMap::new));
+    }
+
+    private static BookingDTO booking(Long facilityId, LocalDateTime startTime, int hours) {
+        return BookingDTO.builder()
+                .userId("stats-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(hours))
+                .build();
+    }
+
+    private Long saveFacility(String name, String hourlyRate) {
+        Facility facility = TestFacilities.court(name);
+        facility.setHourlyRate(new BigDecimal(hourlyRate));
+        facility.setOpeningTime("06:00");
+        facility.setClosingTime("23:00");
+        return facilityRepository.save(facility).getId();
+    }
+}
@@ -0,0 +1,60 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bookings written by another node never pass through this node's services; the periodic
+ * rebuild brings the dashboard counters in line with them.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statsrebuild",
+        "booking.stats.rebuild-interval=PT0.2S"
+})
+class BookingStatsRebuildTest {
+
+    @Autowired
+    private BookingStatsAggregator statsAggregator;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void otherNodesBookingsAreCountedAfterTheNextRebuild() throws InterruptedException {
+        Facility facility = new Facility();
+        facility.setName("Rebuild Court");
+        facility.setType("futsal");
+        facility.setCapacity(10);
+        facility.setHourlyRate(new BigDecimal("20.00"));
+        Long facilityId = facilityRepository.save(facility).getId();
+        long confirmedBefore = statsAggregator.countByStatus("confirmed");
+
+        LocalDateTime startTime = LocalDateTime.now().plusDays(2).withNano(0);
+        jdbcTemplate.update("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, total_cost, " +
+                        "created_at) VALUES ('other-node-user', ?, ?, ?, ?, 20.00, ?)",
+                facilityId, Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)),
+                new BookingStatusConverter().convertToDatabaseColumn("confirmed"), Timestamp.valueOf(LocalDateTime.now()));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (statsAggregator.countByStatus("confirmed") == confirmedBefore && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(statsAggregator.countByStatus("confirmed")).isEqualTo(confirmedBefore + 1);
+    }
+}
@@ -0,0 +1,252 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.Booking;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Status transitions are decided by a conditional UPDATE: concurrent requests for the same
+ * transition have exactly one winner, and stale entity updates fail on the version column.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:transitioncontention",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.asiattiger.booking.service.BookingTransitionContentionTest$StatementLog"
+})
+class BookingTransitionContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 25;
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    public static class StatementLog implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql.toLowerCase());
+            }
+            return sql;
+        }
+
+        static List<String> snapshot() {
+            synchronized (STATEMENTS) {
+                return new ArrayList<>(STATEMENTS);
+            }
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Facility facility;
+
+    @BeforeEach
+    void createFacility() {
+        Facility court = new Facility();
+        court.setName("Contention Court");
+        court.setType("badminton");
+        court.setCapacity(4);
+        court.setHourlyRate(new BigDecimal("20.00"));
+        court.setOpeningTime("00:00");
+        court.setClosingTime("23:59");
+        facility = facilityRepository.save(court);
+    }
+
+    @Test
+    void concurrentConfirmationsHaveExactlyOneWinner() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = saveBooking("pending", LocalDate.now().plusDays(3).atTime(10, 0)).getId();
+
+            assertThat(race(id, bookingId -> bookingService.confirmBooking(bookingId))).isEqualTo(1);
+            Booking confirmed = bookingRepository.findById(id).orElseThrow();
+            assertThat(confirmed.getStatus()).isEqualTo("confirmed");
+            assertThat(confirmed.getVersion()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    void concurrentCancellationsHaveExactlyOneWinner() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            String status = round % 2 == 0 ? "pending" : "confirmed";
+            Long id = saveBooking(status, LocalDate.now().plusDays(3).atTime(10, 0)).getId();
+
+            assertThat(race(id, bookingId -> bookingService.cancelBooking(bookingId))).isEqualTo(1);
+            assertThat(bookingRepository.findById(id).orElseThrow().getStatus()).isEqualTo("cancelled");
+        }
+    }
+
+    @Test
+    void confirmationIsOneUpdateWithoutAPriorRead() {
+        Long id = saveBooking("pending", LocalDate.now().plusDays(3).atTime(10, 0)).getId();
+
+        StatementLog.clear();
+        bookingService.confirmBooking(id);
+        List<String> statements = StatementLog.snapshot();
+
+        assertThat(statements).isNotEmpty();
+        assertThat(statements.get(0)).startsWith("update bookings ").contains("status=?");
+        assertThat(statements.stream().filter(sql -> sql.startsWith("update bookings "))).hasSize(1);
+    }
+
+    @Test
+    void transitionResponsesComeFromOneJoinedSelect() {
+        Long pending = saveBooking("pending", LocalDate.now().plusDays(3).atTime(10, 0)).getId();
+        Long confirmed = saveBooking("confirmed", LocalDate.now().plusDays(3).atTime(12, 0)).getId();
+
+        StatementLog.clear();
+        BookingDTO confirmation = bookingService.confirmBooking(pending);
+        BookingDTO cancellation = bookingService.cancelBooking(confirmed);
+        List<String> statements = StatementLog.snapshot();
+
+        assertThat(confirmation.getStatus()).isEqualTo("confirmed");
+        assertThat(confirmation.getVersion()).isEqualTo(1L);
+        assertThat(confirmation.getFacilityName()).isEqualTo("Contention Court");
+        assertThat(cancellation.getStatus()).isEqualTo("cancelled");
+        assertThat(cancellation.getVersion()).isEqualTo(1L);
+        assertThat(cancellation.getCanBeCancelled()).isFalse();
+        // One update and one read per transition; the read joins the facility instead of loading entities
+        assertThat(statements.stream().filter(sql -> sql.startsWith("update bookings "))).hasSize(2);
+        assertThat(statements.stream().filter(sql -> sql.startsWith("select") && sql.contains(" from bookings ")))
+                .hasSize(2)
+                .allSatisfy(sql -> assertThat(sql).contains(" join facilities "));
+        assertThat(statements.stream().filter(sql -> sql.startsWith("select") && sql.contains(" from facilities ")))
+                .isEmpty();
+    }
+
+    @Test
+    void updateCarryingAnOlderVersionIsRejected() {
+        Long id = saveBooking("pending", LocalDate.now().plusDays(3).atTime(10, 0)).getId();
+        BookingDTO edit = BookingDTO.builder().purpose("first edit").version(0L).build();
+        BookingDTO updated = bookingService.updateBooking(id, edit);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+
+        BookingDTO staleEdit = BookingDTO.builder().purpose("second edit from the old copy").version(0L).build();
+        assertThatThrownBy(() -> bookingService.updateBooking(id, staleEdit))
+                .hasMessage("Booking was changed by another request. Please reload and try again.");
+        assertThat(bookingRepository.findById(id).orElseThrow().getPurpose()).isEqualTo("first edit");
+    }
+
+    @Test
+    void rejectedTransitionsKeepTheirMessages() {
+        Long confirmed = saveBooking("confirmed", LocalDate.now().plusDays(3).atTime(10, 0)).getId();
+        Long soon = saveBooking("pending", LocalDateTime.now().plusMinutes(30)).getId();
+        Long running = saveBooking("confirmed", LocalDateTime.now().minusMinutes(30)).getId();
+
+        assertThatThrownBy(() -> bookingService.confirmBooking(confirmed))
+                .hasMessage("Can only confirm pending bookings. Current status: confirmed");
+        assertThatThrownBy(() -> bookingService.cancelBooking(soon))
+                .hasMessageContaining("too close to start time");
+        assertThatThrownBy(() -> bookingService.completeBooking(running))
+                .hasMessage("Cannot complete booking before its end time");
+        assertThatThrownBy(() -> bookingService.completeBooking(soon))
+                .hasMessage("Can only complete confirmed bookings. Current status: pending");
+        assertThatThrownBy(() -> bookingService.confirmBooking(-1L))
+                .hasMessage("Booking not found with ID: -1");
+    }
+
+    @Test
+    void completionSucceedsOnceTheBookingHasEnded() {
+        Long id = saveBooking("confirmed", LocalDateTime.now().minusHours(3)).getId();
+
+        assertThat(bookingService.completeBooking(id).getStatus()).isEqualTo("completed");
+        assertThat(bookingRepository.findById(id).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void staleEntityUpdateFailsAfterATransition() {
+        Booking stale = saveBooking("pending", LocalDate.now().plusDays(3).atTime(10, 0));
+        bookingService.confirmBooking(stale.getId());
+
+        stale.setPurpose("edited from an old copy");
+        assertThatThrownBy(() -> bookingRepository.save(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(bookingRepository.findById(stale.getId()).orElseThrow().getStatus()).isEqualTo("confirmed");
+    }
+
+    // Runs the transition on all threads at once and returns how many succeeded
+    private static int race(Long id, LongFunction<Object> transition) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                attempts.add(executor.submit((Callable<Boolean>) () -> {
+                    start.await();
+                    try {
+                        transition.apply(id);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> attempt : attempts) {
+                winners += attempt.get() ? 1 : 0;
+            }
+            return winners;
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    // Inserted directly: the entity refuses start times in the past, which completion tests need
+    private Booking saveBooking(String status, LocalDateTime startTime) {
+        String userId = "contention-" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, total_cost, " +
+                        "created_at) VALUES (?, ?, ?, ?, ?, 20.00, ?)",
+                userId, facility.getId(), Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(1)),
+                STATUS_CODES.convertToDatabaseColumn(status), Timestamp.valueOf(LocalDateTime.now()));
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM bookings WHERE user_id = ?", Long.class, userId);
+        return bookingRepository.findById(id).orElseThrow();
+    }
+}
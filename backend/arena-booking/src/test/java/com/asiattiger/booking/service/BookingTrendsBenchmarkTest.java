@@ -0,0 +1,141 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.BookingRepository;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the per-month query loop that getBookingTrends used to run with the single
+ * GROUP BY query it runs now, on a seeded table of one million bookings.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=BookingTrendsBenchmarkTest [-Dbench.bookings=N]
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:trendbench;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class BookingTrendsBenchmarkTest {
+
+    // Seeds go through JDBC, so statuses are written as their stored codes
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    private static final Logger log = LoggerFactory.getLogger(BookingTrendsBenchmarkTest.class);
+
+    private static final int BOOKINGS = Integer.getInteger("bench.bookings", 1_000_000);
+    private static final int MONTHS = 24;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void groupedTrendQueryBeatsPerMonthLoop() {
+        seedBookings();
+
+        List<Map<String, Object>> legacy = measure("per-month loop (2 queries x " + MONTHS + ")", this::legacyTrends);
+        List<Map<String, Object>> grouped = measure("single GROUP BY", () -> dashboardService.getBookingTrends(MONTHS));
+
+        assertThat(grouped).hasSameSizeAs(legacy);
+        for (int i = 0; i < legacy.size(); i++) {
+            assertThat(grouped.get(i).get("bookingCount")).isEqualTo(legacy.get(i).get("bookingCount"));
+            assertThat((BigDecimal) grouped.get(i).get("revenue"))
+                    .isEqualByComparingTo((BigDecimal) legacy.get(i).get("revenue"));
+        }
+    }
+
+    // The previous implementation: one count and one revenue query per calendar month
+    private List<Map<String, Object>> legacyTrends() {
+        List<Map<String, Object>> trends = new ArrayList<>();
+        LocalDate firstMonth = LocalDate.now().minusMonths(MONTHS - 1L).with(TemporalAdjusters.firstDayOfMonth());
+        for (int i = 0; i < MONTHS; i++) {
+            LocalDateTime startDate = firstMonth.plusMonths(i).atStartOfDay();
+            LocalDateTime endDate = firstMonth.plusMonths(i).with(TemporalAdjusters.lastDayOfMonth()).atTime(23, 59, 59);
+            BigDecimal revenue = bookingRepository.getTotalRevenueInDateRange(startDate, endDate);
+            trends.add(Map.of(
+                    "bookingCount", bookingRepository.countBookingsInDateRange(startDate, endDate),
+                    "revenue", revenue != null ? revenue : BigDecimal.ZERO));
+        }
+        return trends;
+    }
+
+    private <T> T measure(String label, Supplier<T> action) {
+        T result = action.get(); // warm-up
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            result = action.get();
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        log.info("{} over {} bookings: best {} ms, mean {} ms", label, BOOKINGS,
+                best / 1_000_000, total / ROUNDS / 1_000_000);
+        return result;
+    }
+
+    private void seedBookings() {
+        Facility facility = new Facility();
+        facility.setName("Benchmark Court");
+        facility.setType("futsal");
+        facility.setCapacity(10);
+        facility.setHourlyRate(new BigDecimal("50.00"));
+        Long facilityId = facilityRepository.save(facility).getId();
+
+        String[] statuses = {"pending", "confirmed", "cancelled", "completed"};
+        Random random = new Random(7);
+        LocalDateTime origin = LocalDate.now().minusMonths(MONTHS).atTime(6, 0);
+        int days = MONTHS * 31;
+        int batchSize = 5_000;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long start = System.nanoTime();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime startTime = origin.plusDays(random.nextInt(days)).plusHours(random.nextInt(15));
+            int hours = 1 + random.nextInt(3);
+            batch.add(new Object[]{
+                    "bench-user-" + random.nextInt(10_000), facilityId,
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(hours)),
+                    STATUS_CODES.convertToDatabaseColumn(statuses[random.nextInt(statuses.length)]), new BigDecimal(50 * hours), Timestamp.valueOf(origin)
+            });
+            if (batch.size() == batchSize || i == BOOKINGS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, " +
+                        "total_cost, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        log.info("Seeded {} bookings in {} ms", BOOKINGS, (System.nanoTime() - start) / 1_000_000);
+    }
+}
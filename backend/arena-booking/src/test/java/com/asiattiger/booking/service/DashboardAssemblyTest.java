@@ -0,0 +1,180 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.DashboardStatsDTO;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the dashboard runs its database sections concurrently and that a slow
+ * section is dropped at its deadline instead of holding up the whole response.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:dashboardassembly",
+        "booking.dashboard.timeouts.averageHourlyRate=PT0.8S",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.asiattiger.booking.service.DashboardAssemblyTest$SlowStatements"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DashboardAssemblyTest {
+
+    // Seeds go through JDBC, so statuses are written as their stored codes
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+
+    private static volatile String slowFragment;
+    private static volatile long delayMillis;
+    private static volatile CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Delays statements containing {@link #slowFragment} by up to {@link #delayMillis},
+     * or until the test releases them.
+     */
+    public static class SlowStatements implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            String fragment = slowFragment;
+            if (fragment != null && sql.toLowerCase().contains(fragment)) {
+                try {
+                    release.await(delayMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private BookingStatsAggregator statsAggregator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void seed() {
+        List<Long> facilityIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Facility court = new Facility();
+            court.setName("Dashboard Court " + i);
+            court.setType(i % 2 == 0 ? "futsal" : "badminton");
+            court.setCapacity(10);
+            court.setHourlyRate(new BigDecimal("40.00"));
+            court.setEquipment(List.of("Nets"));
+            facilityIds.add(facilityRepository.save(court).getId());
+        }
+
+        LocalDateTime startTime = LocalDateTime.now().withNano(0).minusDays(3);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            rows.add(new Object[]{
+                    "user-" + i, facilityIds.get(i % 3), Timestamp.valueOf(startTime.plusHours(i * 2L)),
+                    Timestamp.valueOf(startTime.plusHours(i * 2L + 1)), STATUS_CODES.convertToDatabaseColumn("confirmed"),
+                    new BigDecimal("40.00"), Timestamp.valueOf(startTime)
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, " +
+                "total_cost, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        statsAggregator.rebuild();
+
+        // Compile the queries up front so the first test is not timed against a cold start
+        dashboardService.getDashboardStatistics();
+    }
+
+    @AfterEach
+    void releaseSlowStatements() {
+        slowFragment = null;
+        delayMillis = 0;
+        release.countDown();
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    void completeStatisticsAreNotFlaggedAndTimedPerSection() {
+        DashboardStatsDTO stats = dashboardService.getDashboardStatistics();
+
+        assertThat(stats.isPartial()).isFalse();
+        assertThat(stats.getUnavailableSections()).isEmpty();
+        assertThat(stats.getTotalFacilities()).isEqualTo(4L);
+        assertThat(stats.getAverageHourlyRate()).isEqualByComparingTo("40.00");
+        assertThat(stats.getConfirmedBookings()).isEqualTo(12L);
+        assertThat(stats.getFacilityUsageStats()).hasSize(3);
+        assertThat(stats.getBookingTrends()).isNotEmpty();
+
+        for (String section : List.of("totalFacilities", "averageHourlyRate", "facilityUsageStats", "bookingCounts")) {
+            Timer timer = meterRegistry.find("booking.dashboard.section")
+                    .tags("section", section, "outcome", "success").timer();
+            assertThat(timer).as("timer for %s", section).isNotNull();
+            assertThat(timer.count()).isPositive();
+        }
+    }
+
+    @Test
+    void databaseSectionsRunConcurrently() {
+        slowFragment = "";
+        delayMillis = 300;
+
+        long started = System.nanoTime();
+        DashboardStatsDTO stats = dashboardService.getDashboardStatistics();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Four delayed sections back to back would take at least 1.2 s
+        assertThat(stats.isPartial()).isFalse();
+        assertThat(elapsedMillis).isLessThan(1_000);
+    }
+
+    @Test
+    void slowSectionIsLeftOutAtItsDeadline() {
+        slowFragment = "avg(";
+        delayMillis = 10_000;
+        double timeoutsBefore = degradedCount("averageHourlyRate", "timeout");
+
+        long started = System.nanoTime();
+        DashboardStatsDTO stats = dashboardService.getDashboardStatistics();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(3_000);
+        assertThat(stats.isPartial()).isTrue();
+        assertThat(stats.getUnavailableSections()).containsExactly("averageHourlyRate");
+        assertThat(stats.getAverageHourlyRate()).isNull();
+        assertThat(stats.getTotalFacilities()).isEqualTo(4L);
+        assertThat(stats.getFacilityUsageStats()).hasSize(3);
+        assertThat(degradedCount("averageHourlyRate", "timeout")).isEqualTo(timeoutsBefore + 1);
+    }
+
+    private double degradedCount(String section, String reason) {
+        Counter counter = meterRegistry.find("booking.dashboard.section.degraded")
+                .tags("section", section, "reason", reason).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.FacilityDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Catalog reads are served from the cache until a facility write commits. Every write
+ * drops the entries it affects and moves the ETag on, so a client revalidating with the
+ * old one gets the new catalog while an unchanged catalog answers 304.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:facilitycatalog",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureMockMvc
+class FacilityCatalogCacheTest {
+
+    @Autowired
+    private FacilityService facilityService;
+
+    @Autowired
+    private FacilityCatalogCache catalogCache;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void unchangedCatalogKeepsItsETagAndAnswersNotModified() throws Exception {
+        String etag = etagOf("/api/facilities");
+        assertThat(etagOf("/api/facilities")).isEqualTo(etag);
+        assertThat(etagOf("/api/facilities/type/futsal")).isEqualTo(etag);
+
+        mockMvc.perform(get("/api/facilities").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/facilities/type/futsal").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/facilities").header(HttpHeaders.IF_NONE_MATCH, "W/\"facilities-other-0\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        facilityService.getAllActiveFacilities();
+        long hits = catalogCache.getStats().hitCount();
+
+        facilityService.getAllActiveFacilities();
+        facilityService.getAllActiveFacilities();
+
+        assertThat(catalogCache.getStats().hitCount()).isEqualTo(hits + 2);
+    }
+
+    @Test
+    void creatingAFacilityInvalidatesTheListsAndTheETag() throws Exception {
+        String etag = etagOf("/api/facilities");
+        int before = facilityService.getAllActiveFacilities().size();
+        assertThat(facilityService.getFacilitiesByType("futsal")).noneMatch(f -> f.getName().equals("Cache Pitch"));
+
+        facilityService.createFacility(facility("Cache Pitch", "futsal"));
+
+        assertThat(facilityService.getAllActiveFacilities()).hasSize(before + 1);
+        assertThat(facilityService.getFacilitiesByType("futsal")).anyMatch(f -> f.getName().equals("Cache Pitch"));
+        mockMvc.perform(get("/api/facilities").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertThat(etagOf("/api/facilities")).isNotEqualTo(etag);
+    }
+
+    @Test
+    void updatingAFacilityInvalidatesItsEntryAndBothTypeLists() throws Exception {
+        FacilityDTO created = facilityService.createFacility(facility("Cache Court", "badminton"));
+        Long id = created.getId();
+        // Warm every entry the update has to drop
+        assertThat(facilityService.getFacilityById(id).getName()).isEqualTo("Cache Court");
+        assertThat(facilityService.getFacilitiesByType("badminton")).anyMatch(f -> f.getId().equals(id));
+        assertThat(facilityService.getFacilitiesByType("futsal")).noneMatch(f -> f.getId().equals(id));
+        String etag = etagOf("/api/facilities/" + id);
+
+        facilityService.updateFacility(id, facility("Cache Futsal Court", "futsal"));
+
+        assertThat(facilityService.getFacilityById(id).getName()).isEqualTo("Cache Futsal Court");
+        assertThat(facilityService.getFacilitiesByType("badminton")).noneMatch(f -> f.getId().equals(id));
+        assertThat(facilityService.getFacilitiesByType("futsal")).anyMatch(f -> f.getId().equals(id));
+        mockMvc.perform(get("/api/facilities/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deletingAFacilityDropsItFromTheActiveLists() {
+        FacilityDTO created = facilityService.createFacility(facility("Cache Hall", "badminton"));
+        Long id = created.getId();
+        assertThat(facilityService.getAllActiveFacilities()).anyMatch(f -> f.getId().equals(id));
+        assertThat(facilityService.getAvailableFacilities()).anyMatch(f -> f.getId().equals(id));
+
+        facilityService.deleteFacility(id);
+
+        assertThat(facilityService.getAllActiveFacilities()).noneMatch(f -> f.getId().equals(id));
+        assertThat(facilityService.getAvailableFacilities()).noneMatch(f -> f.getId().equals(id));
+        assertThat(facilityService.getFacilitiesByType("badminton")).noneMatch(f -> f.getId().equals(id));
+        assertThat(facilityService.getFacilityById(id).getIsActive()).isFalse();
+    }
+
+    private String etagOf(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"facilities-");
+        return etag;
+    }
+
+    private static FacilityDTO facility(String name, String type) {
+        return FacilityDTO.builder()
+                .name(name)
+                .type(type)
+                .description("Cache test facility")
+                .hourlyRate(new BigDecimal("25.00"))
+                .capacity(8)
+                .location("Block C")
+                .isActive(true)
+                .openingTime("07:00")
+                .closingTime("22:00")
+                .isUnderMaintenance(false)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingBatchResultDTO;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two batches over facilities whose stripes are in a different order than their IDs: with four
+ * stripes, facilities p, p + 1 and p + 4 lie on stripes s, s + 1 and s again. Locking in ID
+ * order, one batch would take s then s + 1 and the other s + 1 then s. Pessimistic mode puts a
+ * row lock between the stripe locks, which widens that window.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:lockordering",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "booking.locking.stripes=4",
+        "booking.locking.timeout-ms=2000",
+        "booking.locking.pessimistic=true"
+})
+class FacilityLockOrderingTest {
+
+    private static final int ROUNDS = 40;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Test
+    void batchesWhoseFacilitiesCollideAcrossStripesDoNotDeadlock() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(TestFacilities.save(facilityRepository, "Stripe Court " + i));
+        }
+        Long first = ids.get(0);
+        Long shared = ids.get(1);
+        Long wrapped = ids.get(4);
+        assertThat(wrapped - first).as("consecutive identity IDs").isEqualTo(4);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CyclicBarrier start = new CyclicBarrier(2);
+            LocalDateTime firstSlot = LocalDate.now().plusDays(1).atTime(6, 0);
+            List<Future<List<BookingBatchResultDTO>>> runs = List.of(
+                    executor.submit(() -> runBatches(start, firstSlot, first, shared)),
+                    executor.submit(() -> runBatches(start, firstSlot, shared, wrapped)));
+
+            List<BookingBatchResultDTO> results = new ArrayList<>();
+            for (Future<List<BookingBatchResultDTO>> run : runs) {
+                results.addAll(run.get(2, TimeUnit.MINUTES));
+            }
+
+            // Failed items lost their slot to the other batch; none timed out waiting for a lock
+            assertThat(results).flatExtracting(BookingBatchResultDTO::getResults)
+                    .filteredOn(item -> !item.isCreated())
+                    .extracting(BookingBatchResultDTO.BookingBatchItemDTO::getError)
+                    .allSatisfy(error -> assertThat(error).contains("conflicts"));
+            // Each round one of the two bookings of the shared facility wins its slot
+            assertThat(results.stream().mapToInt(BookingBatchResultDTO::getCreated).sum()).isEqualTo(3 * ROUNDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<BookingBatchResultDTO> runBatches(CyclicBarrier start, LocalDateTime firstSlot,
+                                                   Long lowerId, Long higherId) throws Exception {
+        List<BookingBatchResultDTO> results = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDateTime slot = firstSlot.plusDays(round / 16).plusHours(round % 16);
+            start.await(30, TimeUnit.SECONDS);
+            results.add(bookingService.createBookings(List.of(booking(lowerId, slot), booking(higherId, slot)), false));
+        }
+        return results;
+    }
+
+    private static BookingDTO booking(Long facilityId, LocalDateTime startTime) {
+        return BookingDTO.builder()
+                .userId("stripe-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build();
+    }
+}
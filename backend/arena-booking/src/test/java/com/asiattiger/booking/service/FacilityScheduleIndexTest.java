@@ -0,0 +1,158 @@
+package com.asiattiger.booking.service;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.entity.BookingStatusConverter;
+import com.asiattiger.booking.entity.Facility;
+import com.asiattiger.booking.repository.FacilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Overlap checks of the in-memory schedule: intervals are half-open, so bookings that only
+ * touch do not conflict; bookings leaving the active statuses drop out; and a rebuild
+ * replaces whatever was tracked with the active rows in the database.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:scheduleindex",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+class FacilityScheduleIndexTest {
+
+    private static final BookingStatusConverter STATUS_CODES = new BookingStatusConverter();
+    private static final LocalDateTime TEN = LocalDate.now().plusDays(4).atTime(10, 0);
+
+    @Autowired
+    private FacilityScheduleIndex scheduleIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long facilityId;
+
+    @BeforeEach
+    void createFacility() {
+        Facility facility = new Facility();
+        facility.setName("Index Court " + System.nanoTime());
+        facility.setType("badminton");
+        facility.setCapacity(4);
+        facility.setHourlyRate(new BigDecimal("20.00"));
+        facility.setOpeningTime("00:00");
+        facility.setClosingTime("23:59");
+        facilityId = facilityRepository.save(facility).getId();
+    }
+
+    @Test
+    void touchingIntervalsDoNotConflictButAnyOverlapDoes() {
+        scheduleIndex.track(active(1, TEN, TEN.plusHours(1)));
+
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.minusHours(1), TEN)).isFalse();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(1), TEN.plusHours(2))).isFalse();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.minusMinutes(1), TEN.plusMinutes(1))).isTrue();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusMinutes(59), TEN.plusHours(2))).isTrue();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusMinutes(15), TEN.plusMinutes(45))).isTrue();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.minusHours(2), TEN.plusHours(3))).isTrue();
+        assertThat(scheduleIndex.hasConflict(facilityId + 1000, TEN, TEN.plusHours(1))).isFalse();
+    }
+
+    @Test
+    void adjacentBookingsLeaveNoGapAndTheirNeighboursFree() {
+        scheduleIndex.track(active(1, TEN, TEN.plusHours(1)));
+        scheduleIndex.track(active(2, TEN.plusHours(1), TEN.plusHours(2)));
+        scheduleIndex.track(active(3, TEN.plusHours(3), TEN.plusHours(4)));
+
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusMinutes(30), TEN.plusMinutes(90))).isTrue();
+        // The free hour between the second and third booking touches both
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(2), TEN.plusHours(3))).isFalse();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(2), TEN.plusHours(3).plusMinutes(1))).isTrue();
+    }
+
+    @Test
+    void excludedBookingIsSkippedEvenBehindALongerOne() {
+        // The long booking starts first, so the walk back has to look past the short one to find it
+        scheduleIndex.track(active(1, TEN.minusHours(2), TEN.plusHours(6)));
+        scheduleIndex.track(active(2, TEN.plusHours(1), TEN.plusHours(2)));
+
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(1), TEN.plusHours(2), 2L)).isTrue();
+        scheduleIndex.track(active(1, TEN.minusHours(2), TEN.plusHours(6)).withStatus("cancelled"));
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(1), TEN.plusHours(2), 2L)).isFalse();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(1), TEN.plusHours(2))).isTrue();
+    }
+
+    @Test
+    void movedBookingsAreReinsertedAtTheirNewTime() {
+        scheduleIndex.track(active(1, TEN, TEN.plusHours(1)));
+        scheduleIndex.track(active(1, TEN.plusHours(5), TEN.plusHours(6)));
+
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN, TEN.plusHours(1))).isFalse();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(5), TEN.plusHours(6))).isTrue();
+    }
+
+    @Test
+    void cancelledAndConfirmedBookingsFollowTheirCommittedStatus() {
+        BookingDTO cancelled = bookingService.createBooking(booking(TEN));
+        BookingDTO confirmed = bookingService.createBooking(booking(TEN.plusHours(2)));
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN, TEN.plusHours(1))).isTrue();
+
+        bookingService.cancelBooking(cancelled.getId());
+        bookingService.confirmBooking(confirmed.getId());
+
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN, TEN.plusHours(1))).isFalse();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(2), TEN.plusHours(3))).isTrue();
+    }
+
+    @Test
+    void rebuildReplacesTrackedIntervalsWithTheActiveRows() {
+        // Tracked but never stored, as after a lost after-commit update
+        scheduleIndex.track(active(-5, TEN.plusHours(8), TEN.plusHours(9)));
+        // Stored behind the index's back
+        insertBooking("confirmed", TEN, TEN.plusHours(1));
+        insertBooking("pending", TEN.plusHours(2), TEN.plusHours(3));
+        insertBooking("cancelled", TEN.plusHours(4), TEN.plusHours(5));
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN, TEN.plusHours(1))).isFalse();
+
+        scheduleIndex.rebuild();
+
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN, TEN.plusHours(1))).isTrue();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(2), TEN.plusHours(3))).isTrue();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(4), TEN.plusHours(5))).isFalse();
+        assertThat(scheduleIndex.hasConflict(facilityId, TEN.plusHours(8), TEN.plusHours(9))).isFalse();
+    }
+
+    private BookingSnapshot active(long id, LocalDateTime startTime, LocalDateTime endTime) {
+        return new BookingSnapshot(id, facilityId, "confirmed", startTime, endTime, new BigDecimal("20.00"));
+    }
+
+    private BookingDTO booking(LocalDateTime startTime) {
+        return BookingDTO.builder()
+                .userId("index-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build();
+    }
+
+    private void insertBooking(String status, LocalDateTime startTime, LocalDateTime endTime) {
+        jdbcTemplate.update("INSERT INTO bookings (user_id, facility_id, start_time, end_time, status, total_cost, " +
+                        "created_at) VALUES (?, ?, ?, ?, ?, 20.00, ?)",
+                "index-user", facilityId, Timestamp.valueOf(startTime), Timestamp.valueOf(endTime),
+                STATUS_CODES.convertToDatabaseColumn(status), Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
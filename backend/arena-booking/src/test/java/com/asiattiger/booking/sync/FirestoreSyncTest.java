@@ -0,0 +1,350 @@
+package com.asiattiger.booking.sync;
+
+import com.asiattiger.booking.AsianTigerBookingApplication;
+import com.asiattiger.booking.TestFacilities;
+import com.asiattiger.booking.dto.BookingDTO;
+import com.asiattiger.booking.outbox.OutboxRelay;
+import com.asiattiger.booking.repository.FacilityRepository;
+import com.asiattiger.booking.service.BookingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sync against the in-memory Firestore: bookings go out through the outbox relay, facilities and
+ * web app changes are synced by calling the jobs directly (their schedules are an hour apart).
+ * Web app documents name facilities by their Firestore document id.
+ */
+@SpringBootTest(classes = AsianTigerBookingApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:firestoresync",
+        "booking.sync.enabled=true",
+        "booking.sync.gateway=memory",
+        "booking.sync.interval=PT1H",
+        "booking.outbox.sinks=firestore",
+        "booking.outbox.relay.poll-interval=PT1H"
+})
+class FirestoreSyncTest {
+
+    private static final LocalDateTime NEXT_WEEK = LocalDate.now().plusDays(7).atTime(9, 0);
+
+    @Autowired
+    private FirestoreSync sync;
+
+    @Autowired
+    private InMemoryFirestoreGateway firestore;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private SyncStore store;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void resetSync() {
+        relay.relayNow();
+        firestore.clear();
+        jdbcTemplate.update("DELETE FROM sync_checkpoints");
+        jdbcTemplate.update("DELETE FROM sync_unresolved");
+    }
+
+    @Test
+    void facilitiesAreExportedInBatchesOfAtMost500() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            rows.add(new Object[]{"Batch Court " + i, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO facilities (name, type, capacity, hourly_rate, is_active, " +
+                "is_under_maintenance, created_at) VALUES (?, 'badminton', 4, 15.00, TRUE, FALSE, ?)", rows);
+        int facilities = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM facilities", Integer.class);
+        double exportedBefore = exported(FirestoreSync.FACILITIES);
+
+        assertThat(sync.exportFacilities()).isEqualTo(facilities);
+
+        assertThat(firestore.size(FirestoreSync.FACILITIES)).isEqualTo(facilities);
+        assertThat(firestore.getCommitCount()).isEqualTo((facilities + 499) / 500);
+        assertThat(exported(FirestoreSync.FACILITIES) - exportedBefore).isEqualTo(facilities);
+        assertThat(meterRegistry.get("booking.sync.commits").timer().count()).isPositive();
+
+        // The checkpoint leaves only facilities changed since
+        assertThat(sync.exportFacilities()).isZero();
+        Long changed = jdbcTemplate.queryForObject("SELECT MIN(id) FROM facilities", Long.class);
+        jdbcTemplate.update("UPDATE facilities SET name = 'Renamed Court', updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(1)), changed);
+        assertThat(sync.exportFacilities()).isOne();
+        assertThat(firestore.get(FirestoreSync.FACILITIES, changed.toString())).containsEntry("name", "Renamed Court");
+    }
+
+    @Test
+    void bookingChangesAreMirroredThroughTheOutbox() {
+        Long facilityId = TestFacilities.save(facilityRepository, "Mirror Court");
+        BookingDTO booking = bookingService.createBooking(booking(facilityId, NEXT_WEEK));
+        bookingService.confirmBooking(booking.getId());
+
+        relay.relayNow();
+
+        Map<String, Object> document = firestore.get(FirestoreSync.BOOKINGS, booking.getId().toString());
+        assertThat(document)
+                .containsEntry("backendId", booking.getId())
+                .containsEntry("facilityId", facilityId.toString())
+                .containsEntry("facilityName", "Mirror Court")
+                .containsEntry("status", "confirmed")
+                .containsEntry("startTime", instant(NEXT_WEEK))
+                .containsEntry("totalCost", 20.0);
+        assertThat(document.get("syncedAt")).isEqualTo(document.get("updatedAt"));
+
+        // Our own writes come back as echoes and change nothing
+        double echoesBefore = imported("echo");
+        assertThat(sync.importBookings()).isOne();
+        assertThat(imported("echo") - echoesBefore).isOne();
+    }
+
+    @Test
+    void webAppBookingsAreImportedOnceAndLinked() {
+        Long facilityId = TestFacilities.save(facilityRepository, "Web Court");
+        sync.exportFacilities();
+        Instant createdAt = Instant.now();
+        Map<String, Object> document = new HashMap<>();
+        document.put("userId", "web-user");
+        document.put("userName", "Web User");
+        document.put("facilityId", facilityId.toString());
+        document.put("startTime", instant(NEXT_WEEK.plusHours(2)));
+        document.put("endTime", instant(NEXT_WEEK.plusHours(3)));
+        document.put("status", "pending");
+        document.put("purpose", "Training");
+        document.put("createdAt", createdAt);
+        document.put("updatedAt", createdAt);
+        firestore.put(FirestoreSync.BOOKINGS, "web-booking-1", document);
+
+        assertThat(sync.importBookings()).isOne();
+
+        Long bookingId = store.localId(FirestoreSync.BOOKINGS, "web-booking-1").orElseThrow();
+        assertThat(bookingService.getBookingsByUserId("web-user")).singleElement()
+                .satisfies(booking -> {
+                    assertThat(booking.getId()).isEqualTo(bookingId);
+                    assertThat(booking.getPurpose()).isEqualTo("Training");
+                    assertThat(booking.getStartTime()).isEqualTo(NEXT_WEEK.plusHours(2));
+                });
+
+        // The export lands on the web app's document, which then reads back as an echo
+        relay.relayNow();
+        assertThat(firestore.size(FirestoreSync.BOOKINGS)).isOne();
+        assertThat(firestore.get(FirestoreSync.BOOKINGS, "web-booking-1")).containsEntry("backendId", bookingId);
+        sync.importBookings();
+        assertThat(bookingService.getBookingsByUserId("web-user")).hasSize(1);
+
+        // A cancellation in the web app reaches the booking
+        Map<String, Object> cancelled = firestore.get(FirestoreSync.BOOKINGS, "web-booking-1");
+        cancelled.put("status", "cancelled");
+        cancelled.put("updatedAt", Instant.now().plusSeconds(1));
+        firestore.put(FirestoreSync.BOOKINGS, "web-booking-1", cancelled);
+        double appliedBefore = imported("applied");
+
+        sync.importBookings();
+
+        assertThat(bookingService.getBookingById(bookingId).getStatus()).isEqualTo("cancelled");
+        assertThat(imported("applied") - appliedBefore).isOne();
+    }
+
+    @Test
+    void concurrentChangesAreResolvedByTheNewerUpdate() throws InterruptedException {
+        Long facilityId = TestFacilities.save(facilityRepository, "Conflict Court");
+        BookingDTO localWins = bookingService.createBooking(booking(facilityId, NEXT_WEEK));
+        BookingDTO remoteWins = bookingService.createBooking(booking(facilityId, NEXT_WEEK.plusHours(2)));
+        relay.relayNow();
+        Map<String, Object> staleEdit = firestore.get(FirestoreSync.BOOKINGS, localWins.getId().toString());
+        Instant staleAt = ((Instant) staleEdit.get("syncedAt")).plusMillis(1);
+
+        // Both bookings are confirmed here before the web app's cancellations are read
+        Thread.sleep(20);
+        bookingService.confirmBooking(localWins.getId());
+        bookingService.confirmBooking(remoteWins.getId());
+        staleEdit.put("status", "cancelled");
+        staleEdit.put("updatedAt", staleAt);
+        firestore.put(FirestoreSync.BOOKINGS, localWins.getId().toString(), staleEdit);
+        Map<String, Object> newerEdit = firestore.get(FirestoreSync.BOOKINGS, remoteWins.getId().toString());
+        newerEdit.put("status", "cancelled");
+        newerEdit.put("updatedAt", Instant.now().plusSeconds(1));
+        firestore.put(FirestoreSync.BOOKINGS, remoteWins.getId().toString(), newerEdit);
+        double localBefore = conflicts("local");
+        double remoteBefore = conflicts("remote");
+
+        sync.importBookings();
+
+        assertThat(bookingService.getBookingById(localWins.getId()).getStatus()).isEqualTo("confirmed");
+        assertThat(firestore.get(FirestoreSync.BOOKINGS, localWins.getId().toString()))
+                .as("local state written back").containsEntry("status", "confirmed");
+        assertThat(bookingService.getBookingById(remoteWins.getId()).getStatus()).isEqualTo("cancelled");
+        assertThat(conflicts("local") - localBefore).isOne();
+        assertThat(conflicts("remote") - remoteBefore).isOne();
+    }
+
+    @Test
+    void changesTheBookingRulesRefuseAreRejectedAndReverted() {
+        Long facilityId = TestFacilities.save(facilityRepository, "Rules Court");
+        BookingDTO booking = bookingService.createBooking(booking(facilityId, NEXT_WEEK));
+        relay.relayNow();
+        Map<String, Object> document = firestore.get(FirestoreSync.BOOKINGS, booking.getId().toString());
+        document.put("status", "completed");
+        document.put("updatedAt", Instant.now().plusSeconds(1));
+        firestore.put(FirestoreSync.BOOKINGS, booking.getId().toString(), document);
+        double rejectedBefore = imported("rejected");
+
+        sync.importBookings();
+
+        assertThat(bookingService.getBookingById(booking.getId()).getStatus()).isEqualTo("pending");
+        assertThat(firestore.get(FirestoreSync.BOOKINGS, booking.getId().toString())).containsEntry("status", "pending");
+        assertThat(imported("rejected") - rejectedBefore).isOne();
+    }
+
+    @Test
+    void facilitiesTakeOverTheWebAppsDocumentsAndBookingsFindThem() {
+        Map<String, Object> seeded = new HashMap<>();
+        seeded.put("name", "Seeded Court");
+        seeded.put("type", "futsal");
+        firestore.put(FirestoreSync.FACILITIES, "seeded-facility-doc", seeded);
+        Long facilityId = TestFacilities.save(facilityRepository, "Seeded Court");
+
+        sync.exportFacilities();
+
+        // Exported onto the seeded document rather than a second one under the row id
+        assertThat(firestore.get(FirestoreSync.FACILITIES, facilityId.toString())).isNull();
+        assertThat(firestore.get(FirestoreSync.FACILITIES, "seeded-facility-doc"))
+                .containsEntry("backendId", facilityId)
+                .containsEntry("capacity", 10);
+        assertThat(store.localId(FirestoreSync.FACILITIES, "seeded-facility-doc")).contains(facilityId);
+
+        firestore.put(FirestoreSync.BOOKINGS, "seeded-booking", webBooking("seeded-facility-doc", NEXT_WEEK));
+        sync.importBookings();
+
+        Long bookingId = store.localId(FirestoreSync.BOOKINGS, "seeded-booking").orElseThrow();
+        assertThat(bookingService.getBookingById(bookingId).getFacilityId()).isEqualTo(facilityId);
+        relay.relayNow();
+        assertThat(firestore.get(FirestoreSync.BOOKINGS, "seeded-booking"))
+                .containsEntry("facilityId", "seeded-facility-doc");
+    }
+
+    @Test
+    void bookingsForUnknownFacilitiesAreRetriedUntilTheFacilityIsKnown() {
+        Long facilityId = TestFacilities.save(facilityRepository, "Late Court");
+        firestore.put(FirestoreSync.BOOKINGS, "early-booking", webBooking("late-facility-doc", NEXT_WEEK.plusHours(4)));
+        double unresolvedBefore = imported("unresolved");
+
+        assertThat(sync.importBookings()).isOne();
+
+        assertThat(imported("unresolved") - unresolvedBefore).isOne();
+        assertThat(store.localId(FirestoreSync.BOOKINGS, "early-booking")).isEmpty();
+        assertThat(store.unresolved(FirestoreSync.BOOKINGS, 10)).containsExactly("early-booking");
+        // Still unknown: it stays recorded, although the checkpoint has moved past it
+        sync.importBookings();
+        assertThat(store.unresolved(FirestoreSync.BOOKINGS, 10)).containsExactly("early-booking");
+
+        // The web app's facility document appears with the backend id on it
+        Map<String, Object> facility = new HashMap<>();
+        facility.put("name", "Late Court");
+        facility.put("backendId", facilityId);
+        firestore.put(FirestoreSync.FACILITIES, "late-facility-doc", facility);
+
+        sync.importBookings();
+
+        Long bookingId = store.localId(FirestoreSync.BOOKINGS, "early-booking").orElseThrow();
+        assertThat(bookingService.getBookingById(bookingId).getFacilityId()).isEqualTo(facilityId);
+        assertThat(store.unresolved(FirestoreSync.BOOKINGS, 10)).isEmpty();
+    }
+
+    @Test
+    void webAppBookingsTheRulesRefuseAreWrittenBackCancelledWithAReason() {
+        Long facilityId = TestFacilities.save(facilityRepository, "Busy Court");
+        sync.exportFacilities();
+        bookingService.createBooking(booking(facilityId, NEXT_WEEK));
+        relay.relayNow();
+        firestore.put(FirestoreSync.BOOKINGS, "clashing-booking", webBooking(facilityId.toString(), NEXT_WEEK));
+        firestore.put(FirestoreSync.BOOKINGS, "past-booking",
+                webBooking(facilityId.toString(), LocalDate.now().minusDays(1).atTime(9, 0)));
+        double rejectedBefore = imported("rejected");
+
+        sync.importBookings();
+
+        assertThat(imported("rejected") - rejectedBefore).isEqualTo(2);
+        assertThat(firestore.get(FirestoreSync.BOOKINGS, "clashing-booking"))
+                .containsEntry("status", "cancelled")
+                .hasEntrySatisfying("rejectionReason", reason -> assertThat((String) reason).contains("conflicts"));
+        assertThat(firestore.get(FirestoreSync.BOOKINGS, "past-booking"))
+                .containsEntry("status", "cancelled")
+                .hasEntrySatisfying("rejectionReason", reason -> assertThat((String) reason).contains("future"));
+        assertThat(store.localId(FirestoreSync.BOOKINGS, "clashing-booking")).isEmpty();
+
+        // The written-back documents read as echoes
+        double echoesBefore = imported("echo");
+        assertThat(sync.importBookings()).isEqualTo(2);
+        assertThat(imported("echo") - echoesBefore).isEqualTo(2);
+    }
+
+    private static Map<String, Object> webBooking(String facilityDocumentId, LocalDateTime startTime) {
+        Instant createdAt = Instant.now();
+        Map<String, Object> document = new HashMap<>();
+        document.put("userId", "web-user-" + facilityDocumentId);
+        document.put("facilityId", facilityDocumentId);
+        document.put("startTime", instant(startTime));
+        document.put("endTime", instant(startTime.plusHours(1)));
+        document.put("status", "pending");
+        document.put("createdAt", createdAt);
+        document.put("updatedAt", createdAt);
+        return document;
+    }
+
+    private double exported(String collection) {
+        return meterRegistry.find("booking.sync.exported").tag("collection", collection).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private double imported(String outcome) {
+        return meterRegistry.find("booking.sync.imported").tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private double conflicts(String winner) {
+        return meterRegistry.find("booking.sync.conflicts").tag("winner", winner).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static Instant instant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static BookingDTO booking(Long facilityId, LocalDateTime startTime) {
+        return BookingDTO.builder()
+                .userId("sync-user")
+                .facilityId(facilityId)
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .build();
+    }
+}
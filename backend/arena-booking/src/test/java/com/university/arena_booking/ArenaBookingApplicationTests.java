@@ -1,9 +1,10 @@
 package com.university.arena_booking;
 
+import com.asiattiger.booking.AsianTigerBookingApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(classes = AsianTigerBookingApplication.class)
 class ArenaBookingApplicationTests {
 
 	@Test